@@ -0,0 +1,8 @@
+package com.group_three.food_ordering.analytics.enums;
+
+// Acumulado al que va cada movimiento del journal de métricas
+public enum RollupKind {
+    ORDER,
+    SESSION,
+    PAYMENT
+}
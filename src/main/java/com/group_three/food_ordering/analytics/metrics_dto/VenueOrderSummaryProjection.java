@@ -0,0 +1,15 @@
+package com.group_three.food_ordering.analytics.metrics_dto;
+
+import java.math.BigDecimal;
+
+public interface VenueOrderSummaryProjection {
+
+    Long getTotalOrders();
+
+    BigDecimal getCompletedRevenue();
+
+    BigDecimal getGrossRevenue();
+
+    Long getCancelledOrders();
+
+}
@@ -0,0 +1,48 @@
+package com.group_three.food_ordering.analytics.metrics_models;
+
+import com.group_three.food_ordering.analytics.enums.RollupKind;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Movimiento de un acumulado horario que todavía no se volcó.
+ * Se inserta en la transacción de la orden, sesión o pago, así que no bloquea la fila del acumulado
+ * (compartida por todo el local en esa hora) ni se pierde si el nodo se cae antes del volcado.
+ */
+@Entity
+@Table(name = "metrics_rollup_journal")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class MetricsJournalEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10, updatable = false)
+    private RollupKind kind;
+
+    @Column(name = "food_venue_id", nullable = false, updatable = false)
+    private Long foodVenueId;
+
+    // Fecha de la orden, inicio de la sesión o fecha del pago; la hora del acumulado la calcula la base
+    @Column(name = "event_time", nullable = false, updatable = false)
+    private Instant eventTime;
+
+    @Column(length = 20, updatable = false)
+    private String status;
+
+    @Column(name = "count_delta", nullable = false, updatable = false)
+    private Long countDelta;
+
+    // Facturación, minutos de sesión o monto cobrado según el tipo
+    @Column(name = "amount_delta", nullable = false, precision = 19, scale = 2, updatable = false)
+    private BigDecimal amountDelta;
+
+}
@@ -0,0 +1,44 @@
+package com.group_three.food_ordering.analytics.metrics_models;
+
+import com.group_three.food_ordering.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Cantidad de órdenes y facturación por local, hora y estado.
+ * Se mantiene al crear órdenes y al cambiarles el estado o el total; los tableros leen de acá.
+ */
+@Entity
+@Table(name = "order_rollup_hourly", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_order_rollup_bucket", columnNames = {"food_venue_id", "bucket_start", "status"})
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OrderHourlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "food_venue_id", nullable = false)
+    private Long foodVenueId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(name = "orders_count", nullable = false)
+    private Long ordersCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+}
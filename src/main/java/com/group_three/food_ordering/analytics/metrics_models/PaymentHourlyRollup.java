@@ -0,0 +1,38 @@
+package com.group_three.food_ordering.analytics.metrics_models;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Pagos completados e importe acumulado por local y hora.
+ */
+@Entity
+@Table(name = "payment_rollup_hourly", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_payment_rollup_bucket", columnNames = {"food_venue_id", "bucket_start"})
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class PaymentHourlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "food_venue_id", nullable = false)
+    private Long foodVenueId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(name = "payments_count", nullable = false)
+    private Long paymentsCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+}
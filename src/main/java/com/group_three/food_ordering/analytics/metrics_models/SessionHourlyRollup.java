@@ -0,0 +1,37 @@
+package com.group_three.food_ordering.analytics.metrics_models;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Sesiones cerradas y minutos acumulados por local y hora de inicio de la sesión.
+ */
+@Entity
+@Table(name = "session_rollup_hourly", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_session_rollup_bucket", columnNames = {"food_venue_id", "bucket_start"})
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SessionHourlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "food_venue_id", nullable = false)
+    private Long foodVenueId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(name = "closed_sessions", nullable = false)
+    private Long closedSessions;
+
+    @Column(name = "duration_minutes", nullable = false)
+    private Long durationMinutes;
+
+}
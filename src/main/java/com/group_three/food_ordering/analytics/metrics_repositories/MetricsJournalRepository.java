@@ -0,0 +1,88 @@
+package com.group_three.food_ordering.analytics.metrics_repositories;
+
+import com.group_three.food_ordering.analytics.metrics_models.MetricsJournalEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Volcado del journal a los acumulados horarios. La hora se trunca en la base con la misma expresión
+ * que usan los rebuild (horas enteras desde 1970, sin pasar por la zona horaria de la sesión), así los
+ * movimientos en vivo y la reconstrucción caen siempre en el mismo bucket.
+ */
+@Repository
+public interface MetricsJournalRepository extends JpaRepository<MetricsJournalEntry, Long> {
+
+    // FOR UPDATE: si otro nodo está volcando las mismas filas, espera y después ya no las encuentra
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM MetricsJournalEntry j ORDER BY j.id")
+    List<MetricsJournalEntry> lockPending(Pageable pageable);
+
+    // Todo el journal con FOR UPDATE: el bloqueo llega hasta el final del índice, así que nadie anota
+    // movimientos nuevos hasta que el rebuild commitea
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM MetricsJournalEntry j ORDER BY j.id")
+    List<MetricsJournalEntry> lockAll();
+
+    @Modifying
+    @Query(value = """
+  INSERT INTO order_rollup_hourly (food_venue_id, bucket_start, status, orders_count, revenue)
+  SELECT j.food_venue_id,
+         TIMESTAMPADD(HOUR, TIMESTAMPDIFF(HOUR, TIMESTAMP '1970-01-01 00:00:00', j.event_time), TIMESTAMP '1970-01-01 00:00:00'),
+         j.status,
+         SUM(j.count_delta),
+         SUM(j.amount_delta)
+  FROM metrics_rollup_journal j
+  WHERE j.id IN (:ids) AND j.kind = 'ORDER'
+  GROUP BY j.food_venue_id, TIMESTAMPADD(HOUR, TIMESTAMPDIFF(HOUR, TIMESTAMP '1970-01-01 00:00:00', j.event_time), TIMESTAMP '1970-01-01 00:00:00'), j.status
+  ON DUPLICATE KEY UPDATE orders_count = orders_count + VALUES(orders_count),
+                          revenue      = revenue + VALUES(revenue)
+""", nativeQuery = true)
+    int foldOrders(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = """
+  INSERT INTO session_rollup_hourly (food_venue_id, bucket_start, closed_sessions, duration_minutes)
+  SELECT j.food_venue_id,
+         TIMESTAMPADD(HOUR, TIMESTAMPDIFF(HOUR, TIMESTAMP '1970-01-01 00:00:00', j.event_time), TIMESTAMP '1970-01-01 00:00:00'),
+         SUM(j.count_delta),
+         SUM(j.amount_delta)
+  FROM metrics_rollup_journal j
+  WHERE j.id IN (:ids) AND j.kind = 'SESSION'
+  GROUP BY j.food_venue_id, TIMESTAMPADD(HOUR, TIMESTAMPDIFF(HOUR, TIMESTAMP '1970-01-01 00:00:00', j.event_time), TIMESTAMP '1970-01-01 00:00:00')
+  ON DUPLICATE KEY UPDATE closed_sessions  = closed_sessions + VALUES(closed_sessions),
+                          duration_minutes = duration_minutes + VALUES(duration_minutes)
+""", nativeQuery = true)
+    int foldSessions(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = """
+  INSERT INTO payment_rollup_hourly (food_venue_id, bucket_start, payments_count, amount)
+  SELECT j.food_venue_id,
+         TIMESTAMPADD(HOUR, TIMESTAMPDIFF(HOUR, TIMESTAMP '1970-01-01 00:00:00', j.event_time), TIMESTAMP '1970-01-01 00:00:00'),
+         SUM(j.count_delta),
+         SUM(j.amount_delta)
+  FROM metrics_rollup_journal j
+  WHERE j.id IN (:ids) AND j.kind = 'PAYMENT'
+  GROUP BY j.food_venue_id, TIMESTAMPADD(HOUR, TIMESTAMPDIFF(HOUR, TIMESTAMP '1970-01-01 00:00:00', j.event_time), TIMESTAMP '1970-01-01 00:00:00')
+  ON DUPLICATE KEY UPDATE payments_count = payments_count + VALUES(payments_count),
+                          amount         = amount + VALUES(amount)
+""", nativeQuery = true)
+    int foldPayments(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM MetricsJournalEntry j WHERE j.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM MetricsJournalEntry j")
+    void clear();
+}
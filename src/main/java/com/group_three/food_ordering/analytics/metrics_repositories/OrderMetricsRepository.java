@@ -2,8 +2,10 @@ package com.group_three.food_ordering.analytics.metrics_repositories;
 
 import com.group_three.food_ordering.analytics.metrics_dto.OrdersByVenueDto;
 import com.group_three.food_ordering.analytics.metrics_dto.RevenueByVenueDto;
+import com.group_three.food_ordering.analytics.metrics_dto.VenueOrderSummaryProjection;
 import com.group_three.food_ordering.models.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,6 +15,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Las lecturas salen de {@code order_rollup_hourly}, no de {@code orders}: el costo depende
+ * de la cantidad de horas del rango y no del historial del local.
+ * Los días, semanas y meses se agrupan con la misma aritmética de TIMESTAMPADD que arma los buckets
+ * horarios, así las consultas corren igual en MySQL y en H2.
+ */
 @Repository
 public interface OrderMetricsRepository extends JpaRepository<Order, Long> {
 
@@ -20,13 +28,11 @@ public interface OrderMetricsRepository extends JpaRepository<Order, Long> {
         SELECT new com.group_three.food_ordering.analytics.metrics_dto.OrdersByVenueDto(
             v.publicId,
             v.name,
-            COUNT(o.id)
+            SUM(r.ordersCount)
         )
-        FROM Order o
-        JOIN o.tableSession ts
-        JOIN ts.diningTable dt
-        JOIN dt.foodVenue v
-        WHERE o.orderDate BETWEEN :from AND :to
+        FROM OrderHourlyRollup r
+        JOIN FoodVenue v ON v.id = r.foodVenueId
+        WHERE r.bucketStart BETWEEN :from AND :to
         GROUP BY v.publicId, v.name
     """)
     List<OrdersByVenueDto> getOrdersGroupedByVenue(Instant from, Instant to);
@@ -35,126 +41,130 @@ public interface OrderMetricsRepository extends JpaRepository<Order, Long> {
         SELECT new com.group_three.food_ordering.analytics.metrics_dto.RevenueByVenueDto(
             v.publicId,
             v.name,
-            SUM(o.totalPrice),
-            AVG(o.totalPrice)
+            SUM(r.revenue),
+            CAST(SUM(r.revenue) AS double) / SUM(r.ordersCount)
         )
-        FROM Order o
-        JOIN o.tableSession ts
-        JOIN ts.diningTable dt
-        JOIN dt.foodVenue v
-        WHERE o.status = 'COMPLETED'
-          AND o.orderDate BETWEEN :from AND :to
+        FROM OrderHourlyRollup r
+        JOIN FoodVenue v ON v.id = r.foodVenueId
+        WHERE r.status = 'COMPLETED'
+          AND r.bucketStart BETWEEN :from AND :to
         GROUP BY v.publicId, v.name
+        HAVING SUM(r.ordersCount) > 0
     """)
     List<RevenueByVenueDto> getRevenueGroupedByVenue(Instant from, Instant to);
 
-    @Query("""
-        SELECT SUM(o.totalPrice)
-        FROM Order o
-        JOIN o.tableSession ts
-        JOIN ts.diningTable dt
-        JOIN dt.foodVenue v
-        WHERE v.publicId = :venueId
-          AND o.status = 'COMPLETED'
-          AND o.orderDate BETWEEN :from AND :to
-    """)
-    Double sumTotalRevenueByVenue(UUID venueId, Instant from, Instant to);
-
     // Cantidad de pedidos entre fechas
     @Query("""
-        SELECT COUNT(o)
-        FROM Order o
-        WHERE o.orderDate BETWEEN :from AND :to
+        SELECT COALESCE(SUM(r.ordersCount), 0)
+        FROM OrderHourlyRollup r
+        WHERE r.bucketStart BETWEEN :from AND :to
     """)
     long countOrdersBetween(Instant from, Instant to);
 
     // Cantidad de venues distintos con pedidos entre fechas
     @Query("""
-        SELECT COUNT(DISTINCT dt.foodVenue.id)
-        FROM Order o
-        JOIN o.tableSession ts
-        JOIN ts.diningTable dt
-        WHERE o.orderDate BETWEEN :from AND :to
+        SELECT COUNT(DISTINCT r.foodVenueId)
+        FROM OrderHourlyRollup r
+        WHERE r.bucketStart BETWEEN :from AND :to
+          AND r.ordersCount > 0
     """)
     long countDistinctVenuesBetween(Instant from, Instant to);
 
-
-    // Porcentaje de pedidos cancelados en un local entre fechas
+    // Pedidos, facturación y cancelaciones de un local en una sola lectura
     @Query("""
-    SELECT
-        CASE WHEN COUNT(o) = 0 THEN 0
-             ELSE (COUNT(CASE WHEN o.status = 'CANCELLED' THEN 1 END) * 100.0 / COUNT(o))
-        END
-    FROM Order o
-    JOIN o.tableSession ts
-    JOIN ts.diningTable dt
-    WHERE dt.foodVenue.publicId = :venueId
-      AND o.orderDate BETWEEN :from AND :to
-""")
-    double calculateCancellationRate(UUID venueId, Instant from, Instant to);
+        SELECT COALESCE(SUM(r.ordersCount), 0) AS totalOrders,
+               COALESCE(SUM(CASE WHEN r.status = 'COMPLETED' THEN r.revenue ELSE 0 END), 0) AS completedRevenue,
+               COALESCE(SUM(r.revenue), 0) AS grossRevenue,
+               COALESCE(SUM(CASE WHEN r.status = 'CANCELLED' THEN r.ordersCount ELSE 0 END), 0) AS cancelledOrders
+        FROM OrderHourlyRollup r
+        JOIN FoodVenue v ON v.id = r.foodVenueId
+        WHERE v.publicId = :venueId
+          AND r.bucketStart BETWEEN :from AND :to
+    """)
+    VenueOrderSummaryProjection summarizeByVenue(UUID venueId, Instant from, Instant to);
 
 
+    // Cada fila trae el inicio del período; la etiqueta la arma el servicio
     @Query(value = """
-  SELECT DATE_FORMAT(o.order_date, '%Y-%m-%d') AS bucket,
-         COUNT(*)                             AS ordersCount,
-         COALESCE(SUM(o.total_price), 0)      AS revenue
-  FROM orders o
-  WHERE o.order_date BETWEEN :from AND :to
-    AND o.status IN (:statuses)
-    AND o.food_venue_id = :venueId
-  GROUP BY DATE_FORMAT(o.order_date, '%Y-%m-%d')
-  ORDER BY DATE_FORMAT(o.order_date, '%Y-%m-%d')
+  SELECT TIMESTAMPADD(DAY, TIMESTAMPDIFF(DAY, TIMESTAMP '1970-01-01 00:00:00', r.bucket_start), TIMESTAMP '1970-01-01 00:00:00') AS bucket,
+         COALESCE(SUM(r.orders_count), 0) AS ordersCount,
+         COALESCE(SUM(r.revenue), 0)      AS revenue
+  FROM order_rollup_hourly r
+  JOIN food_venues v ON v.id = r.food_venue_id
+  WHERE r.bucket_start BETWEEN :from AND :to
+    AND r.status IN (:statuses)
+    AND (:venueId IS NULL OR v.public_id = :venueId)
+  GROUP BY TIMESTAMPADD(DAY, TIMESTAMPDIFF(DAY, TIMESTAMP '1970-01-01 00:00:00', r.bucket_start), TIMESTAMP '1970-01-01 00:00:00')
+  ORDER BY TIMESTAMPADD(DAY, TIMESTAMPDIFF(DAY, TIMESTAMP '1970-01-01 00:00:00', r.bucket_start), TIMESTAMP '1970-01-01 00:00:00')
 """, nativeQuery = true)
-    List<Map<String,Object>> salesByDay(
-            @Param("from") Instant from,
-            @Param("to") Instant to,
-            @Param("statuses") List<String> statuses,
-            @Param("venueId") UUID venueId
-    );
+    List<Map<String,Object>> salesByDay(@Param("from") Instant from,
+                                        @Param("to") Instant to,
+                                        @Param("statuses") List<String> statuses,
+                                        @Param("venueId") String venueId);
 
 
+    // Semanas ISO: se cuentan desde el lunes 1970-01-05
     @Query(value = """
-  SELECT CONCAT(YEAR(o.order_date), '-W', LPAD(WEEK(o.order_date, 3),2,'0')) AS bucket,
-         COUNT(*)                             AS ordersCount,
-         COALESCE(SUM(o.total_price),0)       AS revenue
-  FROM orders o
-  WHERE o.order_date BETWEEN :from AND :to
-    AND o.status IN (:statuses)
-    AND o.food_venue_id = :venueId
-  GROUP BY CONCAT(YEAR(o.order_date), '-W', LPAD(WEEK(o.order_date, 3),2,'0'))
-  ORDER BY CONCAT(YEAR(o.order_date), '-W', LPAD(WEEK(o.order_date, 3),2,'0'))
+  SELECT TIMESTAMPADD(DAY, FLOOR(TIMESTAMPDIFF(DAY, TIMESTAMP '1970-01-05 00:00:00', r.bucket_start) / 7) * 7, TIMESTAMP '1970-01-05 00:00:00') AS bucket,
+         COALESCE(SUM(r.orders_count), 0) AS ordersCount,
+         COALESCE(SUM(r.revenue), 0)      AS revenue
+  FROM order_rollup_hourly r
+  JOIN food_venues v ON v.id = r.food_venue_id
+  WHERE r.bucket_start BETWEEN :from AND :to
+    AND r.status IN (:statuses)
+    AND (:venueId IS NULL OR v.public_id = :venueId)
+  GROUP BY TIMESTAMPADD(DAY, FLOOR(TIMESTAMPDIFF(DAY, TIMESTAMP '1970-01-05 00:00:00', r.bucket_start) / 7) * 7, TIMESTAMP '1970-01-05 00:00:00')
+  ORDER BY TIMESTAMPADD(DAY, FLOOR(TIMESTAMPDIFF(DAY, TIMESTAMP '1970-01-05 00:00:00', r.bucket_start) / 7) * 7, TIMESTAMP '1970-01-05 00:00:00')
 """, nativeQuery = true)
     List<Map<String,Object>> salesByWeek(@Param("from") Instant from,
                                          @Param("to") Instant to,
                                          @Param("statuses") List<String> statuses,
-                                         @Param("venueId") UUID venueId);
+                                         @Param("venueId") String venueId);
 
 
+    // Meses enteros desde 1970
     @Query(value = """
-  SELECT DATE_FORMAT(o.order_date, '%Y-%m') AS bucket,
-         COUNT(*)                            AS ordersCount,
-         COALESCE(SUM(o.total_price),0)      AS revenue
-  FROM orders o
-  WHERE o.order_date BETWEEN :from AND :to
-    AND o.status IN (:statuses)
-    AND o.food_venue_id = :venueId
-  GROUP BY DATE_FORMAT(o.order_date, '%Y-%m')
-  ORDER BY DATE_FORMAT(o.order_date, '%Y-%m')
+  SELECT TIMESTAMPADD(MONTH, TIMESTAMPDIFF(MONTH, TIMESTAMP '1970-01-01 00:00:00', r.bucket_start), TIMESTAMP '1970-01-01 00:00:00') AS bucket,
+         COALESCE(SUM(r.orders_count), 0) AS ordersCount,
+         COALESCE(SUM(r.revenue), 0)      AS revenue
+  FROM order_rollup_hourly r
+  JOIN food_venues v ON v.id = r.food_venue_id
+  WHERE r.bucket_start BETWEEN :from AND :to
+    AND r.status IN (:statuses)
+    AND (:venueId IS NULL OR v.public_id = :venueId)
+  GROUP BY TIMESTAMPADD(MONTH, TIMESTAMPDIFF(MONTH, TIMESTAMP '1970-01-01 00:00:00', r.bucket_start), TIMESTAMP '1970-01-01 00:00:00')
+  ORDER BY TIMESTAMPADD(MONTH, TIMESTAMPDIFF(MONTH, TIMESTAMP '1970-01-01 00:00:00', r.bucket_start), TIMESTAMP '1970-01-01 00:00:00')
 """, nativeQuery = true)
     List<Map<String,Object>> salesByMonth(@Param("from") Instant from,
                                           @Param("to") Instant to,
                                           @Param("statuses") List<String> statuses,
-                                          @Param("venueId") UUID venueId);
+                                          @Param("venueId") String venueId);
 
 
+    @Query("SELECT v.name FROM DiningTable dt JOIN dt.foodVenue v WHERE v.publicId = :venueId")
+    List<String> findVenueNameById(UUID venueId);
 
-    // Métodos adicionales para venue metrics
-    @Query("SELECT COUNT(o) FROM Order o JOIN o.tableSession ts JOIN ts.diningTable dt JOIN dt.foodVenue v WHERE v.publicId = :venueId AND o.orderDate BETWEEN :from AND :to")
-    long countByVenueAndDateBetween(UUID venueId, Instant from, Instant to);
+    // ---- MANTENIMIENTO DEL ACUMULADO ----
 
-    @Query("SELECT AVG(o.totalPrice) FROM Order o JOIN o.tableSession ts JOIN ts.diningTable dt JOIN dt.foodVenue v WHERE v.publicId = :venueId AND o.orderDate BETWEEN :from AND :to")
-    double calculateAverageTicketByVenue(UUID venueId, Instant from, Instant to);
+    @Modifying
+    @Query(value = "DELETE FROM order_rollup_hourly", nativeQuery = true)
+    void clearRollup();
 
-    @Query("SELECT v.name FROM DiningTable dt JOIN dt.foodVenue v WHERE v.publicId = :venueId")
-    List<String> findVenueNameById(UUID venueId);
+    // Reconstruye el acumulado completo desde orders
+    @Modifying
+    @Query(value = """
+  INSERT INTO order_rollup_hourly (food_venue_id, bucket_start, status, orders_count, revenue)
+  SELECT o.food_venue_id,
+         TIMESTAMPADD(HOUR, TIMESTAMPDIFF(HOUR, TIMESTAMP '1970-01-01 00:00:00', o.order_date), TIMESTAMP '1970-01-01 00:00:00'),
+         o.status,
+         COUNT(*),
+         COALESCE(SUM(o.total_price), 0)
+  FROM orders o
+  WHERE o.food_venue_id IS NOT NULL
+    AND o.order_date IS NOT NULL
+    AND o.status IS NOT NULL
+    AND o.deleted = false
+  GROUP BY o.food_venue_id, TIMESTAMPADD(HOUR, TIMESTAMPDIFF(HOUR, TIMESTAMP '1970-01-01 00:00:00', o.order_date), TIMESTAMP '1970-01-01 00:00:00'), o.status
+""", nativeQuery = true)
+    int rebuildRollup();
 }
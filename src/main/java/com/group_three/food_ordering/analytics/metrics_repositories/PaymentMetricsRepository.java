@@ -2,7 +2,9 @@ package com.group_three.food_ordering.analytics.metrics_repositories;
 
 import com.group_three.food_ordering.models.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
@@ -12,17 +14,36 @@ import java.util.UUID;
 public interface PaymentMetricsRepository extends JpaRepository<Payment, Long> {
 
     @Query("""
-    SELECT COALESCE(AVG(CAST(p.amount as double)), 0.0)
-    FROM Payment p
-    JOIN p.orders o
-    JOIN o.tableSession ts
-    JOIN ts.diningTable dt
-    JOIN dt.foodVenue v
+    SELECT COALESCE(CAST(SUM(r.amount) AS double) / NULLIF(SUM(r.paymentsCount), 0), 0.0)
+    FROM PaymentHourlyRollup r
+    JOIN FoodVenue v ON v.id = r.foodVenueId
     WHERE v.publicId = :venueId
-      AND p.status = 'SUCCESS'
-      AND p.paymentDate BETWEEN :from AND :to
+      AND r.bucketStart BETWEEN :from AND :to
 """)
     Double findAverageSpending(UUID venueId, Instant from, Instant to);
 
+    // ---- MANTENIMIENTO DEL ACUMULADO ----
 
+    @Modifying
+    @Query(value = "DELETE FROM payment_rollup_hourly", nativeQuery = true)
+    void clearRollup();
+
+    // Un pago cubre órdenes de un único local; se toma el local de cualquiera de ellas
+    @Modifying
+    @Query(value = """
+  INSERT INTO payment_rollup_hourly (food_venue_id, bucket_start, payments_count, amount)
+  SELECT po.food_venue_id,
+         TIMESTAMPADD(HOUR, TIMESTAMPDIFF(HOUR, TIMESTAMP '1970-01-01 00:00:00', p.creation_date), TIMESTAMP '1970-01-01 00:00:00'),
+         COUNT(*),
+         COALESCE(SUM(p.amount), 0)
+  FROM payments p
+  JOIN (SELECT o.payment_id, MIN(o.food_venue_id) AS food_venue_id
+        FROM orders o
+        WHERE o.payment_id IS NOT NULL AND o.food_venue_id IS NOT NULL
+        GROUP BY o.payment_id) po ON po.payment_id = p.id
+  WHERE p.status = 'COMPLETED'
+    AND p.creation_date IS NOT NULL
+  GROUP BY po.food_venue_id, TIMESTAMPADD(HOUR, TIMESTAMPDIFF(HOUR, TIMESTAMP '1970-01-01 00:00:00', p.creation_date), TIMESTAMP '1970-01-01 00:00:00')
+""", nativeQuery = true)
+    int rebuildRollup();
 }
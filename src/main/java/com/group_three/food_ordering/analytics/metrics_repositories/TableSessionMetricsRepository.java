@@ -3,6 +3,7 @@ package com.group_three.food_ordering.analytics.metrics_repositories;
 import com.group_three.food_ordering.analytics.metrics_dto.AverageSessionDurationProjection;
 import com.group_three.food_ordering.models.TableSession;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,39 +15,46 @@ import java.util.UUID;
 @Repository
 public interface TableSessionMetricsRepository extends JpaRepository<TableSession, Long> {
 
-    @Query(value = """
-  SELECT
-    LOWER(CONCAT(
-      SUBSTR(HEX(v.public_id),1,8),'-',SUBSTR(HEX(v.public_id),9,4),'-',
-      SUBSTR(HEX(v.public_id),13,4),'-',SUBSTR(HEX(v.public_id),17,4),'-',
-      SUBSTR(HEX(v.public_id),21)
-    )) AS venueId,
-    v.name AS venueName,
-    CAST(AVG(TIMESTAMPDIFF(MINUTE, ts.start_time, ts.end_time)) AS DOUBLE) AS averageSessionDurationMinutes
-  FROM table_sessions ts
-  JOIN dining_tables dt ON ts.dining_table_id = dt.id
-  JOIN food_venues v    ON dt.food_venue_id   = v.id
-  WHERE ts.start_time BETWEEN :from AND :to
-    AND ts.end_time IS NOT NULL
-  GROUP BY v.public_id, v.name
-""", nativeQuery = true)
+    @Query("""
+        SELECT CAST(v.publicId AS String) AS venueId,
+               v.name AS venueName,
+               CAST(SUM(r.durationMinutes) AS double) / SUM(r.closedSessions) AS averageSessionDurationMinutes
+        FROM SessionHourlyRollup r
+        JOIN FoodVenue v ON v.id = r.foodVenueId
+        WHERE r.bucketStart BETWEEN :from AND :to
+        GROUP BY v.publicId, v.name
+        HAVING SUM(r.closedSessions) > 0
+    """)
     List<AverageSessionDurationProjection> findAverageSessionDurationByVenue(Instant from, Instant to);
 
 
-    @Query(value = """
-  SELECT COALESCE(
-           CAST(AVG(TIMESTAMPDIFF(MINUTE, ts.start_time, ts.end_time)) AS DOUBLE),
-           0
-         )
-  FROM table_sessions ts
-  JOIN dining_tables dt ON ts.dining_table_id = dt.id
-  WHERE dt.food_venue_id = :venueId
-    AND ts.end_time IS NOT NULL
-    AND ts.start_time BETWEEN :from AND :to
-""", nativeQuery = true)
+    @Query("""
+        SELECT COALESCE(CAST(SUM(r.durationMinutes) AS double) / NULLIF(SUM(r.closedSessions), 0), 0)
+        FROM SessionHourlyRollup r
+        JOIN FoodVenue v ON v.id = r.foodVenueId
+        WHERE v.publicId = :venueId
+          AND r.bucketStart BETWEEN :from AND :to
+    """)
     Double findAverageSessionDurationByVenueId(@Param("venueId") UUID venueId,
                                                @Param("from") Instant from,
                                                @Param("to") Instant to);
 
+    // ---- MANTENIMIENTO DEL ACUMULADO ----
+
+    @Modifying
+    @Query(value = "DELETE FROM session_rollup_hourly", nativeQuery = true)
+    void clearRollup();
 
+    @Modifying
+    @Query(value = """
+  INSERT INTO session_rollup_hourly (food_venue_id, bucket_start, closed_sessions, duration_minutes)
+  SELECT ts.food_venue_id,
+         TIMESTAMPADD(HOUR, TIMESTAMPDIFF(HOUR, TIMESTAMP '1970-01-01 00:00:00', ts.start_time), TIMESTAMP '1970-01-01 00:00:00'),
+         COUNT(*),
+         COALESCE(SUM(TIMESTAMPDIFF(MINUTE, ts.start_time, ts.end_time)), 0)
+  FROM table_sessions ts
+  WHERE ts.end_time IS NOT NULL
+  GROUP BY ts.food_venue_id, TIMESTAMPADD(HOUR, TIMESTAMPDIFF(HOUR, TIMESTAMP '1970-01-01 00:00:00', ts.start_time), TIMESTAMP '1970-01-01 00:00:00')
+""", nativeQuery = true)
+    int rebuildRollup();
 }
@@ -0,0 +1,9 @@
+package com.group_three.food_ordering.analytics.metrics_services;
+
+public interface MetricsRollupService {
+
+    // Suma a los acumulados un lote del journal y devuelve cuántos movimientos aplicó
+    int flush();
+
+    void rebuild();
+}
@@ -0,0 +1,168 @@
+package com.group_three.food_ordering.analytics.metrics_services.impl;
+
+import com.group_three.food_ordering.analytics.enums.RollupKind;
+import com.group_three.food_ordering.analytics.metrics_models.MetricsJournalEntry;
+import com.group_three.food_ordering.analytics.metrics_repositories.MetricsJournalRepository;
+import com.group_three.food_ordering.analytics.metrics_repositories.OrderMetricsRepository;
+import com.group_three.food_ordering.analytics.metrics_repositories.PaymentMetricsRepository;
+import com.group_three.food_ordering.analytics.metrics_repositories.TableSessionMetricsRepository;
+import com.group_three.food_ordering.analytics.metrics_services.MetricsRollupService;
+import com.group_three.food_ordering.events.OrderMetricsChangedEvent;
+import com.group_three.food_ordering.events.PaymentCompletedEvent;
+import com.group_three.food_ordering.events.TableSessionClosedEvent;
+import com.group_three.food_ordering.models.DataMigration;
+import com.group_three.food_ordering.repositories.DataMigrationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Mantiene los acumulados por local y hora que leen los tableros.
+ * Los eventos se anotan en el journal antes del commit de la transacción que los generó (así nunca
+ * se anota algo que después se revierte) y un volcado periódico los suma a los acumulados: las filas
+ * de cada local y hora las comparten todas sus órdenes, y tocarlas en cada transacción las serializaba.
+ * La hora del bucket la trunca siempre la base, tanto en el volcado como en el rebuild.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MetricsRollupServiceImpl implements MetricsRollupService {
+
+    private static final String BACKFILL_MIGRATION = "metrics-rollup-backfill";
+
+    private final OrderMetricsRepository orderMetricsRepository;
+    private final TableSessionMetricsRepository tableSessionMetricsRepository;
+    private final PaymentMetricsRepository paymentMetricsRepository;
+    private final MetricsJournalRepository journalRepository;
+    private final DataMigrationRepository migrationRepository;
+
+    @Value("${app.metrics-rollup.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${app.metrics-rollup.flush-batch-size:1000}")
+    private int flushBatchSize;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderChanged(OrderMetricsChangedEvent event) {
+        if (event.foodVenueId() == null || event.orderDate() == null) {
+            return;
+        }
+        if (event.previousStatus() == event.status() && Objects.equals(event.previousTotal(), event.total())) {
+            return;
+        }
+        List<MetricsJournalEntry> entries = new ArrayList<>(2);
+        if (event.previousStatus() != null) {
+            entries.add(entry(RollupKind.ORDER, event.foodVenueId(), event.orderDate(), event.previousStatus().name(),
+                    -1, amountOf(event.previousTotal()).negate()));
+        }
+        if (event.status() != null) {
+            entries.add(entry(RollupKind.ORDER, event.foodVenueId(), event.orderDate(), event.status().name(),
+                    1, amountOf(event.total())));
+        }
+        journalRepository.saveAll(entries);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTableSessionClosed(TableSessionClosedEvent event) {
+        if (event.foodVenueId() == null || event.startTime() == null || event.endTime() == null) {
+            return;
+        }
+        long minutes = Duration.between(event.startTime(), event.endTime()).toMinutes();
+        journalRepository.save(entry(RollupKind.SESSION, event.foodVenueId(), event.startTime(), null,
+                1, BigDecimal.valueOf(minutes)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onPaymentCompleted(PaymentCompletedEvent event) {
+        if (event.foodVenueId() == null || event.paymentDate() == null) {
+            return;
+        }
+        journalRepository.save(entry(RollupKind.PAYMENT, event.foodVenueId(), event.paymentDate(), null,
+                1, amountOf(event.amount())));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.metrics-rollup.flush-interval:2000}")
+    @Transactional
+    public int flush() {
+        List<MetricsJournalEntry> pending = journalRepository.lockPending(PageRequest.of(0, flushBatchSize));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = pending.stream().map(MetricsJournalEntry::getId).toList();
+        journalRepository.foldOrders(ids);
+        journalRepository.foldSessions(ids);
+        journalRepository.foldPayments(ids);
+        int deleted = journalRepository.deleteByIdIn(ids);
+        if (deleted != ids.size()) {
+            throw new IllegalStateException("Metrics journal entries were flushed concurrently");
+        }
+        return ids.size();
+    }
+
+    // Migración de una sola vez: el nodo que toma el lock de la fila arma los acumulados y los demás la ven aplicada
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillOnce() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        migrationRepository.register(BACKFILL_MIGRATION);
+        DataMigration migration = migrationRepository.findAndLockByName(BACKFILL_MIGRATION)
+                .orElseThrow(() -> new IllegalStateException("Missing data migration " + BACKFILL_MIGRATION));
+        if (migration.isApplied()) {
+            return;
+        }
+        rebuild();
+        migration.setAppliedAt(Instant.now());
+    }
+
+    @Override
+    @Transactional
+    public void rebuild() {
+        // Con el journal bloqueado, lo pendiente ya está en el historial que se vuelve a sumar y lo nuevo
+        // espera al commit del rebuild para anotarse
+        journalRepository.lockAll();
+        journalRepository.clear();
+        orderMetricsRepository.clearRollup();
+        tableSessionMetricsRepository.clearRollup();
+        paymentMetricsRepository.clearRollup();
+        int orderRows = orderMetricsRepository.rebuildRollup();
+        int sessionRows = tableSessionMetricsRepository.rebuildRollup();
+        int paymentRows = paymentMetricsRepository.rebuildRollup();
+        log.info("[MetricsRollupService] Rebuilt rollups: {} order, {} session and {} payment buckets",
+                orderRows, sessionRows, paymentRows);
+    }
+
+    private static MetricsJournalEntry entry(RollupKind kind, Long foodVenueId, Instant eventTime, String status,
+                                             long count, BigDecimal amount) {
+        return MetricsJournalEntry.builder()
+                .kind(kind)
+                .foodVenueId(foodVenueId)
+                .eventTime(eventTime)
+                .status(status)
+                .countDelta(count)
+                .amountDelta(amount)
+                .build();
+    }
+
+    private static BigDecimal amountOf(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+}
@@ -13,7 +13,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -29,8 +35,8 @@ public class MetricsServiceImpl implements MetricsService {
     private final ProductsMetricsRepository productsMetricsRepository;
     private final TenantContext tenantContext;
 
-    private static TemporalSalesDto apply(Map<String, Object> r) {
-        String bucket = String.valueOf(r.get("bucket"));
+    private static TemporalSalesDto apply(Map<String, Object> r, TimeBucket timeBucket) {
+        String bucket = labelOf(periodStart(r.get("bucket")), timeBucket);
         Number ordersNum = (Number) r.get("ordersCount");           // COUNT(*) viene como Long/BigInteger
         Number revNum = (Number) r.get("revenue");               // SUM(...) suele venir BigDecimal
 
@@ -46,22 +52,49 @@ public class MetricsServiceImpl implements MetricsService {
         return new TemporalSalesDto(bucket, ordersCount, revenue);
     }
 
+    // La consulta devuelve el inicio del período (DATETIME); según el driver llega como Timestamp o LocalDateTime
+    private static LocalDate periodStart(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toLocalDate();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toLocalDate();
+        }
+        return LocalDate.parse(String.valueOf(value).substring(0, 10));
+    }
+
+    private static String labelOf(LocalDate start, TimeBucket timeBucket) {
+        return switch (timeBucket) {
+            case DAY -> start.toString();
+            case WEEK -> String.format("%d-W%02d",
+                    start.get(IsoFields.WEEK_BASED_YEAR), start.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+            case MONTH -> YearMonth.from(start).toString();
+        };
+    }
+
+    // Los acumulados son por hora: el rango arranca en la hora de 'from'
+    private static Instant bucketOf(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.HOURS);
+    }
+
     // ---- MÉTRICAS GENERALES ----
 
     @Override
     public GeneralMetricsResponseDto getGeneralOverview(Instant from, Instant to) {
-        long totalOrders = orderMetricsRepository.countOrdersBetween(from, to);
-        long totalVenues = orderMetricsRepository.countDistinctVenuesBetween(from, to);
-        BigDecimal totalRevenue = orderMetricsRepository.getRevenueGroupedByVenue(from, to).stream()
+        Instant fromBucket = bucketOf(from);
+        long totalOrders = orderMetricsRepository.countOrdersBetween(fromBucket, to);
+        long totalVenues = orderMetricsRepository.countDistinctVenuesBetween(fromBucket, to);
+        List<RevenueByVenueDto> revenueByVenue = orderMetricsRepository.getRevenueGroupedByVenue(fromBucket, to);
+        BigDecimal totalRevenue = revenueByVenue.stream()
                 .map(RevenueByVenueDto::getTotalRevenue)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-        double averageTicket = orderMetricsRepository.getRevenueGroupedByVenue(from, to).stream()
+        double averageTicket = revenueByVenue.stream()
                 .mapToDouble(RevenueByVenueDto::getAverageTicket)
                 .average()
                 .orElse(0.0);
 
-        var perVenue = tableSessionMetricsRepository.findAverageSessionDurationByVenue(from, to);
+        var perVenue = tableSessionMetricsRepository.findAverageSessionDurationByVenue(fromBucket, to);
 
         double averageSessionMinutes = perVenue.stream()
                 .map(AverageSessionDurationProjection::getAverageSessionDurationMinutes) // -> Double
@@ -82,17 +115,17 @@ public class MetricsServiceImpl implements MetricsService {
 
     @Override
     public List<OrdersByVenueDto> getOrdersByVenue(Instant from, Instant to) {
-        return orderMetricsRepository.getOrdersGroupedByVenue(from, to);
+        return orderMetricsRepository.getOrdersGroupedByVenue(bucketOf(from), to);
     }
 
     @Override
     public List<RevenueByVenueDto> getRevenueByVenue(Instant from, Instant to) {
-        return orderMetricsRepository.getRevenueGroupedByVenue(from, to);
+        return orderMetricsRepository.getRevenueGroupedByVenue(bucketOf(from), to);
     }
 
     @Override
     public List<RevenueByVenueDto> getTopVenuesByRevenue(Instant from, Instant to, int limit) {
-        return orderMetricsRepository.getRevenueGroupedByVenue(from, to)
+        return orderMetricsRepository.getRevenueGroupedByVenue(bucketOf(from), to)
                 .stream()
                 .sorted((a, b) -> b.getTotalRevenue().compareTo(a.getTotalRevenue()))
                 .limit(limit)
@@ -104,14 +137,16 @@ public class MetricsServiceImpl implements MetricsService {
     @Override
     public VenueMetricsResponseDto getVenueOverview(Instant from, Instant to) {
         UUID venueId = tenantContext.getFoodVenueId();
-        long totalOrders = orderMetricsRepository.countByVenueAndDateBetween(venueId, from, to);
-        BigDecimal totalRevenue = BigDecimal.valueOf(
-                orderMetricsRepository.sumTotalRevenueByVenue(venueId, from, to)
-        );
-        double averageTicket = orderMetricsRepository.calculateAverageTicketByVenue(venueId, from, to);
-        double averageSessionDuration = tableSessionMetricsRepository.findAverageSessionDurationByVenueId(venueId, from, to);
-        double averageSpendingPerTable = paymentMetricsRepository.findAverageSpending(venueId, from, to);
-        double cancellationRate = orderMetricsRepository.calculateCancellationRate(venueId, from, to);
+        Instant fromBucket = bucketOf(from);
+        VenueOrderSummaryProjection orders = orderMetricsRepository.summarizeByVenue(venueId, fromBucket, to);
+        long totalOrders = orders.getTotalOrders();
+        BigDecimal totalRevenue = orders.getCompletedRevenue();
+        double averageTicket = totalOrders == 0 ? 0.0
+                : orders.getGrossRevenue().doubleValue() / totalOrders;
+        double cancellationRate = totalOrders == 0 ? 0.0
+                : orders.getCancelledOrders() * 100.0 / totalOrders;
+        double averageSessionDuration = tableSessionMetricsRepository.findAverageSessionDurationByVenueId(venueId, fromBucket, to);
+        double averageSpendingPerTable = paymentMetricsRepository.findAverageSpending(venueId, fromBucket, to);
 
         String venueName = orderMetricsRepository.findVenueNameById(venueId).getFirst();
 
@@ -143,14 +178,16 @@ public class MetricsServiceImpl implements MetricsService {
                 : List.of("PAID","COMPLETED"); // fallback
 
         // 3) Ejecutar query según bucket
+        String venue = venueId != null ? venueId.toString() : null;
+        Instant fromBucket = bucketOf(from);
         List<Map<String, Object>> rows = switch (timeBucket) {
-            case DAY   -> orderMetricsRepository.salesByDay(from, to, statusStrings, venueId);
-            case WEEK  -> orderMetricsRepository.salesByWeek(from, to, statusStrings, venueId);
-            case MONTH -> orderMetricsRepository.salesByMonth(from, to, statusStrings, venueId);
+            case DAY   -> orderMetricsRepository.salesByDay(fromBucket, to, statusStrings, venue);
+            case WEEK  -> orderMetricsRepository.salesByWeek(fromBucket, to, statusStrings, venue);
+            case MONTH -> orderMetricsRepository.salesByMonth(fromBucket, to, statusStrings, venue);
         };
 
         // 4) Mapear defensivamente
-        return rows.stream().map(MetricsServiceImpl::apply).toList();
+        return rows.stream().map(row -> apply(row, timeBucket)).toList();
     }
 
 
@@ -0,0 +1,48 @@
+package com.group_three.food_ordering.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Menú ya serializado a JSON (y opcionalmente comprimido con gzip), listo para escribirse
+ * tal cual en la respuesta. El ETag es fuerte: se calcula sobre los bytes JSON, y la representación
+ * gzip lleva el suyo propio con sufijo para que un cache no la sirva a quien no la pidió.
+ */
+public record EncodedMenu(byte[] json, byte[] gzip, String etag) {
+
+    public static EncodedMenu of(byte[] json, int gzipMinBytes) {
+        byte[] gzip = json.length >= gzipMinBytes ? gzip(json) : null;
+        return new EncodedMenu(json, gzip, "\"" + sha256(json) + "\"");
+    }
+
+    public boolean hasGzip() {
+        return gzip != null;
+    }
+
+    public String gzipEtag() {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
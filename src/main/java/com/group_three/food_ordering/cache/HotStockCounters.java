@@ -0,0 +1,130 @@
+package com.group_three.food_ordering.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.LongToIntFunction;
+
+/**
+ * Stock disponible de los productos de alta rotación, repartido en varias franjas (stripes)
+ * para que los pedidos concurrentes del mismo producto no compitan siempre por el mismo contador.
+ * Ninguna franja baja de cero, así que la suma nunca permite vender más de lo que hay.
+ */
+@Component
+public class HotStockCounters {
+
+    private final int stripes;
+    private final ConcurrentMap<Long, StripedCounter> counters = new ConcurrentHashMap<>();
+
+    public HotStockCounters(@Value("${app.hot-stock.stripes:8}") int stripes) {
+        this.stripes = Math.max(1, stripes);
+    }
+
+    /**
+     * Intenta reservar {@code quantity} unidades. Si el producto no tiene contador todavía,
+     * se inicializa con {@code loader}.
+     */
+    public boolean tryReserve(Long productId, int quantity, LongToIntFunction loader) {
+        return counters.computeIfAbsent(productId, id -> new StripedCounter(stripes, loader.applyAsInt(id)))
+                .tryReserve(quantity);
+    }
+
+    public void release(Long productId, int quantity) {
+        StripedCounter counter = counters.get(productId);
+        if (counter != null) {
+            counter.release(quantity);
+        }
+    }
+
+    public Integer available(Long productId) {
+        StripedCounter counter = counters.get(productId);
+        return counter != null ? counter.total() : null;
+    }
+
+    public void evict(Long productId) {
+        counters.remove(productId);
+    }
+
+    public void clear() {
+        counters.clear();
+    }
+
+    private static final class StripedCounter {
+
+        private final AtomicIntegerArray values;
+
+        private StripedCounter(int stripes, int initial) {
+            this.values = new AtomicIntegerArray(stripes);
+            int base = Math.max(0, initial) / stripes;
+            int remainder = Math.max(0, initial) % stripes;
+            for (int i = 0; i < stripes; i++) {
+                values.set(i, base + (i < remainder ? 1 : 0));
+            }
+        }
+
+        private boolean tryReserve(int quantity) {
+            // Camino rápido: alguna franja alcanza por sí sola
+            int length = values.length();
+            int start = ThreadLocalRandom.current().nextInt(length);
+            for (int i = 0; i < length; i++) {
+                if (tryTake(values, (start + i) % length, quantity)) {
+                    return true;
+                }
+            }
+            return reserveAcrossStripes(quantity);
+        }
+
+        // Camino lento: juntar unidades de varias franjas y devolverlas si no alcanzan
+        private synchronized boolean reserveAcrossStripes(int quantity) {
+            int length = values.length();
+            int[] taken = new int[length];
+            int remaining = quantity;
+            for (int i = 0; i < length && remaining > 0; i++) {
+                int current;
+                int take;
+                do {
+                    current = values.get(i);
+                    take = Math.min(current, remaining);
+                } while (take > 0 && !values.compareAndSet(i, current, current - take));
+                taken[i] = take;
+                remaining -= take;
+            }
+            if (remaining == 0) {
+                return true;
+            }
+            for (int i = 0; i < length; i++) {
+                if (taken[i] > 0) {
+                    values.addAndGet(i, taken[i]);
+                }
+            }
+            return false;
+        }
+
+        private void release(int quantity) {
+            values.addAndGet(ThreadLocalRandom.current().nextInt(values.length()), quantity);
+        }
+
+        private int total() {
+            int total = 0;
+            for (int i = 0; i < values.length(); i++) {
+                total += values.get(i);
+            }
+            return total;
+        }
+
+        private static boolean tryTake(AtomicIntegerArray values, int index, int quantity) {
+            int current;
+            do {
+                current = values.get(index);
+                if (current < quantity) {
+                    return false;
+                }
+            } while (!values.compareAndSet(index, current, current - quantity));
+            return true;
+        }
+    }
+}
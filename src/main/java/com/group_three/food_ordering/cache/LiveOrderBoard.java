@@ -0,0 +1,191 @@
+package com.group_three.food_ordering.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group_three.food_ordering.dto.response.OrderResponseDto;
+import com.group_three.food_ordering.enums.OrderStatus;
+import com.group_three.food_ordering.events.OrderChangedEvent;
+import com.group_three.food_ordering.notifications.bus.SseBusMessage;
+import com.group_three.food_ordering.notifications.bus.SseEventBus;
+import com.group_three.food_ordering.notifications.enums.SseChannel;
+import com.group_three.food_ordering.notifications.enums.SseEventType;
+import com.group_three.food_ordering.notifications.services.SseService;
+import com.group_three.food_ordering.utils.OrderNumberGenerator;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Tablero en memoria con las órdenes en curso (PENDING a SERVED) de cada local, indexadas por estado
+ * y en orden de llegada a ese estado. Se carga una vez por día de negocio y después sólo recibe deltas,
+ * así las pantallas de cocina y barra no vuelven a consultar la tabla de órdenes.
+ * Los deltas viajan por el bus de SSE: cada nodo actualiza su tablero y sus pantallas con el mismo mensaje.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LiveOrderBoard {
+
+    private static final Set<OrderStatus> LIVE_STATUSES = EnumSet.complementOf(EnumSet.of(OrderStatus.CANCELLED));
+
+    private final SseService sseService;
+    private final SseEventBus eventBus;
+    private final ObjectMapper objectMapper;
+    private final OrderNumberGenerator orderNumberGenerator;
+
+    private final Map<UUID, VenueBoard> boards = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        eventBus.subscribe(SseChannel.VENUE_BOARD, this::apply);
+    }
+
+    /**
+     * Órdenes en curso del local con alguno de los estados pedidos (todos si viene vacío).
+     * {@code loader} lee de la base las órdenes desde el inicio del día de negocio; sólo se usa
+     * la primera vez o cuando cambió el día.
+     */
+    public List<OrderResponseDto> orders(UUID foodVenueId, Collection<OrderStatus> statuses,
+                                         Function<Instant, List<OrderResponseDto>> loader) {
+        VenueBoard board = boards.computeIfAbsent(foodVenueId, id -> new VenueBoard());
+        synchronized (board) {
+            LocalDate businessDate = orderNumberGenerator.currentBusinessDate();
+            if (!businessDate.equals(board.businessDate)) {
+                log.debug("[LiveOrderBoard] Loading board for venue {} and business date {}", foodVenueId, businessDate);
+                board.reset(businessDate, loader.apply(orderNumberGenerator.businessDayStart(businessDate)));
+            }
+            return board.snapshot(statuses == null || statuses.isEmpty() ? LIVE_STATUSES : statuses);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.foodVenueId() == null || event.order() == null) {
+            return;
+        }
+        SseEventType type = event.removed() ? SseEventType.ORDER_BOARD_REMOVED : SseEventType.ORDER_BOARD_UPDATED;
+        sseService.sendEventToVenueBoard(event.foodVenueId(), type, event.order());
+    }
+
+    // Llega desde el bus, con cambios hechos en este nodo o en cualquier otro
+    private void apply(SseBusMessage message) {
+        UUID foodVenueId = UUID.fromString(message.target().substring(SseService.VENUE_BOARD_TOPIC_PREFIX.length()));
+        VenueBoard board = boards.get(foodVenueId);
+        if (board == null) {
+            // Nadie pidió todavía el tablero en este nodo: cuando lo pidan se carga ya con este cambio
+            return;
+        }
+
+        OrderResponseDto order;
+        try {
+            order = objectMapper.readValue(message.payload(), OrderResponseDto.class);
+        } catch (JsonProcessingException e) {
+            log.warn("[LiveOrderBoard] Ignoring unreadable board event for venue {}: {}", foodVenueId, e.getMessage());
+            return;
+        }
+
+        synchronized (board) {
+            if (board.businessDate == null) {
+                return;
+            }
+            boolean applied = SseEventType.ORDER_BOARD_REMOVED.getEventName().equals(message.eventName())
+                    ? board.remove(order)
+                    : board.upsert(order);
+            if (!applied) {
+                log.debug("[LiveOrderBoard] Dropping stale delta for order {} (version {})",
+                        order.getPublicId(), order.getVersion());
+            }
+        }
+    }
+
+    /**
+     * Estado de un local; todo acceso va sincronizado sobre la instancia.
+     * Los deltas pueden llegar tarde o desordenados (reintentos, otro nodo), así que sólo se aplican
+     * si no son más viejos que la última versión vista de la orden.
+     */
+    private static final class VenueBoard {
+
+        private LocalDate businessDate;
+        private final Map<UUID, OrderStatus> statusById = new HashMap<>();
+        private final Map<OrderStatus, LinkedHashMap<UUID, OrderResponseDto>> byStatus = new EnumMap<>(OrderStatus.class);
+        // Incluye las que ya salieron del tablero: un delta atrasado no las vuelve a poner
+        private final Map<UUID, Long> versionById = new HashMap<>();
+
+        void reset(LocalDate businessDate, List<OrderResponseDto> orders) {
+            this.businessDate = businessDate;
+            statusById.clear();
+            byStatus.clear();
+            versionById.clear();
+            orders.forEach(this::upsert);
+        }
+
+        boolean upsert(OrderResponseDto order) {
+            if (order.getPublicId() == null || order.getStatus() == null) {
+                return true;
+            }
+            if (!advanceVersion(order)) {
+                return false;
+            }
+            if (!LIVE_STATUSES.contains(order.getStatus())) {
+                detach(order.getPublicId());
+                return true;
+            }
+            OrderStatus previous = statusById.put(order.getPublicId(), order.getStatus());
+            if (previous != null && previous != order.getStatus()) {
+                byStatus.get(previous).remove(order.getPublicId());
+            }
+            // Mismo estado: se reemplaza en su lugar; estado nuevo: pasa al final de esa columna
+            byStatus.computeIfAbsent(order.getStatus(), status -> new LinkedHashMap<>())
+                    .put(order.getPublicId(), order);
+            return true;
+        }
+
+        boolean remove(OrderResponseDto order) {
+            if (order.getPublicId() == null || !advanceVersion(order)) {
+                return false;
+            }
+            detach(order.getPublicId());
+            return true;
+        }
+
+        // Sin versión (órdenes viejas o eventos sin ella) se aplica como antes
+        private boolean advanceVersion(OrderResponseDto order) {
+            Long version = order.getVersion();
+            if (version == null) {
+                return true;
+            }
+            Long known = versionById.get(order.getPublicId());
+            if (known != null && version < known) {
+                return false;
+            }
+            versionById.put(order.getPublicId(), version);
+            return true;
+        }
+
+        private void detach(UUID orderId) {
+            OrderStatus previous = statusById.remove(orderId);
+            if (previous != null) {
+                byStatus.get(previous).remove(orderId);
+            }
+        }
+
+        List<OrderResponseDto> snapshot(Collection<OrderStatus> statuses) {
+            List<OrderResponseDto> orders = new ArrayList<>();
+            for (OrderStatus status : EnumSet.copyOf(statuses)) {
+                LinkedHashMap<UUID, OrderResponseDto> column = byStatus.get(status);
+                if (column != null) {
+                    orders.addAll(column.values());
+                }
+            }
+            return orders;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.group_three.food_ordering.cache;
+
+import com.group_three.food_ordering.dto.response.MenuResponseDto;
+import lombok.Getter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Menú completo de un local junto con sus versiones ya codificadas por filtro de categoría.
+ * Al invalidarse el snapshot se descartan también todas sus codificaciones.
+ */
+public class MenuSnapshot {
+
+    // El filtro viene del cliente: se limita para que categorías arbitrarias no llenen la memoria
+    private static final int MAX_ENCODINGS = 64;
+
+    @Getter
+    private final MenuResponseDto menu;
+    private final ConcurrentMap<String, EncodedMenu> encodings = new ConcurrentHashMap<>();
+
+    public MenuSnapshot(MenuResponseDto menu) {
+        this.menu = menu;
+    }
+
+    public EncodedMenu encoded(String filterKey, Function<MenuResponseDto, EncodedMenu> encoder) {
+        EncodedMenu encoded = encodings.get(filterKey);
+        if (encoded != null) {
+            return encoded;
+        }
+        if (encodings.size() >= MAX_ENCODINGS) {
+            return encoder.apply(menu);
+        }
+        return encodings.computeIfAbsent(filterKey, key -> encoder.apply(menu));
+    }
+}
@@ -0,0 +1,77 @@
+package com.group_three.food_ordering.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group_three.food_ordering.dto.response.MenuResponseDto;
+import com.group_three.food_ordering.events.MenuChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Snapshot en memoria del menú jerárquico de cada local.
+ * Se invalida por evento (después del commit) cuando cambian productos, categorías o el local,
+ * y además expira por TTL y por tamaño máximo.
+ */
+@Slf4j
+@Component
+public class MenuSnapshotCache {
+
+    private final Cache<UUID, MenuSnapshot> snapshots;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer rebuildTimer;
+
+    public MenuSnapshotCache(MeterRegistry meterRegistry,
+                             @Value("${app.menu-cache.max-venues:500}") long maxVenues,
+                             @Value("${app.menu-cache.ttl:10m}") Duration ttl) {
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxVenues)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "menuSnapshots");
+
+        this.hits = Counter.builder("menu.snapshot.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("menu.snapshot.requests").tag("result", "miss").register(meterRegistry);
+        this.rebuildTimer = Timer.builder("menu.snapshot.rebuild").register(meterRegistry);
+    }
+
+    /**
+     * Devuelve el snapshot del local o lo construye con {@code builder}.
+     * Si varias mesas piden el mismo menú a la vez, solo una lo reconstruye.
+     */
+    public MenuSnapshot get(UUID foodVenueId, Supplier<MenuResponseDto> builder) {
+        MenuSnapshot snapshot = snapshots.getIfPresent(foodVenueId);
+        if (snapshot != null) {
+            hits.increment();
+            return snapshot;
+        }
+        misses.increment();
+        return snapshots.get(foodVenueId, id -> {
+            log.debug("[MenuSnapshotCache] Rebuilding menu snapshot for venue {}", id);
+            return new MenuSnapshot(rebuildTimer.record(builder));
+        });
+    }
+
+    public void invalidate(UUID foodVenueId) {
+        log.debug("[MenuSnapshotCache] Invalidating menu snapshot for venue {}", foodVenueId);
+        snapshots.invalidate(foodVenueId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        if (event.foodVenueId() != null) {
+            invalidate(event.foodVenueId());
+        }
+    }
+}
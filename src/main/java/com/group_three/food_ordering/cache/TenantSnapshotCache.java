@@ -0,0 +1,97 @@
+package com.group_three.food_ordering.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group_three.food_ordering.dto.projection.FoodVenueSnapshot;
+import com.group_three.food_ordering.dto.projection.ParticipantSnapshot;
+import com.group_three.food_ordering.dto.projection.TableSessionSnapshot;
+import com.group_three.food_ordering.events.MenuChangedEvent;
+import com.group_three.food_ordering.events.ParticipantChangedEvent;
+import com.group_three.food_ordering.events.ParticipantLeftEvent;
+import com.group_three.food_ordering.events.TableSessionClosedEvent;
+import com.group_three.food_ordering.repositories.FoodVenueRepository;
+import com.group_three.food_ordering.repositories.ParticipantRepository;
+import com.group_three.food_ordering.repositories.TableSessionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Snapshots inmutables de participante, sesión de mesa y local, compartidos entre requests y
+ * buscados por los ids que ya trae el token. El TTL es corto porque otros nodos no avisan sus cambios;
+ * en este nodo se invalidan al cerrar la sesión, al irse o cambiar un participante o al cambiar el local.
+ */
+@Slf4j
+@Component
+public class TenantSnapshotCache {
+
+    private final ParticipantRepository participantRepository;
+    private final TableSessionRepository tableSessionRepository;
+    private final FoodVenueRepository foodVenueRepository;
+
+    private final Cache<UUID, ParticipantSnapshot> participants;
+    private final Cache<UUID, TableSessionSnapshot> tableSessions;
+    private final Cache<UUID, FoodVenueSnapshot> foodVenues;
+
+    public TenantSnapshotCache(ParticipantRepository participantRepository,
+                               TableSessionRepository tableSessionRepository,
+                               FoodVenueRepository foodVenueRepository,
+                               @Value("${app.tenant-cache.max-entries:10000}") long maxEntries,
+                               @Value("${app.tenant-cache.ttl:30s}") Duration ttl) {
+        this.participantRepository = participantRepository;
+        this.tableSessionRepository = tableSessionRepository;
+        this.foodVenueRepository = foodVenueRepository;
+        this.participants = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(ttl).build();
+        this.tableSessions = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(ttl).build();
+        this.foodVenues = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(ttl).build();
+    }
+
+    // Lo que no existe no se guarda: el loader devuelve null y Caffeine no cachea nada
+    public Optional<ParticipantSnapshot> participant(UUID participantId) {
+        return Optional.ofNullable(participants.get(participantId,
+                id -> participantRepository.findSnapshotByPublicId(id).orElse(null)));
+    }
+
+    public Optional<TableSessionSnapshot> tableSession(UUID tableSessionId) {
+        return Optional.ofNullable(tableSessions.get(tableSessionId,
+                id -> tableSessionRepository.findSnapshotByPublicId(id).orElse(null)));
+    }
+
+    public Optional<FoodVenueSnapshot> foodVenue(UUID foodVenueId) {
+        return Optional.ofNullable(foodVenues.get(foodVenueId,
+                id -> foodVenueRepository.findSnapshotByPublicId(id).orElse(null)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableSessionClosed(TableSessionClosedEvent event) {
+        log.debug("[TenantSnapshotCache] Invalidating table session {} and its participants", event.tableSessionId());
+        tableSessions.invalidate(event.tableSessionId());
+        // Al cerrar, todos los participantes quedan con leftAt
+        participants.asMap().values().removeIf(participant -> event.tableSessionId().equals(participant.tableSessionId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onParticipantLeft(ParticipantLeftEvent event) {
+        log.debug("[TenantSnapshotCache] Invalidating participant {}", event.participantId());
+        participants.invalidate(event.participantId());
+        tableSessions.invalidate(event.tableSessionId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onParticipantChanged(ParticipantChangedEvent event) {
+        log.debug("[TenantSnapshotCache] Invalidating participant {}", event.participantId());
+        participants.invalidate(event.participantId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFoodVenueChanged(MenuChangedEvent event) {
+        if (event.foodVenueId() != null) {
+            foodVenues.invalidate(event.foodVenueId());
+        }
+    }
+}
@@ -3,7 +3,7 @@ package com.group_three.food_ordering.configs.filters;
 import com.group_three.food_ordering.context.TenantContext;
 import com.group_three.food_ordering.dto.SessionInfo;
 import com.group_three.food_ordering.configs.security.JwtService;
-import io.jsonwebtoken.Claims;
+import com.group_three.food_ordering.configs.security.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -34,17 +34,12 @@ public class ContextInitializationFilter extends OncePerRequestFilter {
         if (auth != null && auth.startsWith("Bearer ")) {
             String token = auth.substring(7);
             try {
-                // Intenta validar y extraer claims (fallará si está vencido)
-                var claims = jwtService.extractAllClaims(token);
-                setContext(claims);
-
-            } catch (io.jsonwebtoken.ExpiredJwtException ex) {
-                // Si el token está vencido, extrae los claims para inicializar el contexto.
-                log.warn("[ContextInitializationFilter] Access token EXPIRED, setting context from expired claims.");
-
-                // Se obtienen los claims de la excepción
-                var claims = ex.getClaims();
-                setContext(claims);
+                // Si el filtro de autenticación ya verificó el token se reutiliza; un token vencido también arma el contexto
+                VerifiedToken verifiedToken = jwtService.verify(req, token);
+                if (verifiedToken.isExpired()) {
+                    log.warn("[ContextInitializationFilter] Access token EXPIRED, setting context from expired claims.");
+                }
+                setContext(verifiedToken.sessionInfo());
 
             } catch (Exception ex) {
                 // Captura otras excepciones de JWT (malformado, firma inválida, etc.)
@@ -56,9 +51,8 @@ public class ContextInitializationFilter extends OncePerRequestFilter {
         log.debug("[ContextInitializationFilter] End filter");
     }
 
-    private void setContext(Claims claims) {
+    private void setContext(SessionInfo sessionInfo) {
 
-        SessionInfo sessionInfo = jwtService.getSessionInfoFromClaims(claims);
         tenantContext.setSessionInfo(sessionInfo);
 
         log.debug("[ContextInitializationFilter] Session info from token: user={}, participant={}, tableSession={}, foodVenue={}",
@@ -4,8 +4,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.group_three.food_ordering.utils.constants.ApiPaths;
 import com.group_three.food_ordering.configs.security.CustomUserPrincipal;
 import com.group_three.food_ordering.configs.security.JwtService;
+import com.group_three.food_ordering.configs.security.VerifiedToken;
 import com.group_three.food_ordering.dto.SessionInfo;
 import com.group_three.food_ordering.enums.RoleType;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -56,20 +58,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = authHeader.substring(7);
 
         try {
-            log.debug("[JwtAuthenticationFilter] Verifying token expiration");
-            if (Boolean.TRUE.equals(jwtService.isTokenExpired(token))) {
-                log.error("[JwtAuthenticationFilter] Token is EXPIRED");
+            log.debug("[JwtAuthenticationFilter] Verifying access token");
+            VerifiedToken verifiedToken;
+            try {
+                verifiedToken = jwtService.verify(request, token);
+            } catch (JwtException e) {
+                // Igual que antes: un token que no se puede verificar se informa como vencido para forzar el refresh
+                log.warn("[JwtAuthenticationFilter] Cannot verify token: {}", e.getMessage());
                 sendTokenExpiredError(response);
                 return;
             }
 
-            log.debug("[JwtAuthenticationFilter] Validating access token");
-            if (!Boolean.TRUE.equals(jwtService.isTokenValid(token))) {
-                log.error("[JwtAuthenticationFilter] Token is INVALID");
-                sendUnauthorizedError(response, "INVALID_TOKEN", "JWT token is invalid");
+            if (verifiedToken.isExpired()) {
+                log.error("[JwtAuthenticationFilter] Token is EXPIRED");
+                sendTokenExpiredError(response);
                 return;
             }
-            SessionInfo sessionInfo = jwtService.getSessionInfoFromToken(token);
+            SessionInfo sessionInfo = verifiedToken.sessionInfo();
 
             List<org.springframework.security.core.GrantedAuthority> authorities =
                     List.of(new org.springframework.security.core.authority.SimpleGrantedAuthority(sessionInfo.role()));
@@ -1,9 +1,14 @@
 package com.group_three.food_ordering.configs.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.group_three.food_ordering.dto.SessionInfo;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.ServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,7 +16,11 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -31,12 +40,106 @@ public class JwtService {
     @Value("${jwt.access-expiration}")
     private long jwtAccessExpirationMs;
 
+    @Value("${jwt.verified-cache.max-entries:10000}")
+    private long verifiedCacheMaxEntries;
+
+    // Clave y parser se arman una sola vez; ambos son inmutables y thread-safe
+    private SecretKey signatureKey;
+    private JwtParser parser;
+
+    /** Digest del token -> sesión ya verificada, hasta que el token vence; null si está apagada (max-entries=0) */
+    private Cache<String, VerifiedToken> verifiedTokens;
+
     private static final String USER_ID_CLAIM = "userId";
     private static  final String FOOD_VENUE_ID_CLAIM = "foodVenueId";
     private static final String TABLE_SESSION_ID_CLAIM = "tableSessionId";
     private static final String PARTICIPANT_ID_CLAIM = "participantId";
     private static final String ROLE_CLAIM = "role";
 
+    @PostConstruct
+    void init() {
+        this.signatureKey = buildSignatureKey();
+        this.parser = Jwts.parser().verifyWith(signatureKey).build();
+        if (verifiedCacheMaxEntries <= 0) {
+            return;
+        }
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxEntries)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Verifica la firma una sola vez por request: el resultado queda en un atributo del request para los
+     * filtros siguientes y en una caché acotada para los próximos requests con el mismo token.
+     * Lanza {@link JwtException} o {@link IllegalArgumentException} si el token no es válido.
+     */
+    public VerifiedToken verify(ServletRequest request, String token) {
+        if (request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE) instanceof VerifiedToken verified) {
+            return verified;
+        }
+        VerifiedToken verified = verify(token);
+        request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, verified);
+        return verified;
+    }
+
+    public VerifiedToken verify(String token) {
+        if (verifiedTokens == null) {
+            return parse(token);
+        }
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedToken verified = parse(token);
+        if (verified.expiresAt() != null && verified.expiresAt().isAfter(Instant.now())) {
+            verifiedTokens.put(digest, verified);
+        }
+        return verified;
+    }
+
+    private VerifiedToken parse(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (ExpiredJwtException e) {
+            // La firma se comprobó antes que el vencimiento; sirve para el contexto pero no se guarda
+            return toVerifiedToken(e.getClaims());
+        }
+        return toVerifiedToken(claims);
+    }
+
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(getSessionInfoFromClaims(claims), expiration != null ? expiration.toInstant() : null);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     public String generateAccessToken(SessionInfo sessionInfo) {
         log.debug("[JwtService] Generating access token");
 
@@ -68,15 +171,11 @@ public class JwtService {
 
     public Claims parseTokenClaimsSafe(String token) throws JwtException {
 
-        log.warn("[JwtService] Parsing token claims safely");
+        log.debug("[JwtService] Parsing token claims safely");
 
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSignatureKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            log.warn("[JwtService] Parsed claims");
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            log.debug("[JwtService] Parsed claims");
             return claims;
         } catch (ExpiredJwtException e) {
             log.warn("[JwtService] Token is expired: {}", e.getMessage());
@@ -125,6 +224,10 @@ public class JwtService {
     }
 
     private SecretKey getSignatureKey() {
+        return signatureKey;
+    }
+
+    private SecretKey buildSignatureKey() {
         byte[] keyBytes;
         try {
             keyBytes = Decoders.BASE64.decode(jwtSecret);
@@ -172,10 +275,6 @@ public class JwtService {
     }
 
     public Claims extractAllClaims(String token) throws JwtException {
-        return Jwts.parser()
-                .verifyWith(getSignatureKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 }
@@ -0,0 +1,102 @@
+package com.group_three.food_ordering.configs.security;
+
+import com.group_three.food_ordering.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verificación de contraseñas en un pool propio y acotado: bcrypt es CPU pura y, con muchos logins juntos
+ * (cambio de turno), no debe ocupar todos los hilos de Tomcat. Si el pool y su cola están llenos
+ * se rechaza enseguida con 429 en lugar de encolar sin límite.
+ */
+@Slf4j
+@Service
+public class PasswordVerificationService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Counter rejected;
+
+    /** Resultado de comparar; {@code upgradedHash} viene cuando el hash guardado usa otra fuerza */
+    public record PasswordCheck(boolean matches, String upgradedHash) {
+    }
+
+    public PasswordVerificationService(PasswordEncoder passwordEncoder,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.security.password.verify-threads:0}") int threads,
+                                       @Value("${app.security.password.queue-capacity:100}") int queueCapacity,
+                                       @Value("${app.security.password.verify-timeout:5s}") Duration timeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = timeout;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verify-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.password.verification.queue", executor, pool -> pool.getQueue().size())
+                .description("Password checks waiting for a verification thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.verification.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.verification.rejected")
+                .description("Logins rejected with 429 because the verification pool was full")
+                .register(meterRegistry);
+    }
+
+    public PasswordCheck verify(String rawPassword, String encodedPassword) {
+        Future<PasswordCheck> future;
+        try {
+            future = executor.submit(() -> check(rawPassword, encodedPassword));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("[PasswordVerificationService] Verification pool saturated, rejecting login");
+            throw new TooManyRequestsException("Demasiados inicios de sesión simultáneos, reintente en unos segundos");
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            log.warn("[PasswordVerificationService] Verification timed out after {}", timeout);
+            throw new TooManyRequestsException("Demasiados inicios de sesión simultáneos, reintente en unos segundos");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Password verification interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password verification failed", e.getCause());
+        }
+    }
+
+    private PasswordCheck check(String rawPassword, String encodedPassword) {
+        if (!passwordEncoder.matches(rawPassword, encodedPassword)) {
+            return new PasswordCheck(false, null);
+        }
+        // Si cambió la fuerza configurada se aprovecha que tenemos la contraseña en claro para rehashear
+        String upgraded = passwordEncoder.upgradeEncoding(encodedPassword) ? passwordEncoder.encode(rawPassword) : null;
+        return new PasswordCheck(true, upgraded);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -13,7 +13,11 @@ import java.util.UUID;
 @NoArgsConstructor
 @Getter
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_expires", columnList = "expires_at"),
+        @Index(name = "idx_refresh_tokens_user", columnList = "user_email"),
+        @Index(name = "idx_refresh_tokens_family", columnList = "family_id")
+})
 public class RefreshToken {
 
     @Id
@@ -22,8 +26,14 @@ public class RefreshToken {
     @Column(name = "id", length = 36, unique = true, nullable = false, updatable = false)
     private UUID id;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    // SHA-256 (hex) del token entregado al cliente; el valor en claro nunca se guarda
+    @Column(name = "token", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    // Todos los tokens que salen de un mismo login por rotación comparten familia
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "family_id", length = 36)
+    private UUID familyId;
 
     @Column(nullable = false)
     private String userEmail;
@@ -42,4 +52,4 @@ public class RefreshToken {
     @Column(nullable = false)
     private boolean revoked = false;
 
-}
\ No newline at end of file
+}
@@ -4,36 +4,127 @@ import com.group_three.food_ordering.repositories.RefreshTokenRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Refresh tokens opacos de 256 bits aleatorios. En la base sólo queda su SHA-256, que alcanza porque el
+ * token ya tiene entropía de sobra (no hace falta un hash lento como para contraseñas) y permite buscar por índice.
+ * Cada uso rota el token; presentar uno ya rotado revoca toda su familia.
+ */
 @Slf4j
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class RefreshTokenService {
 
+    private static final int TOKEN_BYTES = 32;
+
     private final RefreshTokenRepository refreshTokenRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
 
     @Value("${jwt.refresh-expiration}")
     private long refreshTokenExpiration;
 
+    @Value("${jwt.refresh-cleanup.chunk-size:1000}")
+    private int cleanupChunkSize;
+
+    /** Usuario dueño del token consumido y el token nuevo que lo reemplaza */
+    public record RotatedRefreshToken(String userEmail, String refreshToken) {
+    }
+
     public String generateRefreshToken(String userEmail) {
         // Revocar tokens existentes del usuario
         log.debug("[RefreshTokenService] Revoke existing token for user={}", userEmail);
         log.debug("[RefreshTokenRepository] Calling revokeAllByUserEmail for user={}", userEmail);
         refreshTokenRepository.revokeAllByUserEmail(userEmail);
 
-        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        return issue(userEmail, UUID.randomUUID());
+    }
+
+    /**
+     * Consume el token y entrega uno nuevo de la misma familia. Si el token ya había sido rotado
+     * alguien lo está reutilizando (robo o replay), así que se revoca la familia completa.
+     */
+    public Optional<RotatedRefreshToken> rotate(String token) {
+        log.debug("[RefreshTokenService] Rotating refresh token");
+
+        log.debug("[RefreshTokenRepository] Calling findByTokenHash");
+        Optional<RefreshToken> found = refreshTokenRepository.findByTokenHash(hash(token));
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+
+        RefreshToken current = found.get();
+        if (current.getUsedAt() == null && current.isRevoked()) {
+            log.debug("[RefreshTokenService] Refresh token was revoked for user={}", current.getUserEmail());
+            return Optional.empty();
+        }
+        if (current.getUsedAt() == null && current.getExpiresAt().isBefore(Instant.now())) {
+            log.debug("[RefreshTokenService] Refresh token expired for user={}", current.getUserEmail());
+            return Optional.empty();
+        }
+
+        // El UPDATE condicional decide entre dos refresh concurrentes con el mismo token
+        if (current.getUsedAt() != null || refreshTokenRepository.markUsed(current.getId(), Instant.now()) == 0) {
+            log.warn("[RefreshTokenService] Refresh token reuse detected for user={}, revoking token family",
+                    current.getUserEmail());
+            revokeFamily(current);
+            return Optional.empty();
+        }
+
+        UUID familyId = current.getFamilyId() != null ? current.getFamilyId() : UUID.randomUUID();
+        String newToken = issue(current.getUserEmail(), familyId);
+        return Optional.of(new RotatedRefreshToken(current.getUserEmail(), newToken));
+    }
+
+    public void revokeToken(String token) {
+        log.debug("[RefreshTokenRepository] Calling revokeByTokenHash");
+        refreshTokenRepository.revokeByTokenHash(hash(token));
+        log.debug("[Refresh token Service] Revoked refresh token");
+    }
+
+    /** Borra los vencidos por tramos, cada uno en su propia transacción, para no bloquear la tabla */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Scheduled(cron = "${jwt.refresh-cleanup.cron:0 0 2 * * ?}") // Diario a las 2 AM
+    public int cleanupExpiredTokens() {
+        log.debug("[RefreshTokenService] Cleaning up expired tokens");
+        Instant now = Instant.now();
+        int total = 0;
+        List<UUID> ids;
+        do {
+            ids = refreshTokenRepository.findExpiredIds(now, PageRequest.of(0, cleanupChunkSize));
+            if (!ids.isEmpty()) {
+                total += refreshTokenRepository.deleteByIdIn(ids);
+            }
+        } while (ids.size() == cleanupChunkSize);
+
+        log.info("[RefreshTokenService] Deleted {} expired refresh tokens", total);
+        return total;
+    }
+
+    private String issue(String userEmail, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
         RefreshToken refreshToken = RefreshToken.builder()
-                .token(passwordEncoder.encode(UUID.randomUUID().toString()))
+                .tokenHash(hash(token))
+                .familyId(familyId)
                 .userEmail(userEmail)
                 .expiresAt(Instant.now().plusMillis(refreshTokenExpiration))
                 .createdAt(Instant.now())
@@ -43,39 +134,24 @@ public class RefreshTokenService {
         log.debug("[RefreshTokenRepository] Calling save to create new refresh token for user={}", userEmail);
         refreshTokenRepository.save(refreshToken);
         log.debug("[RefreshTokenService] Generated refresh token for user={}", userEmail);
-        return refreshToken.getToken();
-    }
-
-    public Optional<String> validateAndGetUserEmail(String token) {
-        log.debug("[RefreshTokenService] Validating refresh token");
-
-        log.debug("[RefreshTokenRepository] Calling findByTokenAndRevokedFalse");
-        return refreshTokenRepository.findByTokenAndRevokedFalse(token)
-                .filter(refreshToken -> refreshToken.getExpiresAt().isAfter(Instant.now()))
-                .map(refreshToken -> {
-                    // Marcar como usado
-                    refreshToken.setUsedAt(Instant.now());
-                    log.debug("[RefreshTokenRepository] Calling save to mark token as used");
-                    refreshTokenRepository.save(refreshToken);
-                    return refreshToken.getUserEmail();
-                });
+        return token;
     }
 
-    public void revokeToken(String token) {
-        log.debug("[RefreshTokenRepository] Calling findByTokenAndRevokedFalse to check token for revocation");
-        refreshTokenRepository.findByTokenAndRevokedFalse(token)
-                .ifPresent(refreshToken -> {
-                    refreshToken.setRevoked(true);
-                    log.debug("[RefreshTokenRepository] Calling save to revoke token");
-                    refreshTokenRepository.save(refreshToken);
-                });
-        log.debug("[Refresh token Service] Revoked refresh token");
+    private void revokeFamily(RefreshToken token) {
+        // Los tokens anteriores a la rotación no tienen familia: se revoca todo lo del usuario
+        if (token.getFamilyId() != null) {
+            refreshTokenRepository.revokeFamily(token.getFamilyId());
+        } else {
+            refreshTokenRepository.revokeAllByUserEmail(token.getUserEmail());
+        }
     }
 
-    @Scheduled(cron = "0 0 2 * * ?") // Diario a las 2 AM
-    public void cleanupExpiredTokens() {
-        log.debug("[RefreshTokenService] Cleaning up expired tokens");
-        log.debug("[RefreshTokenRepository] Calling deleteByExpiresAtBefore");
-        refreshTokenRepository.deleteByExpiresAtBefore(Instant.now());
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
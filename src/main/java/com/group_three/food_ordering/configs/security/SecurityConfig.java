@@ -6,6 +6,7 @@ import com.group_three.food_ordering.configs.filters.ContextInitializationFilter
 import com.group_three.food_ordering.configs.filters.JwtAuthenticationFilter;
 import com.group_three.food_ordering.configs.filters.SseAuthFilter;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -94,8 +95,12 @@ public class SecurityConfig {
         return configuration.getAuthenticationManager();
     }
 
+    /**
+     * Cambiar la fuerza no invalida los hashes existentes: bcrypt guarda su costo en cada hash
+     * y el login rehashea con la fuerza nueva (ver {@link PasswordVerificationService}).
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(4);
+    public PasswordEncoder passwordEncoder(@Value("${app.security.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
@@ -0,0 +1,19 @@
+package com.group_three.food_ordering.configs.security;
+
+import com.group_three.food_ordering.dto.SessionInfo;
+
+import java.time.Instant;
+
+/**
+ * Resultado de verificar la firma de un access token. Un token vencido con firma válida también
+ * se representa acá: el contexto se arma igual y cada filtro decide qué hacer con el vencimiento.
+ */
+public record VerifiedToken(SessionInfo sessionInfo, Instant expiresAt) {
+
+    /** Atributo del request donde el primer filtro deja el token ya verificado para los siguientes */
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+}
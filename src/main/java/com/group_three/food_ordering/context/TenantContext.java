@@ -1,7 +1,11 @@
 package com.group_three.food_ordering.context;
 
+import com.group_three.food_ordering.cache.TenantSnapshotCache;
 import com.group_three.food_ordering.dto.AuditorUser;
 import com.group_three.food_ordering.dto.SessionInfo;
+import com.group_three.food_ordering.dto.projection.FoodVenueSnapshot;
+import com.group_three.food_ordering.dto.projection.ParticipantSnapshot;
+import com.group_three.food_ordering.dto.projection.TableSessionSnapshot;
 import com.group_three.food_ordering.enums.RoleType;
 import com.group_three.food_ordering.exceptions.EntityNotFoundException;
 import com.group_three.food_ordering.models.FoodVenue;
@@ -32,6 +36,7 @@ public class TenantContext {
     private final UserRepository userRepo;
     private final ParticipantRepository participantRepo;
     private final FoodVenueRepository foodVenueRepo;
+    private final TenantSnapshotCache snapshotCache;
 
     // --- Estado actual del request ---
     private SessionInfo sessionInfo;
@@ -143,6 +148,37 @@ public class TenantContext {
         return Optional.ofNullable(id);
     }
 
+    // =========================
+    // Snapshots compartidos (sin entidades managed)
+    // =========================
+
+    /** Para leer ids, rol y flags; si hace falta modificar el participante usar {@link #requireParticipant()} */
+    public Optional<ParticipantSnapshot> participantSnapshotOpt() {
+        return participantId != null ? snapshotCache.participant(participantId) : Optional.empty();
+    }
+
+    public Optional<TableSessionSnapshot> tableSessionSnapshotOpt() {
+        UUID id = tableSessionId != null
+                ? tableSessionId
+                : participantSnapshotOpt().map(ParticipantSnapshot::tableSessionId).orElse(null);
+        return id != null ? snapshotCache.tableSession(id) : Optional.empty();
+    }
+
+    public Optional<FoodVenueSnapshot> foodVenueSnapshotOpt() {
+        UUID id = foodVenueId != null
+                ? foodVenueId
+                : tableSessionSnapshotOpt().map(TableSessionSnapshot::foodVenueId).orElse(null);
+        return id != null ? snapshotCache.foodVenue(id) : Optional.empty();
+    }
+
+    public ParticipantSnapshot requireParticipantSnapshot() {
+        return participantSnapshotOpt().orElseThrow(() -> new EntityNotFoundException(EntityName.PARTICIPANT));
+    }
+
+    public FoodVenueSnapshot requireFoodVenueSnapshot() {
+        return foodVenueSnapshotOpt().orElseThrow(() -> new EntityNotFoundException(EntityName.FOOD_VENUE));
+    }
+
     // =========================
     // Require helpers
     // =========================
@@ -189,6 +225,11 @@ public class TenantContext {
     }
 
     public boolean isAuthenticated() {
+        // Con participante alcanza el snapshot; sólo un usuario fuera de una mesa necesita ir a la base
+        Optional<ParticipantSnapshot> participantSnapshot = participantSnapshotOpt();
+        if (participantSnapshot.isPresent()) {
+            return participantSnapshot.get().userId() != null;
+        }
         return userOpt().isPresent();
     }
 
@@ -3,10 +3,14 @@ package com.group_three.food_ordering.controllers;
 import com.group_three.food_ordering.utils.constants.ApiPaths;
 import com.group_three.food_ordering.dto.response.MenuResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
@@ -15,9 +19,13 @@ import org.springframework.web.bind.annotation.RequestParam;
 public interface MenuController {
 
     @Operation(summary = "Muestra los productos disponibles ordenados por categoría")
-    @ApiResponse(responseCode = "200", description = "Listado de productos por categoría")
+    @ApiResponse(responseCode = "200", description = "Listado de productos por categoría",
+            content = @Content(schema = @Schema(implementation = MenuResponseDto.class)))
+    @ApiResponse(responseCode = "304", description = "El menú no cambió desde el ETag enviado")
     @GetMapping()
-    ResponseEntity<MenuResponseDto> getHierarchicalMenu(
-            @RequestParam(required = false) String category);
+    ResponseEntity<byte[]> getHierarchicalMenu(
+            @RequestParam(required = false) String category,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding);
 
 }
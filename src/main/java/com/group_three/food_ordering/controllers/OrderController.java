@@ -2,9 +2,11 @@ package com.group_three.food_ordering.controllers;
 
 import com.group_three.food_ordering.utils.constants.ApiPaths;
 import com.group_three.food_ordering.dto.request.OrderRequestDto;
+import com.group_three.food_ordering.dto.request.OrderStatusAdvanceRequestDto;
 import com.group_three.food_ordering.dto.response.OrderResponseDto;
 import com.group_three.food_ordering.dto.response.PageResponse;
 import com.group_three.food_ordering.enums.OrderStatus;
+import com.group_three.food_ordering.services.IdempotencyStore;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -18,6 +20,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @RequestMapping(ApiPaths.ORDER_URI)
@@ -26,15 +29,21 @@ public interface OrderController {
 
     @Operation(
             summary = "Crear una nueva orden",
-            description = "Crea una orden con los datos proporcionados en el cuerpo de la solicitud."
+            description = "Crea una orden con los datos proporcionados en el cuerpo de la solicitud. " +
+                    "Con el header Idempotency-Key los reintentos no generan órdenes duplicadas."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Orden creada exitosamente"),
-            @ApiResponse(responseCode = "400", description = "Datos inválidos en la solicitud")
+            @ApiResponse(responseCode = "400", description = "Datos inválidos en la solicitud"),
+            @ApiResponse(responseCode = "422", description = "La Idempotency-Key ya se usó con otro pedido")
     })
     @PostMapping
     ResponseEntity<OrderResponseDto> createOrder(
-            @RequestBody @Valid OrderRequestDto order);
+            @RequestBody @Valid OrderRequestDto order,
+
+            @Parameter(description = "Clave única del intento; los reintentos con la misma clave devuelven la respuesta original",
+                    example = "5f8d0d55-4a5b-4f8e-9c1a-3b2f1e6d7c90")
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey);
 
 
     @Operation(
@@ -56,6 +65,9 @@ public interface OrderController {
             @Parameter(description = "Estado de la orden para filtrar", example = "PENDING")
             @RequestParam(required = false) OrderStatus status,
 
+            @Parameter(description = "Si es false no se calcula el total de órdenes ni de páginas (más rápido en rangos grandes)")
+            @RequestParam(defaultValue = "true") boolean withTotal,
+
             @Parameter(hidden = true) Pageable pageable
     );
 
@@ -74,6 +86,45 @@ public interface OrderController {
 
             @Parameter(hidden = true) Pageable pageable);
 
+    @Operation(
+            summary = "Obtener el tablero de cocina",
+            description = "Devuelve las órdenes en curso del local desde memoria, agrupadas por estado y " +
+                    "de la más vieja a la más nueva. Los cambios posteriores llegan por el stream SSE del tablero."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tablero recuperado exitosamente")
+    })
+    @GetMapping("/board")
+    ResponseEntity<List<OrderResponseDto>> getLiveBoard(
+            @Parameter(description = "Estados a incluir; sin valor se devuelven todos los estados en curso", example = "PENDING")
+            @RequestParam(required = false) List<OrderStatus> status);
+
+    @Operation(
+            summary = "Obtener el historial de órdenes por cursor",
+            description = "Devuelve las órdenes de la más reciente a la más antigua sin calcular totales. " +
+                    "Para la página siguiente se envía el nextCursor de la respuesta anterior."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Órdenes recuperadas exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Parámetros o cursor inválidos")
+    })
+    @GetMapping("/history")
+    ResponseEntity<PageResponse<OrderResponseDto>> getOrderHistory(
+            @Parameter(description = "Fecha desde la cual buscar órdenes (formato yyyy-MM-dd)", example = "2025-05-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+
+            @Parameter(description = "Fecha hasta la cual buscar órdenes (formato yyyy-MM-dd)", example = "2025-05-10")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+
+            @Parameter(description = "Estado de la orden para filtrar", example = "PENDING")
+            @RequestParam(required = false) OrderStatus status,
+
+            @Parameter(description = "Cursor devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Cantidad de órdenes por página (máximo 100)", example = "20")
+            @RequestParam(defaultValue = "20") int size);
+
     @Operation(
             summary = "Obtener una orden por ID",
             description = "Devuelve los detalles de una orden específica identificada por su UUID."
@@ -127,7 +178,8 @@ public interface OrderController {
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Orden cancelada exitosamente"),
-            @ApiResponse(responseCode = "404", description = "Orden no encontrada")
+            @ApiResponse(responseCode = "404", description = "Orden no encontrada"),
+            @ApiResponse(responseCode = "409", description = "La orden ya fue servida o cambió mientras tanto")
     })
     @PatchMapping("/{id}/cancel")
     ResponseEntity<OrderResponseDto> cancelOrder(
@@ -136,12 +188,15 @@ public interface OrderController {
 
     @Operation(
             summary = "Actualizar el estado de una orden",
-            description = "Actualiza el estado de una orden. Ejemplo: PENDING, SERVED, CANCELLED."
+            description = "Actualiza el estado de una orden siguiendo el flujo PENDING → APPROVED → IN_PROGRESS → " +
+                    "COMPLETED → SERVED. Se puede cancelar hasta que se sirve. Si se envía la versión leída, " +
+                    "el cambio sólo se aplica si nadie modificó la orden desde entonces."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Estado actualizado exitosamente"),
             @ApiResponse(responseCode = "400", description = "Estado inválido"),
-            @ApiResponse(responseCode = "404", description = "Orden no encontrada")
+            @ApiResponse(responseCode = "404", description = "Orden no encontrada"),
+            @ApiResponse(responseCode = "409", description = "Transición no permitida o la orden cambió mientras tanto")
     })
     @PatchMapping("/{id}/status")
     ResponseEntity<OrderResponseDto> updateOrderStatus(
@@ -149,5 +204,23 @@ public interface OrderController {
             @PathVariable UUID id,
 
             @Parameter(description = "Nuevo estado de la orden", example = "COMPLETED")
-            @RequestParam OrderStatus status);
+            @RequestParam OrderStatus status,
+
+            @Parameter(description = "Versión de la orden que vio el cliente", example = "3")
+            @RequestParam(required = false) Long version);
+
+    @Operation(
+            summary = "Avanzar varias órdenes",
+            description = "Pasa cada orden al siguiente estado de su flujo en una sola operación. " +
+                    "Si alguna no puede avanzar o cambió mientras tanto no se aplica ningún cambio."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Órdenes avanzadas exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Solicitud inválida"),
+            @ApiResponse(responseCode = "404", description = "Alguna orden no existe en el local"),
+            @ApiResponse(responseCode = "409", description = "Alguna orden ya no puede avanzar o cambió mientras tanto")
+    })
+    @PatchMapping("/status/advance")
+    ResponseEntity<List<OrderResponseDto>> advanceOrderStatuses(
+            @RequestBody @Valid OrderStatusAdvanceRequestDto request);
 }
\ No newline at end of file
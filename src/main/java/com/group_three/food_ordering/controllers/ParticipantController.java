@@ -1,15 +1,18 @@
 package com.group_three.food_ordering.controllers;
 
 import com.group_three.food_ordering.utils.constants.ApiPaths;
+import com.group_three.food_ordering.dto.request.CustomSplitRequestDto;
 import com.group_three.food_ordering.dto.response.*;
 import com.group_three.food_ordering.enums.OrderStatus;
 import com.group_three.food_ordering.enums.PaymentStatus;
+import com.group_three.food_ordering.enums.SplitMode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.validation.Valid;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -75,6 +78,36 @@ public interface ParticipantController {
     ResponseEntity<TableSessionResponseDto> getCurrentTableSession();
 
 
+    @Operation(
+            summary = "Obtener la cuenta de la sesión actual",
+            description = "Devuelve lo consumido, lo pagado y lo que falta pagar de la mesa, y la parte de cada participante " +
+                    "según el modo de división: EVEN (partes iguales entre los presentes) o BY_ITEM (lo que pidió cada uno).",
+            responses = {
+                    @ApiResponse(responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = TableSessionSettlementResponseDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Modo de división inválido")
+            }
+    )
+    @GetMapping("/table-sessions/settlement")
+    ResponseEntity<TableSessionSettlementResponseDto> getCurrentSettlement(
+            @Parameter(description = "Modo de división", example = "EVEN")
+            @RequestParam(defaultValue = "EVEN") SplitMode split);
+
+
+    @Operation(
+            summary = "Calcular una división personalizada de la cuenta",
+            description = "Valida los montos propuestos por participante: deben ser positivos y sumar exactamente lo que falta pagar.",
+            responses = {
+                    @ApiResponse(responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = TableSessionSettlementResponseDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Los montos no cubren el saldo o incluyen participantes ajenos a la mesa")
+            }
+    )
+    @PostMapping("/table-sessions/settlement/custom")
+    ResponseEntity<TableSessionSettlementResponseDto> getCurrentCustomSettlement(
+            @RequestBody @Valid CustomSplitRequestDto customSplitRequestDto);
+
+
     @Operation(
             summary = "Finalizar la sesión de mesa propia (Host)",
             description = "Actualiza el endTime de la sesión y coloca la mesa en estado WAITING_RESET hasta que sea limpiada y colocada en AVAILABLE por un STAFF.)",
@@ -5,6 +5,7 @@ import com.group_three.food_ordering.dto.request.PaymentRequestDto;
 import com.group_three.food_ordering.dto.response.PageResponse;
 import com.group_three.food_ordering.dto.response.PaymentResponseDto;
 import com.group_three.food_ordering.enums.PaymentStatus;
+import com.group_three.food_ordering.services.IdempotencyStore;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -21,9 +22,15 @@ import java.util.UUID;
 @Tag(name = "Pagos", description = "Operaciones para gestionar pagos")
 public interface PaymentController {
 
-    @Operation(summary = "Crear un nuevo pago")
+    @Operation(summary = "Crear un nuevo pago",
+            description = "Con el header Idempotency-Key los reintentos no generan pagos duplicados.")
     @PostMapping
-    ResponseEntity<PaymentResponseDto> createPayment(@RequestBody PaymentRequestDto dto);
+    ResponseEntity<PaymentResponseDto> createPayment(
+            @RequestBody PaymentRequestDto dto,
+
+            @Parameter(description = "Clave única del intento; los reintentos con la misma clave devuelven la respuesta original",
+                    example = "5f8d0d55-4a5b-4f8e-9c1a-3b2f1e6d7c90")
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey);
 
     @Operation(summary = "Obtener pagos por contexto, estado y rango de fechas")
     @GetMapping("/context")
@@ -33,6 +40,15 @@ public interface PaymentController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
             @Parameter Pageable pageable);
 
+    @Operation(summary = "Obtener el historial de pagos por contexto, estado y rango de fechas usando cursor")
+    @GetMapping("/context/history")
+    ResponseEntity<PageResponse<PaymentResponseDto>> getHistoryByContextAndStatusAndDateBetween(
+            @RequestParam PaymentStatus status,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Cursor devuelto por la página anterior") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size);
+
     @Operation(summary = "Obtener pagos por sesión de mesa y estado")
     @GetMapping("/table-session/{tableSession}")
     ResponseEntity<PageResponse<PaymentResponseDto>> getAllByTableSessionAndStatus(
@@ -11,9 +11,11 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
@@ -39,9 +41,13 @@ public interface PublicInfoController {
 
 
     @Operation(summary = "Muestra el menu del lugar si es público")
-    @ApiResponse(responseCode = "200", description = "Listado de productos por categoría")
+    @ApiResponse(responseCode = "200", description = "Listado de productos por categoría",
+            content = @Content(schema = @Schema(implementation = MenuResponseDto.class)))
+    @ApiResponse(responseCode = "304", description = "El menú no cambió desde el ETag enviado")
     @GetMapping("/food-venues/{foodVenueId}/menu")
-    ResponseEntity<MenuResponseDto> getHierarchicalMenu(
+    ResponseEntity<byte[]> getHierarchicalMenu(
             @PathVariable UUID foodVenueId,
-            @RequestParam(required = false) String category);
+            @RequestParam(required = false) String category,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding);
 }
@@ -4,6 +4,7 @@ import com.group_three.food_ordering.utils.constants.ApiPaths;
 import com.group_three.food_ordering.dto.request.TableSessionRequestDto;
 import com.group_three.food_ordering.dto.response.*;
 import com.group_three.food_ordering.enums.OrderStatus;
+import com.group_three.food_ordering.enums.SplitMode;
 import com.group_three.food_ordering.utils.OnCreate;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -50,6 +51,22 @@ public interface TableSessionController {
     ResponseEntity<PageResponse<TableSessionResponseDto>> getTableSessionsByContext(@Parameter(hidden = true) Pageable pageable);
 
 
+    @Operation(
+            summary = "Obtener el historial de sesiones de mesa por cursor",
+            description = "Devuelve las sesiones de la más reciente a la más antigua sin calcular totales. " +
+                    "Para la página siguiente se envía el nextCursor de la respuesta anterior.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Página de sesiones"),
+                    @ApiResponse(responseCode = "400", description = "Cursor inválido")
+            }
+    )
+    @GetMapping("/history")
+    ResponseEntity<PageResponse<TableSessionResponseDto>> getTableSessionHistory(
+            @Parameter(description = "Cursor devuelto por la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de sesiones por página (máximo 100)", example = "20")
+            @RequestParam(defaultValue = "20") int size);
+
+
     @Operation(
             summary = "Obtener todas las sesiones de mesa de un Local de comida",
             description = "Devuelve una lista con todas las sesiones de mesa registradas en un lugar específico. Acceso root",
@@ -201,6 +218,24 @@ public interface TableSessionController {
             @Parameter Pageable pageable);
 
 
+    @Operation(
+            summary = "Obtener la cuenta de una sesión de mesa",
+            description = "Devuelve lo consumido, lo pagado y lo que falta pagar, con la parte de cada participante " +
+                    "según el modo de división (EVEN o BY_ITEM).",
+            responses = {
+                    @ApiResponse(responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = TableSessionSettlementResponseDto.class))),
+                    @ApiResponse(responseCode = "404", description = "Sesión no encontrada")
+            }
+    )
+    @GetMapping("/{id}/settlement")
+    ResponseEntity<TableSessionSettlementResponseDto> getSettlement(
+            @Parameter(description = "UUID de la table session", example = "123e4567-e89b-12d3-a456-426614174000")
+            @PathVariable UUID id,
+            @Parameter(description = "Modo de división", example = "BY_ITEM")
+            @RequestParam(defaultValue = "BY_ITEM") SplitMode split);
+
+
     @Operation(
             summary = "Finalizar la sesión de una mesa (Staff)",
             description = "Actualiza el endTime de la sesión y coloca la mesa en estado WAITING_RESET hasta que sea limpiada y colocada en AVAILABLE por un STAFF.)",
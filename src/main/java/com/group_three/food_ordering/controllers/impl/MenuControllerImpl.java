@@ -1,9 +1,10 @@
 package com.group_three.food_ordering.controllers.impl;
 
 import com.group_three.food_ordering.controllers.MenuController;
-import com.group_three.food_ordering.dto.response.MenuResponseDto;
 import com.group_three.food_ordering.services.MenuService;
+import com.group_three.food_ordering.utils.EncodedMenuResponses;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RestController;
@@ -16,7 +17,11 @@ public class MenuControllerImpl implements MenuController {
     private final MenuService menuService;
 
     @Override
-    public ResponseEntity<MenuResponseDto> getHierarchicalMenu(String category) {
-        return ResponseEntity.ok(menuService.getCurrentContextHierarchicalMenu(category));
+    public ResponseEntity<byte[]> getHierarchicalMenu(String category, String ifNoneMatch, String acceptEncoding) {
+        return EncodedMenuResponses.toResponse(
+                menuService.getCurrentContextEncodedMenu(category),
+                ifNoneMatch,
+                acceptEncoding,
+                CacheControl.noCache().cachePrivate());
     }
 }
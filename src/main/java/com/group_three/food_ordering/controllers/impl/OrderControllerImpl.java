@@ -2,9 +2,11 @@ package com.group_three.food_ordering.controllers.impl;
 
 import com.group_three.food_ordering.controllers.OrderController;
 import com.group_three.food_ordering.dto.request.OrderRequestDto;
+import com.group_three.food_ordering.dto.request.OrderStatusAdvanceRequestDto;
 import com.group_three.food_ordering.dto.response.OrderResponseDto;
 import com.group_three.food_ordering.dto.response.PageResponse;
 import com.group_three.food_ordering.enums.OrderStatus;
+import com.group_three.food_ordering.services.IdempotencyStore;
 import com.group_three.food_ordering.services.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +17,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -23,16 +26,23 @@ import java.util.UUID;
 public class OrderControllerImpl implements OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyStore idempotencyStore;
 
     @Override
     @PreAuthorize("hasAnyRole('CLIENT','GUEST')")
-    public ResponseEntity<OrderResponseDto> createOrder(OrderRequestDto order) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(orderService.create(order));
+    public ResponseEntity<OrderResponseDto> createOrder(OrderRequestDto order, String idempotencyKey) {
+        OrderResponseDto created = idempotencyStore.execute("order", idempotencyKey, order, OrderResponseDto.class,
+                () -> orderService.create(order));
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
     @Override
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'MANAGER','ROOT')")
-    public ResponseEntity<PageResponse<OrderResponseDto>> getOrders(LocalDate from, LocalDate to, OrderStatus status, Pageable pageable) {
+    public ResponseEntity<PageResponse<OrderResponseDto>> getOrders(
+            LocalDate from, LocalDate to, OrderStatus status, boolean withTotal, Pageable pageable) {
+        if (!withTotal) {
+            return ResponseEntity.ok(PageResponse.of(orderService.getOrdersByFiltersWithoutCount(from, to, status, pageable)));
+        }
         return ResponseEntity.ok(PageResponse.of(orderService.getOrdersByFilters(from, to, status, pageable)));
     }
 
@@ -42,6 +52,19 @@ public class OrderControllerImpl implements OrderController {
         return ResponseEntity.ok(PageResponse.of(orderService.getOrdersForToday(status, pageable)));
     }
 
+    @Override
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'MANAGER','ROOT')")
+    public ResponseEntity<List<OrderResponseDto>> getLiveBoard(List<OrderStatus> status) {
+        return ResponseEntity.ok(orderService.getLiveBoard(status));
+    }
+
+    @Override
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'MANAGER','ROOT')")
+    public ResponseEntity<PageResponse<OrderResponseDto>> getOrderHistory(
+            LocalDate from, LocalDate to, OrderStatus status, String cursor, int size) {
+        return ResponseEntity.ok(orderService.getOrderHistory(from, to, status, cursor, size));
+    }
+
     @Override
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'MANAGER','ROOT')")
     public ResponseEntity<OrderResponseDto> getOrderById(UUID id) {
@@ -68,7 +91,13 @@ public class OrderControllerImpl implements OrderController {
 
     @Override
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'MANAGER','ROOT')")
-    public ResponseEntity<OrderResponseDto> updateOrderStatus(UUID id, OrderStatus status) {
-        return ResponseEntity.ok(orderService.updateStatus(id, status));
+    public ResponseEntity<OrderResponseDto> updateOrderStatus(UUID id, OrderStatus status, Long version) {
+        return ResponseEntity.ok(orderService.updateStatus(id, status, version));
+    }
+
+    @Override
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'MANAGER','ROOT')")
+    public ResponseEntity<List<OrderResponseDto>> advanceOrderStatuses(OrderStatusAdvanceRequestDto request) {
+        return ResponseEntity.ok(orderService.advanceStatuses(request.orderIds()));
     }
 }
\ No newline at end of file
@@ -1,12 +1,15 @@
 package com.group_three.food_ordering.controllers.impl;
 
 import com.group_three.food_ordering.controllers.ParticipantController;
+import com.group_three.food_ordering.dto.request.CustomSplitRequestDto;
 import com.group_three.food_ordering.dto.response.*;
 import com.group_three.food_ordering.enums.OrderStatus;
 import com.group_three.food_ordering.enums.PaymentStatus;
+import com.group_three.food_ordering.enums.SplitMode;
 import com.group_three.food_ordering.services.OrderService;
 import com.group_three.food_ordering.services.ParticipantService;
 import com.group_three.food_ordering.services.PaymentService;
+import com.group_three.food_ordering.services.SettlementService;
 import com.group_three.food_ordering.services.TableSessionService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -28,6 +31,7 @@ public class ParticipantControllerImpl implements ParticipantController {
     private final ParticipantService participantService;
     private final PaymentService paymentService;
     private final TableSessionService tableSessionService;
+    private final SettlementService settlementService;
 
     @Override
     public ResponseEntity<PageResponse<OrderResponseDto>> getCurrentOrders(Pageable pageable) {
@@ -69,6 +73,17 @@ public class ParticipantControllerImpl implements ParticipantController {
         return ResponseEntity.ok(tableSessionService.getByCurrentParticipant());
     }
 
+    @Override
+    public ResponseEntity<TableSessionSettlementResponseDto> getCurrentSettlement(SplitMode split) {
+        return ResponseEntity.ok(settlementService.getCurrentSettlement(split, null));
+    }
+
+    @Override
+    public ResponseEntity<TableSessionSettlementResponseDto> getCurrentCustomSettlement(
+            CustomSplitRequestDto customSplitRequestDto) {
+        return ResponseEntity.ok(settlementService.getCurrentSettlement(SplitMode.CUSTOM, customSplitRequestDto.amounts()));
+    }
+
     @Override
     public ResponseEntity<AuthResponse> endYourOwnTableSession() {
         AuthResponse authResponse = tableSessionService.closeCurrentSession();
@@ -6,6 +6,7 @@ import com.group_three.food_ordering.dto.request.PaymentRequestDto;
 import com.group_three.food_ordering.dto.response.PageResponse;
 import com.group_three.food_ordering.dto.response.PaymentResponseDto;
 import com.group_three.food_ordering.enums.PaymentStatus;
+import com.group_three.food_ordering.services.IdempotencyStore;
 import com.group_three.food_ordering.services.PaymentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -26,11 +27,13 @@ import java.util.UUID;
 public class PaymentControllerImpl implements PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyStore idempotencyStore;
 
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'CLIENT', 'GUEST', 'MANAGER', 'ROOT')")
     @Override
-    public ResponseEntity<PaymentResponseDto> createPayment(PaymentRequestDto dto) {
-        PaymentResponseDto createdPayment = paymentService.create(dto);
+    public ResponseEntity<PaymentResponseDto> createPayment(PaymentRequestDto dto, String idempotencyKey) {
+        PaymentResponseDto createdPayment = idempotencyStore.execute("payment", idempotencyKey, dto,
+                PaymentResponseDto.class, () -> paymentService.create(dto));
         return ResponseEntity.status(HttpStatus.CREATED).body(createdPayment);
     }
 
@@ -47,6 +50,18 @@ public class PaymentControllerImpl implements PaymentController {
         return ResponseEntity.ok(PageResponse.of(payments));
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'MANAGER', 'ROOT')")
+    @Override
+    public ResponseEntity<PageResponse<PaymentResponseDto>> getHistoryByContextAndStatusAndDateBetween(
+            PaymentStatus status,
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            String cursor,
+            int size) {
+
+        return ResponseEntity.ok(paymentService.getHistoryByContextAndStatusAndDateBetween(status, from, to, cursor, size));
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'MANAGER', 'ROOT')")
     @Override
     public ResponseEntity<PageResponse<PaymentResponseDto>> getAllByTableSessionAndStatus(
@@ -2,12 +2,13 @@ package com.group_three.food_ordering.controllers.impl;
 
 import com.group_three.food_ordering.controllers.PublicInfoController;
 import com.group_three.food_ordering.dto.response.FoodVenuePublicResponseDto;
-import com.group_three.food_ordering.dto.response.MenuResponseDto;
 import com.group_three.food_ordering.dto.response.PageResponse;
 import com.group_three.food_ordering.services.FoodVenueService;
 import com.group_three.food_ordering.services.MenuService;
+import com.group_three.food_ordering.utils.EncodedMenuResponses;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -28,7 +29,12 @@ public class PublicInfoControllerImpl implements PublicInfoController {
 
 
     @Override
-    public ResponseEntity<MenuResponseDto> getHierarchicalMenu(UUID foodVenueId, String category) {
-        return ResponseEntity.ok(menuService.getHierarchicalMenuByFoodVenueId(foodVenueId, category));
+    public ResponseEntity<byte[]> getHierarchicalMenu(UUID foodVenueId, String category,
+                                                      String ifNoneMatch, String acceptEncoding) {
+        return EncodedMenuResponses.toResponse(
+                menuService.getEncodedMenuByFoodVenueId(foodVenueId, category),
+                ifNoneMatch,
+                acceptEncoding,
+                CacheControl.noCache());
     }
 }
@@ -6,8 +6,11 @@ import com.group_three.food_ordering.dto.response.AuthResponse;
 import com.group_three.food_ordering.dto.response.OrderResponseDto;
 import com.group_three.food_ordering.dto.response.PageResponse;
 import com.group_three.food_ordering.dto.response.TableSessionResponseDto;
+import com.group_three.food_ordering.dto.response.TableSessionSettlementResponseDto;
 import com.group_three.food_ordering.enums.OrderStatus;
+import com.group_three.food_ordering.enums.SplitMode;
 import com.group_three.food_ordering.services.OrderService;
+import com.group_three.food_ordering.services.SettlementService;
 import com.group_three.food_ordering.services.TableSessionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +28,7 @@ public class TableSessionControllerImpl implements TableSessionController {
 
     private final TableSessionService tableSessionService;
     private final OrderService orderService;
+    private final SettlementService settlementService;
 
     @PreAuthorize("hasRole('CLIENT') or isAnonymous()")
     @Override
@@ -40,6 +44,12 @@ public class TableSessionControllerImpl implements TableSessionController {
         return ResponseEntity.ok(PageResponse.of(tableSessionService.getAll(pageable)));
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'MANAGER', 'ROOT')")
+    @Override
+    public ResponseEntity<PageResponse<TableSessionResponseDto>> getTableSessionHistory(String cursor, int size) {
+        return ResponseEntity.ok(tableSessionService.getHistory(cursor, size));
+    }
+
     @PreAuthorize("hasRole('ROOT')")
     @Override
     public ResponseEntity<PageResponse<TableSessionResponseDto>> getTableSessionsByFoodVenueId(Pageable pageable) {
@@ -119,6 +129,13 @@ public class TableSessionControllerImpl implements TableSessionController {
     }
 
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'MANAGER', 'ROOT')")
+    @Override
+    public ResponseEntity<TableSessionSettlementResponseDto> getSettlement(UUID id, SplitMode split) {
+        return ResponseEntity.ok(settlementService.getSettlement(id, split));
+    }
+
+
     @PreAuthorize("hasAnyRole('STAFF', 'ADMIN', 'ROOT')")
     @Override
     public ResponseEntity<Void> endTableSessionByTable(UUID tableId) {
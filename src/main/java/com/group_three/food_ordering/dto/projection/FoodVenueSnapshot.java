@@ -0,0 +1,15 @@
+package com.group_three.food_ordering.dto.projection;
+
+import java.util.UUID;
+
+// Identidad del local del contexto actual
+public record FoodVenueSnapshot(
+
+        Long id,
+
+        UUID publicId,
+
+        String name
+
+) {
+}
@@ -0,0 +1,25 @@
+package com.group_three.food_ordering.dto.projection;
+
+import java.math.BigDecimal;
+
+// Un renglón de detalle junto con el id de la orden a la que pertenece
+public record OrderDetailView(
+
+        Long orderId,
+
+        Long id,
+
+        Integer quantity,
+
+        BigDecimal price,
+
+        BigDecimal unitPrice,
+
+        String productName,
+
+        String category,
+
+        String specialInstructions
+
+) {
+}
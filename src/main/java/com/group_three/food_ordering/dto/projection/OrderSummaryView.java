@@ -0,0 +1,33 @@
+package com.group_three.food_ordering.dto.projection;
+
+import com.group_three.food_ordering.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+// Columnas de la orden que necesitan los listados, sin hidratar la entidad
+public record OrderSummaryView(
+
+        Long id,
+
+        UUID publicId,
+
+        Integer orderNumber,
+
+        String specialRequirements,
+
+        UUID participantId,
+
+        String clientAlias,
+
+        BigDecimal totalPrice,
+
+        OrderStatus status,
+
+        Instant orderDate,
+
+        long version
+
+) {
+}
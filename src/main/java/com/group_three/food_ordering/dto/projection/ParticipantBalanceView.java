@@ -0,0 +1,29 @@
+package com.group_three.food_ordering.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+// Participante de la mesa con su saldo acumulado; los que todavía no pidieron nada vienen en cero
+public record ParticipantBalanceView(
+
+        UUID participantId,
+
+        String nickname,
+
+        Instant leftAt,
+
+        BigDecimal billed,
+
+        BigDecimal paid
+
+) {
+
+    public boolean isActive() {
+        return leftAt == null;
+    }
+
+    public BigDecimal outstanding() {
+        return billed.subtract(paid);
+    }
+}
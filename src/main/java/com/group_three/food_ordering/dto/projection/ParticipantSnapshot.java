@@ -0,0 +1,28 @@
+package com.group_three.food_ordering.dto.projection;
+
+import com.group_three.food_ordering.enums.RoleType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Estado del participante que usan la mayoría de los requests; inmutable para poder compartirlo entre requests
+public record ParticipantSnapshot(
+
+        Long id,
+
+        UUID publicId,
+
+        UUID tableSessionId,
+
+        UUID userId,
+
+        RoleType role,
+
+        Instant leftAt
+
+) {
+
+    public boolean isActive() {
+        return leftAt == null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.group_three.food_ordering.dto.projection;
+
+import java.math.BigDecimal;
+
+// Parte de un pago que corresponde a cada participante, según las órdenes que cubre
+public record PaymentShareView(
+
+        Long tableSessionId,
+
+        Long participantId,
+
+        BigDecimal amount
+
+) {
+}
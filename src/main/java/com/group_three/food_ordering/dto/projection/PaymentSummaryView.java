@@ -0,0 +1,26 @@
+package com.group_three.food_ordering.dto.projection;
+
+import com.group_three.food_ordering.enums.PaymentMethod;
+import com.group_three.food_ordering.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+// Columnas del pago que necesitan los listados, sin hidratar el pago ni sus órdenes
+public record PaymentSummaryView(
+
+        Long id,
+
+        UUID publicId,
+
+        BigDecimal amount,
+
+        PaymentStatus status,
+
+        PaymentMethod paymentMethod,
+
+        Instant creationDate
+
+) {
+}
@@ -0,0 +1,22 @@
+package com.group_three.food_ordering.dto.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Ids y estado de la sesión de mesa, sin participantes ni órdenes
+public record TableSessionSnapshot(
+
+        Long id,
+
+        UUID publicId,
+
+        UUID foodVenueId,
+
+        Instant endTime
+
+) {
+
+    public boolean isOpen() {
+        return endTime == null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.group_three.food_ordering.dto.projection;
+
+// Lo mínimo para verificar un login, sin cargar el usuario ni sus empleos
+public record UserCredentials(
+
+        Long id,
+
+        String email,
+
+        String password
+
+) {
+}
@@ -0,0 +1,15 @@
+package com.group_three.food_ordering.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+public record CustomSplitRequestDto(
+
+        @NotEmpty(message = "At least one participant amount is required")
+        Map<UUID, BigDecimal> amounts
+
+) {
+}
@@ -0,0 +1,17 @@
+package com.group_three.food_ordering.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record OrderStatusAdvanceRequestDto(
+
+        @NotEmpty(message = "At least one order is required")
+        @Size(max = 100, message = "At most 100 orders per request")
+        List<@NotNull UUID> orderIds
+
+) {
+}
@@ -40,6 +40,8 @@ public class ProductRequestDto {
 
     private UUID categoryId;
 
+    private Boolean highTurnover;
+
     private List<String> tags;
 
 }
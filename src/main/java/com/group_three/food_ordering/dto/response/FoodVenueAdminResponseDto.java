@@ -24,6 +24,8 @@ public class FoodVenueAdminResponseDto {
 
     private String imageUrl;
 
+    private Boolean hotStockEnabled;
+
     private AddressResponseDto address;
 
     private Instant creationDate;
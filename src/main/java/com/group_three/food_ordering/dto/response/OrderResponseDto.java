@@ -30,6 +30,9 @@ public class OrderResponseDto {
 
     private OrderStatus status;
 
+    // Se reenvía como expectedVersion para que un cambio de estado no pise otro hecho en paralelo
+    private Long version;
+
     private List<OrderDetailResponseDto> orderDetails;
 
 }
@@ -1,24 +1,31 @@
 package com.group_three.food_ordering.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
+import java.util.function.Function;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PageResponse<T> {
     private List<T> content;
-    private int pageNumber;
+    private Integer pageNumber;
     private int pageSize;
-    private long totalElements;
-    private int totalPages;
+    // null cuando el listado se pidió sin conteo total
+    private Long totalElements;
+    private Integer totalPages;
     private boolean first;
     private boolean last;
     private boolean empty;
+    // Token opaco para pedir la página siguiente en los listados por cursor
+    private String nextCursor;
 
     public static <T> PageResponse<T> of(Page<T> page) {
         return PageResponse.<T>builder()
@@ -32,4 +39,35 @@ public class PageResponse<T> {
                 .empty(page.isEmpty())
                 .build();
     }
-}
\ No newline at end of file
+
+    // Modo sin conteo: la consulta no dispara el COUNT y no se informan totales
+    public static <T> PageResponse<T> of(Slice<T> slice) {
+        return PageResponse.<T>builder()
+                .content(slice.getContent())
+                .pageNumber(slice.getNumber())
+                .pageSize(slice.getSize())
+                .first(slice.isFirst())
+                .last(!slice.hasNext())
+                .empty(!slice.hasContent())
+                .build();
+    }
+
+    /**
+     * Página por cursor: {@code rows} trae hasta {@code size + 1} elementos; el sobrante sólo indica
+     * que hay más y el cursor se arma con el último elemento devuelto. El mapeo recibe la página
+     * completa para poder resolver relaciones en lote.
+     */
+    public static <R, T> PageResponse<T> ofKeyset(
+            List<R> rows, int size, boolean first, Function<R, String> cursorOf, Function<List<R>, List<T>> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<R> page = hasNext ? rows.subList(0, size) : rows;
+        return PageResponse.<T>builder()
+                .content(mapper.apply(page))
+                .pageSize(size)
+                .first(first)
+                .last(!hasNext)
+                .empty(page.isEmpty())
+                .nextCursor(hasNext ? cursorOf.apply(page.get(page.size() - 1)) : null)
+                .build();
+    }
+}
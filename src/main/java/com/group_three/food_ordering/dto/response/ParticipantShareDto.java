@@ -0,0 +1,29 @@
+package com.group_three.food_ordering.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ParticipantShareDto {
+
+    private UUID participantId;
+
+    private String nickname;
+
+    // Lo que pidió y cuánto de eso ya está pagado
+    private BigDecimal billed;
+
+    private BigDecimal paid;
+
+    // Lo que le toca pagar según el reparto elegido
+    private BigDecimal share;
+
+}
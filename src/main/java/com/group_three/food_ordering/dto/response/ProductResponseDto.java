@@ -29,6 +29,8 @@ public class ProductResponseDto {
 
     private Boolean available;
 
+    private Boolean highTurnover;
+
     private CategoryResponseDto category;
 
     private List<TagResponseDto> tags;
@@ -0,0 +1,36 @@
+package com.group_three.food_ordering.dto.response;
+
+import com.group_three.food_ordering.enums.SplitMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TableSessionSettlementResponseDto {
+
+    private UUID tableSessionId;
+
+    private BigDecimal billedTotal;
+
+    private BigDecimal paidTotal;
+
+    private BigDecimal outstanding;
+
+    private boolean settled;
+
+    private SplitMode split;
+
+    // Parte del saldo que el reparto no asignó a nadie (por ejemplo, órdenes cargadas por el staff)
+    private BigDecimal unassigned;
+
+    private List<ParticipantShareDto> participants;
+
+}
@@ -1,5 +1,10 @@
 package com.group_three.food_ordering.enums;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
 
     PENDING,
@@ -7,5 +12,32 @@ public enum OrderStatus {
     IN_PROGRESS,
     COMPLETED,
     SERVED,
-    CANCELLED
+    CANCELLED;
+
+    // Flujo de cocina hacia adelante; se puede cancelar hasta que se sirve y reactivar una cancelada
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(APPROVED, CANCELLED));
+        TRANSITIONS.put(APPROVED, EnumSet.of(IN_PROGRESS, CANCELLED));
+        TRANSITIONS.put(IN_PROGRESS, EnumSet.of(COMPLETED, CANCELLED));
+        TRANSITIONS.put(COMPLETED, EnumSet.of(SERVED, CANCELLED));
+        TRANSITIONS.put(SERVED, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.of(PENDING));
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+
+    /** Siguiente paso del flujo normal; null si la orden ya no avanza (SERVED o CANCELLED) */
+    public OrderStatus next() {
+        return switch (this) {
+            case PENDING -> APPROVED;
+            case APPROVED -> IN_PROGRESS;
+            case IN_PROGRESS -> COMPLETED;
+            case COMPLETED -> SERVED;
+            case SERVED, CANCELLED -> null;
+        };
+    }
 }
@@ -0,0 +1,11 @@
+package com.group_three.food_ordering.enums;
+
+public enum SplitMode {
+
+    // Saldo pendiente repartido en partes iguales entre los que siguen en la mesa
+    EVEN,
+    // Cada uno paga lo que pidió y todavía no se pagó
+    BY_ITEM,
+    // Importes indicados por la mesa; tienen que cubrir exactamente el saldo pendiente
+    CUSTOM
+}
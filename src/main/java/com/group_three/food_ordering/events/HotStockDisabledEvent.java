@@ -0,0 +1,10 @@
+package com.group_three.food_ordering.events;
+
+import java.util.UUID;
+
+/**
+ * Se publica cuando un local apaga el modo de stock caliente: sus movimientos pendientes
+ * tienen que volcarse a {@code products} antes de volver al UPDATE directo.
+ */
+public record HotStockDisabledEvent(UUID foodVenueId) {
+}
@@ -0,0 +1,10 @@
+package com.group_three.food_ordering.events;
+
+import java.util.UUID;
+
+/**
+ * Se publica cuando cambia algo que forma parte del menú de un local
+ * (productos, stock que altera la disponibilidad, categorías o datos del local).
+ */
+public record MenuChangedEvent(UUID foodVenueId) {
+}
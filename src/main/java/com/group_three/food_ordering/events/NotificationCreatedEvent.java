@@ -0,0 +1,9 @@
+package com.group_three.food_ordering.events;
+
+import com.group_three.food_ordering.notifications.dto.NotificationResponseDto;
+
+/**
+ * Se publica por cada notificación persistida; el aviso a los dispositivos sale recién con el commit.
+ */
+public record NotificationCreatedEvent(String userEmail, NotificationResponseDto notification) {
+}
@@ -0,0 +1,20 @@
+package com.group_three.food_ordering.events;
+
+import com.group_three.food_ordering.dto.response.OrderResponseDto;
+
+import java.util.UUID;
+
+/**
+ * Se publica con el estado ya mapeado de una orden cada vez que se crea, cambia de estado o de detalle,
+ * o se elimina. El DTO se arma dentro de la transacción para que los listeners no toquen entidades.
+ */
+public record OrderChangedEvent(UUID foodVenueId, OrderResponseDto order, boolean removed) {
+
+    public static OrderChangedEvent updated(UUID foodVenueId, OrderResponseDto order) {
+        return new OrderChangedEvent(foodVenueId, order, false);
+    }
+
+    public static OrderChangedEvent removed(UUID foodVenueId, OrderResponseDto order) {
+        return new OrderChangedEvent(foodVenueId, order, true);
+    }
+}
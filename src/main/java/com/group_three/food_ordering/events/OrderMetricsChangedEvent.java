@@ -0,0 +1,53 @@
+package com.group_three.food_ordering.events;
+
+import com.group_three.food_ordering.enums.OrderStatus;
+import com.group_three.food_ordering.models.BaseEntity;
+import com.group_three.food_ordering.models.Order;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Se publica cuando una orden se crea, cambia su estado o su total, o se elimina ({@code status} null).
+ * Lleva el estado y total previos para que los acumulados puedan mover la orden de un estado a otro,
+ * y la sesión y el participante para los saldos de la mesa.
+ */
+public record OrderMetricsChangedEvent(
+        Long foodVenueId,
+        Instant orderDate,
+        OrderStatus previousStatus,
+        BigDecimal previousTotal,
+        OrderStatus status,
+        BigDecimal total,
+        Long tableSessionId,
+        Long participantId) {
+
+    public static OrderMetricsChangedEvent created(Order order) {
+        return changed(order, null, null);
+    }
+
+    public static OrderMetricsChangedEvent changed(Order order, OrderStatus previousStatus, BigDecimal previousTotal) {
+        return of(order, previousStatus, previousTotal, order.getStatus(), order.getTotalPrice());
+    }
+
+    // Para cambios aplicados con UPDATE directo, donde la entidad todavía tiene el estado anterior
+    public static OrderMetricsChangedEvent statusChanged(Order order, OrderStatus previousStatus, OrderStatus status) {
+        return of(order, previousStatus, order.getTotalPrice(), status, order.getTotalPrice());
+    }
+
+    public static OrderMetricsChangedEvent removed(Order order) {
+        return of(order, order.getStatus(), order.getTotalPrice(), null, null);
+    }
+
+    private static OrderMetricsChangedEvent of(Order order, OrderStatus previousStatus, BigDecimal previousTotal,
+                                               OrderStatus status, BigDecimal total) {
+        return new OrderMetricsChangedEvent(order.getFoodVenue().getId(), order.getOrderDate(),
+                previousStatus, previousTotal, status, total,
+                idOf(order.getTableSession()), idOf(order.getParticipant()));
+    }
+
+    // El id de un proxy lazy se lee sin inicializarlo
+    private static Long idOf(BaseEntity entity) {
+        return entity != null ? entity.getId() : null;
+    }
+}
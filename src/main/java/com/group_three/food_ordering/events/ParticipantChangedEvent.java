@@ -0,0 +1,9 @@
+package com.group_three.food_ordering.events;
+
+import java.util.UUID;
+
+/**
+ * Se publica cuando cambian el usuario o el rol de un participante (p. ej. un invitado que inicia sesión).
+ */
+public record ParticipantChangedEvent(UUID participantId) {
+}
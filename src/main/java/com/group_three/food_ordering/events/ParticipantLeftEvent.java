@@ -0,0 +1,9 @@
+package com.group_three.food_ordering.events;
+
+import java.util.UUID;
+
+/**
+ * Se publica cuando un participante abandona su sesión de mesa.
+ */
+public record ParticipantLeftEvent(UUID participantId, UUID tableSessionId) {
+}
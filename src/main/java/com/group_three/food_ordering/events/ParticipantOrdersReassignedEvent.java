@@ -0,0 +1,7 @@
+package com.group_three.food_ordering.events;
+
+/**
+ * Se publica cuando las órdenes de un invitado pasan a otro participante de la misma mesa.
+ */
+public record ParticipantOrdersReassignedEvent(Long fromParticipantId, Long toParticipantId) {
+}
@@ -0,0 +1,10 @@
+package com.group_three.food_ordering.events;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Se publica cuando un pago pasa a COMPLETED.
+ */
+public record PaymentCompletedEvent(Long paymentId, Long foodVenueId, Instant paymentDate, BigDecimal amount) {
+}
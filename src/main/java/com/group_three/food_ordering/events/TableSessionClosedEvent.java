@@ -0,0 +1,10 @@
+package com.group_three.food_ordering.events;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Se publica al cerrar una sesión de mesa.
+ */
+public record TableSessionClosedEvent(UUID tableSessionId, Long foodVenueId, Instant startTime, Instant endTime) {
+}
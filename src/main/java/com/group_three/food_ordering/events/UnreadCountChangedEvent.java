@@ -0,0 +1,8 @@
+package com.group_three.food_ordering.events;
+
+/**
+ * Se publica cuando se marcan notificaciones como leídas. {@code remaining} en null significa que
+ * hay que recontar en la base después del commit.
+ */
+public record UnreadCountChangedEvent(String userEmail, Long remaining) {
+}
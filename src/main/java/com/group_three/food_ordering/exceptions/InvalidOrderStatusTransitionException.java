@@ -0,0 +1,16 @@
+package com.group_three.food_ordering.exceptions;
+
+import com.group_three.food_ordering.enums.OrderStatus;
+
+import java.util.UUID;
+
+public class InvalidOrderStatusTransitionException extends RuntimeException {
+
+    public InvalidOrderStatusTransitionException(UUID orderId, OrderStatus from, OrderStatus to) {
+        super("Order " + orderId + " cannot change from " + from + " to " + to);
+    }
+
+    public InvalidOrderStatusTransitionException(String message) {
+        super(message);
+    }
+}
@@ -6,6 +6,7 @@ import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.access.AccessDeniedException;
@@ -78,6 +79,28 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(e.getMessage(), HttpStatus.CONFLICT, request, null);
     }
 
+    @ExceptionHandler(InvalidOrderStatusTransitionException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidOrderStatusTransition(InvalidOrderStatusTransitionException e, HttpServletRequest request) {
+        return buildErrorResponse(e.getMessage(), HttpStatus.CONFLICT, request, null);
+    }
+
+    // Otro usuario modificó la orden entre la lectura y el UPDATE condicional
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLocking(ObjectOptimisticLockingFailureException e, HttpServletRequest request) {
+        return buildErrorResponse(e.getMessage(), HttpStatus.CONFLICT, request, null);
+    }
+
+    // Error de Idempotency-Key reusada con un cuerpo distinto
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReused(IdempotencyKeyReusedException e, HttpServletRequest request) {
+        return buildErrorResponse(e.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY, request, null);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(TooManyRequestsException e, HttpServletRequest request) {
+        return buildErrorResponse(e.getMessage(), HttpStatus.TOO_MANY_REQUESTS, request, null);
+    }
+
     @ExceptionHandler(InvalidDiningTableStatusException.class)
     public ResponseEntity<ErrorResponse> handleInvalidDiningTableStatus(InvalidDiningTableStatusException e, HttpServletRequest request) {
         String message;
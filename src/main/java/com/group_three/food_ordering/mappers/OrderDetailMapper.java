@@ -1,5 +1,6 @@
 package com.group_three.food_ordering.mappers;
 
+import com.group_three.food_ordering.dto.projection.OrderDetailView;
 import com.group_three.food_ordering.dto.request.OrderDetailRequestDto;
 import com.group_three.food_ordering.dto.response.OrderDetailResponseDto;
 import com.group_three.food_ordering.models.OrderDetail;
@@ -16,6 +17,10 @@ public interface OrderDetailMapper {
             expression = "java(orderDetail.getPrice() != null ? orderDetail.getPrice().multiply(java.math.BigDecimal.valueOf(orderDetail.getQuantity())) : java.math.BigDecimal.ZERO)")
     OrderDetailResponseDto toDto(OrderDetail orderDetail);
 
+    @Mapping(target = "subtotal",
+            expression = "java(detailView.price() != null ? detailView.price().multiply(java.math.BigDecimal.valueOf(detailView.quantity())) : java.math.BigDecimal.ZERO)")
+    OrderDetailResponseDto toDto(OrderDetailView detailView);
+
     OrderDetail toEntity(OrderDetailRequestDto orderDetailDTO);
 
 }
@@ -1,5 +1,6 @@
 package com.group_three.food_ordering.mappers;
 
+import com.group_three.food_ordering.dto.projection.OrderSummaryView;
 import com.group_three.food_ordering.dto.request.OrderRequestDto;
 import com.group_three.food_ordering.dto.response.OrderResponseDto;
 import com.group_three.food_ordering.models.Order;
@@ -15,6 +16,10 @@ public interface OrderMapper {
     @Mapping(source = "orderNumber", target = "orderNumber", qualifiedByName = "formatOrderNumber")
     OrderResponseDto toDto(Order order);
 
+    @Mapping(source = "orderNumber", target = "orderNumber", qualifiedByName = "formatOrderNumber")
+    @Mapping(target = "orderDetails", ignore = true)
+    OrderResponseDto toDto(OrderSummaryView orderView);
+
     Order toEntity(OrderRequestDto orderDTO);
 
 }
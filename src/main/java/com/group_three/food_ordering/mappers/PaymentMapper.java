@@ -1,5 +1,6 @@
 package com.group_three.food_ordering.mappers;
 
+import com.group_three.food_ordering.dto.projection.PaymentSummaryView;
 import com.group_three.food_ordering.dto.request.PaymentRequestDto;
 import com.group_three.food_ordering.dto.response.PaymentResponseDto;
 import com.group_three.food_ordering.models.Payment;
@@ -10,6 +11,8 @@ public interface PaymentMapper {
 
     PaymentResponseDto toDto(Payment payment);
 
+    PaymentResponseDto toDto(PaymentSummaryView paymentView);
+
     Payment toEntity(PaymentRequestDto paymentDTO);
 
 }
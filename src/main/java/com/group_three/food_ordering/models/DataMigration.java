@@ -0,0 +1,33 @@
+package com.group_three.food_ordering.models;
+
+import jakarta.persistence.*;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Migración de datos que corre una sola vez en todo el cluster (p. ej. armar una tabla derivada).
+ * El nodo que la ejecuta bloquea la fila, así que los demás esperan y después la ven aplicada.
+ */
+@Entity
+@Table(name = "data_migrations")
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class DataMigration {
+
+    @Id
+    @Column(length = 100, nullable = false, updatable = false)
+    private String name;
+
+    @Column(name = "applied_at")
+    private Instant appliedAt;
+
+    public boolean isApplied() {
+        return appliedAt != null;
+    }
+
+}
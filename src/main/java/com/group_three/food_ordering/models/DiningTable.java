@@ -33,7 +33,7 @@ public class DiningTable extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private DiningTableStatus status;
 
-    @OneToMany(mappedBy = "diningTable", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "diningTable", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<TableSession> tableSessions = new ArrayList<>();
 
     @ManyToOne(fetch = FetchType.EAGER)
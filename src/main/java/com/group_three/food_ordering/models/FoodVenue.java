@@ -32,6 +32,10 @@ public class FoodVenue extends BaseEntity {
     @Column(nullable = false, length = 20)
     private String phone;
 
+    @Column(name = "hot_stock_enabled")
+    @Builder.Default
+    private Boolean hotStockEnabled = false;
+
     @OneToMany(mappedBy = "foodVenue", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @Builder.Default
     private List<Employment> employees = new ArrayList<>();
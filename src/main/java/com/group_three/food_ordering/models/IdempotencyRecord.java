@@ -0,0 +1,54 @@
+package com.group_three.food_ordering.models;
+
+import jakarta.persistence.*;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Clave de idempotencia tomada por un pedido. La clave única la comparten todos los nodos, así que un
+ * reintento que cae en otro nodo encuentra la misma fila. Sin respuesta, el pedido sigue en curso
+ * (lo tiene {@code owner}); la respuesta se guarda en la misma transacción que la creación.
+ */
+@Entity
+@Table(name = "idempotency_keys", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_idempotency_scope", columnNames = "scope_key")
+}, indexes = {
+        @Index(name = "idx_idempotency_expires", columnList = "expires_at")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // SHA-256 de operación, llamador y clave
+    @Column(name = "scope_key", length = 64, nullable = false, updatable = false)
+    private String scopeKey;
+
+    // SHA-256 del cuerpo canónico del pedido
+    @Column(length = 64, nullable = false, updatable = false)
+    private String fingerprint;
+
+    @Column(length = 36, nullable = false)
+    private String owner;
+
+    @Column(columnDefinition = "TEXT")
+    private String response;
+
+    @Column(name = "claimed_at", nullable = false)
+    private Instant claimedAt;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private Instant expiresAt;
+
+    public boolean isCompleted() {
+        return response != null;
+    }
+
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.Table;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.SQLDelete;
 
 import java.math.BigDecimal;
@@ -14,23 +15,42 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_venue_date", columnList = "food_venue_id, order_date, id")
+})
+@NamedEntityGraph(name = Order.GRAPH_SUMMARY, attributeNodes = @NamedAttributeNode("participant"))
+@NamedEntityGraph(name = Order.GRAPH_DETAIL, attributeNodes = {
+        @NamedAttributeNode("participant"),
+        @NamedAttributeNode("tableSession"),
+        @NamedAttributeNode("foodVenue"),
+        @NamedAttributeNode("orderDetails")
+})
 @SQLDelete(sql = "UPDATE orders SET deleted = true WHERE id = ?")
 @Getter
 @Setter
 @EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
-@ToString(exclude = {"foodVenue", "participant", "tableSession", "orderDetails"})
+@ToString(exclude = {"foodVenue", "payment", "participant", "tableSession", "orderDetails"})
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
 @SuperBuilder
 public class Order extends BaseEntity {
 
+    // Listados paginados (cocina, historial): sin colecciones en el join, los detalles llegan por lotes
+    public static final String GRAPH_SUMMARY = "Order.summary";
+    // Una sola orden con todo lo que se usa al modificarla
+    public static final String GRAPH_DETAIL = "Order.detail";
+
     @Column
     private Integer orderNumber;
 
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
 
+    // Control optimista: los cambios de estado son un UPDATE condicional que también lo incrementa
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @Column
     private BigDecimal totalPrice;
 
@@ -40,22 +60,23 @@ public class Order extends BaseEntity {
     @Column
     private String specialRequirements;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private FoodVenue foodVenue;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "payment_id")
     private Payment payment;
 
-    @ManyToOne (fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     private Participant participant;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "table_session_id")
     private TableSession tableSession;
 
-    @OneToMany(cascade = CascadeType.PERSIST, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(cascade = CascadeType.PERSIST, orphanRemoval = true, fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id")
+    @BatchSize(size = 50)
     @Builder.Default
     private List<OrderDetail> orderDetails = new ArrayList<>();
 
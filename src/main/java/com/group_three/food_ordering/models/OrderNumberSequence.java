@@ -0,0 +1,41 @@
+package com.group_three.food_ordering.models;
+
+import jakarta.persistence.*;
+import jakarta.persistence.Table;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Próximo número de orden libre por local y día de negocio.
+ * Cada nodo reserva bloques de números sobre esta fila y los reparte en memoria.
+ */
+@Entity
+@Table(name = "order_number_sequences", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_order_number_venue_date", columnNames = {"food_venue_id", "business_date"})
+})
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class OrderNumberSequence {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "food_venue_id", length = 36, nullable = false, updatable = false)
+    private UUID foodVenueId;
+
+    @Column(name = "business_date", nullable = false, updatable = false)
+    private LocalDate businessDate;
+
+    @Column(name = "next_value", nullable = false)
+    private Integer nextValue;
+
+}
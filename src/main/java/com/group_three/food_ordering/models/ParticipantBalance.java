@@ -0,0 +1,39 @@
+package com.group_three.food_ordering.models;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Lo que pidió cada participante y cuánto de eso ya está pagado, sin importar quién pagó.
+ */
+@Entity
+@Table(name = "participant_balances", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_participant_balance_participant", columnNames = "participant_id")
+}, indexes = {
+        @Index(name = "idx_participant_balances_session", columnList = "table_session_id")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ParticipantBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "participant_id", nullable = false)
+    private Long participantId;
+
+    @Column(name = "table_session_id", nullable = false)
+    private Long tableSessionId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal billed;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal paid;
+
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import jakarta.persistence.Table;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.SQLDelete;
 
 import java.math.BigDecimal;
@@ -13,7 +14,9 @@ import java.time.Instant;
 import java.util.List;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_status_created", columnList = "status, creation_date, id")
+})
 @SQLDelete(sql = "UPDATE payments SET deleted = true WHERE id = ?")
 @Getter
 @Setter
@@ -27,7 +30,8 @@ public class Payment extends BaseEntity {
     @Column
     private BigDecimal amount;
 
-    @OneToMany(mappedBy = "payment", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "payment", fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     private List<Order> orders;
 
     @Column(name = "payment_date", updatable = false)
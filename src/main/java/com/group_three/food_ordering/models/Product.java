@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.persistence.Table;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.SQLDelete;
 
 import java.math.BigDecimal;
@@ -13,6 +14,7 @@ import java.util.Set;
 @Entity
 @Table(name = "products")
 @SQLDelete(sql = "UPDATE products SET deleted = true WHERE id = ?")
+@DynamicUpdate
 @Getter
 @Setter
 @EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
@@ -48,6 +50,11 @@ public class Product extends BaseEntity {
     @Column
     private Boolean customizable;
 
+    // Stock gestionado en contadores en memoria si el local tiene el modo habilitado
+    @Column(name = "high_turnover")
+    @Builder.Default
+    private Boolean highTurnover = false;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "products_tags",
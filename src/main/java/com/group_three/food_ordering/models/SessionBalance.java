@@ -0,0 +1,42 @@
+package com.group_three.food_ordering.models;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Total facturado y pagado de una sesión de mesa, movido con cada cambio de orden o pago.
+ * Sólo se escribe con upserts nativos; la entidad existe para el esquema y las lecturas.
+ */
+@Entity
+@Table(name = "session_balances", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_session_balance_session", columnNames = "table_session_id")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SessionBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "table_session_id", nullable = false)
+    private Long tableSessionId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal billed;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal paid;
+
+    public BigDecimal outstanding() {
+        return billed.subtract(paid);
+    }
+
+    public boolean isSettled() {
+        return paid.compareTo(billed) >= 0;
+    }
+}
@@ -0,0 +1,37 @@
+package com.group_three.food_ordering.models;
+
+import jakarta.persistence.*;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Movimiento de stock de un producto de alta rotación que todavía no se volcó a {@code products}.
+ * Se inserta en la misma transacción que la orden, así que sobrevive a una caída del nodo.
+ */
+@Entity
+@Table(name = "stock_journal", indexes = {
+        @Index(name = "idx_stock_journal_product", columnList = "product_id")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class StockJournalEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private Long productId;
+
+    @Column(nullable = false, updatable = false)
+    private Integer delta;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+
+}
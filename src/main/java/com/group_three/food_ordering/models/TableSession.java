@@ -3,38 +3,56 @@ package com.group_three.food_ordering.models;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.SQLDelete;
 
 import java.time.Instant;
 import java.util.*;
 
 @Entity
-@Table(name = "table_sessions")
+@Table(name = "table_sessions", indexes = {
+        @Index(name = "idx_table_sessions_venue_start", columnList = "food_venue_id, start_time, id")
+})
+@NamedEntityGraph(name = TableSession.GRAPH_SUMMARY, attributeNodes = {
+        @NamedAttributeNode("diningTable"),
+        @NamedAttributeNode("sessionHost")
+})
+@NamedEntityGraph(name = TableSession.GRAPH_VIEW, attributeNodes = {
+        @NamedAttributeNode("diningTable"),
+        @NamedAttributeNode("foodVenue"),
+        @NamedAttributeNode("sessionHost"),
+        @NamedAttributeNode("participants")
+})
 @SQLDelete(sql = "UPDATE table_sessions SET deleted = true WHERE id = ?")
 @Getter
 @Setter
 @EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
-@ToString(exclude = {"foodVenue", "orders", "participants"})
+@ToString(exclude = {"diningTable", "foodVenue", "sessionHost", "orders", "participants"})
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
 @SuperBuilder
 public class TableSession extends BaseEntity {
 
+    // Listados paginados de sesiones: solo relaciones a uno, los participantes llegan por lotes
+    public static final String GRAPH_SUMMARY = "TableSession.summary";
+    // Vista de una sesión con sus participantes
+    public static final String GRAPH_VIEW = "TableSession.view";
+
     @Column(name = "start_time", nullable = false)
     private Instant startTime;
 
     @Column(name = "end_time")
     private Instant endTime;
 
-    @ManyToOne(fetch = FetchType.EAGER, optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "dining_table_id", nullable = false)
     private DiningTable diningTable;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "food_venue_id", nullable = false)
     private FoodVenue foodVenue;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "host_id")
     private Participant sessionHost;
 
@@ -43,11 +61,13 @@ public class TableSession extends BaseEntity {
             mappedBy = "tableSession",
             cascade = {CascadeType.PERSIST, CascadeType.MERGE, CascadeType.REMOVE},
             orphanRemoval = true,
-            fetch = FetchType.EAGER
+            fetch = FetchType.LAZY
     )
+    @BatchSize(size = 50)
     private List<Order> orders = new ArrayList<>();
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @JoinTable(
             name = "table_session_participants",
             joinColumns = @JoinColumn(name = "table_session_id"),
@@ -0,0 +1,58 @@
+package com.group_three.food_ordering.notifications.bus;
+
+import com.group_three.food_ordering.notifications.enums.SseChannel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Slf4j
+public abstract class AbstractSseEventBus implements SseEventBus {
+
+    private final Map<SseChannel, List<Consumer<SseBusMessage>>> handlers = new EnumMap<>(SseChannel.class);
+
+    protected AbstractSseEventBus() {
+        for (SseChannel channel : SseChannel.values()) {
+            handlers.put(channel, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    @Override
+    public void subscribe(SseChannel channel, Consumer<SseBusMessage> handler) {
+        handlers.get(channel).add(handler);
+    }
+
+    /**
+     * Lo publicado dentro de una transacción sale recién con el commit: un evento de algo que
+     * se revierte no tiene que llegar a ningún cliente. Sin transacción se ejecuta en el momento.
+     */
+    protected void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /** Entrega a los emitters de este nodo; un handler que falla no corta al resto */
+    protected void deliverLocally(SseBusMessage message) {
+        for (Consumer<SseBusMessage> handler : handlers.get(message.channel())) {
+            try {
+                handler.accept(message);
+            } catch (Exception e) {
+                log.warn("[SseEventBus] Handler failed for {} event {}: {}",
+                        message.channel(), message.eventName(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.group_three.food_ordering.notifications.bus;
+
+import com.group_three.food_ordering.notifications.models.SseBusRecord;
+import com.group_three.food_ordering.notifications.repository.SseBusRecordRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bus entre nodos que usa la base compartida como broker: cada publicación se inserta en
+ * {@code sse_bus_messages} y cada nodo, incluido el que publicó, la entrega al leerla.
+ * El id de la fila es el id SSE del evento y todos los nodos entregan en orden de id, así un cliente
+ * puede retomar con su Last-Event-ID en cualquier nodo. Lo publicado sale con el commit del llamador
+ * y se inserta en lotes desde el sondeo, así el request nunca toma una segunda conexión.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.sse.bus.type", havingValue = "database")
+public class DatabaseSseEventBus extends AbstractSseEventBus {
+
+    private final SseBusRecordRepository repository;
+    private final TransactionTemplate requiresNew;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final int batchSize;
+    private final Duration retention;
+    private final long gapTimeoutMillis;
+    private final Queue<SseBusMessage> outbox = new ConcurrentLinkedQueue<>();
+
+    @Value("${app.sse.bus.poll-interval:500}")
+    private long pollIntervalMillis;
+
+    private ScheduledExecutorService poller;
+
+    // Último id entregado; null hasta el primer sondeo (un nodo nuevo no repite eventos viejos)
+    private Long lastDeliveredId;
+    // Filas ya leídas que esperan a un id menor que todavía no se ve
+    private final NavigableMap<Long, SseBusRecord> held = new TreeMap<>();
+    // Hasta cuándo se espera el id siguiente a lastDeliveredId; null si no falta ninguno
+    private Long gapDeadline;
+
+    public DatabaseSseEventBus(SseBusRecordRepository repository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.sse.bus.batch-size:500}") int batchSize,
+                               @Value("${app.sse.bus.retention:5m}") Duration retention,
+                               @Value("${app.sse.bus.gap-timeout:2s}") Duration gapTimeout) {
+        this.repository = repository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.gapTimeoutMillis = gapTimeout.toMillis();
+    }
+
+    @Override
+    public void publish(SseBusMessage message) {
+        afterCommit(() -> outbox.add(message));
+    }
+
+    /** Inserta lo publicado en este nodo; lo entrega el sondeo, igual que en los demás */
+    public void flushOutbox() {
+        List<SseBusRecord> records = new ArrayList<>();
+        SseBusMessage message;
+        while ((message = outbox.poll()) != null) {
+            records.add(SseBusRecord.of(nodeId, message));
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            requiresNew.executeWithoutResult(status -> repository.saveAll(records));
+        } catch (Exception e) {
+            log.warn("[DatabaseSseEventBus] Failed to publish {} events: {}", records.size(), e.getMessage());
+        }
+    }
+
+    // Hilo propio: en el scheduler compartido un volcado o una purga larga atrasaba la entrega entre nodos
+    // más allá del gap-timeout y todos los clientes terminaban en resync
+    @PostConstruct
+    void start() {
+        poller = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("sse-bus-poller").daemon().factory());
+        poller.scheduleWithFixedDelay(this::pollQuietly, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    // Una excepción cancelaría las ejecuciones siguientes del executor
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (Exception e) {
+            log.warn("[DatabaseSseEventBus] Poll failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void poll() {
+        if (lastDeliveredId == null) {
+            lastDeliveredId = repository.findLastId();
+            return;
+        }
+        flushOutbox();
+
+        // Se relee desde lo entregado: los ids que faltaban pueden haber commiteado desde el sondeo anterior
+        long cursor = lastDeliveredId;
+        List<SseBusRecord> batch;
+        do {
+            batch = repository.findAfter(cursor, PageRequest.of(0, batchSize));
+            for (SseBusRecord record : batch) {
+                held.putIfAbsent(record.getId(), record);
+                cursor = record.getId();
+            }
+        } while (batch.size() == batchSize);
+
+        deliverInOrder(System.currentTimeMillis());
+    }
+
+    /**
+     * Los ids IDENTITY se asignan al insertar pero se ven al commitear, así que uno menor puede
+     * aparecer después de uno mayor. Lo que sigue a un hueco se retiene hasta que el hueco aparece
+     * o vence (un insert revertido deja un id que nunca llega).
+     */
+    private void deliverInOrder(long now) {
+        while (!held.isEmpty()) {
+            long next = held.firstKey();
+            if (next != lastDeliveredId + 1) {
+                if (gapDeadline == null) {
+                    gapDeadline = now + gapTimeoutMillis;
+                }
+                if (now < gapDeadline) {
+                    return;
+                }
+                log.debug("[DatabaseSseEventBus] Giving up on bus ids {}..{}", lastDeliveredId + 1, next - 1);
+            }
+            SseBusRecord record = held.pollFirstEntry().getValue();
+            lastDeliveredId = next;
+            gapDeadline = null;
+            deliverLocally(record.toMessage());
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purge() {
+        Integer deleted = requiresNew.execute(status ->
+                repository.deleteCreatedBefore(Instant.now().minus(retention)));
+        log.debug("[DatabaseSseEventBus] Purged {} delivered bus messages", deleted);
+    }
+}
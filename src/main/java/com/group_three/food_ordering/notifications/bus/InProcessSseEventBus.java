@@ -0,0 +1,23 @@
+package com.group_three.food_ordering.notifications.bus;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/** Bus de un solo nodo: los eventos se entregan directamente a los emitters locales */
+@Component
+@ConditionalOnProperty(name = "app.sse.bus.type", havingValue = "in-process", matchIfMissing = true)
+public class InProcessSseEventBus extends AbstractSseEventBus {
+
+    // Arranca del reloj: después de un reinicio los ids siguen creciendo y un Last-Event-ID viejo no los tapa
+    private long sequence = System.currentTimeMillis() << 8;
+
+    @Override
+    public void publish(SseBusMessage message) {
+        afterCommit(() -> deliverInOrder(message));
+    }
+
+    // Id y entrega bajo el mismo lock: los emitters reciben los ids en orden creciente
+    private synchronized void deliverInOrder(SseBusMessage message) {
+        deliverLocally(message.withEventId(++sequence));
+    }
+}
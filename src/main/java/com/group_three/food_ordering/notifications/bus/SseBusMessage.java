@@ -0,0 +1,24 @@
+package com.group_three.food_ordering.notifications.bus;
+
+import com.group_three.food_ordering.notifications.enums.SseChannel;
+
+/**
+ * Evento ya serializado que viaja entre nodos.
+ * {@code target} es el id de la sesión de mesa o el email del usuario según el canal;
+ * {@code coalesceKey} en null significa que el evento nunca se pisa con otro.
+ * {@code eventId} es el id SSE con el que el cliente retoma la conexión. Lo asigna el bus al entregar
+ * y es el mismo en todos los nodos, que entregan en orden creciente; quien publica lo deja en null.
+ */
+public record SseBusMessage(
+        Long eventId,
+        SseChannel channel,
+        String target,
+        String eventName,
+        String payload,
+        String coalesceKey
+) {
+
+    public SseBusMessage withEventId(Long eventId) {
+        return new SseBusMessage(eventId, channel, target, eventName, payload, coalesceKey);
+    }
+}
@@ -0,0 +1,17 @@
+package com.group_three.food_ordering.notifications.bus;
+
+import com.group_three.food_ordering.notifications.enums.SseChannel;
+
+import java.util.function.Consumer;
+
+/**
+ * Bus por el que pasan los eventos SSE antes de llegar a los emitters.
+ * Cada nodo entrega a sus propias conexiones lo que recibe, así un evento publicado en cualquier
+ * nodo llega a los clientes conectados en todos.
+ */
+public interface SseEventBus {
+
+    void publish(SseBusMessage message);
+
+    void subscribe(SseChannel channel, Consumer<SseBusMessage> handler);
+}
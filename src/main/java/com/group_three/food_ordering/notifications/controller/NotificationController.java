@@ -1,18 +1,24 @@
 package com.group_three.food_ordering.notifications.controller;
 
 import com.group_three.food_ordering.configs.security.CustomUserPrincipal;
+import com.group_three.food_ordering.notifications.dto.NotificationBroadcastRequestDto;
 import com.group_three.food_ordering.notifications.dto.NotificationResponseDto;
 import com.group_three.food_ordering.notifications.dto.UnreadCountDto;
+import com.group_three.food_ordering.notifications.enums.NotificationType;
 import com.group_three.food_ordering.notifications.services.NotificationService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @RestController
@@ -57,9 +63,21 @@ public class NotificationController {
 
     @PostMapping("/read-all")
     public ResponseEntity<Void> markAllNotificationsAsRead(
-            @AuthenticationPrincipal CustomUserPrincipal principal) {
+            @AuthenticationPrincipal CustomUserPrincipal principal,
+            @RequestParam(required = false) NotificationType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime olderThan) {
+
+        notificationService.markAsReadInBulk(principal.getEmail(), type, olderThan);
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @PostMapping("/venue-employees")
+    public ResponseEntity<Void> notifyVenueEmployees(
+            @RequestBody @Valid NotificationBroadcastRequestDto request) {
 
-        notificationService.markAllAsRead(principal.getEmail());
+        notificationService.notifyVenueEmployees(
+                request.getTitle(), request.getMensaje(), request.getType(), request.getLinkUrl());
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
-}
\ No newline at end of file
+}
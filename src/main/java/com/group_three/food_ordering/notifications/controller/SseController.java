@@ -1,5 +1,6 @@
 package com.group_three.food_ordering.notifications.controller;
 
+import com.group_three.food_ordering.context.TenantContext;
 import com.group_three.food_ordering.notifications.services.SseService;
 import com.group_three.food_ordering.utils.constants.ApiPaths;
 import lombok.RequiredArgsConstructor;
@@ -14,10 +15,19 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 public class SseController {
 
     private final SseService sseService;
+    private final TenantContext tenantContext;
 
     @GetMapping("/table-sessions/{tableSessionId}")
-    public SseEmitter subscribeToTableSession(@PathVariable String tableSessionId) {
-        // Llama al servicio para crear y guardar el emitter
-        return sseService.subscribe(tableSessionId);
+    public SseEmitter subscribeToTableSession(@PathVariable String tableSessionId,
+                                              @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        // Llama al servicio para crear y guardar el emitter; al reconectar se reenvía lo perdido
+        return sseService.subscribe(tableSessionId, lastEventId);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'MANAGER', 'ROOT')")
+    @GetMapping("/venue-board")
+    public SseEmitter subscribeToVenueBoard(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        // Deltas del tablero de cocina del local del token; ante resync-required se vuelve a pedir GET /orders/board
+        return sseService.subscribeToVenueBoard(tenantContext.requireFoodVenueSnapshot().publicId(), lastEventId);
     }
 }
\ No newline at end of file
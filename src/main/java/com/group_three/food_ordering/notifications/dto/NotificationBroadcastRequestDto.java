@@ -0,0 +1,31 @@
+package com.group_three.food_ordering.notifications.dto;
+
+import com.group_three.food_ordering.notifications.enums.NotificationType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class NotificationBroadcastRequestDto {
+
+    @NotBlank(message = "title is required")
+    @Size(max = 100, message = "title must be 100 characters or less")
+    private String title;
+
+    @NotBlank(message = "mensaje is required")
+    @Size(max = 500, message = "mensaje must be 500 characters or less")
+    private String mensaje;
+
+    @NotNull(message = "type is required")
+    private NotificationType type;
+
+    private String linkUrl;
+
+}
@@ -0,0 +1,8 @@
+package com.group_three.food_ordering.notifications.enums;
+
+public enum SseChannel {
+
+    TABLE_SESSION,
+    USER,
+    VENUE_BOARD
+}
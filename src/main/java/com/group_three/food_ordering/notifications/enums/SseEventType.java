@@ -20,8 +20,13 @@ public enum SseEventType {
     USER_LEFT("user-left"),
     COUNT_UPDATED("count-updated"),
 
-    // --- Connection Event ---
-    CONNECTION_SUCCESSFUL("connection-successful");
+    // --- Kitchen Board Events ---
+    ORDER_BOARD_UPDATED("order-board-updated"),
+    ORDER_BOARD_REMOVED("order-board-removed"),
+
+    // --- Connection Events ---
+    CONNECTION_SUCCESSFUL("connection-successful"),
+    RESYNC_REQUIRED("resync-required");
 
     private final String eventName;
 
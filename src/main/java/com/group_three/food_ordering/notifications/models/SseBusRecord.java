@@ -0,0 +1,67 @@
+package com.group_three.food_ordering.notifications.models;
+
+import com.group_three.food_ordering.notifications.bus.SseBusMessage;
+import com.group_three.food_ordering.notifications.enums.SseChannel;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Evento SSE publicado por algún nodo, pendiente de que el resto lo lea.
+ * Las filas sólo viven lo necesario para que todos los nodos las consuman.
+ */
+@Entity
+@Table(name = "sse_bus_messages", indexes = {
+        @Index(name = "idx_sse_bus_created", columnList = "created_at")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class SseBusRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "origin_node", nullable = false, updatable = false, length = 36)
+    private String originNode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 20)
+    private SseChannel channel;
+
+    @Column(nullable = false, updatable = false)
+    private String target;
+
+    @Column(name = "event_name", nullable = false, updatable = false, length = 50)
+    private String eventName;
+
+    @Lob
+    @Column(nullable = false, updatable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "coalesce_key", updatable = false)
+    private String coalesceKey;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+
+    public static SseBusRecord of(String originNode, SseBusMessage message) {
+        return SseBusRecord.builder()
+                .originNode(originNode)
+                .channel(message.channel())
+                .target(message.target())
+                .eventName(message.eventName())
+                .payload(message.payload())
+                .coalesceKey(message.coalesceKey())
+                .build();
+    }
+
+    // El id de la fila es la secuencia común a todos los nodos
+    public SseBusMessage toMessage() {
+        return new SseBusMessage(id, channel, target, eventName, payload, coalesceKey);
+    }
+}
@@ -0,0 +1,14 @@
+package com.group_three.food_ordering.notifications.repository;
+
+import com.group_three.food_ordering.notifications.models.Notification;
+
+import java.util.List;
+
+public interface NotificationBatchRepository {
+
+    /**
+     * Inserta las notificaciones en lotes JDBC (el id IDENTITY impide que Hibernate agrupe los INSERT).
+     * Cada notificación debe traer su usuario destino, publicId y fecha de creación.
+     */
+    void insertAll(List<Notification> notifications);
+}
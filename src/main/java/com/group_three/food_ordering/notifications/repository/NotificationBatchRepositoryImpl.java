@@ -0,0 +1,39 @@
+package com.group_three.food_ordering.notifications.repository;
+
+import com.group_three.food_ordering.notifications.models.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class NotificationBatchRepositoryImpl implements NotificationBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO notifications
+                (public_id, title, mensaje, unread, creation_date, user_id, type, link_url, deleted)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.notifications.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public void insertAll(List<Notification> notifications) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, notifications, batchSize, (statement, notification) -> {
+            statement.setString(1, notification.getPublicId().toString());
+            statement.setString(2, notification.getTitle());
+            statement.setString(3, notification.getMensaje());
+            statement.setBoolean(4, notification.isUnread());
+            statement.setTimestamp(5, Timestamp.valueOf(notification.getCreationDate()));
+            statement.setLong(6, notification.getTargetUser().getId());
+            statement.setString(7, notification.getType().name());
+            statement.setString(8, notification.getLinkUrl());
+            statement.setBoolean(9, false);
+        });
+    }
+}
@@ -1,15 +1,22 @@
 package com.group_three.food_ordering.notifications.repository;
 
+import com.group_three.food_ordering.notifications.enums.NotificationType;
 import com.group_three.food_ordering.notifications.models.Notification;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
+public interface NotificationRepository extends JpaRepository<Notification, Long>, NotificationBatchRepository {
 
     Optional<Notification> findByPublicId(UUID uuid);
 
@@ -19,4 +26,24 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     Long countByTargetUser_EmailAndUnreadTrue(String userEmail);
 
-}
\ No newline at end of file
+    /** Marca como leídas en un solo UPDATE; {@code type} y {@code createdBefore} son filtros opcionales */
+    @Modifying
+    @Query("UPDATE Notification n SET n.unread = false, n.readDateTime = :readAt " +
+            "WHERE n.unread = true " +
+            "AND n.targetUser.id IN (SELECT u.id FROM User u WHERE u.email = :email) " +
+            "AND (:type IS NULL OR n.type = :type) " +
+            "AND (:createdBefore IS NULL OR n.creationDate < :createdBefore)")
+    int markReadByTargetUser(@Param("email") String userEmail,
+                             @Param("type") NotificationType type,
+                             @Param("createdBefore") LocalDateTime createdBefore,
+                             @Param("readAt") LocalDateTime readAt);
+
+    @Query("SELECT n.id FROM Notification n WHERE n.unread = false AND n.readDateTime < :readBefore ORDER BY n.id")
+    List<Long> findReadIdsBefore(@Param("readBefore") LocalDateTime readBefore, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+}
@@ -0,0 +1,25 @@
+package com.group_three.food_ordering.notifications.repository;
+
+import com.group_three.food_ordering.notifications.models.SseBusRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SseBusRecordRepository extends JpaRepository<SseBusRecord, Long> {
+
+    @Query("SELECT COALESCE(MAX(r.id), 0) FROM SseBusRecord r")
+    Long findLastId();
+
+    @Query("SELECT r FROM SseBusRecord r WHERE r.id > :afterId ORDER BY r.id")
+    List<SseBusRecord> findAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM SseBusRecord r WHERE r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+
+}
@@ -0,0 +1,47 @@
+package com.group_three.food_ordering.notifications.services;
+
+import com.group_three.food_ordering.notifications.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Borra las notificaciones leídas hace más de {@code app.notifications.retention.read-ttl}.
+ * Va por tramos, cada uno en su propia transacción, para no bloquear la tabla con un DELETE gigante.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationRetentionJob {
+
+    private final NotificationRepository notificationRepository;
+
+    @Value("${app.notifications.retention.read-ttl:90d}")
+    private Duration readTtl;
+
+    @Value("${app.notifications.retention.chunk-size:1000}")
+    private int chunkSize;
+
+    @Scheduled(cron = "${app.notifications.retention.cron:0 30 3 * * *}")
+    public int purgeReadNotifications() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(readTtl);
+        int total = 0;
+        List<Long> ids;
+        do {
+            ids = notificationRepository.findReadIdsBefore(cutoff, PageRequest.of(0, chunkSize));
+            if (!ids.isEmpty()) {
+                total += notificationRepository.deleteByIdIn(ids);
+            }
+        } while (ids.size() == chunkSize);
+
+        log.info("[NotificationRetentionJob] Purged {} read notifications older than {}", total, cutoff);
+        return total;
+    }
+}
@@ -1,27 +1,54 @@
 package com.group_three.food_ordering.notifications.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group_three.food_ordering.context.TenantContext;
+import com.group_three.food_ordering.events.NotificationCreatedEvent;
+import com.group_three.food_ordering.events.UnreadCountChangedEvent;
 import com.group_three.food_ordering.exceptions.EntityNotFoundException;
 import com.group_three.food_ordering.mappers.NotificationMapper;
 import com.group_three.food_ordering.models.User;
+import com.group_three.food_ordering.notifications.bus.SseBusMessage;
+import com.group_three.food_ordering.notifications.bus.SseEventBus;
 import com.group_three.food_ordering.notifications.dto.NotificationResponseDto;
 import com.group_three.food_ordering.notifications.dto.UnreadCountDto;
 import com.group_three.food_ordering.notifications.enums.NotificationType;
+import com.group_three.food_ordering.notifications.enums.SseChannel;
 import com.group_three.food_ordering.notifications.models.Notification;
 import com.group_three.food_ordering.notifications.repository.NotificationRepository;
+import com.group_three.food_ordering.repositories.EmploymentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
@@ -29,50 +56,179 @@ import java.util.concurrent.ConcurrentHashMap;
 public class NotificationService {
 
     private static final long USER_TIMEOUT = 3_600_000L; // 1 hora
-    private final Map<String, SseEmitter> userEmitters = new ConcurrentHashMap<>();
+    private static final String NEW_NOTIFICATION_EVENT = "new_notification";
+    private static final String UNREAD_COUNT_EVENT = "unread_count";
+    private static final String CONNECTION_TYPE = "user";
+    private static final int MAX_DEVICES_PER_USER = 5;
+    // Eventos pendientes por conexión; si se llena, el dispositivo no está leyendo y se lo desconecta
+    private static final int MAX_PENDING_EVENTS = 64;
+    private final Map<String, List<UserConnection>> userEmitters = new ConcurrentHashMap<>();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
 
     private final NotificationRepository notificationRepository;
     private final NotificationMapper notificationMapper;
+    private final EmploymentRepository employmentRepository;
+    private final SseEventBus eventBus;
+    private final ObjectMapper objectMapper;
+    private final SseHeartbeatScheduler heartbeatScheduler;
+    private final TenantContext tenantContext;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Contador de no leídas por usuario, cargado desde la base. Después del commit una notificación nueva lo
+    // invalida (se recuenta al próximo pedido) y una lectura lo reemplaza con el conteo publicado; expira
+    // para corregir desvíos
+    private Cache<String, AtomicLong> unreadCounts;
+
+    @Value("${app.notifications.unread-count-ttl:5m}")
+    private Duration unreadCountTtl;
+
+    @PostConstruct
+    void init() {
+        unreadCounts = Caffeine.newBuilder()
+                .expireAfterWrite(unreadCountTtl)
+                .build();
+        eventBus.subscribe(SseChannel.USER, this::deliver);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writers.shutdownNow();
+    }
 
     public SseEmitter subscribeUser(String userEmail) {
         SseEmitter emitter = new SseEmitter(USER_TIMEOUT);
-        userEmitters.put(userEmail, emitter);
+        UserConnection connection = new UserConnection(userEmail, emitter);
+
+        // Cada dispositivo del usuario tiene su conexión; pasado el máximo se cierra la más vieja
+        List<UserConnection> connections = userEmitters.compute(userEmail, (email, current) -> {
+            List<UserConnection> list = current != null ? current : new CopyOnWriteArrayList<>();
+            list.add(connection);
+            return list;
+        });
+        while (connections.size() > MAX_DEVICES_PER_USER) {
+            connections.get(0).expire();
+        }
 
-        emitter.onCompletion(() -> userEmitters.remove(userEmail));
-        emitter.onTimeout(() -> userEmitters.remove(userEmail));
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
         emitter.onError(e -> {
             log.warn("Error en SseEmitter para usuario {}: {}", userEmail, e.getMessage());
-            userEmitters.remove(userEmail);
+            connection.close();
         });
 
-        log.info("Usuario {} suscrito a notificaciones personales", userEmail);
+        String foodVenueId = tenantContext.foodVenueIdOpt().map(Object::toString).orElse(null);
+        connection.registration = heartbeatScheduler.register(foodVenueId, CONNECTION_TYPE, connection);
+
+        log.info("Usuario {} suscrito a notificaciones personales ({} dispositivos)", userEmail, connections.size());
         return emitter;
     }
 
     @Transactional
     public void createPersistentNotification(User user, String title, String mensaje, NotificationType type, String link) {
+        Notification savedNotification = notificationRepository.save(buildNotification(user, title, mensaje, type, link));
+        log.info("Notificación persistente creada para el usuario {}", user.getEmail());
+        eventPublisher.publishEvent(new NotificationCreatedEvent(user.getEmail(), notificationMapper.toDto(savedNotification)));
+    }
+
+    /**
+     * Misma notificación para muchos usuarios: se inserta con batch JDBC en lugar de un INSERT por fila.
+     */
+    @Transactional
+    public int createPersistentNotifications(Collection<User> users, String title, String mensaje,
+                                             NotificationType type, String link) {
+        if (users.isEmpty()) {
+            return 0;
+        }
+        List<Notification> notifications = users.stream()
+                .map(user -> buildNotification(user, title, mensaje, type, link))
+                .toList();
+        notificationRepository.insertAll(notifications);
+        log.info("Creadas {} notificaciones persistentes en lote", notifications.size());
+
+        notifications.forEach(notification -> eventPublisher.publishEvent(new NotificationCreatedEvent(
+                notification.getTargetUser().getEmail(), notificationMapper.toDto(notification))));
+        return notifications.size();
+    }
 
-        Notification notification = Notification.builder()
+    /** Avisa a todos los empleados activos del local actual */
+    @Transactional
+    public int notifyVenueEmployees(String title, String mensaje, NotificationType type, String link) {
+        UUID foodVenueId = tenantContext.requireFoodVenueSnapshot().publicId();
+        List<User> employees = employmentRepository.findActiveEmployeeUsersByFoodVenue(foodVenueId);
+        return createPersistentNotifications(employees, title, mensaje, type, link);
+    }
+
+    private Notification buildNotification(User user, String title, String mensaje, NotificationType type, String link) {
+        return Notification.builder()
+                .publicId(UUID.randomUUID())
                 .targetUser(user)
                 .title(title)
                 .mensaje(mensaje)
                 .type(type)
                 .linkUrl(link)
                 .unread(true)
+                .creationDate(LocalDateTime.now())
                 .deleted(false)
                 .build();
+    }
 
-        Notification savedNotification = notificationRepository.save(notification);
-        log.info("Notificación persistente creada para el usuario {}", user.getEmail());
+    /**
+     * El usuario puede estar conectado a otro nodo: el aviso sale por el bus, y recién con el commit
+     * para que una notificación revertida no llegue a ningún dispositivo ni mueva el contador.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        try {
+            String payload = objectMapper.writeValueAsString(event.notification());
+            eventBus.publish(new SseBusMessage(null, SseChannel.USER, event.userEmail(), NEW_NOTIFICATION_EVENT, payload, null));
+        } catch (JsonProcessingException e) {
+            log.warn("Fallo al serializar la notificación SSE del usuario {}: {}", event.userEmail(), e.getMessage());
+        }
+    }
+
+    // Después del commit el recuento ya ve lo marcado; el conteo viaja como valor absoluto
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnreadCountChanged(UnreadCountChangedEvent event) {
+        long count = event.remaining() != null
+                ? event.remaining()
+                : notificationRepository.countByTargetUser_EmailAndUnreadTrue(event.userEmail());
+        publishUnreadCount(event.userEmail(), count);
+    }
+
+    // El nuevo conteo va a todos los nodos (ajusta su contador) y a todos los dispositivos del usuario
+    private void publishUnreadCount(String userEmail, long count) {
+        try {
+            String payload = objectMapper.writeValueAsString(new UnreadCountDto(count));
+            eventBus.publish(new SseBusMessage(null, SseChannel.USER, userEmail, UNREAD_COUNT_EVENT, payload, null));
+        } catch (JsonProcessingException e) {
+            log.warn("Fallo al serializar el conteo de no leídas del usuario {}: {}", userEmail, e.getMessage());
+        }
+    }
+
+    private void deliver(SseBusMessage message) {
+        updateUnreadCounter(message);
+
+        List<UserConnection> connections = userEmitters.get(message.target());
+        if (connections == null) {
+            return;
+        }
+        for (UserConnection connection : connections) {
+            connection.send(SseEmitter.event()
+                    .name(message.eventName())
+                    .data(message.payload(), MediaType.APPLICATION_JSON));
+        }
+    }
 
-        SseEmitter emitter = userEmitters.get(user.getEmail());
-        if (emitter != null) {
+    private void updateUnreadCounter(SseBusMessage message) {
+        if (NEW_NOTIFICATION_EVENT.equals(message.eventName())) {
+            // No se suma: un contador cargado justo después del commit ya la cuenta. Se recarga al próximo pedido
+            unreadCounts.invalidate(message.target());
+        } else if (UNREAD_COUNT_EVENT.equals(message.eventName())) {
             try {
-                emitter.send(SseEmitter.event()
-                        .name("new_notification")
-                        .data(notificationMapper.toDto(savedNotification)));
-            } catch (Exception e) {
-                log.warn("Fallo al enviar notificación SSE al usuario {}: {}", user.getEmail(), e.getMessage());
+                long count = objectMapper.readValue(message.payload(), UnreadCountDto.class).getUnreadCount();
+                unreadCounts.put(message.target(), new AtomicLong(count));
+            } catch (JsonProcessingException e) {
+                unreadCounts.invalidate(message.target());
             }
         }
     }
@@ -86,8 +242,12 @@ public class NotificationService {
 
     @Transactional(readOnly = true)
     public UnreadCountDto getUnreadCount(String userEmail) {
-        Long count = notificationRepository.countByTargetUser_EmailAndUnreadTrue(userEmail);
-        return new UnreadCountDto(count);
+        return new UnreadCountDto(unreadCounterOf(userEmail).get());
+    }
+
+    private AtomicLong unreadCounterOf(String userEmail) {
+        return unreadCounts.get(userEmail,
+                email -> new AtomicLong(notificationRepository.countByTargetUser_EmailAndUnreadTrue(email)));
     }
 
     @Transactional
@@ -100,27 +260,132 @@ public class NotificationService {
             throw new AccessDeniedException("No tienes permiso para modificar esta notificación");
         }
 
+        boolean wasUnread = notification.isUnread();
         notification.setUnread(false);
         notification.setReadDateTime(LocalDateTime.now());
         Notification updatedNotification = notificationRepository.save(notification);
+        if (wasUnread) {
+            eventPublisher.publishEvent(new UnreadCountChangedEvent(userEmail, null));
+        }
         return notificationMapper.toDto(updatedNotification);
     }
 
     @Transactional
     public void markAllAsRead(String userEmail) {
-        List<Notification> unreadNotifications = notificationRepository
-                .findByTargetUser_EmailAndUnreadTrue(userEmail);
+        markAsReadInBulk(userEmail, null, null);
+    }
 
-        if (unreadNotifications.isEmpty()) {
-            return;
+    /**
+     * Marca como leídas las no leídas del usuario con un único UPDATE.
+     * Se puede acotar por tipo y/o a las creadas antes de una fecha; devuelve cuántas cambió.
+     */
+    @Transactional
+    public int markAsReadInBulk(String userEmail, NotificationType type, LocalDateTime createdBefore) {
+        int updated = notificationRepository.markReadByTargetUser(userEmail, type, createdBefore, LocalDateTime.now());
+        if (updated == 0) {
+            return 0;
+        }
+
+        // Sin filtros no queda ninguna; con filtros se recuenta en la base después del commit
+        Long remaining = (type == null && createdBefore == null) ? 0L : null;
+        eventPublisher.publishEvent(new UnreadCountChangedEvent(userEmail, remaining));
+        log.info("Marcadas {} notificaciones como leídas para el usuario {}", updated, userEmail);
+        return updated;
+    }
+
+    private record OutboundEvent(SseEmitter.SseEventBuilder event, boolean heartbeat) {
+    }
+
+    private class UserConnection implements SseHeartbeatScheduler.Connection {
+        private final String userEmail;
+        private final SseEmitter emitter;
+        private volatile Instant lastActive = Instant.now();
+        private volatile SseHeartbeatScheduler.Registration registration;
+        private final Deque<OutboundEvent> pending = new ArrayDeque<>();
+        private final AtomicBoolean writing = new AtomicBoolean();
+
+        UserConnection(String userEmail, SseEmitter emitter) {
+            this.userEmail = userEmail;
+            this.emitter = emitter;
         }
 
-        for (Notification notification : unreadNotifications) {
-            notification.setUnread(false);
-            notification.setReadDateTime(LocalDateTime.now());
+        void send(SseEmitter.SseEventBuilder event) {
+            offer(new OutboundEvent(event, false));
         }
 
-        notificationRepository.saveAll(unreadNotifications);
-        log.info("Marcadas {} notificaciones como leídas para el usuario {}", unreadNotifications.size(), userEmail);
+        // Un único escritor por conexión en un hilo virtual: ni el bus ni el scheduler esperan a un dispositivo lento
+        private void offer(OutboundEvent event) {
+            boolean accepted;
+            synchronized (pending) {
+                accepted = pending.size() < MAX_PENDING_EVENTS && pending.add(event);
+            }
+            if (!accepted) {
+                log.warn("Desconectando al usuario {}: {} eventos SSE sin leer", userEmail, MAX_PENDING_EVENTS);
+                expire();
+                return;
+            }
+            if (writing.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                OutboundEvent next;
+                while ((next = poll()) != null) {
+                    try {
+                        emitter.send(next.event());
+                        // El ping no cuenta como actividad: si no, la conexión nunca llegaría al idle timeout
+                        if (!next.heartbeat()) {
+                            lastActive = Instant.now();
+                        }
+                    } catch (Exception e) {
+                        log.warn("Fallo al enviar notificación SSE al usuario {}: {}", userEmail, e.getMessage());
+                        close();
+                        return;
+                    }
+                }
+                writing.set(false);
+            } while (hasPending() && writing.compareAndSet(false, true));
+        }
+
+        private OutboundEvent poll() {
+            synchronized (pending) {
+                return pending.pollFirst();
+            }
+        }
+
+        private boolean hasPending() {
+            synchronized (pending) {
+                return !pending.isEmpty();
+            }
+        }
+
+        void close() {
+            userEmitters.computeIfPresent(userEmail, (email, connections) -> {
+                connections.remove(this);
+                return connections.isEmpty() ? null : connections;
+            });
+            if (registration != null) {
+                registration.close();
+            }
+        }
+
+        @Override
+        public Instant lastActive() {
+            return lastActive;
+        }
+
+        // Va por la cola como cualquier otro evento, así nunca se escribe en paralelo
+        @Override
+        public void sendHeartbeat() {
+            offer(new OutboundEvent(SseEmitter.event().name("ping").data("keep-alive"), true));
+        }
+
+        @Override
+        public void expire() {
+            close();
+            emitter.complete();
+        }
     }
-}
\ No newline at end of file
+}
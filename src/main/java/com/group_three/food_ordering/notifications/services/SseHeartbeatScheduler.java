@@ -0,0 +1,199 @@
+package com.group_three.food_ordering.notifications.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Heartbeat y expiración de todas las conexiones SSE (sesiones de mesa y notificaciones personales).
+ * Es una rueda de tiempo: cada conexión está en la ranura del momento en que quedaría inactiva,
+ * así que en cada tick sólo se revisan las que vencen ahí. Las que tuvieron tráfico se vuelven a ubicar
+ * sin recibir ping; las cerradas se descartan al pasar por su ranura.
+ */
+@Slf4j
+@Component
+public class SseHeartbeatScheduler {
+
+    private static final String CONNECTIONS_GAUGE = "sse.connections";
+    private static final String NO_VENUE = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final long tickMillis;
+    private final long heartbeatMillis;
+    private final long idleTimeoutMillis;
+    private final Queue<Registration>[] wheel;
+    private final AtomicLong currentTick = new AtomicLong();
+    private final Map<String, ConnectionCount> connectionCounts = new ConcurrentHashMap<>();
+    private ScheduledExecutorService ticker;
+
+    /** Lo que el scheduler necesita de cada conexión; lo implementan los servicios dueños de los emitters */
+    public interface Connection {
+
+        Instant lastActive();
+
+        /** Encola o envía un ping sin bloquear al scheduler */
+        void sendHeartbeat();
+
+        /** Cierra la conexión y la saca de los mapas del servicio */
+        void expire();
+    }
+
+    @SuppressWarnings("unchecked")
+    public SseHeartbeatScheduler(MeterRegistry meterRegistry,
+                                 @Value("${app.sse.heartbeat.tick:1s}") Duration tick,
+                                 @Value("${app.sse.heartbeat.interval:30s}") Duration interval,
+                                 @Value("${app.sse.heartbeat.idle-timeout:10m}") Duration idleTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.tickMillis = tick.toMillis();
+        this.heartbeatMillis = interval.toMillis();
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+
+        // Una vuelta completa cubre el intervalo de heartbeat, que es la mayor espera posible
+        int slots = (int) (heartbeatMillis / tickMillis) + 2;
+        this.wheel = new Queue[slots];
+        for (int i = 0; i < slots; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    public Registration register(String foodVenueId, String type, Connection connection) {
+        String key = gaugeKey(foodVenueId, type);
+        // compute por clave: un alta no puede caer sobre un gauge que se está dando de baja
+        connectionCounts.compute(key, (k, count) -> {
+            if (count == null) {
+                AtomicInteger value = new AtomicInteger();
+                Gauge gauge = Gauge.builder(CONNECTIONS_GAUGE, value, AtomicInteger::get)
+                        .tag("venue", foodVenueId != null ? foodVenueId : NO_VENUE)
+                        .tag("type", type)
+                        .register(meterRegistry);
+                count = new ConnectionCount(value, gauge);
+            }
+            count.value().incrementAndGet();
+            return count;
+        });
+
+        Registration registration = new Registration(connection, () -> release(key));
+        schedule(registration, heartbeatMillis);
+        return registration;
+    }
+
+    // El último que se va se lleva el gauge: los locales y tipos sin conexiones no quedan en el registro
+    private void release(String key) {
+        connectionCounts.computeIfPresent(key, (k, count) -> {
+            if (count.value().decrementAndGet() > 0) {
+                return count;
+            }
+            meterRegistry.remove(count.gauge());
+            return null;
+        });
+    }
+
+    // Hilo propio: en el scheduler compartido una purga o un volcado largo frenaba los heartbeats y la expiración
+    @PostConstruct
+    void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("sse-heartbeat").daemon().factory());
+        ticker.scheduleAtFixedRate(this::tickQuietly, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    // Una excepción cancelaría los ticks siguientes del executor
+    private void tickQuietly() {
+        try {
+            tick();
+        } catch (Exception e) {
+            log.warn("[SseHeartbeatScheduler] Tick failed: {}", e.getMessage());
+        }
+    }
+
+    public void tick() {
+        long tick = currentTick.get();
+        Queue<Registration> slot = wheel[(int) (tick % wheel.length)];
+        long now = System.currentTimeMillis();
+        int heartbeats = 0;
+        int expired = 0;
+
+        // Lo reubicado cae en ranuras posteriores, así que el vaciado siempre termina
+        Registration registration;
+        while ((registration = slot.poll()) != null) {
+            if (registration.isClosed()) {
+                continue;
+            }
+            long idle = now - registration.connection.lastActive().toEpochMilli();
+            if (idle >= idleTimeoutMillis) {
+                registration.connection.expire();
+                registration.close();
+                expired++;
+            } else if (idle >= heartbeatMillis) {
+                registration.connection.sendHeartbeat();
+                schedule(registration, heartbeatMillis);
+                heartbeats++;
+            } else {
+                schedule(registration, heartbeatMillis - idle);
+            }
+        }
+        currentTick.incrementAndGet();
+
+        if (heartbeats > 0 || expired > 0) {
+            log.debug("[SseHeartbeatScheduler] Sent {} heartbeats, expired {} connections", heartbeats, expired);
+        }
+    }
+
+    private void schedule(Registration registration, long delayMillis) {
+        long ticks = Math.max(1, Math.min((delayMillis + tickMillis - 1) / tickMillis, wheel.length - 1));
+        wheel[(int) ((currentTick.get() + ticks) % wheel.length)].add(registration);
+    }
+
+    private String gaugeKey(String foodVenueId, String type) {
+        return type + ":" + foodVenueId;
+    }
+
+    private record ConnectionCount(AtomicInteger value, Gauge gauge) {
+    }
+
+    /** Alta de una conexión en la rueda; cerrarla la descuenta del gauge una sola vez */
+    public static final class Registration {
+
+        private final Connection connection;
+        private final Runnable onClose;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Registration(Connection connection, Runnable onClose) {
+            this.connection = connection;
+            this.onClose = onClose;
+        }
+
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                onClose.run();
+            }
+        }
+
+        public boolean isClosed() {
+            return closed.get();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.group_three.food_ordering.notifications.services;
+
+import com.group_three.food_ordering.notifications.bus.SseBusMessage;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Últimos eventos de una sesión de mesa, para reenviar los que se perdió un cliente que se reconecta.
+ * Los ids son la secuencia del bus, común a todos los nodos y entregada en orden creciente.
+ * Acotado: cuando se llena se descarta el más viejo. Sólo se puede retomar desde un id que el buffer
+ * cubre; antes de eso (buffer nuevo, vacío o ya descartado) el cliente tiene que resincronizar.
+ * No es thread-safe; {@link SseService} lo usa siempre bajo su propio lock.
+ */
+class SseReplayBuffer {
+
+    private final int capacity;
+    private final Deque<SseBusMessage> events;
+    // Todo evento de la sesión con id mayor a éste está en el buffer; null mientras no llegó ninguno
+    private Long coveredAfter;
+
+    SseReplayBuffer(int capacity) {
+        this.capacity = capacity;
+        this.events = new ArrayDeque<>(capacity);
+    }
+
+    void append(SseBusMessage message) {
+        if (coveredAfter == null) {
+            // Lo anterior al primer evento pudo haber pasado antes de que existiera el buffer
+            coveredAfter = message.eventId() - 1;
+        }
+        if (events.size() == capacity) {
+            coveredAfter = events.removeFirst().eventId();
+        }
+        events.addLast(message);
+    }
+
+    /**
+     * Eventos posteriores a {@code lastEventId}, o vacío si alguno de los que faltan ya se descartó
+     * y el cliente tiene que volver a pedir el estado completo.
+     */
+    Optional<List<SseBusMessage>> since(long lastEventId) {
+        if (coveredAfter == null || lastEventId < coveredAfter) {
+            return Optional.empty();
+        }
+        return Optional.of(events.stream()
+                .filter(event -> event.eventId() > lastEventId)
+                .toList());
+    }
+}
@@ -1,86 +1,304 @@
 package com.group_three.food_ordering.notifications.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group_three.food_ordering.context.TenantContext;
+import com.group_three.food_ordering.dto.response.OrderResponseDto;
+import com.group_three.food_ordering.notifications.bus.SseBusMessage;
+import com.group_three.food_ordering.notifications.bus.SseEventBus;
+import com.group_three.food_ordering.notifications.enums.SseChannel;
 import com.group_three.food_ordering.notifications.enums.SseEventType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Difusión de eventos a los clientes de una sesión de mesa.
+ * El hilo que publica sólo serializa una vez y lo pasa al {@link SseEventBus}, que lo hace llegar a todos
+ * los nodos; en cada uno se encola en sus conexiones. Cada conexión tiene su propia cola acotada
+ * y un único escritor en un hilo virtual, así un teléfono lento no frena la creación de órdenes.
+ * Los últimos eventos de cada sesión quedan en un {@link SseReplayBuffer}: un cliente que vuelve con
+ * {@code Last-Event-ID} recibe sólo lo que se perdió en vez de volver a pedir todas las órdenes.
+ */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class SseService {
 
     private static final long TIMEOUT = 600_000L; // 10 minutos
     private static final int MAX_EMITTERS_PER_SESSION = 20;
+    // Eventos pendientes por conexión; si se llena, el cliente no está leyendo y se lo desconecta
+    private static final int MAX_PENDING_EVENTS = 64;
+    private static final String PING_KEY = "ping";
+    // Texto plano como siempre: los clientes no parsean el ping
+    private static final OutboundEvent PING = new OutboundEvent(null, "ping", "keep-alive");
+    private static final String CONNECTION_TYPE = "table-session";
+    private static final String VENUE_BOARD_CONNECTION_TYPE = "venue-board";
+    /** Los tableros comparten el mapa de emitters con las sesiones; el prefijo evita choques de clave */
+    public static final String VENUE_BOARD_TOPIC_PREFIX = "venue-board:";
+
+    private final ObjectMapper objectMapper;
+    private final SseEventBus eventBus;
+    private final SseHeartbeatScheduler heartbeatScheduler;
+    private final TenantContext tenantContext;
 
     private final Map<String, List<EmitterWrapper>> emitters = new ConcurrentHashMap<>();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong sequence = new AtomicLong();
+    private Cache<String, SseReplayBuffer> replayBuffers;
+
+    @Value("${app.sse.replay.events-per-session:100}")
+    private int replayCapacity;
+
+    @Value("${app.sse.replay.ttl:15m}")
+    private Duration replayTtl;
+
+    @PostConstruct
+    void init() {
+        // Una sesión sin actividad durante el TTL ya no tiene a quién reenviarle nada
+        replayBuffers = Caffeine.newBuilder()
+                .expireAfterAccess(replayTtl)
+                .build();
+        eventBus.subscribe(SseChannel.TABLE_SESSION, this::deliver);
+        eventBus.subscribe(SseChannel.VENUE_BOARD, this::deliver);
+    }
 
     public SseEmitter subscribe(String tableSessionId) {
-        log.debug("[SseService] Subscribing to table session {}", tableSessionId);
-        SseEmitter emitter = new SseEmitter(TIMEOUT);
+        return subscribe(tableSessionId, null);
+    }
+
+    /**
+     * Suscribe un cliente a la sesión. Si trae el id del último evento que recibió, se le reenvían
+     * los posteriores; si ya no están todos en el buffer recibe {@code resync-required}.
+     */
+    public SseEmitter subscribe(String tableSessionId, String lastEventIdHeader) {
+        return subscribe(tableSessionId, lastEventIdHeader, CONNECTION_TYPE);
+    }
+
+    /**
+     * Tablero de cocina del local: recibe cada alta, cambio o baja de una orden en curso.
+     * Usa la misma cola, reenvío y heartbeat que las sesiones de mesa.
+     */
+    public SseEmitter subscribeToVenueBoard(UUID foodVenueId, String lastEventIdHeader) {
+        return subscribe(venueBoardTopic(foodVenueId), lastEventIdHeader, VENUE_BOARD_CONNECTION_TYPE);
+    }
+
+    private SseEmitter subscribe(String topic, String lastEventIdHeader, String connectionType) {
+        log.debug("[SseService] Subscribing {} connection to {}", connectionType, topic);
+        SseEmitter emitter = newEmitter();
 
         List<EmitterWrapper> sessionEmitters = emitters.computeIfAbsent(
-                tableSessionId,
+                topic,
                 k -> new CopyOnWriteArrayList<>()
         );
 
         if (sessionEmitters.size() >= MAX_EMITTERS_PER_SESSION) {
-            log.warn("[SseService] Max emitters reached for session {}. Rejecting new subscription.", tableSessionId);
+            log.warn("[SseService] Max emitters reached for session {}. Rejecting new subscription.", topic);
             throw new IllegalStateException("Too many clients subscribed");
         }
 
-        EmitterWrapper wrapper = new EmitterWrapper(emitter);
-        sessionEmitters.add(wrapper);
-
-        Runnable cleanupCallback = () -> removeEmitter(tableSessionId, wrapper);
+        EmitterWrapper wrapper = new EmitterWrapper(topic, emitter);
+        Runnable cleanupCallback = () -> removeEmitter(topic, wrapper);
 
         emitter.onCompletion(cleanupCallback);
         emitter.onTimeout(cleanupCallback);
         emitter.onError(e -> {
-            log.warn("[SseService] Emitter error for session {}: {}", tableSessionId, e.getMessage());
+            log.warn("[SseService] Emitter error for session {}: {}", topic, e.getMessage());
             cleanupCallback.run();
         });
 
         try {
             emitter.send(SseEmitter.event()
                     .name(SseEventType.CONNECTION_SUCCESSFUL.getEventName())
-                    .data("Connected to Table session " + tableSessionId));
+                    .data(CONNECTION_TYPE.equals(connectionType)
+                            ? "Connected to Table session " + topic
+                            : "Connected to " + topic));
         } catch (IOException e) {
             log.warn("[SseService] Failed initial send: {}", e.getMessage());
             cleanupCallback.run();
+            return emitter;
+        }
+
+        // Alta y reenvío bajo el mismo lock que la entrega: ningún evento se pierde ni llega dos veces
+        SseReplayBuffer buffer = replayBufferOf(topic);
+        synchronized (buffer) {
+            sessionEmitters.add(wrapper);
+            String foodVenueId = tenantContext.foodVenueIdOpt().map(Object::toString).orElse(null);
+            wrapper.registration = heartbeatScheduler.register(foodVenueId, connectionType, wrapper);
+            Long resumeFrom = parseEventId(lastEventIdHeader);
+            if (resumeFrom != null) {
+                replay(topic, wrapper, buffer.since(resumeFrom));
+            }
         }
 
         return emitter;
     }
 
+    // Los tests lo reemplazan por un emitter que registra lo enviado
+    SseEmitter newEmitter() {
+        return new SseEmitter(TIMEOUT);
+    }
+
+    private void replay(String tableSessionId, EmitterWrapper wrapper, Optional<List<SseBusMessage>> missed) {
+        if (missed.isEmpty()) {
+            log.debug("[SseService] Replay gap for session {}, asking client to resync", tableSessionId);
+            offer(tableSessionId, wrapper, SseEventType.RESYNC_REQUIRED.getEventName(),
+                    new OutboundEvent(null, SseEventType.RESYNC_REQUIRED.getEventName(), "{}"));
+            return;
+        }
+        log.debug("[SseService] Replaying {} events for session {}", missed.get().size(), tableSessionId);
+        missed.get().forEach(message -> offer(tableSessionId, wrapper, keyOf(message), OutboundEvent.of(message)));
+    }
+
     public void sendEventToTableSession(String tableSessionId, SseEventType eventType, Object data) {
-        List<EmitterWrapper> sessionEmitters = emitters.get(tableSessionId);
-        if (sessionEmitters == null || sessionEmitters.isEmpty()) return;
-
-        log.debug("[SseService] Sending event {} to {} clients for session {}",
-                eventType.getEventName(), sessionEmitters.size(), tableSessionId);
-
-        for (EmitterWrapper wrapper : sessionEmitters) {
-            try {
-                wrapper.getEmitter().send(SseEmitter.event()
-                        .name(eventType.getEventName())
-                        .data(data));
-                wrapper.refreshLastActive();
-            } catch (Exception e) {
-                log.warn("[SseService] Failed to send to one emitter: {}", e.getMessage());
+        publish(SseChannel.TABLE_SESSION, tableSessionId, eventType, data);
+    }
+
+    public void sendEventToVenueBoard(UUID foodVenueId, SseEventType eventType, Object data) {
+        publish(SseChannel.VENUE_BOARD, venueBoardTopic(foodVenueId), eventType, data);
+    }
+
+    public static String venueBoardTopic(UUID foodVenueId) {
+        return VENUE_BOARD_TOPIC_PREFIX + foodVenueId;
+    }
+
+    private void publish(SseChannel channel, String topic, SseEventType eventType, Object data) {
+        // Se serializa en el hilo que publica (las entidades todavía tienen su sesión abierta) y una sola vez
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            log.warn("[SseService] Failed to serialize event {} for {}: {}",
+                    eventType.getEventName(), topic, e.getMessage());
+            return;
+        }
+
+        eventBus.publish(new SseBusMessage(null, channel, topic,
+                eventType.getEventName(), payload, coalesceKey(eventType, data)));
+    }
+
+    // Llega desde el bus, con eventos publicados en este nodo o en cualquier otro
+    private void deliver(SseBusMessage message) {
+        SseReplayBuffer buffer = replayBufferOf(message.target());
+        synchronized (buffer) {
+            buffer.append(message);
+
+            List<EmitterWrapper> sessionEmitters = emitters.get(message.target());
+            if (sessionEmitters == null || sessionEmitters.isEmpty()) return;
+
+            log.debug("[SseService] Queueing event {} to {} clients for session {}",
+                    message.eventName(), sessionEmitters.size(), message.target());
+
+            OutboundEvent event = OutboundEvent.of(message);
+            String key = keyOf(message);
+            for (EmitterWrapper wrapper : sessionEmitters) {
+                offer(message.target(), wrapper, key, event);
             }
         }
     }
 
+    private SseReplayBuffer replayBufferOf(String tableSessionId) {
+        return replayBuffers.get(tableSessionId, id -> new SseReplayBuffer(replayCapacity));
+    }
+
+    private String keyOf(SseBusMessage message) {
+        return message.coalesceKey() != null ? message.coalesceKey() : "#" + sequence.incrementAndGet();
+    }
+
+    private Long parseEventId(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            log.debug("[SseService] Ignoring malformed Last-Event-ID '{}'", header);
+            return null;
+        }
+    }
+
+    private void offer(String sessionId, EmitterWrapper wrapper, String key, OutboundEvent event) {
+        if (!wrapper.enqueue(key, event)) {
+            log.warn("[SseService] Dropping slow client for session {} ({} events pending)",
+                    sessionId, MAX_PENDING_EVENTS);
+            removeEmitter(sessionId, wrapper);
+            wrapper.getEmitter().complete();
+            return;
+        }
+        if (wrapper.claimWriter()) {
+            writers.execute(() -> drain(sessionId, wrapper));
+        }
+    }
+
+    // Único escritor de la conexión: vacía la cola y libera el turno; si entró algo mientras tanto, sigue
+    private void drain(String sessionId, EmitterWrapper wrapper) {
+        do {
+            OutboundEvent event;
+            while ((event = wrapper.poll()) != null) {
+                try {
+                    SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                            .name(event.name())
+                            .data(event.payload(), MediaType.APPLICATION_JSON);
+                    if (event.id() != null) {
+                        builder.id(String.valueOf(event.id()));
+                    }
+                    wrapper.getEmitter().send(builder);
+                    // El ping no cuenta como actividad: si no, la conexión nunca llegaría al idle timeout
+                    if (event != PING) {
+                        wrapper.refreshLastActive();
+                    }
+                } catch (Exception e) {
+                    log.warn("[SseService] Failed to send to one emitter: {}", e.getMessage());
+                    removeEmitter(sessionId, wrapper);
+                    return;
+                }
+            }
+            wrapper.releaseWriter();
+        } while (wrapper.hasPending() && wrapper.claimWriter());
+    }
+
+    /**
+     * Eventos que se pueden pisar mientras esperan en la cola: de la misma orden y tipo sólo interesa
+     * el último estado, y del conteo de participantes sólo el último valor.
+     */
+    private String coalesceKey(SseEventType eventType, Object data) {
+        if (data instanceof OrderResponseDto order && order.getPublicId() != null) {
+            return eventType.getEventName() + ":" + order.getPublicId();
+        }
+        if (eventType == SseEventType.COUNT_UPDATED) {
+            return eventType.getEventName();
+        }
+        return null;
+    }
+
     private void removeEmitter(String sessionId, EmitterWrapper wrapper) {
+        if (wrapper.registration != null) {
+            wrapper.registration.close();
+        }
         List<EmitterWrapper> list = emitters.get(sessionId);
         if (list != null) {
             list.remove(wrapper);
@@ -91,36 +309,84 @@ public class SseService {
         }
     }
 
-    /** Limpieza periódica de conexiones muertas o inactivas */
-    @Scheduled(fixedRate = 60_000)
-    public void cleanInactiveEmitters() {
-        emitters.forEach((sessionId, list) -> {
-            list.removeIf(EmitterWrapper::isExpired);
-            if (list.isEmpty()) emitters.remove(sessionId);
-        });
+    @PreDestroy
+    void shutdown() {
+        writers.shutdownNow();
+    }
+
+    private record OutboundEvent(Long id, String name, String payload) {
+
+        static OutboundEvent of(SseBusMessage message) {
+            return new OutboundEvent(message.eventId(), message.eventName(), message.payload());
+        }
     }
 
-    private static class EmitterWrapper {
+    private class EmitterWrapper implements SseHeartbeatScheduler.Connection {
+        private final String tableSessionId;
         @Getter
         private final SseEmitter emitter;
-        private Instant lastActive;
+        private volatile Instant lastActive;
+        private volatile SseHeartbeatScheduler.Registration registration;
+        // Orden de llegada; un evento que se pisa conserva su lugar en la cola
+        private final LinkedHashMap<String, OutboundEvent> pending = new LinkedHashMap<>();
+        private final AtomicBoolean writing = new AtomicBoolean();
 
-        public EmitterWrapper(SseEmitter emitter) {
+        EmitterWrapper(String tableSessionId, SseEmitter emitter) {
+            this.tableSessionId = tableSessionId;
             this.emitter = emitter;
             this.lastActive = Instant.now();
         }
 
-        public void refreshLastActive() {
-            this.lastActive = Instant.now();
-            try {
-                emitter.send(SseEmitter.event().name("ping").data("keep-alive"));
-            } catch (IOException e) {
-                log.trace("[SseService] Ping failed: {}", e.getMessage());
+        synchronized boolean enqueue(String key, OutboundEvent event) {
+            if (!pending.containsKey(key) && pending.size() >= MAX_PENDING_EVENTS) {
+                return false;
+            }
+            pending.put(key, event);
+            return true;
+        }
+
+        synchronized OutboundEvent poll() {
+            Iterator<OutboundEvent> iterator = pending.values().iterator();
+            if (!iterator.hasNext()) {
+                return null;
             }
+            OutboundEvent next = iterator.next();
+            iterator.remove();
+            return next;
+        }
+
+        synchronized boolean hasPending() {
+            return !pending.isEmpty();
+        }
+
+        boolean claimWriter() {
+            return writing.compareAndSet(false, true);
+        }
+
+        void releaseWriter() {
+            writing.set(false);
+        }
+
+        void refreshLastActive() {
+            this.lastActive = Instant.now();
+        }
+
+        @Override
+        public Instant lastActive() {
+            return lastActive;
+        }
+
+        // Va por la cola como cualquier otro evento, así nunca se escribe en paralelo
+        @Override
+        public void sendHeartbeat() {
+            offer(tableSessionId, this, PING_KEY, PING);
         }
 
-        public boolean isExpired() {
-            return Instant.now().minusMillis(TIMEOUT).isAfter(lastActive);
+        @Override
+        public void expire() {
+            log.debug("[SseService] Expiring idle client for session {}", tableSessionId);
+            removeEmitter(tableSessionId, this);
+            emitter.complete();
         }
     }
 }
@@ -0,0 +1,23 @@
+package com.group_three.food_ordering.repositories;
+
+import com.group_three.food_ordering.models.DataMigration;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface DataMigrationRepository extends JpaRepository<DataMigration, String> {
+
+    // Crea la fila pendiente si ningún nodo la creó todavía
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO data_migrations (name) VALUES (:name)", nativeQuery = true)
+    int register(@Param("name") String name);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<DataMigration> findAndLockByName(String name);
+
+}
@@ -3,10 +3,13 @@ package com.group_three.food_ordering.repositories;
 import com.group_three.food_ordering.enums.EmploymentStatus;
 import com.group_three.food_ordering.enums.RoleType;
 import com.group_three.food_ordering.models.Employment;
+import com.group_three.food_ordering.models.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
@@ -51,4 +54,8 @@ public interface EmploymentRepository extends JpaRepository<Employment, UUID>, J
 
     List<Employment> findByStatusAndTokenExpirationBefore(EmploymentStatus status, Instant now);
 
+    @Query("SELECT DISTINCT e.user FROM Employment e " +
+            "WHERE e.foodVenue.publicId = :foodVenueId AND e.active = true AND e.deleted = false")
+    List<User> findActiveEmployeeUsersByFoodVenue(@Param("foodVenueId") UUID foodVenueId);
+
 }
@@ -1,10 +1,12 @@
 package com.group_three.food_ordering.repositories;
 
+import com.group_three.food_ordering.dto.projection.FoodVenueSnapshot;
 import com.group_three.food_ordering.models.FoodVenue;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -22,4 +24,8 @@ public interface FoodVenueRepository extends JpaRepository<FoodVenue, Long> {
     @Query("SELECT fv FROM FoodVenue fv WHERE fv.deleted = true")
     Page<FoodVenue> findAllDeleted(Pageable pageable);
 
+    @Query("SELECT new com.group_three.food_ordering.dto.projection.FoodVenueSnapshot(v.id, v.publicId, v.name) " +
+            "FROM FoodVenue v WHERE v.publicId = :publicId AND v.deleted = false")
+    Optional<FoodVenueSnapshot> findSnapshotByPublicId(@Param("publicId") UUID publicId);
+
 }
@@ -0,0 +1,60 @@
+package com.group_three.food_ordering.repositories;
+
+import com.group_three.food_ordering.models.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByScopeKey(String scopeKey);
+
+    // 1 si la clave quedó tomada, 0 si ya existía (en este nodo o en otro)
+    @Modifying
+    @Query(value = """
+                INSERT IGNORE INTO idempotency_keys (scope_key, fingerprint, owner, claimed_at, expires_at)
+                VALUES (:scopeKey, :fingerprint, :owner, :now, :expiresAt)
+            """, nativeQuery = true)
+    int claim(@Param("scopeKey") String scopeKey,
+              @Param("fingerprint") String fingerprint,
+              @Param("owner") String owner,
+              @Param("now") Instant now,
+              @Param("expiresAt") Instant expiresAt);
+
+    // Toma una clave cuyo dueño dejó de dar señales (p. ej. el nodo se cayó a mitad del pedido)
+    @Modifying
+    @Query("""
+                UPDATE IdempotencyRecord r SET r.owner = :owner, r.claimedAt = :now
+                WHERE r.scopeKey = :scopeKey AND r.response IS NULL AND r.claimedAt < :staleBefore
+            """)
+    int takeOver(@Param("scopeKey") String scopeKey,
+                 @Param("owner") String owner,
+                 @Param("now") Instant now,
+                 @Param("staleBefore") Instant staleBefore);
+
+    @Modifying
+    @Query("""
+                UPDATE IdempotencyRecord r SET r.response = :response
+                WHERE r.scopeKey = :scopeKey AND r.owner = :owner AND r.response IS NULL
+            """)
+    int complete(@Param("scopeKey") String scopeKey,
+                 @Param("owner") String owner,
+                 @Param("response") String response);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.scopeKey = :scopeKey AND r.owner = :owner AND r.response IS NULL")
+    int release(@Param("scopeKey") String scopeKey, @Param("owner") String owner);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.scopeKey = :scopeKey AND r.expiresAt < :now")
+    int deleteExpired(@Param("scopeKey") String scopeKey, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteAllExpired(@Param("now") Instant now);
+
+}
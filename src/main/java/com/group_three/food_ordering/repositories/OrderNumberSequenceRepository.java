@@ -0,0 +1,17 @@
+package com.group_three.food_ordering.repositories;
+
+import com.group_three.food_ordering.models.OrderNumberSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface OrderNumberSequenceRepository extends JpaRepository<OrderNumberSequence, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<OrderNumberSequence> findAndLockByFoodVenueIdAndBusinessDate(UUID foodVenueId, LocalDate businessDate);
+
+}
@@ -1,63 +1,217 @@
 package com.group_three.food_ordering.repositories;
 
+import com.group_three.food_ordering.dto.projection.OrderDetailView;
+import com.group_three.food_ordering.dto.projection.OrderSummaryView;
 import com.group_three.food_ordering.enums.OrderStatus;
 import com.group_three.food_ordering.enums.PaymentStatus;
 import com.group_three.food_ordering.models.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    @EntityGraph(Order.GRAPH_DETAIL)
     Optional<Order> findByPublicId(UUID publicId);
 
+    @EntityGraph(Order.GRAPH_DETAIL)
     Optional<Order> findByFoodVenue_PublicIdAndOrderNumberAndOrderDateBetween(
             UUID foodVenueId, Integer orderNumber, Instant start, Instant end);
 
+    @EntityGraph(Order.GRAPH_DETAIL)
     Optional<Order> findByPublicIdAndFoodVenue_PublicId(UUID id, UUID foodVenueId);
 
+    @EntityGraph(Order.GRAPH_SUMMARY)
     Page<Order> findByFoodVenue_PublicIdAndOrderDateBetweenAndStatus(
             UUID foodVenueId, Instant start, Instant end, OrderStatus status, Pageable pageable);
 
+    @EntityGraph(Order.GRAPH_SUMMARY)
     Page<Order> findByFoodVenue_PublicIdAndOrderDateBetween(
             UUID foodVenueId, Instant start, Instant end, Pageable pageable
     );
 
+    @EntityGraph(Order.GRAPH_SUMMARY)
     Page<Order> findByFoodVenue_PublicId(UUID venueId, Pageable pageable);
 
+    @EntityGraph(Order.GRAPH_SUMMARY)
     Page<Order> findByFoodVenue_PublicIdAndStatus(UUID venueId, OrderStatus status, Pageable pageable);
 
+    @EntityGraph(Order.GRAPH_SUMMARY)
     Page<Order> findOrderByTableSession_PublicId(UUID tableSessionId, Pageable pageable);
 
+    @EntityGraph(Order.GRAPH_SUMMARY)
     Page<Order> findOrderByTableSession_PublicIdAndStatus(UUID tableSessionId, OrderStatus status, Pageable pageable);
 
+    @EntityGraph(Order.GRAPH_SUMMARY)
     Page<Order> findOrdersByPayment_Status(PaymentStatus status, Pageable pageable);
 
+    @EntityGraph(Order.GRAPH_SUMMARY)
     Page<Order> findOrdersByParticipant_PublicId(UUID participantId, Pageable pageable);
 
+    @EntityGraph(Order.GRAPH_SUMMARY)
     Page<Order> findOrdersByParticipant_PublicIdAndStatus(UUID participantId, OrderStatus status, Pageable pageable);
 
+    @EntityGraph(Order.GRAPH_SUMMARY)
     Page<Order> findOrdersByParticipant_PublicIdAndTableSession_PublicIdAndStatus(UUID participantId, UUID tableSessionId, OrderStatus status, Pageable pageable);
 
+    @Query(value = """
+                SELECT new com.group_three.food_ordering.dto.projection.OrderSummaryView(
+                    o.id, o.publicId, o.orderNumber, o.specialRequirements,
+                    p.publicId, p.nickname, o.totalPrice, o.status, o.orderDate, o.version)
+                FROM Order o
+                LEFT JOIN o.participant p
+                WHERE o.foodVenue.publicId = :foodVenueId
+                AND (:from IS NULL OR o.orderDate >= :from)
+                AND (:to IS NULL OR o.orderDate < :to)
+                AND (:status IS NULL OR o.status = :status)
+            """,
+            countQuery = """
+                SELECT COUNT(o)
+                FROM Order o
+                WHERE o.foodVenue.publicId = :foodVenueId
+                AND (:from IS NULL OR o.orderDate >= :from)
+                AND (:to IS NULL OR o.orderDate < :to)
+                AND (:status IS NULL OR o.status = :status)
+            """)
+    Page<OrderSummaryView> findSummariesByFoodVenue(
+            @Param("foodVenueId") UUID foodVenueId,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("status") OrderStatus status,
+            Pageable pageable
+    );
+
+    // Misma consulta sin COUNT: Spring Data lee un elemento de más para saber si hay página siguiente
+    @Query("""
+                SELECT new com.group_three.food_ordering.dto.projection.OrderSummaryView(
+                    o.id, o.publicId, o.orderNumber, o.specialRequirements,
+                    p.publicId, p.nickname, o.totalPrice, o.status, o.orderDate, o.version)
+                FROM Order o
+                LEFT JOIN o.participant p
+                WHERE o.foodVenue.publicId = :foodVenueId
+                AND (:from IS NULL OR o.orderDate >= :from)
+                AND (:to IS NULL OR o.orderDate < :to)
+                AND (:status IS NULL OR o.status = :status)
+            """)
+    Slice<OrderSummaryView> findSummarySliceByFoodVenue(
+            @Param("foodVenueId") UUID foodVenueId,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("status") OrderStatus status,
+            Pageable pageable
+    );
+
+    @Query(value = """
+                SELECT new com.group_three.food_ordering.dto.projection.OrderSummaryView(
+                    o.id, o.publicId, o.orderNumber, o.specialRequirements,
+                    p.publicId, p.nickname, o.totalPrice, o.status, o.orderDate, o.version)
+                FROM Order o
+                LEFT JOIN o.participant p
+                WHERE o.tableSession.publicId = :tableSessionId
+                AND (:status IS NULL OR o.status = :status)
+            """,
+            countQuery = """
+                SELECT COUNT(o)
+                FROM Order o
+                WHERE o.tableSession.publicId = :tableSessionId
+                AND (:status IS NULL OR o.status = :status)
+            """)
+    Page<OrderSummaryView> findSummariesByTableSession(
+            @Param("tableSessionId") UUID tableSessionId,
+            @Param("status") OrderStatus status,
+            Pageable pageable
+    );
+
+    // Historial por cursor: sigue desde (afterDate, afterId) sin OFFSET ni COUNT
+    @Query("""
+                SELECT new com.group_three.food_ordering.dto.projection.OrderSummaryView(
+                    o.id, o.publicId, o.orderNumber, o.specialRequirements,
+                    p.publicId, p.nickname, o.totalPrice, o.status, o.orderDate, o.version)
+                FROM Order o
+                LEFT JOIN o.participant p
+                WHERE o.foodVenue.publicId = :foodVenueId
+                AND (:from IS NULL OR o.orderDate >= :from)
+                AND (:to IS NULL OR o.orderDate < :to)
+                AND (:status IS NULL OR o.status = :status)
+                AND (:afterDate IS NULL
+                    OR o.orderDate < :afterDate
+                    OR (o.orderDate = :afterDate AND o.id < :afterId))
+                ORDER BY o.orderDate DESC, o.id DESC
+            """)
+    List<OrderSummaryView> findSummariesByFoodVenueAfter(
+            @Param("foodVenueId") UUID foodVenueId,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("status") OrderStatus status,
+            @Param("afterDate") Instant afterDate,
+            @Param("afterId") Long afterId,
+            Pageable limit
+    );
+
+    // Detalles de toda una página de órdenes en una sola consulta
+    @Query("""
+                SELECT new com.group_three.food_ordering.dto.projection.OrderDetailView(
+                    o.id, d.id, d.quantity, d.price, pr.price, pr.name, c.name, d.specialInstructions)
+                FROM Order o
+                JOIN o.orderDetails d
+                JOIN d.product pr
+                LEFT JOIN pr.category c
+                WHERE o.id IN :orderIds
+                ORDER BY d.id
+            """)
+    List<OrderDetailView> findDetailViewsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
     void deleteByPublicId(UUID publicId);
 
-    @Query("SELECT COUNT(o) " +
+    @Query("SELECT COALESCE(MAX(o.orderNumber), 0) " +
             "FROM Order o " +
             "WHERE o.foodVenue.publicId = :venuePublicId " +
             "AND o.orderDate >= :start " +
             "AND o.orderDate < :end ")
-    Long countOrdersToday(
+    Integer findMaxOrderNumberBetween(
             @Param("venuePublicId") UUID venuePublicId,
             @Param("start") Instant start,
             @Param("end") Instant end
     );
 
+    @EntityGraph(Order.GRAPH_SUMMARY)
+    List<Order> findByPublicIdInAndFoodVenue_PublicId(Collection<UUID> publicIds, UUID foodVenueId);
+
+    /**
+     * Compare-and-set del estado: sólo cambia si la orden sigue en {@code from} y con la versión leída.
+     * Devuelve 0 si otro cambio llegó primero.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+                UPDATE Order o SET o.status = :to, o.version = o.version + 1
+                WHERE o.id = :id AND o.status = :from AND o.version = :version
+            """)
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("from") OrderStatus from,
+                            @Param("to") OrderStatus to,
+                            @Param("version") long version);
+
+    /** Avanza en una sola sentencia las órdenes que siguen en {@code from}; devuelve cuántas cambió */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+                UPDATE Order o SET o.status = :to, o.version = o.version + 1
+                WHERE o.id IN :ids AND o.status = :from
+            """)
+    int advanceStatus(@Param("ids") Collection<Long> ids,
+                      @Param("from") OrderStatus from,
+                      @Param("to") OrderStatus to);
+
 }
@@ -1,7 +1,10 @@
 package com.group_three.food_ordering.repositories;
 
+import com.group_three.food_ordering.dto.projection.ParticipantSnapshot;
 import com.group_three.food_ordering.models.Participant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -18,5 +21,9 @@ public interface ParticipantRepository extends JpaRepository<Participant, Long>
 
     boolean existsByNickname(String nickname);
 
-}
+    @Query("SELECT new com.group_three.food_ordering.dto.projection.ParticipantSnapshot(" +
+            "p.id, p.publicId, ts.publicId, u.publicId, p.role, p.leftAt) " +
+            "FROM Participant p LEFT JOIN p.tableSession ts LEFT JOIN p.user u WHERE p.publicId = :publicId")
+    Optional<ParticipantSnapshot> findSnapshotByPublicId(@Param("publicId") UUID publicId);
 
+}
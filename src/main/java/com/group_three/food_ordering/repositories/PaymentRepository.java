@@ -1,14 +1,17 @@
 package com.group_three.food_ordering.repositories;
 
+import com.group_three.food_ordering.dto.projection.PaymentSummaryView;
 import com.group_three.food_ordering.enums.PaymentStatus;
-import com.group_three.food_ordering.models.Order;
 import com.group_three.food_ordering.models.Payment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,9 +21,139 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
     Optional<Payment> findByPublicId(UUID publicId);
 
-    Page<Payment> findByOrders(List<Order> orders, Pageable pageable);
+    // Listados por semi-join con las órdenes: el costo no depende de cuántas órdenes haya en el rango
+    @Query(value = """
+                SELECT new com.group_three.food_ordering.dto.projection.PaymentSummaryView(
+                    p.id, p.publicId, p.amount, p.status, p.paymentMethod, p.creationDate)
+                FROM Payment p
+                WHERE (:status IS NULL OR p.status = :status)
+                AND p.creationDate BETWEEN :from AND :to
+                AND EXISTS (SELECT 1 FROM Order o WHERE o.payment = p AND o.foodVenue.publicId = :foodVenueId)
+            """,
+            countQuery = """
+                SELECT COUNT(p)
+                FROM Payment p
+                WHERE (:status IS NULL OR p.status = :status)
+                AND p.creationDate BETWEEN :from AND :to
+                AND EXISTS (SELECT 1 FROM Order o WHERE o.payment = p AND o.foodVenue.publicId = :foodVenueId)
+            """)
+    Page<PaymentSummaryView> findViewsByFoodVenueAndCreationDateBetween(
+            @Param("foodVenueId") UUID foodVenueId,
+            @Param("status") PaymentStatus status,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            Pageable pageable);
 
-    Page<Payment> findByOrdersAndStatusAndCreationDateBetween(List<Order> orders, PaymentStatus status, Instant from, Instant to, Pageable pageable);
+    // Pagos con alguna orden del local tomada en [from, to)
+    @Query(value = """
+                SELECT new com.group_three.food_ordering.dto.projection.PaymentSummaryView(
+                    p.id, p.publicId, p.amount, p.status, p.paymentMethod, p.creationDate)
+                FROM Payment p
+                WHERE (:status IS NULL OR p.status = :status)
+                AND EXISTS (SELECT 1 FROM Order o
+                    WHERE o.payment = p
+                    AND o.foodVenue.publicId = :foodVenueId
+                    AND o.orderDate >= :from AND o.orderDate < :to)
+            """,
+            countQuery = """
+                SELECT COUNT(p)
+                FROM Payment p
+                WHERE (:status IS NULL OR p.status = :status)
+                AND EXISTS (SELECT 1 FROM Order o
+                    WHERE o.payment = p
+                    AND o.foodVenue.publicId = :foodVenueId
+                    AND o.orderDate >= :from AND o.orderDate < :to)
+            """)
+    Page<PaymentSummaryView> findViewsByFoodVenueAndOrderDateBetween(
+            @Param("foodVenueId") UUID foodVenueId,
+            @Param("status") PaymentStatus status,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            Pageable pageable);
+
+    // Pagos con alguna orden de la sesión de mesa
+    @Query(value = """
+                SELECT new com.group_three.food_ordering.dto.projection.PaymentSummaryView(
+                    p.id, p.publicId, p.amount, p.status, p.paymentMethod, p.creationDate)
+                FROM Payment p
+                WHERE (:status IS NULL OR p.status = :status)
+                AND EXISTS (SELECT 1 FROM Order o WHERE o.payment = p AND o.tableSession.publicId = :tableSessionId)
+            """,
+            countQuery = """
+                SELECT COUNT(p)
+                FROM Payment p
+                WHERE (:status IS NULL OR p.status = :status)
+                AND EXISTS (SELECT 1 FROM Order o WHERE o.payment = p AND o.tableSession.publicId = :tableSessionId)
+            """)
+    Page<PaymentSummaryView> findViewsByTableSession(
+            @Param("tableSessionId") UUID tableSessionId,
+            @Param("status") PaymentStatus status,
+            Pageable pageable);
+
+    // Pagos con alguna orden del participante
+    @Query(value = """
+                SELECT new com.group_three.food_ordering.dto.projection.PaymentSummaryView(
+                    p.id, p.publicId, p.amount, p.status, p.paymentMethod, p.creationDate)
+                FROM Payment p
+                WHERE (:status IS NULL OR p.status = :status)
+                AND EXISTS (SELECT 1 FROM Order o WHERE o.payment = p AND o.participant.publicId = :participantId)
+            """,
+            countQuery = """
+                SELECT COUNT(p)
+                FROM Payment p
+                WHERE (:status IS NULL OR p.status = :status)
+                AND EXISTS (SELECT 1 FROM Order o WHERE o.payment = p AND o.participant.publicId = :participantId)
+            """)
+    Page<PaymentSummaryView> findViewsByParticipant(
+            @Param("participantId") UUID participantId,
+            @Param("status") PaymentStatus status,
+            Pageable pageable);
+
+    // Pagos de las órdenes indicadas, dentro del local actual
+    @Query(value = """
+                SELECT new com.group_three.food_ordering.dto.projection.PaymentSummaryView(
+                    p.id, p.publicId, p.amount, p.status, p.paymentMethod, p.creationDate)
+                FROM Payment p
+                WHERE (:status IS NULL OR p.status = :status)
+                AND EXISTS (SELECT 1 FROM Order o
+                    WHERE o.payment = p
+                    AND o.publicId IN :orderIds
+                    AND o.foodVenue.publicId = :foodVenueId)
+            """,
+            countQuery = """
+                SELECT COUNT(p)
+                FROM Payment p
+                WHERE (:status IS NULL OR p.status = :status)
+                AND EXISTS (SELECT 1 FROM Order o
+                    WHERE o.payment = p
+                    AND o.publicId IN :orderIds
+                    AND o.foodVenue.publicId = :foodVenueId)
+            """)
+    Page<PaymentSummaryView> findViewsByOrders(
+            @Param("foodVenueId") UUID foodVenueId,
+            @Param("orderIds") Collection<UUID> orderIds,
+            @Param("status") PaymentStatus status,
+            Pageable pageable);
+
+    // Historial por cursor sobre (creationDate, id) de los pagos con órdenes del local
+    @Query("""
+                SELECT p FROM Payment p
+                WHERE p.status = :status
+                AND p.creationDate BETWEEN :from AND :to
+                AND EXISTS (SELECT 1 FROM Order o WHERE o.payment = p AND o.foodVenue.publicId = :foodVenueId)
+                AND (:afterDate IS NULL
+                    OR p.creationDate < :afterDate
+                    OR (p.creationDate = :afterDate AND p.id < :afterId))
+                ORDER BY p.creationDate DESC, p.id DESC
+            """)
+    List<Payment> findByFoodVenueAndStatusAndCreationDateBetweenAfter(
+            @Param("foodVenueId") UUID foodVenueId,
+            @Param("status") PaymentStatus status,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("afterDate") Instant afterDate,
+            @Param("afterId") Long afterId,
+            Pageable limit);
 
     boolean existsByPublicId(UUID publicId);
 
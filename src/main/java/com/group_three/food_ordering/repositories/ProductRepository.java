@@ -1,28 +1,66 @@
 package com.group_three.food_ordering.repositories;
 
 import com.group_three.food_ordering.models.Product;
-import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Los UPDATE de stock no tocan las entidades ya cargadas: quien tenga un {@link Product} administrado
+ * debe refrescarlo después (ver {@code ProductServiceImpl}) para no leer ni reescribir un stock viejo.
+ */
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<Product> findAndLockByPublicIdAndDeletedFalse(UUID publicId);
-
     Optional<Product> findByPublicIdAndDeletedFalse(UUID publicId);
 
     List<Product> findByNameAndFoodVenue_PublicIdAndDeletedFalse(String name, UUID foodVenueId);
 
+    List<Product> findAllByFoodVenue_PublicIdAndNameInAndDeletedFalse(UUID foodVenueId, Collection<String> names);
+
+    // 'available' se asigna antes que 'stock' para que el CASE lea el stock previo también en MySQL
+    @Modifying(flushAutomatically = true)
+    @Query("""
+    UPDATE Product p
+    SET p.available = CASE WHEN p.stock > :quantity THEN p.available ELSE false END,
+        p.stock = p.stock - :quantity
+    WHERE p.id = :id
+      AND p.stock >= :quantity
+    """)
+    int decrementStockIfAvailable(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+    UPDATE Product p
+    SET p.available = CASE WHEN p.stock <= 0 THEN true ELSE p.available END,
+        p.stock = p.stock + :quantity
+    WHERE p.id = :id
+    """)
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+    UPDATE Product p
+    SET p.available = CASE WHEN p.stock + :delta > 0 THEN (CASE WHEN p.stock <= 0 THEN true ELSE p.available END) ELSE false END,
+        p.stock = p.stock + :delta
+    WHERE p.id = :id
+    """)
+    int applyStockDelta(@Param("id") Long id, @Param("delta") int delta);
+
+    @Query("SELECT p.stock FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids AND p.stock <= 0")
+    List<Long> findOutOfStockIds(@Param("ids") Collection<Long> ids);
+
     Page<Product> findAllByFoodVenue_PublicIdAndDeletedFalse(UUID foodVenueId, Pageable pageable);
 
     Page<Product> findAllByDeletedFalse(Pageable pageable);
@@ -1,22 +1,47 @@
 package com.group_three.food_ordering.repositories;
 
 import com.group_three.food_ordering.configs.security.RefreshToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
-    Optional<RefreshToken> findByTokenAndRevokedFalse(String token);
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
 
     @Modifying
-    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.userEmail = :userEmail")
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.userEmail = :userEmail AND rt.revoked = false")
     void revokeAllByUserEmail(@Param("userEmail") String userEmail);
 
-    void deleteByExpiresAtBefore(Instant now);
-}
\ No newline at end of file
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.familyId = :familyId AND rt.revoked = false")
+    int revokeFamily(@Param("familyId") UUID familyId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.tokenHash = :tokenHash AND rt.revoked = false")
+    int revokeByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /** Consume el token sólo si nadie lo usó ni revocó antes; 0 filas significa que ya no estaba disponible */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.usedAt = :usedAt, rt.revoked = true " +
+            "WHERE rt.id = :id AND rt.usedAt IS NULL AND rt.revoked = false")
+    int markUsed(@Param("id") UUID id, @Param("usedAt") Instant usedAt);
+
+    @Query("SELECT rt.id FROM RefreshToken rt WHERE rt.expiresAt < :now ORDER BY rt.expiresAt")
+    List<UUID> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
+}
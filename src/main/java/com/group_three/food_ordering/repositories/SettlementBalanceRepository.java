@@ -0,0 +1,127 @@
+package com.group_three.food_ordering.repositories;
+
+import com.group_three.food_ordering.dto.projection.ParticipantBalanceView;
+import com.group_three.food_ordering.dto.projection.PaymentShareView;
+import com.group_three.food_ordering.models.ParticipantBalance;
+import com.group_three.food_ordering.models.SessionBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Saldos de mesa y de participante. Se mueven con deltas (upsert nativo, como los acumulados de métricas)
+ * para que cerrar una sesión o repartir la cuenta no tenga que recorrer sus órdenes.
+ */
+@Repository
+public interface SettlementBalanceRepository extends JpaRepository<SessionBalance, Long> {
+
+    Optional<SessionBalance> findByTableSessionId(Long tableSessionId);
+
+    // Escalar: lee la fila tal como quedó tras los upserts de la transacción en curso
+    @Query("SELECT b.billed - b.paid FROM SessionBalance b WHERE b.tableSessionId = :tableSessionId")
+    Optional<BigDecimal> findOutstanding(@Param("tableSessionId") Long tableSessionId);
+
+    @Query("""
+                SELECT new com.group_three.food_ordering.dto.projection.ParticipantBalanceView(
+                    p.publicId, p.nickname, p.leftAt, COALESCE(b.billed, 0), COALESCE(b.paid, 0))
+                FROM Participant p
+                LEFT JOIN ParticipantBalance b ON b.participantId = p.id
+                WHERE p.tableSession.id = :tableSessionId
+                AND p.deleted = false
+                ORDER BY p.joinedAt, p.id
+            """)
+    List<ParticipantBalanceView> findParticipantBalances(@Param("tableSessionId") Long tableSessionId);
+
+    // Lo que cubre un pago, agrupado por sesión y participante; las órdenes canceladas no se facturan
+    @Query("""
+                SELECT new com.group_three.food_ordering.dto.projection.PaymentShareView(
+                    o.tableSession.id, p.id, SUM(o.totalPrice))
+                FROM Order o
+                LEFT JOIN o.participant p
+                WHERE o.payment.id = :paymentId
+                AND o.tableSession IS NOT NULL
+                AND o.status <> com.group_three.food_ordering.enums.OrderStatus.CANCELLED
+                GROUP BY o.tableSession.id, p.id
+            """)
+    List<PaymentShareView> findPaymentShares(@Param("paymentId") Long paymentId);
+
+    // ---- MANTENIMIENTO DE LOS SALDOS ----
+
+    @Modifying
+    @Query(value = """
+  INSERT INTO session_balances (table_session_id, billed, paid)
+  VALUES (:tableSessionId, :billedDelta, :paidDelta)
+  ON DUPLICATE KEY UPDATE billed = billed + VALUES(billed),
+                          paid   = paid + VALUES(paid)
+""", nativeQuery = true)
+    void addToSessionBalance(@Param("tableSessionId") Long tableSessionId,
+                             @Param("billedDelta") BigDecimal billedDelta,
+                             @Param("paidDelta") BigDecimal paidDelta);
+
+    @Modifying
+    @Query(value = """
+  INSERT INTO participant_balances (participant_id, table_session_id, billed, paid)
+  VALUES (:participantId, :tableSessionId, :billedDelta, :paidDelta)
+  ON DUPLICATE KEY UPDATE billed = billed + VALUES(billed),
+                          paid   = paid + VALUES(paid)
+""", nativeQuery = true)
+    void addToParticipantBalance(@Param("participantId") Long participantId,
+                                 @Param("tableSessionId") Long tableSessionId,
+                                 @Param("billedDelta") BigDecimal billedDelta,
+                                 @Param("paidDelta") BigDecimal paidDelta);
+
+    @Query("SELECT b FROM ParticipantBalance b WHERE b.participantId = :participantId")
+    Optional<ParticipantBalance> findParticipantBalance(@Param("participantId") Long participantId);
+
+    @Modifying
+    @Query(value = "DELETE FROM participant_balances WHERE participant_id = :participantId", nativeQuery = true)
+    void deleteParticipantBalance(@Param("participantId") Long participantId);
+
+    // Reconstruye los saldos de las sesiones abiertas desde orders. Sale de table_sessions, así una sesión con
+    // todas sus órdenes canceladas o borradas vuelve a cero. Pisa la fila en vez de sumarle: un delta que se
+    // commitea mientras corre ya está en las órdenes que se leen, así que no se cuenta dos veces
+    @Modifying
+    @Query(value = """
+  INSERT INTO session_balances (table_session_id, billed, paid)
+  SELECT s.id,
+         COALESCE(SUM(o.total_price), 0),
+         COALESCE(SUM(CASE WHEN p.status = 'COMPLETED' AND p.deleted = false THEN o.total_price ELSE 0 END), 0)
+  FROM table_sessions s
+  LEFT JOIN orders o ON o.table_session_id = s.id
+                    AND o.status <> 'CANCELLED'
+                    AND o.deleted = false
+  LEFT JOIN payments p ON p.id = o.payment_id
+  WHERE s.end_time IS NULL
+  GROUP BY s.id
+  ON DUPLICATE KEY UPDATE billed = VALUES(billed),
+                          paid   = VALUES(paid)
+""", nativeQuery = true)
+    int rebuildSessionBalances();
+
+    // Lo mismo por participante de las sesiones abiertas, partiendo de participants
+    @Modifying
+    @Query(value = """
+  INSERT INTO participant_balances (participant_id, table_session_id, billed, paid)
+  SELECT pt.id,
+         pt.table_session_id,
+         COALESCE(SUM(o.total_price), 0),
+         COALESCE(SUM(CASE WHEN p.status = 'COMPLETED' AND p.deleted = false THEN o.total_price ELSE 0 END), 0)
+  FROM participants pt
+  JOIN table_sessions s ON s.id = pt.table_session_id
+  LEFT JOIN orders o ON o.participant_id = pt.id
+                    AND o.status <> 'CANCELLED'
+                    AND o.deleted = false
+  LEFT JOIN payments p ON p.id = o.payment_id
+  WHERE s.end_time IS NULL
+  GROUP BY pt.id, pt.table_session_id
+  ON DUPLICATE KEY UPDATE billed = VALUES(billed),
+                          paid   = VALUES(paid)
+""", nativeQuery = true)
+    int rebuildParticipantBalances();
+}
@@ -0,0 +1,36 @@
+package com.group_three.food_ordering.repositories;
+
+import com.group_three.food_ordering.models.StockJournalEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface StockJournalRepository extends JpaRepository<StockJournalEntry, Long> {
+
+    @Query("SELECT COALESCE(SUM(j.delta), 0) FROM StockJournalEntry j WHERE j.productId = :productId")
+    Integer sumPendingDelta(@Param("productId") Long productId);
+
+    @Query("SELECT j FROM StockJournalEntry j ORDER BY j.id")
+    List<StockJournalEntry> findPending(Pageable pageable);
+
+    @Query("SELECT j FROM StockJournalEntry j WHERE j.productId IN :productIds ORDER BY j.id")
+    List<StockJournalEntry> findPendingByProductIds(@Param("productIds") Collection<Long> productIds, Pageable pageable);
+
+    @Query("""
+                SELECT j FROM StockJournalEntry j
+                WHERE j.productId IN (SELECT p.id FROM Product p WHERE p.foodVenue.publicId = :foodVenueId)
+                ORDER BY j.id
+            """)
+    List<StockJournalEntry> findPendingByFoodVenue(@Param("foodVenueId") UUID foodVenueId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM StockJournalEntry j WHERE j.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+}
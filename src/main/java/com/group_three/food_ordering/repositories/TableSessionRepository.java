@@ -1,10 +1,12 @@
 package com.group_three.food_ordering.repositories;
 
+import com.group_three.food_ordering.dto.projection.TableSessionSnapshot;
 import com.group_three.food_ordering.enums.DiningTableStatus;
 import com.group_three.food_ordering.models.Participant;
 import com.group_three.food_ordering.models.TableSession;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,37 +20,69 @@ import java.util.UUID;
 @Repository
 public interface TableSessionRepository extends JpaRepository<TableSession, Long> {
 
+    @EntityGraph(TableSession.GRAPH_VIEW)
     Optional<TableSession> findByPublicId(UUID publicId);
 
     Optional<TableSession> findByParticipantsContains(List<Participant> participants);
 
+    @EntityGraph(TableSession.GRAPH_SUMMARY)
     Page<TableSession> findByFoodVenuePublicId(UUID foodVenueId, Pageable pageable);
 
+    // Historial por cursor sobre (startTime, id)
+    @EntityGraph(TableSession.GRAPH_SUMMARY)
+    @Query("""
+                SELECT ts FROM TableSession ts
+                WHERE ts.foodVenue.publicId = :foodVenueId
+                AND (:afterTime IS NULL
+                    OR ts.startTime < :afterTime
+                    OR (ts.startTime = :afterTime AND ts.id < :afterId))
+                ORDER BY ts.startTime DESC, ts.id DESC
+            """)
+    List<TableSession> findByFoodVenuePublicIdAfter(
+            @Param("foodVenueId") UUID foodVenueId,
+            @Param("afterTime") Instant afterTime,
+            @Param("afterId") Long afterId,
+            Pageable limit);
+
+    @EntityGraph(TableSession.GRAPH_SUMMARY)
     Page<TableSession> findByFoodVenuePublicIdAndDiningTableNumber(UUID foodVenueId, Integer tableNumber, Pageable pageable);
 
+    @EntityGraph(TableSession.GRAPH_SUMMARY)
     Page<TableSession> findByFoodVenuePublicIdAndDiningTableNumberAndEndTimeGreaterThanEqualAndStartTimeLessThanEqual(
             UUID foodVenueId, Integer tableNumber, Instant start, Instant end, Pageable pageable);
 
+    @EntityGraph(TableSession.GRAPH_SUMMARY)
     Page<TableSession> findByFoodVenuePublicIdAndEndTimeIsNull(UUID foodVenueId, Pageable pageable);
 
+    @EntityGraph(TableSession.GRAPH_SUMMARY)
     Page<TableSession> findByFoodVenuePublicIdAndSessionHostPublicId(UUID foodVenueId, UUID sessionHost, Pageable pageable);
 
+    @EntityGraph(TableSession.GRAPH_SUMMARY)
     @Query("SELECT ts FROM TableSession ts " +
             "JOIN ts.participants p " +
             "WHERE p.id = :clientId " +
             "AND ts.endTime IS NOT NULL")
     Page<TableSession> findPastSessionsByParticipantIdAndDeletedFalse(UUID foodVenueId, UUID clientId, Pageable pageable);
 
+    @EntityGraph(TableSession.GRAPH_VIEW)
     Optional<TableSession> findTopByFoodVenuePublicIdAndDiningTablePublicIdOrderByStartTimeDesc(UUID foodVenueId, UUID tableId);
 
+    @EntityGraph(TableSession.GRAPH_VIEW)
     Optional<TableSession> findBySessionHost_PublicIdAndDiningTable_PublicId(UUID hostId, UUID tableId);
 
+    @EntityGraph(TableSession.GRAPH_VIEW)
     Optional<TableSession> findTableSessionByDiningTable_PublicIdAndDiningTableStatusAndEndTimeIsNull(UUID tableId, DiningTableStatus status);
 
+    @EntityGraph(TableSession.GRAPH_VIEW)
     @Query("SELECT ts FROM TableSession ts " +
             "JOIN ts.participants p " +
             "WHERE p.user.email = :userEmail " +
             "AND p.leftAt IS NULL " +
             "AND ts.endTime IS NULL ")
     Optional<TableSession> findActiveSessionByUserEmailAndDeletedFalse(@Param("userEmail") String userEmail);
+
+    @Query("SELECT new com.group_three.food_ordering.dto.projection.TableSessionSnapshot(" +
+            "ts.id, ts.publicId, v.publicId, ts.endTime) " +
+            "FROM TableSession ts LEFT JOIN ts.foodVenue v WHERE ts.publicId = :publicId")
+    Optional<TableSessionSnapshot> findSnapshotByPublicId(@Param("publicId") UUID publicId);
 }
@@ -1,12 +1,15 @@
 package com.group_three.food_ordering.repositories;
 
+import com.group_three.food_ordering.dto.projection.UserCredentials;
 import com.group_three.food_ordering.models.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -28,4 +31,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.employments WHERE u.email = :email")
     Optional<User> findByEmailWithEmployments(@Param("email") String email);
 
+    @Query("SELECT new com.group_three.food_ordering.dto.projection.UserCredentials(u.id, u.email, u.password) " +
+            "FROM User u WHERE u.email = :email")
+    Optional<UserCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
 }
@@ -0,0 +1,54 @@
+package com.group_three.food_ordering.services;
+
+import com.group_three.food_ordering.cache.HotStockCounters;
+import com.group_three.food_ordering.events.HotStockDisabledEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HotStockReconciler {
+
+    private final HotStockService hotStockService;
+    private final HotStockCounters counters;
+
+    /**
+     * Al arrancar se vuelca todo lo pendiente del journal (incluido lo que dejó una caída anterior);
+     * los contadores se vuelven a cargar desde la base a medida que se piden.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        int total = 0;
+        int flushed;
+        do {
+            flushed = hotStockService.flush();
+            total += flushed;
+        } while (flushed > 0);
+        counters.clear();
+        log.info("[HotStockReconciler] Startup reconciliation applied {} pending stock movements", total);
+    }
+
+    @Scheduled(fixedDelayString = "${app.hot-stock.flush-interval:5000}")
+    public void flushPending() {
+        hotStockService.flush();
+    }
+
+    // Sólo los productos del local y recién con el commit: si el cambio se revierte, el modo sigue encendido
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHotStockDisabled(HotStockDisabledEvent event) {
+        try {
+            int flushed = hotStockService.flushFoodVenue(event.foodVenueId());
+            log.info("[HotStockReconciler] Applied {} pending stock movements for venue {}", flushed, event.foodVenueId());
+        } catch (RuntimeException e) {
+            // El volcado periódico termina de aplicarlos
+            log.warn("[HotStockReconciler] Could not flush venue {} after disabling hot stock: {}",
+                    event.foodVenueId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.group_three.food_ordering.services;
+
+import com.group_three.food_ordering.exceptions.InsufficientStockException;
+import com.group_three.food_ordering.models.Product;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface HotStockService {
+
+    boolean isManaged(Product product);
+
+    void reserve(Product product, int quantity) throws InsufficientStockException;
+
+    void release(Product product, int quantity);
+
+    int flush();
+
+    /** Vuelca sólo los movimientos pendientes de estos productos, dentro de la transacción en curso */
+    int flushProducts(Collection<Long> productIds);
+
+    /** Vuelca en una transacción propia los movimientos pendientes de los productos del local */
+    int flushFoodVenue(UUID foodVenueId);
+
+    void evict(Product product);
+}
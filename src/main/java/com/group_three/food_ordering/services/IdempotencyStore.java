@@ -0,0 +1,231 @@
+package com.group_three.food_ordering.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.group_three.food_ordering.context.TenantContext;
+import com.group_three.food_ordering.dto.SessionInfo;
+import com.group_three.food_ordering.exceptions.IdempotencyKeyReusedException;
+import com.group_three.food_ordering.exceptions.TooManyRequestsException;
+import com.group_three.food_ordering.models.IdempotencyRecord;
+import com.group_three.food_ordering.repositories.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Respuestas de creaciones (órdenes, pagos) guardadas por {@code Idempotency-Key}, para que un reintento
+ * del celular devuelva lo mismo en lugar de volver a descontar stock. La clave se guarda junto al
+ * participante o usuario que la mandó, así que dos clientes no comparten respuestas.
+ * Las claves viven en {@code idempotency_keys} con clave única, así que un reintento que el balanceador
+ * manda a otro nodo también las ve, y una clave en curso no se descarta hasta que termina o vence su lease.
+ * La respuesta se guarda en la misma transacción que la creación: si la creación se revierte la clave
+ * se libera y el próximo reintento vuelve a ejecutar.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final TenantContext tenantContext;
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper canonicalMapper;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate requiresNew;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Duration waitTimeout;
+    private final Counter replayed;
+
+    public IdempotencyStore(TenantContext tenantContext,
+                            IdempotencyRecordRepository repository,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.idempotency.ttl:1h}") Duration ttl,
+                            @Value("${app.idempotency.lease:1m}") Duration lease,
+                            @Value("${app.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.tenantContext = tenantContext;
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        // Mismo cuerpo, mismo JSON: propiedades y claves de mapas siempre en el mismo orden
+        this.canonicalMapper = objectMapper.copy().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        this.canonicalMapper.setConfig(
+                canonicalMapper.getSerializationConfig().with(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY));
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = ttl;
+        this.lease = lease;
+        this.waitTimeout = waitTimeout;
+        this.replayed = Counter.builder("idempotency.replayed")
+                .description("Requests answered with the stored result of an earlier request with the same key")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sin clave se ejecuta como siempre; {@code request} es el cuerpo y detecta claves reusadas con otro pedido.
+     * {@code responseType} es el tipo con el que se lee la respuesta guardada al repetirla.
+     */
+    public <T> T execute(String operation, String idempotencyKey, Object request, Class<T> responseType,
+                         Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String scopeKey = sha256(operation + ":" + caller() + ":" + idempotencyKey);
+        String fingerprint = sha256(canonicalJson(request));
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+
+        while (true) {
+            String owner = UUID.randomUUID().toString();
+            if (claim(scopeKey, fingerprint, owner)) {
+                return run(scopeKey, owner, action);
+            }
+
+            Optional<IdempotencyRecord> existing = repository.findByScopeKey(scopeKey);
+            if (existing.isEmpty()) {
+                // El primero falló y liberó la clave entre el intento y la lectura
+                continue;
+            }
+            IdempotencyRecord record = existing.get();
+            if (!record.getFingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException(idempotencyKey);
+            }
+            if (record.isCompleted()) {
+                log.debug("[IdempotencyStore] Replaying {} for key {}", operation, idempotencyKey);
+                replayed.increment();
+                return read(record.getResponse(), responseType);
+            }
+            if (takeOver(scopeKey, owner)) {
+                log.warn("[IdempotencyStore] Took over stale {} for key {}", operation, idempotencyKey);
+                return run(scopeKey, owner, action);
+            }
+            if (System.nanoTime() > deadline) {
+                throw new TooManyRequestsException("A request with the same " + HEADER + " is still in progress");
+            }
+            pause();
+        }
+    }
+
+    // Las claves vencidas se borran en lote; las que se consultan antes se borran al reclamarlas
+    @Scheduled(fixedDelay = 600_000)
+    public void purgeExpired() {
+        Integer deleted = requiresNew.execute(status -> repository.deleteAllExpired(Instant.now()));
+        if (deleted != null && deleted > 0) {
+            log.debug("[IdempotencyStore] Purged {} expired keys", deleted);
+        }
+    }
+
+    private boolean claim(String scopeKey, String fingerprint, String owner) {
+        Integer claimed = requiresNew.execute(status -> {
+            Instant now = Instant.now();
+            repository.deleteExpired(scopeKey, now);
+            return repository.claim(scopeKey, fingerprint, owner, now, now.plus(ttl));
+        });
+        return claimed != null && claimed == 1;
+    }
+
+    private boolean takeOver(String scopeKey, String owner) {
+        Integer taken = requiresNew.execute(status -> {
+            Instant now = Instant.now();
+            return repository.takeOver(scopeKey, owner, now, now.minus(lease));
+        });
+        return taken != null && taken == 1;
+    }
+
+    private <T> T run(String scopeKey, String owner, Supplier<T> action) {
+        try {
+            // La creación se une a esta transacción: la orden y la respuesta guardada se confirman juntas
+            return transaction.execute(status -> {
+                T result = action.get();
+                if (repository.complete(scopeKey, owner, write(result)) != 1) {
+                    // Otro pedido tomó la clave por lease vencido; éste se revierte para no duplicar
+                    throw new IllegalStateException("Idempotency key was taken over by another request");
+                }
+                return result;
+            });
+        } catch (RuntimeException e) {
+            // La clave queda libre para reintentar
+            requiresNew.executeWithoutResult(status -> repository.release(scopeKey, owner));
+            throw e;
+        }
+    }
+
+    private String canonicalJson(Object request) {
+        try {
+            return canonicalMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body cannot be fingerprinted", e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be stored for replay", e);
+        }
+    }
+
+    private <T> T read(String response, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(response, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response cannot be replayed", e);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TooManyRequestsException("Interrupted while waiting for a request with the same " + HEADER, e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String caller() {
+        SessionInfo session = tenantContext.session();
+        if (session == null) {
+            return "anonymous";
+        }
+        if (session.participantId() != null) {
+            return session.participantId().toString();
+        }
+        return session.userId() != null ? session.userId().toString() : String.valueOf(session.subject());
+    }
+}
@@ -1,5 +1,6 @@
 package com.group_three.food_ordering.services;
 
+import com.group_three.food_ordering.cache.EncodedMenu;
 import com.group_three.food_ordering.dto.response.MenuResponseDto;
 
 import java.util.UUID;
@@ -10,4 +11,8 @@ public interface MenuService {
 
     MenuResponseDto getHierarchicalMenuByFoodVenueId(UUID foodVenueId, String category);
 
+    EncodedMenu getCurrentContextEncodedMenu(String category);
+
+    EncodedMenu getEncodedMenuByFoodVenueId(UUID foodVenueId, String category);
+
 }
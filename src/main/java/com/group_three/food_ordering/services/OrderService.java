@@ -3,12 +3,14 @@ package com.group_three.food_ordering.services;
 
 import com.group_three.food_ordering.dto.request.OrderRequestDto;
 import com.group_three.food_ordering.dto.response.OrderResponseDto;
+import com.group_three.food_ordering.dto.response.PageResponse;
 import com.group_three.food_ordering.enums.OrderStatus;
 import com.group_three.food_ordering.models.Order;
 import com.group_three.food_ordering.models.OrderDetail;
 import com.group_three.food_ordering.models.Participant;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 
 import java.time.LocalDate;
@@ -27,20 +29,24 @@ public interface OrderService {
 
     OrderResponseDto updateStatus(UUID orderId, OrderStatus orderStatus);
 
+    OrderResponseDto updateStatus(UUID orderId, OrderStatus orderStatus, Long expectedVersion);
+
+    List<OrderResponseDto> advanceStatuses(List<UUID> orderIds);
+
     OrderResponseDto getOrderByDateAndOrderNumber(LocalDate date, Integer orderNumber);
 
     Page<OrderResponseDto> getOrdersByFilters(LocalDate from, LocalDate to, OrderStatus orderStatus, Pageable pageable);
 
-    List<Order> getOrderEntitiesByFilters(LocalDate from, LocalDate to, OrderStatus orderStatus);
+    Slice<OrderResponseDto> getOrdersByFiltersWithoutCount(LocalDate from, LocalDate to, OrderStatus orderStatus, Pageable pageable);
+
+    PageResponse<OrderResponseDto> getOrderHistory(LocalDate from, LocalDate to, OrderStatus orderStatus, String cursor, int size);
 
     Page<OrderResponseDto> getOrdersForToday(OrderStatus orderStatus, Pageable pageable);
 
-    List<Order> getOrderEntitiesForToday(OrderStatus orderStatus);
+    List<OrderResponseDto> getLiveBoard(List<OrderStatus> statuses);
 
     Page<OrderResponseDto> getOrdersByTableSessionAndStatus(UUID tableSessionId, OrderStatus status, Pageable pageable);
 
-    List<Order> getOrderEntitiesByTableSessionAndStatus(UUID tableSessionId, OrderStatus status);
-
     Page<OrderResponseDto> getOrdersByAuthenticatedClient(OrderStatus status, Pageable pageable);
 
     Page<OrderResponseDto> getOrdersByAuthenticatedClientAndStatus(OrderStatus orderStatus, Pageable pageable);
@@ -53,8 +59,6 @@ public interface OrderService {
 
     Page<OrderResponseDto> getOrdersByCurrentParticipant(Pageable pageable);
 
-    List<Order> getOrderEntitiesByCurrentParticipant();
-
     Integer reassignOrdersToParticipant(Participant guest, Participant existing);
 
     void delete(UUID id);
@@ -1,6 +1,7 @@
 package com.group_three.food_ordering.services;
 
 import com.group_three.food_ordering.dto.request.PaymentRequestDto;
+import com.group_three.food_ordering.dto.response.PageResponse;
 import com.group_three.food_ordering.dto.response.PaymentResponseDto;
 import com.group_three.food_ordering.enums.PaymentStatus;
 import org.springframework.data.domain.Page;
@@ -16,6 +17,9 @@ public interface PaymentService {
 
     Page<PaymentResponseDto> getAllByContextAndStatusAndDateBetween(PaymentStatus status, Instant from, Instant to, Pageable pageable);
 
+    PageResponse<PaymentResponseDto> getHistoryByContextAndStatusAndDateBetween(
+            PaymentStatus status, Instant from, Instant to, String cursor, int size);
+
     Page<PaymentResponseDto> getAllByTableSessionAndStatus(UUID tableSession, PaymentStatus status, Pageable pageable);
 
     Page<PaymentResponseDto> getAllByCurrentTableSessionAndStatus(PaymentStatus status, Pageable pageable);
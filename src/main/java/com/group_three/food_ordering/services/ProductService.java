@@ -5,11 +5,15 @@ import com.group_three.food_ordering.dto.response.ItemMenuResponseDto;
 import com.group_three.food_ordering.dto.response.ProductResponseDto;
 import com.group_three.food_ordering.enums.CloudinaryFolder;
 import com.group_three.food_ordering.exceptions.InsufficientStockException;
+import com.group_three.food_ordering.models.OrderDetail;
 import com.group_three.food_ordering.models.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface ProductService {
@@ -24,6 +28,8 @@ public interface ProductService {
 
     Product getEntityByNameAndContext(String name);
 
+    Map<String, Product> getEntitiesByNamesAndContext(Collection<String> names);
+
     ItemMenuResponseDto getByNameAndContext(String name);
 
     void delete(UUID publicId);
@@ -34,6 +40,10 @@ public interface ProductService {
 
     void validateStock(Product product, Integer quantity) throws InsufficientStockException;
 
+    void reserveStock(List<OrderDetail> orderDetails) throws InsufficientStockException;
+
+    void releaseStock(List<OrderDetail> orderDetails);
+
     void incrementStockProduct(Product product, Integer quantity);
 
     void decrementStockProduct(Product product, Integer quantity);
@@ -0,0 +1,19 @@
+package com.group_three.food_ordering.services;
+
+import com.group_three.food_ordering.dto.response.TableSessionSettlementResponseDto;
+import com.group_three.food_ordering.enums.SplitMode;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+public interface SettlementService {
+
+    TableSessionSettlementResponseDto getSettlement(UUID tableSessionId, SplitMode split);
+
+    TableSessionSettlementResponseDto getCurrentSettlement(SplitMode split, Map<UUID, BigDecimal> customAmounts);
+
+    boolean isSettled(Long tableSessionId);
+
+    void rebuild();
+}
@@ -2,6 +2,7 @@ package com.group_three.food_ordering.services;
 
 import com.group_three.food_ordering.dto.request.TableSessionRequestDto;
 import com.group_three.food_ordering.dto.response.AuthResponse;
+import com.group_three.food_ordering.dto.response.PageResponse;
 import com.group_three.food_ordering.dto.response.TableSessionResponseDto;
 import com.group_three.food_ordering.models.TableSession;
 import org.springframework.data.domain.Page;
@@ -20,6 +21,8 @@ public interface TableSessionService {
 
     Page<TableSessionResponseDto> getAll(Pageable pageable);
 
+    PageResponse<TableSessionResponseDto> getHistory(String cursor, int size);
+
     TableSessionResponseDto getById(UUID sessionId);
 
     TableSessionResponseDto getByCurrentParticipant();
@@ -2,6 +2,7 @@ package com.group_three.food_ordering.services.impl;
 
 import com.group_three.food_ordering.context.TenantContext;
 import com.group_three.food_ordering.dto.SessionInfo;
+import com.group_three.food_ordering.dto.projection.UserCredentials;
 import com.group_three.food_ordering.dto.request.LoginRequest;
 import com.group_three.food_ordering.dto.request.RefreshTokenRequest;
 import com.group_three.food_ordering.dto.response.AuthResponse;
@@ -17,6 +18,7 @@ import com.group_three.food_ordering.notifications.enums.SseEventType;
 import com.group_three.food_ordering.notifications.services.SseService;
 import com.group_three.food_ordering.repositories.*;
 import com.group_three.food_ordering.configs.security.JwtService;
+import com.group_three.food_ordering.configs.security.PasswordVerificationService;
 import com.group_three.food_ordering.configs.security.RefreshTokenService;
 import com.group_three.food_ordering.services.AuthService;
 import com.group_three.food_ordering.services.OrderService;
@@ -25,7 +27,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -39,7 +40,7 @@ public class AuthServiceImpl implements AuthService {
     private final UserRepository userRepository;
     private final ParticipantMapper participantMapper;
     private final TableSessionRepository tableSessionRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordVerificationService passwordVerificationService;
     private final JwtService jwtService;
     private final RoleEmploymentMapper roleEmploymentMapper;
     private final RefreshTokenService refreshTokenService;
@@ -79,9 +80,10 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public AuthResponse refreshAccessToken(RefreshTokenRequest request) {
-        log.debug("[RefreshTokenService] Calling validateAndGetUserEmail");
-        String userEmail = refreshTokenService.validateAndGetUserEmail(request.refreshToken())
+        log.debug("[RefreshTokenService] Calling rotate");
+        RefreshTokenService.RotatedRefreshToken rotated = refreshTokenService.rotate(request.refreshToken())
                 .orElseThrow(() -> new InvalidTokenException("Invalid or expired refresh token"));
+        String userEmail = rotated.userEmail();
         log.debug("[AuthService] Refresh token request for user={}", userEmail);
 
         SessionInfo sessionInfo = tenantContext.session();
@@ -89,12 +91,9 @@ public class AuthServiceImpl implements AuthService {
         log.debug("[JwtService] Generating new access token for user {}", userEmail);
         String newAccessToken = jwtService.generateAccessToken(sessionInfo);
 
-        log.debug("[RefreshTokenService] Generating new refresh token for user {}", userEmail);
-        String newRefreshToken = refreshTokenService.generateRefreshToken(userEmail);
-
         return AuthResponse.builder()
                 .accessToken(newAccessToken)
-                .refreshToken(newRefreshToken)
+                .refreshToken(rotated.refreshToken())
                 .role(sessionInfo.role())
                 .build();
     }
@@ -106,17 +105,28 @@ public class AuthServiceImpl implements AuthService {
     private User authenticateUser(LoginRequest loginRequest) {
         log.debug("[AuthService] Authenticating user email={}", loginRequest.getEmail());
 
-        log.debug("[UserRepository] Calling findByEmailWithEmployments for authentication user {}", loginRequest.getEmail());
-        User user = userRepository.findByEmailWithEmployments(loginRequest.getEmail())
+        log.debug("[UserRepository] Calling findCredentialsByEmail for authentication user {}", loginRequest.getEmail());
+        UserCredentials credentials = userRepository.findCredentialsByEmail(loginRequest.getEmail())
                 .orElseThrow(() -> {
                     log.warn("[AuthService] User not found for email={}", loginRequest.getEmail());
                     return new UsernameNotFoundException("Usuario o contraseña incorrectos");
                 });
 
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+        PasswordVerificationService.PasswordCheck check =
+                passwordVerificationService.verify(loginRequest.getPassword(), credentials.password());
+        if (!check.matches()) {
             log.warn("[AuthService] User authentication failed for email={}", loginRequest.getEmail());
             throw new BadCredentialsException("Usuario o contraseña incorrectos");
         }
+        if (check.upgradedHash() != null) {
+            log.debug("[AuthService] Rehashing password for user={} with the configured strength", credentials.email());
+            userRepository.updatePassword(credentials.id(), check.upgradedHash());
+        }
+
+        // El usuario completo (con empleos) sólo se carga después de validar la contraseña
+        log.debug("[UserRepository] Calling findByEmailWithEmployments for authenticated user {}", credentials.email());
+        User user = userRepository.findByEmailWithEmployments(credentials.email())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuario o contraseña incorrectos"));
         log.debug("[AuthService] Authenticated user: {}", user.getEmail());
         return user;
     }
@@ -3,6 +3,7 @@ package com.group_three.food_ordering.services.impl;
 import com.group_three.food_ordering.context.TenantContext;
 import com.group_three.food_ordering.dto.request.CategoryRequestDto;
 import com.group_three.food_ordering.dto.response.CategoryResponseDto;
+import com.group_three.food_ordering.events.MenuChangedEvent;
 import com.group_three.food_ordering.exceptions.EntityNotFoundException;
 import com.group_three.food_ordering.mappers.CategoryMapper;
 import com.group_three.food_ordering.models.Category;
@@ -11,6 +12,7 @@ import com.group_three.food_ordering.repositories.CategoryRepository;
 import com.group_three.food_ordering.services.CategoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -26,6 +28,7 @@ public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
     private final TenantContext tenantContext;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public CategoryResponseDto create(CategoryRequestDto categoryRequestDto) {
@@ -38,7 +41,9 @@ public class CategoryServiceImpl implements CategoryService {
         category.setFoodVenue(foodVenue);
 
         log.debug("[CategoryRepository] Calling save to create new category: {}", category.getName());
-        return categoryMapper.toDto(categoryRepository.save(category));
+        Category savedCategory = categoryRepository.save(category);
+        publishMenuChanged(savedCategory);
+        return categoryMapper.toDto(savedCategory);
     }
 
     @Override
@@ -46,7 +51,9 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = getEntityById(categoryRequestDto.getParentCategoryId());
         category.setName(categoryRequestDto.getName());
         log.debug("[CategoryRepository] Calling save to update category {}", category.getPublicId());
-        return categoryMapper.toDto(categoryRepository.save(category));
+        Category savedCategory = categoryRepository.save(category);
+        publishMenuChanged(savedCategory);
+        return categoryMapper.toDto(savedCategory);
     }
 
     @Override
@@ -73,6 +80,7 @@ public class CategoryServiceImpl implements CategoryService {
         category.setDeleted(Boolean.TRUE);
         log.debug("[CategoryRepository] Calling save to soft delete category {}", publicId);
         categoryRepository.save(category);
+        publishMenuChanged(category);
     }
 
     @Override
@@ -119,4 +127,10 @@ public class CategoryServiceImpl implements CategoryService {
         log.debug("[CategoryRepository] Calling findAllByFoodVenue for venue {}", foodVenuePublicId);
         return categoryRepository.findAllByFoodVenue_PublicIdAndDeletedFalse(foodVenuePublicId);
     }
+
+    private void publishMenuChanged(Category category) {
+        if (category.getFoodVenue() != null) {
+            eventPublisher.publishEvent(new MenuChangedEvent(category.getFoodVenue().getPublicId()));
+        }
+    }
 }
@@ -4,6 +4,8 @@ import com.group_three.food_ordering.context.TenantContext;
 import com.group_three.food_ordering.dto.request.FoodVenueRequestDto;
 import com.group_three.food_ordering.dto.response.FoodVenueAdminResponseDto;
 import com.group_three.food_ordering.dto.response.FoodVenuePublicResponseDto;
+import com.group_three.food_ordering.events.HotStockDisabledEvent;
+import com.group_three.food_ordering.events.MenuChangedEvent;
 import com.group_three.food_ordering.exceptions.EntityNotFoundException;
 import com.group_three.food_ordering.mappers.FoodVenueMapper;
 import com.group_three.food_ordering.models.FoodVenue;
@@ -12,6 +14,7 @@ import com.group_three.food_ordering.repositories.FoodVenueRepository;
 import com.group_three.food_ordering.services.FoodVenueService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -28,12 +31,14 @@ public class FoodVenueServiceImpl implements FoodVenueService {
     private final FoodVenueRepository foodVenueRepository;
     private final FoodVenueMapper foodVenueMapper;
     private final TenantContext tenantContext;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public FoodVenueAdminResponseDto create(FoodVenueRequestDto foodVenueRequestDto) {
         log.debug("[FoodVenueService] Creating new foodVenue");
         FoodVenue foodVenue = foodVenueMapper.toEntity(foodVenueRequestDto);
         foodVenue.setPublicId(UUID.randomUUID());
+        foodVenue.setHotStockEnabled(Boolean.TRUE.equals(foodVenueRequestDto.getHotStockEnabled()));
         log.debug("[FoodVenueRepository] Calling save to create new food venue");
         return foodVenueMapper.toAdminDto(foodVenueRepository.save(foodVenue));
     }
@@ -92,18 +97,30 @@ public class FoodVenueServiceImpl implements FoodVenueService {
     public FoodVenueAdminResponseDto update(UUID foodVenueId, FoodVenueRequestDto foodVenueRequestDto) {
 
         FoodVenue foodVenue = findEntityById(foodVenueId);
+        boolean hotStockWasEnabled = Boolean.TRUE.equals(foodVenue.getHotStockEnabled());
         foodVenueMapper.updateEntity(foodVenueRequestDto, foodVenue);
+        if (hotStockWasEnabled && !Boolean.TRUE.equals(foodVenue.getHotStockEnabled())) {
+            // Al apagar el modo caliente, el stock en products tiene que quedar al día antes de volver al UPDATE directo
+            eventPublisher.publishEvent(new HotStockDisabledEvent(foodVenue.getPublicId()));
+        }
 
         log.debug("[FoodVenueRepository] Calling save to update food venue {}", foodVenueId);
-        return foodVenueMapper.toAdminDto(foodVenueRepository.save(foodVenue));
+        FoodVenue updatedFoodVenue = foodVenueRepository.save(foodVenue);
+        eventPublisher.publishEvent(new MenuChangedEvent(updatedFoodVenue.getPublicId()));
+        return foodVenueMapper.toAdminDto(updatedFoodVenue);
     }
 
     @Override
     public FoodVenueAdminResponseDto updateMyCurrentFoodVenue(FoodVenueRequestDto foodVenueRequestDto) {
         log.debug("[FoodVenueService] Updating current food venue {}", foodVenueRequestDto);
         FoodVenue currentFoodVenue = tenantContext.requireFoodVenue();
+        boolean hotStockWasEnabled = Boolean.TRUE.equals(currentFoodVenue.getHotStockEnabled());
         foodVenueMapper.updateEntity(foodVenueRequestDto, currentFoodVenue);
+        if (hotStockWasEnabled && !Boolean.TRUE.equals(currentFoodVenue.getHotStockEnabled())) {
+            eventPublisher.publishEvent(new HotStockDisabledEvent(currentFoodVenue.getPublicId()));
+        }
         FoodVenue updatedFoodVenue = foodVenueRepository.save(currentFoodVenue);
+        eventPublisher.publishEvent(new MenuChangedEvent(updatedFoodVenue.getPublicId()));
         log.debug("[FoodVenueService] Current food venue updated {}", updatedFoodVenue);
         log.debug("[FoodVenueRepository] Calling save to update current food venue {}", currentFoodVenue.getPublicId());
         return foodVenueMapper.toAdminDto(updatedFoodVenue);
@@ -115,5 +132,6 @@ public class FoodVenueServiceImpl implements FoodVenueService {
         foodVenue.setDeleted(Boolean.TRUE);
         log.debug("[FoodVenueRepository] Calling save to soft delete food venue {}", id);
         foodVenueRepository.save(foodVenue);
+        eventPublisher.publishEvent(new MenuChangedEvent(foodVenue.getPublicId()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,176 @@
+package com.group_three.food_ordering.services.impl;
+
+import com.group_three.food_ordering.cache.HotStockCounters;
+import com.group_three.food_ordering.events.MenuChangedEvent;
+import com.group_three.food_ordering.exceptions.InsufficientStockException;
+import com.group_three.food_ordering.models.Product;
+import com.group_three.food_ordering.models.StockJournalEntry;
+import com.group_three.food_ordering.repositories.ProductRepository;
+import com.group_three.food_ordering.repositories.StockJournalRepository;
+import com.group_three.food_ordering.services.HotStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Modo de stock "caliente" para productos de alta rotación (bebidas, etc.).
+ * Las reservas se descuentan de contadores en memoria y se registran en {@code stock_journal}
+ * dentro de la transacción de la orden; un proceso periódico vuelca los movimientos a {@code products}.
+ * Los contadores son locales al nodo: con varias instancias cada una vendería las mismas unidades,
+ * por eso el modo viene apagado y sólo debe encenderse cuando el local lo atiende una sola instancia.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HotStockServiceImpl implements HotStockService {
+
+    private final HotStockCounters counters;
+    private final StockJournalRepository journalRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.hot-stock.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.hot-stock.flush-batch-size:1000}")
+    private int flushBatchSize;
+
+    @Override
+    public boolean isManaged(Product product) {
+        return enabled
+                && Boolean.TRUE.equals(product.getHighTurnover())
+                && product.getFoodVenue() != null
+                && Boolean.TRUE.equals(product.getFoodVenue().getHotStockEnabled());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Product product, int quantity) throws InsufficientStockException {
+        Long productId = product.getId();
+        if (!counters.tryReserve(productId, quantity, this::loadAvailable)) {
+            log.warn("[HotStockService] Insufficient stock reserving product {} ({})", product.getPublicId(), quantity);
+            throw new InsufficientStockException("Insufficient stock for product: " + product.getName());
+        }
+        journalRepository.save(StockJournalEntry.builder().productId(productId).delta(-quantity).build());
+
+        // Si la orden no llega a confirmarse, las unidades vuelven al contador
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    counters.release(productId, quantity);
+                }
+            }
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Product product, int quantity) {
+        Long productId = product.getId();
+        journalRepository.save(StockJournalEntry.builder().productId(productId).delta(quantity).build());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counters.release(productId, quantity);
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public int flush() {
+        return apply(journalRepository.findPending(PageRequest.of(0, flushBatchSize)));
+    }
+
+    @Override
+    @Transactional
+    public int flushProducts(Collection<Long> productIds) {
+        int total = 0;
+        int flushed;
+        do {
+            flushed = apply(journalRepository.findPendingByProductIds(productIds, PageRequest.of(0, flushBatchSize)));
+            total += flushed;
+        } while (flushed > 0);
+        return total;
+    }
+
+    // Se llama después del commit de otra transacción: necesita la suya propia
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int flushFoodVenue(UUID foodVenueId) {
+        int total = 0;
+        int flushed;
+        do {
+            flushed = apply(journalRepository.findPendingByFoodVenue(foodVenueId, PageRequest.of(0, flushBatchSize)));
+            total += flushed;
+        } while (flushed > 0);
+        return total;
+    }
+
+    // El contador se descarta recién con el commit: antes, una reserva concurrente lo recargaría con el stock viejo
+    @Override
+    public void evict(Product product) {
+        Long productId = product.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counters.evict(productId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counters.evict(productId);
+            }
+        });
+    }
+
+    private int apply(List<StockJournalEntry> pending) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        // Se borran primero las filas leídas: si otro proceso ya las volcó, el conteo no coincide
+        // y la transacción se revierte sin aplicar los deltas dos veces
+        List<Long> ids = pending.stream().map(StockJournalEntry::getId).toList();
+        int deleted = journalRepository.deleteByIdIn(ids);
+        if (deleted != ids.size()) {
+            throw new IllegalStateException("Stock journal entries were flushed concurrently");
+        }
+
+        Map<Long, Integer> deltas = pending.stream()
+                .collect(Collectors.groupingBy(StockJournalEntry::getProductId,
+                        Collectors.summingInt(StockJournalEntry::getDelta)));
+
+        productRepository.findAllById(deltas.keySet()).forEach(product -> {
+            int delta = deltas.get(product.getId());
+            boolean wasAvailable = product.getStock() > 0;
+            productRepository.applyStockDelta(product.getId(), delta);
+            if (wasAvailable != (product.getStock() + delta > 0) && product.getFoodVenue() != null) {
+                eventPublisher.publishEvent(new MenuChangedEvent(product.getFoodVenue().getPublicId()));
+            }
+        });
+
+        log.debug("[HotStockService] Flushed {} journal entries for {} products", ids.size(), deltas.size());
+        return ids.size();
+    }
+
+    // Stock real = lo que hay en products menos los movimientos que todavía no se volcaron
+    private int loadAvailable(long productId) {
+        int stock = productRepository.findStockById(productId).orElse(0);
+        return stock + journalRepository.sumPendingDelta(productId);
+    }
+}
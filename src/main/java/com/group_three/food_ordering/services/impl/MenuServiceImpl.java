@@ -1,5 +1,10 @@
 package com.group_three.food_ordering.services.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group_three.food_ordering.cache.EncodedMenu;
+import com.group_three.food_ordering.cache.MenuSnapshot;
+import com.group_three.food_ordering.cache.MenuSnapshotCache;
 import com.group_three.food_ordering.context.TenantContext;
 import com.group_three.food_ordering.dto.response.*;
 import com.group_three.food_ordering.exceptions.EntityNotFoundException;
@@ -14,6 +19,7 @@ import com.group_three.food_ordering.services.MenuService;
 import com.group_three.food_ordering.utils.EntityName;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -29,21 +35,57 @@ public class MenuServiceImpl implements MenuService {
     private final ProductMapper productMapper;
     private final TenantContext tenantContext;
     private final FoodVenueRepository foodVenueRepository;
+    private final MenuSnapshotCache menuSnapshotCache;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.menu-cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
 
     @Override
     public MenuResponseDto getCurrentContextHierarchicalMenu(String category) {
-        FoodVenue foodVenue = tenantContext.requireFoodVenue();
-        return getHierarchicalMenuByFoodVenueId(foodVenue.getPublicId(), category);
+        return getHierarchicalMenuByFoodVenueId(currentFoodVenueId(), category);
     }
 
     @Override
     public MenuResponseDto getHierarchicalMenuByFoodVenueId(UUID foodVenueId, String category) {
-        FoodVenue foodVenue = foodVenueRepository.findByPublicIdAndDeletedFalse(foodVenueId)
-                .orElseThrow(()-> new EntityNotFoundException(EntityName.FOOD_VENUE));
-        return getHierarchicalMenuByFoodVenueId(foodVenue, category);
+        return filterByCategory(getSnapshot(foodVenueId).getMenu(), category);
+    }
+
+    @Override
+    public EncodedMenu getCurrentContextEncodedMenu(String category) {
+        return getEncodedMenuByFoodVenueId(currentFoodVenueId(), category);
+    }
+
+    @Override
+    public EncodedMenu getEncodedMenuByFoodVenueId(UUID foodVenueId, String category) {
+        // Los bytes se generan una vez por local y filtro; las siguientes peticiones no pasan por Jackson
+        String filterKey = category == null ? "" : category.toLowerCase(Locale.ROOT);
+        return getSnapshot(foodVenueId).encoded(filterKey, menu -> encode(filterByCategory(menu, category)));
+    }
+
+    private UUID currentFoodVenueId() {
+        return tenantContext.foodVenueIdOpt()
+                .orElseGet(() -> tenantContext.requireFoodVenueSnapshot().publicId());
+    }
+
+    private MenuSnapshot getSnapshot(UUID foodVenueId) {
+        // El árbol completo se cachea por local; el filtro por categoría se aplica sobre el snapshot
+        return menuSnapshotCache.get(foodVenueId, () -> {
+            FoodVenue foodVenue = foodVenueRepository.findByPublicIdAndDeletedFalse(foodVenueId)
+                    .orElseThrow(() -> new EntityNotFoundException(EntityName.FOOD_VENUE));
+            return buildHierarchicalMenu(foodVenue);
+        });
+    }
+
+    private EncodedMenu encode(MenuResponseDto menu) {
+        try {
+            return EncodedMenu.of(objectMapper.writeValueAsBytes(menu), gzipMinBytes);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize menu", e);
+        }
     }
 
-    private MenuResponseDto getHierarchicalMenuByFoodVenueId(FoodVenue foodVenue, String categoryName) {
+    private MenuResponseDto buildHierarchicalMenu(FoodVenue foodVenue) {
 
         // 1. Traer TODAS las categorías del local (1 sola consulta)
         log.debug("[CategoryService] Calling findAllByFoodVenue for venue {}", foodVenue.getPublicId());
@@ -74,14 +116,6 @@ public class MenuServiceImpl implements MenuService {
                 .map(root -> buildCategoryTreeInMemory(root, childrenByParentId, productsByCategoryId))
                 .toList();
 
-        // 6. (Opcional) Filtrar por 'categoryName' si se proveyó
-        if (categoryName != null) {
-            categoriesDto = categoriesDto.stream()
-                    .map(root -> findLeafCategory(root, categoryName))
-                    .flatMap(Optional::stream)
-                    .toList();
-        }
-
         return MenuResponseDto.builder()
                 .foodVenueName(foodVenue.getName())
                 .foodVenueImageUrl(foodVenue.getVenueStyle().getLogoUrl())
@@ -89,6 +123,23 @@ public class MenuServiceImpl implements MenuService {
                 .build();
     }
 
+    private MenuResponseDto filterByCategory(MenuResponseDto menu, String categoryName) {
+        // (Opcional) Filtrar por 'categoryName' si se proveyó, sin modificar el snapshot cacheado
+        if (categoryName == null) {
+            return menu;
+        }
+        List<CategoryMenuResponseDto> categoriesDto = menu.getMenu().stream()
+                .map(root -> findLeafCategory(root, categoryName))
+                .flatMap(Optional::stream)
+                .toList();
+
+        return MenuResponseDto.builder()
+                .foodVenueName(menu.getFoodVenueName())
+                .foodVenueImageUrl(menu.getFoodVenueImageUrl())
+                .menu(categoriesDto)
+                .build();
+    }
+
     private CategoryMenuResponseDto buildCategoryTreeInMemory(
             Category currentCategory,
             Map<Long, List<Category>> childrenByParentId,
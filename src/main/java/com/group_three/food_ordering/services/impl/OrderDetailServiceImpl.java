@@ -3,12 +3,10 @@ package com.group_three.food_ordering.services.impl;
 import com.group_three.food_ordering.dto.request.OrderDetailRequestDto;
 import com.group_three.food_ordering.dto.response.OrderDetailResponseDto;
 import com.group_three.food_ordering.exceptions.EntityNotFoundException;
-import com.group_three.food_ordering.exceptions.InsufficientStockException;
 import com.group_three.food_ordering.mappers.OrderDetailMapper;
 import com.group_three.food_ordering.models.OrderDetail;
 import com.group_three.food_ordering.models.Product;
 import com.group_three.food_ordering.repositories.OrderDetailRepository;
-import com.group_three.food_ordering.repositories.ProductRepository;
 import com.group_three.food_ordering.services.OrderDetailService;
 import com.group_three.food_ordering.services.ProductService;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +14,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 import static com.group_three.food_ordering.utils.EntityName.ORDER_DETAIL;
 
 @Slf4j
@@ -26,7 +26,6 @@ public class OrderDetailServiceImpl implements OrderDetailService {
     private final OrderDetailRepository orderDetailRepository;
     private final OrderDetailMapper orderDetailMapper;
     private final ProductService productService;
-    private final ProductRepository productRepository;
 
     @Transactional
     @Override
@@ -37,9 +36,9 @@ public class OrderDetailServiceImpl implements OrderDetailService {
     public OrderDetail createInternal(OrderDetailRequestDto orderDetailRequestDto) {
         Product product = productService.getEntityByNameAndContext(orderDetailRequestDto.getProductName());
 
-        updateProductStock(product, -1);
         OrderDetail orderDetail = orderDetailMapper.toEntity(orderDetailRequestDto);
         orderDetail.setProduct(product);
+        productService.reserveStock(List.of(orderDetail));
 
         return orderDetailRepository.save(orderDetail);
     }
@@ -59,10 +58,9 @@ public class OrderDetailServiceImpl implements OrderDetailService {
         int diff = newQuantity - currentQuantity;
 
         if (diff > 0) {
-            productService.validateStock(detail.getProduct(), diff);
-            updateProductStock(detail.getProduct(), -diff);
+            productService.reserveStock(List.of(stockLine(detail.getProduct(), diff)));
         } else if (diff < 0) {
-            updateProductStock(detail.getProduct(), -diff); // -diff es positivo acá
+            productService.releaseStock(List.of(stockLine(detail.getProduct(), -diff))); // -diff es positivo acá
         }
 
         detail.setQuantity(newQuantity);
@@ -79,13 +77,9 @@ public class OrderDetailServiceImpl implements OrderDetailService {
         return orderDetailMapper.toDto(saved);
     }
 
-    private void updateProductStock(Product product, Integer difference) {
-        int newQuantity = product.getStock() + difference;
-        if (newQuantity < 0) {
-            throw new InsufficientStockException(product.getName(), product.getStock());
-        }
-        product.setStock(newQuantity);
-        productRepository.save(product);
+    // Línea transitoria con sólo la diferencia: reserva/libera por el mismo camino atómico que un pedido nuevo
+    private OrderDetail stockLine(Product product, int quantity) {
+        return OrderDetail.builder().product(product).quantity(quantity).build();
     }
 
     private OrderDetail getOrderDetailEntityById(Long id) {
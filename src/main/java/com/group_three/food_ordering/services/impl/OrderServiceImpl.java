@@ -1,12 +1,23 @@
 package com.group_three.food_ordering.services.impl;
 
+import com.group_three.food_ordering.cache.LiveOrderBoard;
 import com.group_three.food_ordering.context.TenantContext;
+import com.group_three.food_ordering.dto.projection.OrderDetailView;
+import com.group_three.food_ordering.dto.projection.OrderSummaryView;
+import com.group_three.food_ordering.dto.projection.ParticipantSnapshot;
+import com.group_three.food_ordering.dto.request.OrderDetailRequestDto;
 import com.group_three.food_ordering.dto.request.OrderRequestDto;
+import com.group_three.food_ordering.dto.response.OrderDetailResponseDto;
 import com.group_three.food_ordering.dto.response.OrderResponseDto;
+import com.group_three.food_ordering.dto.response.PageResponse;
 import com.group_three.food_ordering.enums.OrderStatus;
+import com.group_three.food_ordering.events.OrderChangedEvent;
+import com.group_three.food_ordering.events.OrderMetricsChangedEvent;
+import com.group_three.food_ordering.events.ParticipantOrdersReassignedEvent;
 import com.group_three.food_ordering.enums.RoleType;
 import com.group_three.food_ordering.exceptions.LogicalAccessDeniedException;
 import com.group_three.food_ordering.exceptions.EntityNotFoundException;
+import com.group_three.food_ordering.exceptions.InvalidOrderStatusTransitionException;
 import com.group_three.food_ordering.mappers.OrderDetailMapper;
 import com.group_three.food_ordering.models.*;
 import com.group_three.food_ordering.mappers.OrderMapper;
@@ -15,17 +26,32 @@ import com.group_three.food_ordering.notifications.services.SseService;
 import com.group_three.food_ordering.repositories.*;
 import com.group_three.food_ordering.services.OrderService;
 import com.group_three.food_ordering.services.ProductService;
+import com.group_three.food_ordering.utils.KeysetCursor;
+import com.group_three.food_ordering.utils.OrderNumberGenerator;
 import com.group_three.food_ordering.utils.OrderServiceHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.*;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static com.group_three.food_ordering.utils.EntityName.ORDER;
 import static com.group_three.food_ordering.utils.EntityName.TABLE_SESSION;
@@ -42,9 +68,13 @@ public class OrderServiceImpl implements OrderService {
     private final TenantContext tenantContext;
     private final TableSessionRepository tableSessionRepository;
     private final OrderServiceHelper orderServiceHelper;
+    private final OrderNumberGenerator orderNumberGenerator;
     private final SseService sseService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LiveOrderBoard liveOrderBoard;
 
     @Override
+    @Transactional
     public OrderResponseDto create(OrderRequestDto orderRequestDto) {
         log.debug("[OrderService] Create Order Request");
         log.debug("[OrderService] Getting current food Venue.");
@@ -64,12 +94,15 @@ public class OrderServiceImpl implements OrderService {
 
         // Revisar porque no permite cantidad de productos mayor a 1 como regla de negocio pero se puede evaluar
         order.setFoodVenue(currentFoodVenue);
+        log.debug("[ProductService] Calling getEntitiesByNamesAndContext for {} order lines",
+                orderRequestDto.getOrderDetails().size());
+        Map<String, Product> productsByName = productService.getEntitiesByNamesAndContext(
+                orderRequestDto.getOrderDetails().stream().map(OrderDetailRequestDto::getProductName).toList());
+
         List<OrderDetail> orderDetails = orderRequestDto.getOrderDetails()
                 .stream()
                 .map(dto -> {
-                    log.debug("[ProductService] Calling getEntityByNameAndContext for product: {}", dto.getProductName());
-                    Product product = productService.getEntityByNameAndContext(dto.getProductName());
-                    productService.validateStock(product, dto.getQuantity());
+                    Product product = productsByName.get(dto.getProductName());
                     OrderDetail detail = orderDetailMapper.toEntity(dto);
                     detail.setProduct(product);
                     detail.setQuantity(dto.getQuantity());
@@ -77,11 +110,15 @@ public class OrderServiceImpl implements OrderService {
                     return detail;
                 })
                 .toList();
+        productService.reserveStock(orderDetails);
 
         order.setOrderDetails(orderDetails);
         orderServiceHelper.updateTotalPrice(order);
         log.debug("[OrderRepository] Calling save to create new order for participant {}", participant.getPublicId());
-        OrderResponseDto savedOrder = orderMapper.toDto(orderRepository.save(order));
+        Order persistedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderMetricsChangedEvent.created(persistedOrder));
+        OrderResponseDto savedOrder = orderMapper.toDto(persistedOrder);
+        eventPublisher.publishEvent(OrderChangedEvent.updated(currentFoodVenue.getPublicId(), savedOrder));
 
         sseService.sendEventToTableSession(
                 order.getTableSession().getPublicId().toString(), SseEventType.NEW_ORDER, savedOrder);
@@ -96,77 +133,80 @@ public class OrderServiceImpl implements OrderService {
         Instant fromInstant = (from != null) ? from.atStartOfDay(ZoneId.systemDefault()).toInstant() : null;
         Instant toInstant = (to != null) ? to.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant() : null;
 
-        return fetchOrders(fromInstant, toInstant, status, pageable).map(orderMapper::toDto);
+        UUID venueId = tenantContext.getFoodVenueId();
+        log.debug("[OrderRepository] Calling findSummariesByFoodVenue for venueId={}, from={}, to={}, status={}",
+                venueId, fromInstant, toInstant, status);
+        return toResponsePage(orderRepository.findSummariesByFoodVenue(venueId, fromInstant, toInstant, status, pageable));
     }
 
     @Override
-    public List<Order> getOrderEntitiesByFilters(LocalDate from, LocalDate to, OrderStatus status) {
+    public Slice<OrderResponseDto> getOrdersByFiltersWithoutCount(
+            LocalDate from, LocalDate to, OrderStatus status, Pageable pageable) {
         Instant fromInstant = (from != null) ? from.atStartOfDay(ZoneId.systemDefault()).toInstant() : null;
         Instant toInstant = (to != null) ? to.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant() : null;
 
-        return fetchOrders(fromInstant, toInstant, status, Pageable.unpaged()).toList();
+        UUID venueId = tenantContext.getFoodVenueId();
+        log.debug("[OrderRepository] Calling findSummarySliceByFoodVenue for venueId={}, from={}, to={}, status={}",
+                venueId, fromInstant, toInstant, status);
+        Slice<OrderSummaryView> views = orderRepository.findSummarySliceByFoodVenue(
+                venueId, fromInstant, toInstant, status, pageable);
+        return new SliceImpl<>(toResponses(views.getContent()), views.getPageable(), views.hasNext());
     }
 
+    @Override
+    public PageResponse<OrderResponseDto> getOrderHistory(
+            LocalDate from, LocalDate to, OrderStatus status, String cursor, int size) {
+        Instant fromInstant = (from != null) ? from.atStartOfDay(ZoneId.systemDefault()).toInstant() : null;
+        Instant toInstant = (to != null) ? to.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant() : null;
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.pageSize(size);
+        UUID venueId = tenantContext.getFoodVenueId();
+
+        log.debug("[OrderRepository] Calling findSummariesByFoodVenueAfter for venueId={}, status={}, after={}",
+                venueId, status, after);
+        List<OrderSummaryView> rows = orderRepository.findSummariesByFoodVenueAfter(
+                venueId, fromInstant, toInstant, status,
+                KeysetCursor.positionOf(after), KeysetCursor.idOf(after), PageRequest.of(0, pageSize + 1));
+
+        return PageResponse.ofKeyset(rows, pageSize, after == null,
+                row -> new KeysetCursor(row.orderDate(), row.id()).encode(), this::toResponses);
+    }
 
     @Override
     public Page<OrderResponseDto> getOrdersForToday(OrderStatus status, Pageable pageable) {
         Instant opening = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant();
         Instant closing = LocalDate.now().plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
 
-        return fetchOrders(opening, closing, status, pageable).map(orderMapper::toDto);
+        UUID venueId = tenantContext.getFoodVenueId();
+        log.debug("[OrderRepository] Calling findSummariesByFoodVenue for venueId={}, from={}, to={}, status={}",
+                venueId, opening, closing, status);
+        return toResponsePage(orderRepository.findSummariesByFoodVenue(venueId, opening, closing, status, pageable));
     }
 
     @Override
-    public List<Order> getOrderEntitiesForToday(OrderStatus orderStatus) {
-        Instant opening = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant();
-        Instant closing = LocalDate.now().plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
-        return fetchOrders(opening, closing, null, Pageable.unpaged()).toList();
+    public List<OrderResponseDto> getLiveBoard(List<OrderStatus> statuses) {
+        UUID venueId = tenantContext.getFoodVenueId();
+        return liveOrderBoard.orders(venueId, statuses, from -> loadLiveOrders(venueId, from));
     }
 
     @Override
     public Page<OrderResponseDto> getOrdersByTableSessionAndStatus(UUID tableSessionId, OrderStatus status, Pageable pageable) {
 
-        Participant currentParticipant = tenantContext.requireParticipant();
+        ParticipantSnapshot currentParticipant = tenantContext.requireParticipantSnapshot();
 
         TableSession session = getTableSessionEntityById(tableSessionId);
 
         RoleType role = tenantContext.getRole();
 
+        // Un participante pertenece a una sola sesión: alcanza con comparar ids, sin cargar la lista
         if (role.equals(RoleType.ROLE_CLIENT)
-                && !session.getParticipants().contains(currentParticipant)) {
+                && !session.getPublicId().equals(currentParticipant.tableSessionId())) {
 
             throw new LogicalAccessDeniedException("You do not have access to this table session");
         }
-        //filtra por estado
-        Page<Order> orders;
-        if (status != null) {
-            log.debug("[OrderRepository] Calling findOrderByTableSession_PublicIdAndStatus for " +
-                    "tableSessionId={} and status={}", tableSessionId, status);
-            orders = orderRepository.findOrderByTableSession_PublicIdAndStatus(tableSessionId, status, pageable);
-        } else {
-            log.debug("[OrderRepository] Calling findOrderByTableSession_PublicId for tableSessionId={}", tableSessionId);
-            orders = orderRepository.findOrderByTableSession_PublicId(tableSessionId, pageable);
-        }
-        return orders.map(orderMapper::toDto);
-    }
-
-    @Override
-    public List<Order> getOrderEntitiesByTableSessionAndStatus(UUID tableSessionId, OrderStatus orderStatus) {
-
-        TableSession session = getTableSessionEntityById(tableSessionId);
-
-        List<Order> orders;
-        if (orderStatus != null) {
-            log.debug("[OrderRepository] Calling findOrderByTableSession_PublicIdAndStatus or " +
-                    "tableSessionId={} and status={}", session.getPublicId(), orderStatus);
-
-            orders = orderRepository.findOrderByTableSession_PublicIdAndStatus(
-                    session.getPublicId(), orderStatus, Pageable.unpaged()).toList();
-        } else {
-            log.debug("[OrderRepository] Calling findOrderByTableSession_PublicId (List) for tableSessionId={}", tableSessionId);
-            orders = orderRepository.findOrderByTableSession_PublicId(tableSessionId, Pageable.unpaged()).toList();
-        }
-        return orders;
+        log.debug("[OrderRepository] Calling findSummariesByTableSession for tableSessionId={} and status={}",
+                tableSessionId, status);
+        return toResponsePage(orderRepository.findSummariesByTableSession(tableSessionId, status, pageable));
     }
 
     @Override
@@ -238,47 +278,47 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    public List<Order> getOrderEntitiesByCurrentParticipant() {
-        log.debug("[OrderService] Get order entities by current participant");
-        UUID currentClientId = tenantContext.getParticipantId();
-        log.debug("[OrderRepository] Calling findOrdersByParticipant_PublicId (unpaged) for currentClientId={}", currentClientId);
-        return orderRepository.findOrdersByParticipant_PublicId(currentClientId, Pageable.unpaged()).toList();
-    }
-    @Override
+    @Transactional
     public Integer reassignOrdersToParticipant(Participant guest, Participant existing){
         List<Order> orders = orderRepository.findOrdersByParticipant_PublicId(guest.getPublicId(), Pageable.unpaged()).toList();
         orders.forEach(order -> order.setParticipant(existing));
         orderRepository.saveAll(orders);
+        eventPublisher.publishEvent(new ParticipantOrdersReassignedEvent(guest.getId(), existing.getId()));
         return orders.size();
     }
 
-    // permite recibir parámetros opcionalmente
-// omitiendo el filtro que no fue especificado en la consulta
-    private Page<Order> fetchOrders(
-            Instant from,
-            Instant to,
-            OrderStatus status,
-            Pageable pageable
-    ) {
-        UUID venueId = tenantContext.getFoodVenueId();
-        Page<Order> orders;
+    // Listados: columnas de la orden por proyección y los detalles de toda la página en una segunda consulta
+    private Page<OrderResponseDto> toResponsePage(Page<OrderSummaryView> views) {
+        return new PageImpl<>(toResponses(views.getContent()), views.getPageable(), views.getTotalElements());
+    }
 
-        if (from != null && to != null) {
-            if (status != null) {
-                log.debug("[OrderRepository] Calling findByFoodVenue_PublicIdAndOrderDateBetweenAndStatus for venueId={}, from={}, to={}, status={}", venueId, from, to, status);
-                orders = orderRepository.findByFoodVenue_PublicIdAndOrderDateBetweenAndStatus(venueId, from, to, status, pageable);
-            } else {
-                log.debug("[OrderRepository] Calling findByFoodVenue_PublicIdAndOrderDateBetween for venueId={}, from={}, to={}", venueId, from, to);
-                orders = orderRepository.findByFoodVenue_PublicIdAndOrderDateBetween(venueId, from, to, pageable);
-            }
-        } else if (status != null) {
-            log.debug("[OrderRepository] Calling findByFoodVenue_PublicIdAndStatus for venueId={}, status={}", venueId, status);
-            orders = orderRepository.findByFoodVenue_PublicIdAndStatus(venueId, status, pageable);
-        } else {
-            log.debug("[OrderRepository] Calling findByFoodVenue_PublicId for venueId={}", venueId);
-            orders = orderRepository.findByFoodVenue_PublicId(venueId, pageable);
+    // Carga inicial del tablero: una sola lectura por local y día de negocio, la más vieja primero
+    private List<OrderResponseDto> loadLiveOrders(UUID venueId, Instant from) {
+        log.debug("[OrderRepository] Calling findSummariesByFoodVenue to load live board for venueId={}, from={}",
+                venueId, from);
+        List<OrderSummaryView> views = orderRepository
+                .findSummariesByFoodVenue(venueId, from, null, null, Pageable.unpaged(Sort.by("orderDate", "id")))
+                .stream()
+                .filter(view -> view.status() != OrderStatus.CANCELLED)
+                .toList();
+        return toResponses(views);
+    }
+
+    private List<OrderResponseDto> toResponses(List<OrderSummaryView> views) {
+        if (views.isEmpty()) {
+            return List.of();
         }
-        return orders;
+        List<Long> orderIds = views.stream().map(OrderSummaryView::id).toList();
+        Map<Long, List<OrderDetailResponseDto>> detailsByOrder = orderRepository.findDetailViewsByOrderIds(orderIds)
+                .stream()
+                .collect(Collectors.groupingBy(OrderDetailView::orderId,
+                        Collectors.mapping(orderDetailMapper::toDto, Collectors.toList())));
+
+        return views.stream().map(view -> {
+            OrderResponseDto dto = orderMapper.toDto(view);
+            dto.setOrderDetails(detailsByOrder.getOrDefault(view.id(), new ArrayList<>()));
+            return dto;
+        }).toList();
     }
 
     @Override
@@ -292,45 +332,144 @@ public class OrderServiceImpl implements OrderService {
         existingOrder.setSpecialRequirements(specialRequirements);
         log.debug("[OrderRepository] Calling save to update special requirements for order {}", orderId);
         orderRepository.save(existingOrder);
+        publishBoardUpdate(existingOrder);
 
         return new OrderResponseDto();
     }
 
     @Override
+    @Transactional
     public void delete(UUID id) {
         Order order = this.getEntityById(id);
+        // Un segundo borrado no vuelve a devolver stock
+        if (Boolean.TRUE.equals(order.getDeleted())) {
+            return;
+        }
         order.setDeleted(Boolean.TRUE);
         log.debug("[OrderRepository] Calling save to soft delete order {}", id);
-        orderRepository.save(order);
+        // saveAndFlush chequea la versión: si un cambio de estado llegó primero, el borrado se revierte
+        orderRepository.saveAndFlush(order);
+
+        // Como al cancelar: una orden que todavía se podía cancelar devuelve su stock reservado
+        if (order.getStatus().canTransitionTo(OrderStatus.CANCELLED)) {
+            productService.releaseStock(order.getOrderDetails());
+        }
+        eventPublisher.publishEvent(OrderMetricsChangedEvent.removed(order));
+        eventPublisher.publishEvent(OrderChangedEvent.removed(order.getFoodVenue().getPublicId(), orderMapper.toDto(order)));
     }
 
     @Override
+    @Transactional
     public OrderResponseDto updateStatus(UUID id, OrderStatus orderStatus) {
+        return updateStatus(id, orderStatus, null);
+    }
+
+    @Override
+    @Transactional
+    public OrderResponseDto updateStatus(UUID id, OrderStatus orderStatus, Long expectedVersion) {
         Order existingOrder = this.getEntityById(id);
-        Participant participant = tenantContext.requireParticipant();
+        ParticipantSnapshot participant = tenantContext.requireParticipantSnapshot();
         UUID currentContext = tenantContext.getFoodVenueId();
 
         if (!existingOrder.getFoodVenue().getPublicId().equals(currentContext)) {
             throw new EntityNotFoundException(ORDER);
         }
 
-        if ((participant.getRole().equals(RoleType.ROLE_CLIENT) || participant.getRole().equals(RoleType.ROLE_GUEST)) &&
-                !existingOrder.getParticipant().getPublicId().equals(participant.getPublicId())) {
+        if ((participant.role().equals(RoleType.ROLE_CLIENT) || participant.role().equals(RoleType.ROLE_GUEST)) &&
+                !existingOrder.getParticipant().getPublicId().equals(participant.publicId())) {
             throw new EntityNotFoundException(ORDER);
         }
 
-        existingOrder.setStatus(orderStatus);
-        log.debug("[OrderRepository] Calling save to update status to {} for order {}", orderStatus, id);
-        orderRepository.save(existingOrder);
+        OrderStatus previousStatus = existingOrder.getStatus();
+        long version = expectedVersion != null ? expectedVersion : existingOrder.getVersion();
+
+        // Reintento de un cambio que ya se aplicó: no hay nada que hacer
+        if (previousStatus == orderStatus) {
+            return orderMapper.toDto(existingOrder);
+        }
+        if (!previousStatus.canTransitionTo(orderStatus)) {
+            throw new InvalidOrderStatusTransitionException(id, previousStatus, orderStatus);
+        }
+
+        // El UPDATE condicional es el que decide: si otro cambio llegó primero no toca ninguna fila
+        log.debug("[OrderRepository] Calling compareAndSetStatus {} -> {} for order {} at version {}",
+                previousStatus, orderStatus, id, version);
+        if (orderRepository.compareAndSetStatus(existingOrder.getId(), previousStatus, orderStatus, version) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Order.class, id);
+        }
+
+        // Cancelar devuelve el stock reservado; reactivar una orden cancelada lo vuelve a reservar
+        if (orderStatus == OrderStatus.CANCELLED) {
+            productService.releaseStock(existingOrder.getOrderDetails());
+        } else if (previousStatus == OrderStatus.CANCELLED) {
+            productService.reserveStock(existingOrder.getOrderDetails());
+        }
 
-        return orderMapper.toDto(existingOrder);
+        // La entidad administrada no se toca: al hacer flush volvería a escribir con la versión vieja
+        OrderResponseDto updated = toUpdatedDto(existingOrder, orderStatus);
+        publishStatusChange(existingOrder, previousStatus, updated);
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public List<OrderResponseDto> advanceStatuses(List<UUID> orderIds) {
+        UUID currentVenueId = tenantContext.getFoodVenueId();
+        List<UUID> distinctIds = orderIds.stream().distinct().toList();
+
+        log.debug("[OrderRepository] Calling findByPublicIdInAndFoodVenue_PublicId for {} orders", distinctIds.size());
+        List<Order> orders = orderRepository.findByPublicIdInAndFoodVenue_PublicId(distinctIds, currentVenueId);
+        if (orders.size() != distinctIds.size()) {
+            Set<UUID> found = orders.stream().map(Order::getPublicId).collect(Collectors.toSet());
+            UUID missing = distinctIds.stream().filter(orderId -> !found.contains(orderId)).findFirst().orElseThrow();
+            throw new EntityNotFoundException(ORDER, missing.toString());
+        }
+
+        Map<OrderStatus, List<Order>> byStatus = orders.stream()
+                .collect(Collectors.groupingBy(Order::getStatus, () -> new EnumMap<>(OrderStatus.class), Collectors.toList()));
+
+        // Un UPDATE por estado de origen; si alguna orden cambió en el medio se revierte el lote completo
+        for (Map.Entry<OrderStatus, List<Order>> group : byStatus.entrySet()) {
+            OrderStatus from = group.getKey();
+            OrderStatus to = from.next();
+            if (to == null) {
+                throw new InvalidOrderStatusTransitionException(
+                        "Order " + group.getValue().get(0).getPublicId() + " cannot advance from " + from);
+            }
+            List<Long> ids = group.getValue().stream().map(Order::getId).toList();
+            log.debug("[OrderRepository] Calling advanceStatus {} -> {} for {} orders", from, to, ids.size());
+            if (orderRepository.advanceStatus(ids, from, to) != ids.size()) {
+                throw new ObjectOptimisticLockingFailureException(Order.class, group.getValue().get(0).getPublicId());
+            }
+        }
+
+        List<OrderResponseDto> advanced = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            OrderResponseDto updated = toUpdatedDto(order, order.getStatus().next());
+            publishStatusChange(order, order.getStatus(), updated);
+            advanced.add(updated);
+        }
+        return advanced;
+    }
+
+    private OrderResponseDto toUpdatedDto(Order order, OrderStatus status) {
+        OrderResponseDto dto = orderMapper.toDto(order);
+        dto.setStatus(status);
+        dto.setVersion(order.getVersion() + 1);
+        return dto;
+    }
+
+    private void publishStatusChange(Order order, OrderStatus previousStatus, OrderResponseDto updated) {
+        eventPublisher.publishEvent(OrderMetricsChangedEvent.statusChanged(order, previousStatus, updated.getStatus()));
+        eventPublisher.publishEvent(OrderChangedEvent.updated(order.getFoodVenue().getPublicId(), updated));
     }
 
     @Override
     public OrderResponseDto getOrderByDateAndOrderNumber(
             LocalDate date, Integer orderNumber) {
-        Instant start = date.atStartOfDay(ZoneId.systemDefault()).toInstant();
-        Instant end = date.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        // El número se reinicia por día de negocio, así que la búsqueda usa el mismo corte
+        Instant start = orderNumberGenerator.businessDayStart(date);
+        Instant end = orderNumberGenerator.businessDayEnd(date);
         UUID currentVenueId = tenantContext.getFoodVenueId();
         log.debug("[OrderRepository] Calling findByFoodVenue_PublicIdAndOrderNumberAndOrderDateBetween for " +
                 "venueId={}, orderNumber={} and date range", currentVenueId, orderNumber);
@@ -342,27 +481,37 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional
     public void removeOrderDetailFromOrder(UUID orderId, OrderDetail orderDetail) {
 
         Order existingOrder = this.getEntityById(orderId);
         orderServiceHelper.validateUpdate(existingOrder);
+        BigDecimal previousTotal = existingOrder.getTotalPrice();
         existingOrder.getOrderDetails().remove(orderDetail);
         orderServiceHelper.updateTotalPrice(existingOrder);
         this.setDefaultValues(orderDetail);
         log.debug("[OrderRepository] Calling save to remove order detail from order {}", orderId);
         this.orderRepository.save(existingOrder);
+        eventPublisher.publishEvent(
+                OrderMetricsChangedEvent.changed(existingOrder, existingOrder.getStatus(), previousTotal));
+        publishBoardUpdate(existingOrder);
     }
 
     @Override
+    @Transactional
     public void addOrderDetailToOrder(UUID orderId, OrderDetail orderDetail) {
 
         Order existingOrder = this.getEntityById(orderId);
         orderServiceHelper.validateUpdate(existingOrder);
+        BigDecimal previousTotal = existingOrder.getTotalPrice();
         existingOrder.getOrderDetails().add(orderDetail);
         orderServiceHelper.updateTotalPrice(existingOrder);
         this.setDefaultValues(orderDetail);
         log.debug("[OrderRepository] Calling save to add order detail to order {}", orderId);
         this.orderRepository.save(existingOrder);
+        eventPublisher.publishEvent(
+                OrderMetricsChangedEvent.changed(existingOrder, existingOrder.getStatus(), previousTotal));
+        publishBoardUpdate(existingOrder);
     }
 
     @Override
@@ -372,6 +521,12 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new EntityNotFoundException(ORDER, id.toString()));
     }
 
+    // Flush antes de mapear: el tablero descarta deltas por versión y la de la entidad sube recién al flush
+    private void publishBoardUpdate(Order order) {
+        orderRepository.flush();
+        eventPublisher.publishEvent(OrderChangedEvent.updated(order.getFoodVenue().getPublicId(), orderMapper.toDto(order)));
+    }
+
     private void setDefaultValues(OrderDetail orderDetail) {
         if (orderDetail.getQuantity() == null) orderDetail.setQuantity(1);
         if (orderDetail.getPrice() == null) {
@@ -3,6 +3,7 @@ package com.group_three.food_ordering.services.impl;
 import com.group_three.food_ordering.context.TenantContext;
 import com.group_three.food_ordering.dto.response.AuthResponse;
 import com.group_three.food_ordering.dto.response.ParticipantResponseDto;
+import com.group_three.food_ordering.events.ParticipantChangedEvent;
 import com.group_three.food_ordering.exceptions.EntityNotFoundException;
 import com.group_three.food_ordering.mappers.ParticipantMapper;
 import com.group_three.food_ordering.models.Participant;
@@ -14,6 +15,7 @@ import com.group_three.food_ordering.services.ParticipantService;
 import com.group_three.food_ordering.utils.NicknameGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,6 +33,7 @@ public class ParticipantServiceImpl implements ParticipantService {
     private final ParticipantRepository participantRepository;
     private final ParticipantMapper participantMapper;
     private final TenantContext tenantContext;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Participant create(User user, TableSession tableSession) {
@@ -62,6 +65,8 @@ public class ParticipantServiceImpl implements ParticipantService {
         }
         log.debug("[ParticipantRepository] Calling save to update participant {}", participant.getPublicId());
         participantRepository.save(participant);
+        // El snapshot cacheado seguiría diciendo invitado hasta vencer
+        eventPublisher.publishEvent(new ParticipantChangedEvent(participant.getPublicId()));
         log.debug("[ParticipantService] Participant updated. Nickname={}. Role={}. User={}",
                 participant.getNickname(), participant.getRole(), user != null ? user.getEmail() : null);
         return participant;
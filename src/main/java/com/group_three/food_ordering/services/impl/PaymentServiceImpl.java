@@ -2,8 +2,10 @@ package com.group_three.food_ordering.services.impl;
 
 import com.group_three.food_ordering.context.TenantContext;
 import com.group_three.food_ordering.dto.request.PaymentRequestDto;
+import com.group_three.food_ordering.dto.response.PageResponse;
 import com.group_three.food_ordering.dto.response.PaymentResponseDto;
 import com.group_three.food_ordering.enums.PaymentStatus;
+import com.group_three.food_ordering.events.PaymentCompletedEvent;
 import com.group_three.food_ordering.exceptions.EntityNotFoundException;
 import com.group_three.food_ordering.exceptions.InvalidPaymentStatusException;
 import com.group_three.food_ordering.mappers.PaymentMapper;
@@ -12,9 +14,12 @@ import com.group_three.food_ordering.models.Payment;
 import com.group_three.food_ordering.repositories.PaymentRepository;
 import com.group_three.food_ordering.services.OrderService;
 import com.group_three.food_ordering.services.PaymentService;
+import com.group_three.food_ordering.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +27,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.UUID;
 
@@ -36,6 +42,7 @@ public class PaymentServiceImpl implements PaymentService {
     private final OrderService orderService;
     private final PaymentMapper paymentMapper;
     private final TenantContext tenantContext;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Revisar muy muy MUY bien lo que se hace aca porque es muy importante
     @Transactional
@@ -73,24 +80,35 @@ public class PaymentServiceImpl implements PaymentService {
             Instant to,
             Pageable pageable)
     {
-        log.debug("[OrderService] Calling getOrderEntitiesByFilters for date range: {} to {}",
-                from, to);
-
-        List<Order> orders = orderService.getOrderEntitiesByFilters(LocalDate.from(from), LocalDate.from(to), null);
-        log.debug("[PaymentRepository] Calling findByOrdersAndStatusAndCreationDateBetween for {} orders, status {}",
-                orders.size(), status);
+        UUID foodVenueId = tenantContext.getFoodVenueId();
+        log.debug("[PaymentRepository] Calling findViewsByFoodVenueAndCreationDateBetween for venueId={}, status={}, from={}, to={}",
+                foodVenueId, status, from, to);
+        return paymentRepository.findViewsByFoodVenueAndCreationDateBetween(foodVenueId, status, from, to, pageable)
+                .map(paymentMapper::toDto);
+    }
 
-        Page<Payment> payments = paymentRepository.findByOrdersAndStatusAndCreationDateBetween(orders, status, from, to, pageable);
-        return payments.map(paymentMapper::toDto);
+    @Override
+    public PageResponse<PaymentResponseDto> getHistoryByContextAndStatusAndDateBetween(
+            PaymentStatus status, Instant from, Instant to, String cursor, int size) {
+        UUID foodVenueId = tenantContext.getFoodVenueId();
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.pageSize(size);
+        log.debug("[PaymentRepository] Calling findByFoodVenueAndStatusAndCreationDateBetweenAfter for venueId={}, status={}, after={}",
+                foodVenueId, status, after);
+        List<Payment> payments = paymentRepository.findByFoodVenueAndStatusAndCreationDateBetweenAfter(
+                foodVenueId, status, from, to,
+                KeysetCursor.positionOf(after), KeysetCursor.idOf(after), PageRequest.of(0, pageSize + 1));
+
+        return PageResponse.ofKeyset(payments, pageSize, after == null,
+                payment -> new KeysetCursor(payment.getCreationDate(), payment.getId()).encode(),
+                page -> page.stream().map(paymentMapper::toDto).toList());
     }
 
     @Override
     public Page<PaymentResponseDto> getAllByTableSessionAndStatus(UUID tableSession, PaymentStatus status, Pageable pageable) {
-        log.debug("[OrderService] Calling getOrderEntitiesByTableSessionAndStatus for tableSession {}", tableSession);
-        List<Order> orders = orderService.getOrderEntitiesByTableSessionAndStatus(tableSession, null);
-        log.debug("[PaymentRepository] Calling findByOrders for {} orders (table session)", orders.size());
-        Page<Payment> payments = paymentRepository.findByOrders(orders, pageable);
-        return payments.map(paymentMapper::toDto);
+        log.debug("[PaymentRepository] Calling findViewsByTableSession for tableSession={}, status={}", tableSession, status);
+        return paymentRepository.findViewsByTableSession(tableSession, status, pageable)
+                .map(paymentMapper::toDto);
     }
 
     @Override
@@ -101,32 +119,29 @@ public class PaymentServiceImpl implements PaymentService {
 
     @Override
     public Page<PaymentResponseDto> getAllOwnPaymentsAndStatus(PaymentStatus status, Pageable pageable) {
-        log.debug("[OrderService] Calling getOrderEntitiesByCurrentParticipant");
-        List<Order> orders = orderService.getOrderEntitiesByCurrentParticipant();
-        log.debug("[PaymentRepository] Calling findByOrders for {} own orders", orders.size());
-        Page<Payment> payments = paymentRepository.findByOrders(orders, pageable);
-        return payments.map(paymentMapper::toDto);
+        UUID participantId = tenantContext.getParticipantId();
+        log.debug("[PaymentRepository] Calling findViewsByParticipant for participant={}, status={}", participantId, status);
+        return paymentRepository.findViewsByParticipant(participantId, status, pageable)
+                .map(paymentMapper::toDto);
     }
 
     @Override
     public Page<PaymentResponseDto> findByOrdersAndStatus(List<UUID> orderIds, PaymentStatus status, Pageable pageable) {
-        log.debug("[OrderService] Calling getEntityById for {} orders", orderIds.size());
-        List<Order> orders = orderIds.stream()
-                .map(orderService::getEntityById)
-                .toList();
-
-        log.debug("[PaymentRepository] Calling findByOrders for {} specified orders", orders.size());
-        Page<Payment> payments = paymentRepository.findByOrders(orders, pageable);
-        return payments.map(paymentMapper::toDto);
+        UUID foodVenueId = tenantContext.getFoodVenueId();
+        log.debug("[PaymentRepository] Calling findViewsByOrders for {} orders, status={}", orderIds.size(), status);
+        return paymentRepository.findViewsByOrders(foodVenueId, orderIds, status, pageable)
+                .map(paymentMapper::toDto);
     }
 
     @Override
     public Page<PaymentResponseDto> findAllPaymentsForToday(PaymentStatus status, Pageable pageable) {
-        log.debug("[OrderService] Calling getOrderEntitiesForToday");
-        List<Order> orders = orderService.getOrderEntitiesForToday(null);
-        log.debug("[PaymentRepository] Calling findByOrders for {} orders today", orders.size());
-        Page<Payment> payments = paymentRepository.findByOrders(orders, pageable);
-        return payments.map(paymentMapper::toDto);
+        Instant opening = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant();
+        Instant closing = LocalDate.now().plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        UUID foodVenueId = tenantContext.getFoodVenueId();
+        log.debug("[PaymentRepository] Calling findViewsByFoodVenueAndOrderDateBetween for venueId={}, status={}, today",
+                foodVenueId, status);
+        return paymentRepository.findViewsByFoodVenueAndOrderDateBetween(foodVenueId, status, opening, closing, pageable)
+                .map(paymentMapper::toDto);
     }
 
     @Override
@@ -180,6 +195,7 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
+    @Transactional
     public PaymentResponseDto updateStatus(UUID id, PaymentStatus paymentStatus) {
         Payment existingPayment = getPaymentEntityById(id);
 
@@ -189,7 +205,16 @@ public class PaymentServiceImpl implements PaymentService {
             existingPayment.setStatus(paymentStatus);
         }
         log.debug("[PaymentRepository] Calling save to update status of payment {}", id);
-        return paymentMapper.toDto(paymentRepository.save(existingPayment));
+        Payment savedPayment = paymentRepository.save(existingPayment);
+
+        if (paymentStatus == PaymentStatus.COMPLETED && !savedPayment.getOrders().isEmpty()) {
+            eventPublisher.publishEvent(new PaymentCompletedEvent(
+                    savedPayment.getId(),
+                    savedPayment.getOrders().getFirst().getFoodVenue().getId(),
+                    savedPayment.getCreationDate(),
+                    savedPayment.getAmount()));
+        }
+        return paymentMapper.toDto(savedPayment);
     }
 
     @Override
@@ -5,21 +5,26 @@ import com.group_three.food_ordering.dto.request.ProductRequestDto;
 import com.group_three.food_ordering.dto.response.ItemMenuResponseDto;
 import com.group_three.food_ordering.dto.response.ProductResponseDto;
 import com.group_three.food_ordering.enums.CloudinaryFolder;
+import com.group_three.food_ordering.events.MenuChangedEvent;
 import com.group_three.food_ordering.exceptions.EntityNotFoundException;
 import com.group_three.food_ordering.exceptions.InsufficientStockException;
 import com.group_three.food_ordering.mappers.ProductMapper;
 import com.group_three.food_ordering.models.Category;
 import com.group_three.food_ordering.models.FoodVenue;
+import com.group_three.food_ordering.models.OrderDetail;
 import com.group_three.food_ordering.models.Product;
 import com.group_three.food_ordering.models.Tag;
 import com.group_three.food_ordering.repositories.CategoryRepository;
 import com.group_three.food_ordering.repositories.ProductRepository;
 import com.group_three.food_ordering.repositories.TagRepository;
 import com.group_three.food_ordering.services.CloudinaryService;
+import com.group_three.food_ordering.services.HotStockService;
 import com.group_three.food_ordering.services.ProductService;
 import com.group_three.food_ordering.services.TagService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -31,6 +36,7 @@ import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static com.group_three.food_ordering.utils.EntityName.PRODUCT;
 import static com.group_three.food_ordering.utils.EntityName.TAG;
@@ -48,6 +54,9 @@ public class ProductServiceImpl implements ProductService {
     private final CloudinaryService cloudinaryService;
     private final ProductMapper productMapper;
     private final TenantContext tenantContext;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HotStockService hotStockService;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -77,6 +86,7 @@ public class ProductServiceImpl implements ProductService {
         product.setPrice(productRequestDto.getPrice() != null ? productRequestDto.getPrice() : BigDecimal.ZERO);
         product.setStock(productRequestDto.getStock() != null ? productRequestDto.getStock() : 0);
         product.setAvailable(product.getStock() > 0);
+        product.setHighTurnover(Boolean.TRUE.equals(productRequestDto.getHighTurnover()));
         product.setCategory(findCategory(productRequestDto.getCategoryId()));
 
         product.setTags(new HashSet<>(findTags(productRequestDto.getTags())));
@@ -84,6 +94,7 @@ public class ProductServiceImpl implements ProductService {
         // 5. Guardar
         log.debug("[ProductRepository] Calling save to create new product for venue {}", foodVenue.getPublicId());
         Product savedProduct = productRepository.save(product);
+        publishMenuChanged(savedProduct);
 
         return productMapper.toDto(savedProduct);
     }
@@ -95,6 +106,12 @@ public class ProductServiceImpl implements ProductService {
 
         Product product = getEntityById(publicId);
 
+        // El stock se reemplaza por el del request: primero se vuelcan los movimientos pendientes de este producto
+        boolean wasHot = hotStockService.isManaged(product);
+        if (wasHot) {
+            hotStockService.flushProducts(List.of(product.getId()));
+        }
+
         // 1. Mapear cambios básicos
         productMapper.updateEntity(product, productRequestDto);
 
@@ -123,7 +140,11 @@ public class ProductServiceImpl implements ProductService {
 
         // 3. Aplicar reglas de negocio y guardar
         log.debug("[ProductService] Applying rules and saving update for product {}", publicId);
-        return applyProductRulesAndSave(product, productRequestDto);
+        ProductResponseDto updated = applyProductRulesAndSave(product, productRequestDto);
+        if (wasHot) {
+            hotStockService.evict(product);
+        }
+        return updated;
     }
 
     @Override
@@ -137,8 +158,8 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public Product getEntityById(UUID publicId) {
-        log.debug("[ProductRepository] Calling findAndLockByPublicId for product publicId={}", publicId);
-        return productRepository.findAndLockByPublicIdAndDeletedFalse(publicId)
+        log.debug("[ProductRepository] Calling findByPublicId for product publicId={}", publicId);
+        return productRepository.findByPublicIdAndDeletedFalse(publicId)
                 .orElseThrow(() -> new EntityNotFoundException(PRODUCT));
     }
 
@@ -163,6 +184,30 @@ public class ProductServiceImpl implements ProductService {
 
     }
 
+    @Override
+    public Map<String, Product> getEntitiesByNamesAndContext(Collection<String> names) {
+        Map<String, Product> productsByName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (names.isEmpty()) {
+            return productsByName;
+        }
+        UUID foodVenueId = tenantContext.getFoodVenueId();
+        Set<String> distinctNames = new HashSet<>(names);
+        log.debug("[ProductRepository] Calling findAllByFoodVenue_PublicIdAndNameIn for {} names and venueId={}",
+                distinctNames.size(), foodVenueId);
+
+        // Igual que la búsqueda individual, el nombre no distingue mayúsculas y gana el primer producto encontrado
+        productRepository.findAllByFoodVenue_PublicIdAndNameInAndDeletedFalse(foodVenueId, distinctNames)
+                .forEach(product -> productsByName.putIfAbsent(product.getName(), product));
+
+        distinctNames.stream()
+                .filter(name -> !productsByName.containsKey(name))
+                .findFirst()
+                .ifPresent(name -> {
+                    throw new EntityNotFoundException(PRODUCT, name);
+                });
+        return productsByName;
+    }
+
     @Override
     @Transactional
     public void delete(UUID publicId) {
@@ -170,6 +215,7 @@ public class ProductServiceImpl implements ProductService {
         product.setDeleted(Boolean.TRUE);
         log.debug("[ProductRepository] Calling save to soft delete product {}", publicId);
         productRepository.save(product);
+        publishMenuChanged(product);
     }
 
 
@@ -211,6 +257,7 @@ public class ProductServiceImpl implements ProductService {
             tags.addAll(newTags);
         }
         Product savedProduct = productRepository.save(product);
+        publishMenuChanged(savedProduct);
         ProductResponseDto productResponseDto = productMapper.toDto(savedProduct);
         log.debug("[ProductService] Product updated successfully = {}", productResponseDto);
         return productResponseDto;
@@ -228,23 +275,117 @@ public class ProductServiceImpl implements ProductService {
                 product.getPublicId(), product.getStock(), quantity);
     }
 
+    @Override
+    @Transactional
+    public void reserveStock(List<OrderDetail> orderDetails) throws InsufficientStockException {
+        Map<Long, Product> productsById = productsById(orderDetails);
+        SortedMap<Long, Integer> quantities = quantitiesByProductId(orderDetails);
+        List<Long> updatedIds = new ArrayList<>();
+
+        // Un UPDATE condicional por producto, siempre en orden de id para que dos pedidos no se bloqueen
+        // mutuamente. Si alguno falla, la excepción revierte los descuentos ya aplicados en la transacción.
+        // Los productos de alta rotación se reservan contra los contadores en memoria.
+        quantities.forEach((productId, quantity) -> {
+            Product product = productsById.get(productId);
+            if (hotStockService.isManaged(product)) {
+                hotStockService.reserve(product, quantity);
+                return;
+            }
+            log.debug("[ProductRepository] Calling decrementStockIfAvailable for product {} by {}", productId, quantity);
+            if (productRepository.decrementStockIfAvailable(productId, quantity) == 0) {
+                log.warn("[ProductService] Insufficient stock reserving product {} ({})", product.getPublicId(), quantity);
+                throw new InsufficientStockException("Insufficient stock for product: " + product.getName());
+            }
+            refreshStock(product);
+            updatedIds.add(productId);
+        });
+
+        // Solo si algún producto se quedó sin stock cambió la disponibilidad del menú
+        if (!updatedIds.isEmpty() && !productRepository.findOutOfStockIds(updatedIds).isEmpty()) {
+            publishMenuChanged(productsById.get(updatedIds.get(0)));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void releaseStock(List<OrderDetail> orderDetails) {
+        Map<Long, Product> productsById = productsById(orderDetails);
+        SortedMap<Long, Integer> quantities = quantitiesByProductId(orderDetails);
+        List<Long> coldIds = new ArrayList<>();
+
+        quantities.forEach((productId, quantity) -> {
+            Product product = productsById.get(productId);
+            if (hotStockService.isManaged(product)) {
+                hotStockService.release(product, quantity);
+            } else {
+                coldIds.add(productId);
+            }
+        });
+        if (coldIds.isEmpty()) {
+            return;
+        }
+
+        boolean anyOutOfStock = !productRepository.findOutOfStockIds(coldIds).isEmpty();
+        coldIds.forEach(productId -> {
+            log.debug("[ProductRepository] Calling incrementStock for product {} by {}", productId, quantities.get(productId));
+            productRepository.incrementStock(productId, quantities.get(productId));
+            refreshStock(productsById.get(productId));
+        });
+
+        if (anyOutOfStock) {
+            publishMenuChanged(productsById.get(coldIds.get(0)));
+        }
+    }
+
     @Transactional
     public void incrementStockProduct(Product product, Integer quantity) {
         if (quantity != null && quantity > 0) {
             log.debug("[ProductService] Incrementing stock for product {} by {}", product.getPublicId(), quantity);
-            int newStock = product.getStock() + quantity;
-            product.setStock(newStock);
-            product.setAvailable(newStock > 0);
+            boolean wasOutOfStock = product.getStock() <= 0;
+            productRepository.incrementStock(product.getId(), quantity);
+            refreshStock(product);
+            if (wasOutOfStock) {
+                publishMenuChanged(product);
+            }
         }
     }
 
     @Transactional
     public void decrementStockProduct(Product product, Integer quantity) {
-        validateStock(product, quantity);
         log.debug("[ProductService] Decrementing stock for product {} by {}", product.getPublicId(), quantity);
-        int newStock = product.getStock() - quantity;
-        product.setStock(newStock);
-        product.setAvailable(newStock > 0);
+        if (productRepository.decrementStockIfAvailable(product.getId(), quantity) == 0) {
+            throw new InsufficientStockException("Insufficient stock for product: " + product.getName());
+        }
+        refreshStock(product);
+        if (!productRepository.findOutOfStockIds(List.of(product.getId())).isEmpty()) {
+            publishMenuChanged(product);
+        }
+    }
+
+    // El UPDATE ya hizo flush; sin refresh la entidad administrada queda con el stock previo
+    private void refreshStock(Product product) {
+        if (product != null && entityManager.contains(product)) {
+            entityManager.refresh(product);
+        }
+    }
+
+    private Map<Long, Product> productsById(List<OrderDetail> orderDetails) {
+        return orderDetails.stream()
+                .map(OrderDetail::getProduct)
+                .collect(Collectors.toMap(Product::getId, product -> product, (first, second) -> first));
+    }
+
+    // Un mismo producto puede aparecer en varias líneas: se reserva la cantidad total del pedido
+    private SortedMap<Long, Integer> quantitiesByProductId(List<OrderDetail> orderDetails) {
+        return orderDetails.stream()
+                .collect(Collectors.groupingBy(detail -> detail.getProduct().getId(), TreeMap::new,
+                        Collectors.summingInt(OrderDetail::getQuantity)));
+    }
+
+    private void publishMenuChanged(Product product) {
+        if (product.getFoodVenue() != null) {
+            eventPublisher.publishEvent(new MenuChangedEvent(product.getFoodVenue().getPublicId()));
+        }
     }
 
     private Set<Tag> findTags(List<String> tagLabels) {
@@ -0,0 +1,215 @@
+package com.group_three.food_ordering.services.impl;
+
+import com.group_three.food_ordering.cache.TenantSnapshotCache;
+import com.group_three.food_ordering.context.TenantContext;
+import com.group_three.food_ordering.dto.projection.ParticipantBalanceView;
+import com.group_three.food_ordering.dto.projection.PaymentShareView;
+import com.group_three.food_ordering.dto.projection.TableSessionSnapshot;
+import com.group_three.food_ordering.dto.response.ParticipantShareDto;
+import com.group_three.food_ordering.dto.response.TableSessionSettlementResponseDto;
+import com.group_three.food_ordering.enums.OrderStatus;
+import com.group_three.food_ordering.enums.SplitMode;
+import com.group_three.food_ordering.events.OrderMetricsChangedEvent;
+import com.group_three.food_ordering.events.ParticipantOrdersReassignedEvent;
+import com.group_three.food_ordering.events.PaymentCompletedEvent;
+import com.group_three.food_ordering.exceptions.EntityNotFoundException;
+import com.group_three.food_ordering.models.DataMigration;
+import com.group_three.food_ordering.models.SessionBalance;
+import com.group_three.food_ordering.repositories.DataMigrationRepository;
+import com.group_three.food_ordering.repositories.SettlementBalanceRepository;
+import com.group_three.food_ordering.services.SettlementService;
+import com.group_three.food_ordering.strategies.interfaces.TableSessionPaymentStrategy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static com.group_three.food_ordering.utils.EntityName.TABLE_SESSION;
+
+/**
+ * Saldos corrientes por mesa y por participante. Cada orden y cada pago completado mueve un delta
+ * dentro de su propia transacción, así que repartir la cuenta lee una fila por participante y
+ * validar el cierre de la mesa lee una sola fila.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SettlementServiceImpl implements SettlementService {
+
+    private static final String BACKFILL_MIGRATION = "settlement-balances-backfill";
+    // Participantes en orden de id: dos pagos que tocan las mismas filas las bloquean en el mismo orden
+    private static final Comparator<PaymentShareView> SHARE_ORDER = Comparator
+            .comparing(PaymentShareView::tableSessionId)
+            .thenComparing(PaymentShareView::participantId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final SettlementBalanceRepository balanceRepository;
+    private final DataMigrationRepository migrationRepository;
+    private final TenantSnapshotCache snapshotCache;
+    private final TenantContext tenantContext;
+    private final List<TableSessionPaymentStrategy> strategies;
+
+    @Value("${app.settlement.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderChanged(OrderMetricsChangedEvent event) {
+        if (event.tableSessionId() == null) {
+            return;
+        }
+        BigDecimal delta = billedAmount(event.status(), event.total())
+                .subtract(billedAmount(event.previousStatus(), event.previousTotal()));
+        if (delta.signum() == 0) {
+            return;
+        }
+        balanceRepository.addToSessionBalance(event.tableSessionId(), delta, BigDecimal.ZERO);
+        if (event.participantId() != null) {
+            balanceRepository.addToParticipantBalance(event.participantId(), event.tableSessionId(), delta, BigDecimal.ZERO);
+        }
+    }
+
+    // El pago se acredita a quien pidió cada orden, no a quien pagó
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onPaymentCompleted(PaymentCompletedEvent event) {
+        if (event.paymentId() == null) {
+            return;
+        }
+        List<PaymentShareView> shares = balanceRepository.findPaymentShares(event.paymentId()).stream()
+                .sorted(SHARE_ORDER)
+                .toList();
+        Map<Long, BigDecimal> bySession = new TreeMap<>();
+        shares.forEach(share -> bySession.merge(share.tableSessionId(), share.amount(), BigDecimal::add));
+
+        // Mismo orden de locks que onOrderChanged: primero la fila de la sesión, después las de participantes
+        bySession.forEach((tableSessionId, amount) ->
+                balanceRepository.addToSessionBalance(tableSessionId, BigDecimal.ZERO, amount));
+        for (PaymentShareView share : shares) {
+            if (share.participantId() != null) {
+                balanceRepository.addToParticipantBalance(share.participantId(), share.tableSessionId(),
+                        BigDecimal.ZERO, share.amount());
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrdersReassigned(ParticipantOrdersReassignedEvent event) {
+        balanceRepository.findParticipantBalance(event.fromParticipantId()).ifPresent(balance -> {
+            balanceRepository.addToParticipantBalance(event.toParticipantId(), balance.getTableSessionId(),
+                    balance.getBilled(), balance.getPaid());
+            balanceRepository.deleteParticipantBalance(event.fromParticipantId());
+        });
+    }
+
+    @Override
+    public TableSessionSettlementResponseDto getSettlement(UUID tableSessionId, SplitMode split) {
+        TableSessionSnapshot session = snapshotCache.tableSession(tableSessionId)
+                .filter(snapshot -> snapshot.foodVenueId().equals(tenantContext.getFoodVenueId()))
+                .orElseThrow(() -> new EntityNotFoundException(TABLE_SESSION, tableSessionId.toString()));
+        return settle(session, split, null);
+    }
+
+    @Override
+    public TableSessionSettlementResponseDto getCurrentSettlement(SplitMode split, Map<UUID, BigDecimal> customAmounts) {
+        TableSessionSnapshot session = tenantContext.tableSessionSnapshotOpt()
+                .orElseThrow(() -> new EntityNotFoundException(TABLE_SESSION));
+        return settle(session, split, customAmounts);
+    }
+
+    @Override
+    public boolean isSettled(Long tableSessionId) {
+        // Sin fila no hubo nada facturado
+        return balanceRepository.findOutstanding(tableSessionId)
+                .map(outstanding -> outstanding.signum() <= 0)
+                .orElse(true);
+    }
+
+    // Migración de una sola vez: el nodo que toma el lock de la fila arma los saldos y los demás la ven aplicada
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillOnce() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        migrationRepository.register(BACKFILL_MIGRATION);
+        DataMigration migration = migrationRepository.findAndLockByName(BACKFILL_MIGRATION)
+                .orElseThrow(() -> new IllegalStateException("Missing data migration " + BACKFILL_MIGRATION));
+        if (migration.isApplied()) {
+            return;
+        }
+        rebuild();
+        migration.setAppliedAt(Instant.now());
+    }
+
+    @Override
+    @Transactional
+    public void rebuild() {
+        int sessions = balanceRepository.rebuildSessionBalances();
+        int participants = balanceRepository.rebuildParticipantBalances();
+        log.info("[SettlementService] Rebuilt balances for {} open sessions and {} participants", sessions, participants);
+    }
+
+    private TableSessionSettlementResponseDto settle(TableSessionSnapshot session, SplitMode split,
+                                                     Map<UUID, BigDecimal> customAmounts) {
+        BigDecimal billed = BigDecimal.ZERO;
+        BigDecimal paid = BigDecimal.ZERO;
+        SessionBalance balance = balanceRepository.findByTableSessionId(session.id()).orElse(null);
+        if (balance != null) {
+            billed = balance.getBilled();
+            paid = balance.getPaid();
+        }
+        BigDecimal outstanding = billed.subtract(paid);
+
+        log.debug("[SettlementBalanceRepository] Calling findParticipantBalances for tableSessionId={}", session.publicId());
+        List<ParticipantBalanceView> participants = balanceRepository.findParticipantBalances(session.id());
+        Map<UUID, BigDecimal> shares = strategyFor(split).split(outstanding, participants, customAmounts);
+
+        BigDecimal assigned = shares.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        List<ParticipantShareDto> participantShares = participants.stream()
+                .map(participant -> ParticipantShareDto.builder()
+                        .participantId(participant.participantId())
+                        .nickname(participant.nickname())
+                        .billed(participant.billed())
+                        .paid(participant.paid())
+                        .share(shares.getOrDefault(participant.participantId(), BigDecimal.ZERO))
+                        .build())
+                .toList();
+
+        return TableSessionSettlementResponseDto.builder()
+                .tableSessionId(session.publicId())
+                .billedTotal(billed)
+                .paidTotal(paid)
+                .outstanding(outstanding)
+                .settled(outstanding.signum() <= 0)
+                .split(split)
+                .unassigned(outstanding.max(BigDecimal.ZERO).subtract(assigned).max(BigDecimal.ZERO))
+                .participants(participantShares)
+                .build();
+    }
+
+    private TableSessionPaymentStrategy strategyFor(SplitMode split) {
+        return strategies.stream()
+                .filter(strategy -> strategy.mode() == split)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported split mode: " + split));
+    }
+
+    // Lo que una orden le suma a la cuenta: nada si está cancelada o eliminada
+    private static BigDecimal billedAmount(OrderStatus status, BigDecimal total) {
+        if (status == null || status == OrderStatus.CANCELLED || total == null) {
+            return BigDecimal.ZERO;
+        }
+        return total;
+    }
+}
@@ -4,11 +4,14 @@ import com.group_three.food_ordering.context.TenantContext;
 import com.group_three.food_ordering.dto.SessionInfo;
 import com.group_three.food_ordering.dto.request.TableSessionRequestDto;
 import com.group_three.food_ordering.dto.response.AuthResponse;
+import com.group_three.food_ordering.dto.response.PageResponse;
 import com.group_three.food_ordering.dto.response.ParticipantResponseDto;
 import com.group_three.food_ordering.dto.response.TableSessionResponseDto;
 import com.group_three.food_ordering.enums.DiningTableStatus;
-import com.group_three.food_ordering.enums.PaymentStatus;
 import com.group_three.food_ordering.enums.RoleType;
+import com.group_three.food_ordering.events.ParticipantLeftEvent;
+import com.group_three.food_ordering.events.ParticipantOrdersReassignedEvent;
+import com.group_three.food_ordering.events.TableSessionClosedEvent;
 import com.group_three.food_ordering.exceptions.EntityNotFoundException;
 import com.group_three.food_ordering.exceptions.InvalidDiningTableStatusException;
 import com.group_three.food_ordering.exceptions.InvalidPaymentStatusException;
@@ -22,10 +25,14 @@ import com.group_three.food_ordering.configs.security.JwtService;
 import com.group_three.food_ordering.configs.security.RefreshTokenService;
 import com.group_three.food_ordering.services.DiningTableService;
 import com.group_three.food_ordering.services.ParticipantService;
+import com.group_three.food_ordering.services.SettlementService;
 import com.group_three.food_ordering.services.TableSessionService;
+import com.group_three.food_ordering.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
@@ -52,6 +59,8 @@ public class TableSessionServiceImpl implements TableSessionService {
     private final ParticipantMapper participantMapper;
     private final SseService sseService;
     private final RefreshTokenService refreshTokenService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SettlementService settlementService;
 
     // ===========================
     // Entrar / Asociarse a mesa
@@ -145,6 +154,20 @@ public class TableSessionServiceImpl implements TableSessionService {
                 .map(this::toDto);
     }
 
+    @Override
+    public PageResponse<TableSessionResponseDto> getHistory(String cursor, int size) {
+        UUID foodVenueId = tenantContext.getFoodVenueId();
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.pageSize(size);
+        log.debug("[TableSessionRepository] Calling findByFoodVenuePublicIdAfter for venueId={}, after={}", foodVenueId, after);
+        List<TableSession> sessions = tableSessionRepository.findByFoodVenuePublicIdAfter(
+                foodVenueId, KeysetCursor.positionOf(after), KeysetCursor.idOf(after), PageRequest.of(0, pageSize + 1));
+
+        return PageResponse.ofKeyset(sessions, pageSize, after == null,
+                session -> new KeysetCursor(session.getStartTime(), session.getId()).encode(),
+                page -> page.stream().map(this::toDto).toList());
+    }
+
     @Override
     public TableSessionResponseDto getById(UUID id) {
         return this.toDto(getEntityById(id));
@@ -267,13 +290,9 @@ public class TableSessionServiceImpl implements TableSessionService {
         Participant leavingParticipant = tenantContext.requireParticipant();
         TableSession tableSession = tenantContext.requireTableSession();
 
-        List<Order> participantOrders = tableSession.getOrders().stream()
-                .filter(order -> order.getParticipant().getPublicId().equals(leavingParticipant.getPublicId()))
-                .toList();
-
-        validatePaymentsForOrders(participantOrders);
         leavingParticipant.setLeftAt(Instant.now());
         tableSessionRepository.save(tableSession);
+        eventPublisher.publishEvent(new ParticipantLeftEvent(leavingParticipant.getPublicId(), tableSession.getPublicId()));
 
         int newParticipantCount = calculateParticipantsCount(tableSession);
         log.debug("[TableSessionService] Number of participants who still in session={}", newParticipantCount);
@@ -331,6 +350,11 @@ public class TableSessionServiceImpl implements TableSessionService {
             throw new AccessDeniedException("Only the current host can end the session");
         }
 
+        // Saldo corriente de la mesa: una fila, sin recorrer órdenes ni pagos
+        if (!settlementService.isSettled(tableSession.getId())) {
+            throw new InvalidPaymentStatusException("All orders must be paid to finish table session");
+        }
+
         tableSession.getParticipants().forEach(participant -> participant.setLeftAt(Instant.now()));
         closeSession(tableSession);
 
@@ -348,26 +372,13 @@ public class TableSessionServiceImpl implements TableSessionService {
 
     private void closeSession(TableSession tableSession) {
 
-        validatePaymentsForOrders(tableSession.getOrders());
-        log.debug("[TableSessionService] All payments are COMPLETED for tableSessionId={}",
-                tableSession.getPublicId());
-
         // 1. Mutaciones a la entidad managed
         tableSession.setEndTime(Instant.now());
 
         tableSession.getDiningTable().setStatus(DiningTableStatus.WAITING_RESET);
-    }
 
-    private void validatePaymentsForOrders(List<Order> orders) {
-
-        log.debug("[TableSessionService] Validating payment status for {} orders", orders.size());
-
-        if (!orders.stream()
-                .map(o -> o.getPayment() != null ? o.getPayment().getStatus() : null)
-                .allMatch(PaymentStatus.COMPLETED::equals)) {
-            //Comentado hasta que se implementen los pagos, sino no se puede salir de la sesión
-            // throw new InvalidPaymentStatusException("All payments must be paid to finish table session");
-        }
+        eventPublisher.publishEvent(new TableSessionClosedEvent(tableSession.getPublicId(),
+                tableSession.getFoodVenue().getId(), tableSession.getStartTime(), tableSession.getEndTime()));
     }
 
     // ===========================
@@ -438,6 +449,7 @@ public class TableSessionServiceImpl implements TableSessionService {
                 .filter(order -> order.getParticipant() != null && Objects.equals(order.getParticipant().getId(),
                         guest.getId()))
                 .forEach(order -> order.setParticipant(client));
+        eventPublisher.publishEvent(new ParticipantOrdersReassignedEvent(guest.getId(), client.getId()));
 
         // Remover guest de la sesión
         tableSession.getParticipants().remove(guest);
@@ -0,0 +1,30 @@
+package com.group_three.food_ordering.strategies.implementations;
+
+import com.group_three.food_ordering.dto.projection.ParticipantBalanceView;
+import com.group_three.food_ordering.enums.SplitMode;
+import com.group_three.food_ordering.strategies.interfaces.TableSessionPaymentStrategy;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+public class ByItemSplitPaymentStrategy implements TableSessionPaymentStrategy {
+
+    @Override
+    public SplitMode mode() {
+        return SplitMode.BY_ITEM;
+    }
+
+    @Override
+    public Map<UUID, BigDecimal> split(BigDecimal outstanding, List<ParticipantBalanceView> participants,
+                                       Map<UUID, BigDecimal> customAmounts) {
+        Map<UUID, BigDecimal> shares = new LinkedHashMap<>();
+        participants.forEach(participant ->
+                shares.put(participant.participantId(), participant.outstanding().max(BigDecimal.ZERO)));
+        return shares;
+    }
+}
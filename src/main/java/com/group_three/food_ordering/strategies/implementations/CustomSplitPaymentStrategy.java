@@ -0,0 +1,50 @@
+package com.group_three.food_ordering.strategies.implementations;
+
+import com.group_three.food_ordering.dto.projection.ParticipantBalanceView;
+import com.group_three.food_ordering.enums.SplitMode;
+import com.group_three.food_ordering.strategies.interfaces.TableSessionPaymentStrategy;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+public class CustomSplitPaymentStrategy implements TableSessionPaymentStrategy {
+
+    @Override
+    public SplitMode mode() {
+        return SplitMode.CUSTOM;
+    }
+
+    @Override
+    public Map<UUID, BigDecimal> split(BigDecimal outstanding, List<ParticipantBalanceView> participants,
+                                       Map<UUID, BigDecimal> customAmounts) {
+        if (customAmounts == null || customAmounts.isEmpty()) {
+            throw new IllegalArgumentException("A custom split needs the amount for each participant");
+        }
+
+        Map<UUID, BigDecimal> shares = new LinkedHashMap<>();
+        participants.forEach(participant -> shares.put(participant.participantId(), BigDecimal.ZERO));
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<UUID, BigDecimal> amount : customAmounts.entrySet()) {
+            if (!shares.containsKey(amount.getKey())) {
+                throw new IllegalArgumentException("Participant " + amount.getKey() + " is not part of this table session");
+            }
+            if (amount.getValue() == null || amount.getValue().signum() < 0) {
+                throw new IllegalArgumentException("Amount for participant " + amount.getKey() + " must be zero or positive");
+            }
+            shares.put(amount.getKey(), amount.getValue());
+            total = total.add(amount.getValue());
+        }
+
+        BigDecimal expected = outstanding.max(BigDecimal.ZERO);
+        if (total.compareTo(expected) != 0) {
+            throw new IllegalArgumentException("Custom split adds up to " + total + " but the table owes " + expected);
+        }
+        return shares;
+    }
+}
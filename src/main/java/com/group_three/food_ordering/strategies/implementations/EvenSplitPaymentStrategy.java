@@ -0,0 +1,47 @@
+package com.group_three.food_ordering.strategies.implementations;
+
+import com.group_three.food_ordering.dto.projection.ParticipantBalanceView;
+import com.group_three.food_ordering.enums.SplitMode;
+import com.group_three.food_ordering.strategies.interfaces.TableSessionPaymentStrategy;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+public class EvenSplitPaymentStrategy implements TableSessionPaymentStrategy {
+
+    @Override
+    public SplitMode mode() {
+        return SplitMode.EVEN;
+    }
+
+    @Override
+    public Map<UUID, BigDecimal> split(BigDecimal outstanding, List<ParticipantBalanceView> participants,
+                                       Map<UUID, BigDecimal> customAmounts) {
+        // Se reparte entre los que siguen en la mesa; si ya se fueron todos, entre todos
+        List<ParticipantBalanceView> payers = participants.stream().filter(ParticipantBalanceView::isActive).toList();
+        if (payers.isEmpty()) {
+            payers = participants;
+        }
+
+        Map<UUID, BigDecimal> shares = new LinkedHashMap<>();
+        if (payers.isEmpty()) {
+            return shares;
+        }
+
+        // En centavos: los que sobran de la división van de a uno a los primeros en llegar
+        long cents = outstanding.max(BigDecimal.ZERO).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        long base = cents / payers.size();
+        long remainder = cents % payers.size();
+        for (int i = 0; i < payers.size(); i++) {
+            long share = base + (i < remainder ? 1 : 0);
+            shares.put(payers.get(i).participantId(), BigDecimal.valueOf(share, 2));
+        }
+        return shares;
+    }
+}
@@ -1,9 +1,22 @@
 package com.group_three.food_ordering.strategies.interfaces;
 
-import com.group_three.food_ordering.models.TableSession;
+import com.group_three.food_ordering.dto.projection.ParticipantBalanceView;
+import com.group_three.food_ordering.enums.SplitMode;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 public interface TableSessionPaymentStrategy {
 
-    void pay(TableSession tableSession);
+    SplitMode mode();
+
+    /**
+     * Reparte el saldo pendiente de la mesa. Trabaja sobre los saldos acumulados, nunca sobre las órdenes.
+     * {@code customAmounts} sólo lo usa el reparto a medida.
+     */
+    Map<UUID, BigDecimal> split(BigDecimal outstanding, List<ParticipantBalanceView> participants,
+                                Map<UUID, BigDecimal> customAmounts);
 
 }
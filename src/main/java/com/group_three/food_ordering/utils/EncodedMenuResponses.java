@@ -0,0 +1,68 @@
+package com.group_three.food_ordering.utils;
+
+import com.group_three.food_ordering.cache.EncodedMenu;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+public class EncodedMenuResponses {
+
+    private EncodedMenuResponses(){}
+
+    /**
+     * Arma la respuesta a partir de los bytes ya codificados: 304 si el ETag de la representación
+     * elegida coincide con {@code If-None-Match}, o el cuerpo gzip/JSON según lo que acepte el cliente.
+     */
+    public static ResponseEntity<byte[]> toResponse(EncodedMenu menu,
+                                                    String ifNoneMatch,
+                                                    String acceptEncoding,
+                                                    CacheControl cacheControl) {
+        boolean gzip = menu.hasGzip() && acceptsGzip(acceptEncoding);
+        String etag = gzip ? menu.gzipEtag() : menu.etag();
+
+        if (matchesEtag(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(menu.gzip());
+        }
+        return builder.body(menu.json());
+    }
+
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        // If-None-Match usa comparación débil: se ignora el prefijo W/
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        return Arrays.stream(acceptEncoding.toLowerCase(Locale.ROOT).split(","))
+                .map(String::trim)
+                .anyMatch(coding -> (coding.equals("gzip") || coding.startsWith("gzip;"))
+                        && !coding.replace(" ", "").matches("gzip;q=0(\\.0*)?"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.group_three.food_ordering.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de continuación para listados ordenados por fecha descendente y id.
+ * Se entrega al cliente como un token opaco; el cliente sólo lo devuelve en la página siguiente.
+ */
+public record KeysetCursor(Instant position, Long id) {
+
+    private static final String SEPARATOR = "|";
+    private static final int MAX_PAGE_SIZE = 100;
+
+    public String encode() {
+        String raw = position + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Sin token se arranca desde el registro más reciente
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(Instant.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+    }
+
+    public static int pageSize(int requested) {
+        return Math.clamp(requested, 1, MAX_PAGE_SIZE);
+    }
+
+    public static Instant positionOf(KeysetCursor cursor) {
+        return cursor != null ? cursor.position() : null;
+    }
+
+    public static Long idOf(KeysetCursor cursor) {
+        return cursor != null ? cursor.id() : null;
+    }
+}
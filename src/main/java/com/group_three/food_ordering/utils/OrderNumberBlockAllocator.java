@@ -0,0 +1,57 @@
+package com.group_three.food_ordering.utils;
+
+import com.group_three.food_ordering.models.OrderNumberSequence;
+import com.group_three.food_ordering.repositories.OrderNumberSequenceRepository;
+import com.group_three.food_ordering.repositories.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderNumberBlockAllocator {
+
+    private final OrderNumberSequenceRepository sequenceRepository;
+    private final OrderRepository orderRepository;
+
+    /**
+     * Reserva {@code blockSize} números consecutivos para el local y día de negocio, y devuelve el primero.
+     * Corre en su propia transacción para que el bloqueo de la fila dure solo la reserva
+     * y no toda la creación de la orden.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int reserveBlock(UUID foodVenueId, LocalDate businessDate, Instant dayStart, Instant dayEnd, int blockSize) {
+        OrderNumberSequence sequence = sequenceRepository
+                .findAndLockByFoodVenueIdAndBusinessDate(foodVenueId, businessDate)
+                .orElseGet(() -> seed(foodVenueId, businessDate, dayStart, dayEnd));
+
+        int first = sequence.getNextValue();
+        sequence.setNextValue(first + blockSize);
+        sequenceRepository.save(sequence);
+
+        log.debug("[OrderNumberBlockAllocator] Reserved order numbers {}-{} for venue {} on {}",
+                first, first + blockSize - 1, foodVenueId, businessDate);
+        return first;
+    }
+
+    private OrderNumberSequence seed(UUID foodVenueId, LocalDate businessDate, Instant dayStart, Instant dayEnd) {
+        // Primera reserva del día: se continúa desde las órdenes que ya existan (p. ej. tras un despliegue)
+        log.debug("[OrderRepository] Calling findMaxOrderNumberBetween for venue {}", foodVenueId);
+        int lastNumber = orderRepository.findMaxOrderNumberBetween(foodVenueId, dayStart, dayEnd);
+
+        // Si otro nodo inserta la misma fila a la vez, la restricción única hace fallar el flush
+        // y el generador reintenta sobre la fila ya creada
+        return sequenceRepository.saveAndFlush(OrderNumberSequence.builder()
+                .foodVenueId(foodVenueId)
+                .businessDate(businessDate)
+                .nextValue(lastNumber + 1)
+                .build());
+    }
+}
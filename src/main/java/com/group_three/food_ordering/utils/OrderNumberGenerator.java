@@ -0,0 +1,148 @@
+package com.group_three.food_ordering.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Secuencia diaria de números de orden por local.
+ * Los números salen de un bloque reservado en la base ({@link OrderNumberBlockAllocator}) y se reparten
+ * en memoria sin consultas; solo se vuelve a la base al agotar el bloque o al cambiar el día de negocio.
+ * Con varios nodos cada uno toma bloques distintos, así que no hay duplicados (aunque sí puede haber
+ * saltos si un nodo se reinicia con números sin usar).
+ */
+@Slf4j
+@Component
+public class OrderNumberGenerator {
+
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    private final OrderNumberBlockAllocator blockAllocator;
+    private final ZoneId zoneId;
+    private final LocalTime rollover;
+    private final int blockSize;
+
+    private final ConcurrentMap<UUID, NumberBlock> blocks = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, ReentrantLock> refillLocks = new ConcurrentHashMap<>();
+
+    public OrderNumberGenerator(OrderNumberBlockAllocator blockAllocator,
+                                @Value("${app.order-number.zone:}") String zone,
+                                @Value("${app.order-number.rollover:00:00}") String rollover,
+                                @Value("${app.order-number.block-size:20}") int blockSize) {
+        this.blockAllocator = blockAllocator;
+        this.zoneId = zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+        this.rollover = LocalTime.parse(rollover);
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public int next(UUID foodVenueId) {
+        LocalDate businessDate = currentBusinessDate();
+        NumberBlock block = blocks.get(foodVenueId);
+        if (block != null) {
+            int value = block.take(businessDate);
+            if (value > 0) {
+                return value;
+            }
+        }
+        return refill(foodVenueId, businessDate);
+    }
+
+    /**
+     * Día de negocio en curso: antes de la hora de corte se sigue contando como el día anterior.
+     */
+    public LocalDate currentBusinessDate() {
+        ZonedDateTime now = ZonedDateTime.now(zoneId);
+        LocalDate date = now.toLocalDate();
+        return now.toLocalTime().isBefore(rollover) ? date.minusDays(1) : date;
+    }
+
+    public Instant businessDayStart(LocalDate businessDate) {
+        return businessDate.atTime(rollover).atZone(zoneId).toInstant();
+    }
+
+    public Instant businessDayEnd(LocalDate businessDate) {
+        return businessDayStart(businessDate.plusDays(1));
+    }
+
+    private int refill(UUID foodVenueId, LocalDate businessDate) {
+        ReentrantLock lock = refillLocks.computeIfAbsent(foodVenueId, id -> new ReentrantLock());
+        lock.lock();
+        try {
+            // Otro hilo pudo haber recargado el bloque mientras esperábamos
+            NumberBlock current = blocks.get(foodVenueId);
+            if (current != null) {
+                int value = current.take(businessDate);
+                if (value > 0) {
+                    return value;
+                }
+            }
+
+            int first = reserveBlock(foodVenueId, businessDate);
+            blocks.put(foodVenueId, new NumberBlock(businessDate, first + 1, first + blockSize));
+            return first;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int reserveBlock(UUID foodVenueId, LocalDate businessDate) {
+        Instant start = businessDayStart(businessDate);
+        Instant end = businessDayEnd(businessDate);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return blockAllocator.reserveBlock(foodVenueId, businessDate, start, end, blockSize);
+            } catch (DataIntegrityViolationException e) {
+                // Otro nodo creó la fila del día al mismo tiempo: reintentar ya sobre la fila existente
+                if (attempt >= MAX_RESERVE_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("[OrderNumberGenerator] Sequence row for venue {} on {} created concurrently, retrying",
+                        foodVenueId, businessDate);
+            } catch (PessimisticLockingFailureException e) {
+                // Lock wait timeout o deadlock contra otro nodo reservando: la transacción propia ya se revirtió
+                if (attempt >= MAX_RESERVE_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("[OrderNumberGenerator] Lock conflict reserving block for venue {} on {}, retrying",
+                        foodVenueId, businessDate);
+            }
+        }
+    }
+
+    private static final class NumberBlock {
+
+        private final LocalDate businessDate;
+        private final AtomicInteger next;
+        private final int limit;
+
+        private NumberBlock(LocalDate businessDate, int next, int limit) {
+            this.businessDate = businessDate;
+            this.next = new AtomicInteger(next);
+            this.limit = limit;
+        }
+
+        /**
+         * Devuelve el siguiente número del bloque, o 0 si el bloque es de otro día o ya se agotó.
+         */
+        private int take(LocalDate date) {
+            if (!businessDate.equals(date)) {
+                return 0;
+            }
+            int value = next.getAndIncrement();
+            return value < limit ? value : 0;
+        }
+    }
+}
@@ -5,21 +5,16 @@ import com.group_three.food_ordering.enums.OrderStatus;
 import com.group_three.food_ordering.enums.PaymentStatus;
 import com.group_three.food_ordering.exceptions.OrderInProgressException;
 import com.group_three.food_ordering.models.Order;
-import com.group_three.food_ordering.repositories.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
 
 @Component
 @RequiredArgsConstructor
 public class OrderServiceHelper {
 
-    private final OrderRepository orderRepository;
+    private final OrderNumberGenerator orderNumberGenerator;
     private final TenantContext tenantContext;
 
     public void updateTotalPrice(Order order) {
@@ -47,14 +42,6 @@ public class OrderServiceHelper {
     }
 
     public Integer generateOrderNumber() {
-        LocalDate today = LocalDate.now();
-        LocalDateTime startDay = today.atStartOfDay();
-        ZoneId zoneId = ZoneId.systemDefault();
-        Instant start = startDay.atZone(zoneId).toInstant();
-        Instant end = startDay.plusDays(1).atZone(zoneId).toInstant();
-
-        int ordersCount = Math.toIntExact(orderRepository.countOrdersToday(
-                tenantContext.getFoodVenueId(), start, end));
-        return ordersCount + 1;
+        return orderNumberGenerator.next(tenantContext.getFoodVenueId());
     }
 }
@@ -0,0 +1,171 @@
+package com.group_three.food_ordering.analytics;
+
+import com.group_three.food_ordering.MySqlModeJpaTest;
+import com.group_three.food_ordering.analytics.enums.TimeBucket;
+import com.group_three.food_ordering.analytics.metrics_dto.RevenueByVenueDto;
+import com.group_three.food_ordering.analytics.metrics_dto.TemporalSalesDto;
+import com.group_three.food_ordering.analytics.metrics_dto.VenueOrderSummaryProjection;
+import com.group_three.food_ordering.analytics.metrics_repositories.OrderMetricsRepository;
+import com.group_three.food_ordering.analytics.metrics_repositories.PaymentMetricsRepository;
+import com.group_three.food_ordering.analytics.metrics_repositories.ProductsMetricsRepository;
+import com.group_three.food_ordering.analytics.metrics_repositories.TableSessionMetricsRepository;
+import com.group_three.food_ordering.analytics.metrics_services.impl.MetricsRollupServiceImpl;
+import com.group_three.food_ordering.analytics.metrics_services.impl.MetricsServiceImpl;
+import com.group_three.food_ordering.context.TenantContext;
+import com.group_three.food_ordering.enums.OrderStatus;
+import com.group_three.food_ordering.events.OrderMetricsChangedEvent;
+import com.group_three.food_ordering.events.TableSessionClosedEvent;
+import com.group_three.food_ordering.models.FoodVenue;
+import com.group_three.food_ordering.models.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Los acumulados se mueven con cada cambio de estado o total y las consultas de métricas leen de ahí.
+ * Los eventos pasan por el journal, así que cada test vuelca antes de consultar.
+ */
+@MySqlModeJpaTest
+@Import(MetricsRollupServiceImpl.class)
+class MetricsRollupTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private MetricsRollupServiceImpl rollupService;
+
+    @Autowired
+    private OrderMetricsRepository orderMetricsRepository;
+
+    @Autowired
+    private TableSessionMetricsRepository tableSessionMetricsRepository;
+
+    @Autowired
+    private PaymentMetricsRepository paymentMetricsRepository;
+
+    @Autowired
+    private ProductsMetricsRepository productsMetricsRepository;
+
+    private Long venueId;
+    private UUID venuePublicId;
+    private final Instant now = Instant.now();
+
+    @BeforeEach
+    void setUp() {
+        FoodVenue venue = em.persist(FoodVenue.builder().name("Venue").email("venue@test.com").phone("123").build());
+        venueId = venue.getId();
+        venuePublicId = venue.getPublicId();
+    }
+
+    @Test
+    void orderChanges_shouldMoveOrdersBetweenStatusBuckets() {
+        BigDecimal ten = BigDecimal.TEN;
+        rollupService.onOrderChanged(order(null, null, OrderStatus.PENDING, ten));
+        rollupService.onOrderChanged(order(null, null, OrderStatus.PENDING, ten));
+        rollupService.onOrderChanged(order(null, null, OrderStatus.PENDING, ten));
+
+        // una se completa con un producto más, otra se cancela
+        rollupService.onOrderChanged(order(OrderStatus.PENDING, ten, OrderStatus.PENDING, BigDecimal.valueOf(15)));
+        rollupService.onOrderChanged(order(OrderStatus.PENDING, BigDecimal.valueOf(15), OrderStatus.COMPLETED, BigDecimal.valueOf(15)));
+        rollupService.onOrderChanged(order(OrderStatus.PENDING, ten, OrderStatus.CANCELLED, ten));
+        assertEquals(9, rollupService.flush());
+
+        Instant from = now.minus(1, ChronoUnit.DAYS);
+        Instant to = now.plus(1, ChronoUnit.DAYS);
+        VenueOrderSummaryProjection summary = orderMetricsRepository.summarizeByVenue(venuePublicId, from, to);
+
+        assertEquals(3L, summary.getTotalOrders());
+        assertEquals(1L, summary.getCancelledOrders());
+        assertEquals(0, BigDecimal.valueOf(15).compareTo(summary.getCompletedRevenue()));
+        assertEquals(0, BigDecimal.valueOf(35).compareTo(summary.getGrossRevenue()));
+        assertEquals(3L, orderMetricsRepository.countOrdersBetween(from, to));
+
+        List<RevenueByVenueDto> revenue = orderMetricsRepository.getRevenueGroupedByVenue(from, to);
+        assertEquals(1, revenue.size());
+        assertEquals(15.0, revenue.getFirst().getAverageTicket(), 0.001);
+    }
+
+    @Test
+    void closedSessions_shouldAverageDurationPerVenue() {
+        rollupService.onTableSessionClosed(new TableSessionClosedEvent(UUID.randomUUID(), venueId, now, now.plus(Duration.ofMinutes(30))));
+        rollupService.onTableSessionClosed(new TableSessionClosedEvent(UUID.randomUUID(), venueId, now, now.plus(Duration.ofMinutes(60))));
+        rollupService.flush();
+
+        double average = tableSessionMetricsRepository.findAverageSessionDurationByVenueId(
+                venuePublicId, now.minus(1, ChronoUnit.DAYS), now.plus(1, ChronoUnit.DAYS));
+
+        assertEquals(45.0, average, 0.001);
+    }
+
+    @Test
+    void flushedBuckets_shouldMatchTheRebuild() {
+        Instant lateInHour = now.truncatedTo(ChronoUnit.HOURS).plus(Duration.ofMinutes(59));
+        Order order = em.persist(Order.builder()
+                .orderNumber(1).status(OrderStatus.PENDING).totalPrice(BigDecimal.TEN)
+                .orderDate(lateInHour).foodVenue(em.find(FoodVenue.class, venueId)).build());
+        em.flush();
+        rollupService.onOrderChanged(OrderMetricsChangedEvent.created(order));
+        rollupService.flush();
+        List<Object[]> flushed = rollupRows();
+
+        // Mismo reloj en ambos caminos: el rebuild no mueve la orden de hora
+        rollupService.rebuild();
+
+        assertEquals(1, flushed.size());
+        assertArrayEquals(flushed.getFirst(), rollupRows().getFirst());
+    }
+
+    @Test
+    void salesEvolution_shouldGroupHourlyBucketsByDayWeekAndMonth() {
+        // Lunes 30/12 ya es la semana 1 de 2025 según ISO
+        completed(Instant.parse("2024-12-30T12:00:00Z"), "10");
+        completed(Instant.parse("2025-01-02T12:00:00Z"), "20");
+        completed(Instant.parse("2025-01-06T12:00:00Z"), "30");
+        rollupService.flush();
+        MetricsServiceImpl metricsService = new MetricsServiceImpl(orderMetricsRepository, tableSessionMetricsRepository,
+                paymentMetricsRepository, productsMetricsRepository, mock(TenantContext.class));
+        Instant from = Instant.parse("2024-12-01T00:00:00Z");
+        Instant to = Instant.parse("2025-02-01T00:00:00Z");
+
+        assertEquals(List.of(sales("2024-12-30", 1, "10"), sales("2025-01-02", 1, "20"), sales("2025-01-06", 1, "30")),
+                metricsService.getSalesEvolution(from, to, TimeBucket.DAY, List.of(OrderStatus.COMPLETED)));
+        assertEquals(List.of(sales("2025-W01", 2, "30"), sales("2025-W02", 1, "30")),
+                metricsService.getSalesEvolution(from, to, TimeBucket.WEEK, List.of(OrderStatus.COMPLETED)));
+        assertEquals(List.of(sales("2024-12", 1, "10"), sales("2025-01", 2, "50")),
+                metricsService.getSalesEvolution(from, to, TimeBucket.MONTH, List.of(OrderStatus.COMPLETED)));
+    }
+
+    private void completed(Instant orderDate, String total) {
+        rollupService.onOrderChanged(new OrderMetricsChangedEvent(
+                venueId, orderDate, null, null, OrderStatus.COMPLETED, new BigDecimal(total), null, null));
+    }
+
+    // Escala 2 como la columna revenue, para comparar con equals
+    private static TemporalSalesDto sales(String bucket, long orders, String revenue) {
+        return new TemporalSalesDto(bucket, orders, new BigDecimal(revenue).setScale(2));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> rollupRows() {
+        return em.getEntityManager().createNativeQuery(
+                "SELECT food_venue_id, bucket_start, status, orders_count FROM order_rollup_hourly").getResultList();
+    }
+
+    private OrderMetricsChangedEvent order(OrderStatus previousStatus, BigDecimal previousTotal,
+                                           OrderStatus status, BigDecimal total) {
+        return new OrderMetricsChangedEvent(venueId, now, previousStatus, previousTotal, status, total, null, null);
+    }
+}
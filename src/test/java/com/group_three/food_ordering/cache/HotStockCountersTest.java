@@ -0,0 +1,48 @@
+package com.group_three.food_ordering.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotStockCountersTest {
+
+    @Test
+    void tryReserve_shouldUseStockSpreadAcrossStripes() {
+        HotStockCounters counters = new HotStockCounters(4);
+
+        // 10 unidades en 4 franjas (3,3,2,2): un pedido de 7 necesita juntar varias
+        assertTrue(counters.tryReserve(1L, 7, id -> 10));
+        assertFalse(counters.tryReserve(1L, 4, id -> 10));
+        assertTrue(counters.tryReserve(1L, 3, id -> 10));
+        assertEquals(0, counters.available(1L));
+
+        counters.release(1L, 2);
+        assertEquals(2, counters.available(1L));
+    }
+
+    @Test
+    void tryReserve_shouldNeverOversellUnderConcurrency() throws InterruptedException {
+        HotStockCounters counters = new HotStockCounters(8);
+        AtomicInteger reserved = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < 1000; i++) {
+            int quantity = 1 + i % 3;
+            executor.submit(() -> {
+                if (counters.tryReserve(1L, quantity, id -> 500)) {
+                    reserved.addAndGet(quantity);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(500, reserved.get() + counters.available(1L));
+        assertTrue(counters.available(1L) < 3);
+    }
+}
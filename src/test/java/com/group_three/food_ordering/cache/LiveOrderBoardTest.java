@@ -0,0 +1,138 @@
+package com.group_three.food_ordering.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group_three.food_ordering.dto.response.OrderResponseDto;
+import com.group_three.food_ordering.enums.OrderStatus;
+import com.group_three.food_ordering.events.OrderChangedEvent;
+import com.group_three.food_ordering.notifications.bus.InProcessSseEventBus;
+import com.group_three.food_ordering.notifications.bus.SseBusMessage;
+import com.group_three.food_ordering.notifications.enums.SseChannel;
+import com.group_three.food_ordering.notifications.enums.SseEventType;
+import com.group_three.food_ordering.notifications.services.SseService;
+import com.group_three.food_ordering.utils.OrderNumberGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LiveOrderBoardTest {
+
+    private final UUID venueId = UUID.randomUUID();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final InProcessSseEventBus eventBus = new InProcessSseEventBus();
+    private final SseService sseService = mock(SseService.class);
+    private final OrderNumberGenerator orderNumberGenerator = mock(OrderNumberGenerator.class);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private LiveOrderBoard board;
+    private OrderResponseDto first;
+    private OrderResponseDto second;
+
+    @BeforeEach
+    void setUp() {
+        when(orderNumberGenerator.currentBusinessDate()).thenReturn(LocalDate.of(2025, 5, 1));
+        when(orderNumberGenerator.businessDayStart(any())).thenReturn(Instant.EPOCH);
+        board = new LiveOrderBoard(sseService, eventBus, objectMapper, orderNumberGenerator);
+        board.init();
+
+        first = order(OrderStatus.PENDING);
+        second = order(OrderStatus.PENDING);
+    }
+
+    @Test
+    void orders_shouldLoadOnceAndServeStatusColumnsFromMemory() {
+        assertEquals(List.of(first.getPublicId(), second.getPublicId()), ids(board.orders(venueId, null, loader())));
+        assertTrue(board.orders(venueId, List.of(OrderStatus.IN_PROGRESS), loader()).isEmpty());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void deltas_shouldMoveOrdersBetweenColumnsAndDropCancelledOnes() throws Exception {
+        board.orders(venueId, null, loader());
+
+        deliver(SseEventType.ORDER_BOARD_UPDATED, withStatus(first, OrderStatus.IN_PROGRESS));
+        deliver(SseEventType.ORDER_BOARD_UPDATED, withStatus(second, OrderStatus.CANCELLED));
+        OrderResponseDto third = order(OrderStatus.PENDING);
+        deliver(SseEventType.ORDER_BOARD_UPDATED, third);
+
+        assertEquals(List.of(third.getPublicId()), ids(board.orders(venueId, List.of(OrderStatus.PENDING), loader())));
+        assertEquals(List.of(first.getPublicId()), ids(board.orders(venueId, List.of(OrderStatus.IN_PROGRESS), loader())));
+
+        deliver(SseEventType.ORDER_BOARD_REMOVED, third);
+        assertEquals(List.of(first.getPublicId()), ids(board.orders(venueId, null, loader())));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void deltas_shouldDropUpdatesOlderThanTheBoardState() throws Exception {
+        board.orders(venueId, null, loader());
+
+        // Llegan desordenados: IN_PROGRESS (v2) antes que un cambio de detalle anterior (v1)
+        deliver(SseEventType.ORDER_BOARD_UPDATED, withStatus(first, OrderStatus.IN_PROGRESS, 2L));
+        deliver(SseEventType.ORDER_BOARD_UPDATED, withStatus(first, OrderStatus.PENDING, 1L));
+        assertEquals(List.of(first.getPublicId()), ids(board.orders(venueId, List.of(OrderStatus.IN_PROGRESS), loader())));
+
+        // Una baja tampoco se deshace con un delta atrasado
+        deliver(SseEventType.ORDER_BOARD_REMOVED, withStatus(second, OrderStatus.PENDING, 3L));
+        deliver(SseEventType.ORDER_BOARD_UPDATED, withStatus(second, OrderStatus.IN_PROGRESS, 2L));
+        assertEquals(List.of(first.getPublicId()), ids(board.orders(venueId, null, loader())));
+
+        // La misma versión se vuelve a aplicar (reentrega del mismo cambio)
+        deliver(SseEventType.ORDER_BOARD_UPDATED, withStatus(first, OrderStatus.IN_PROGRESS, 2L));
+        assertEquals(1, board.orders(venueId, null, loader()).size());
+    }
+
+    @Test
+    void orders_shouldReloadWhenBusinessDayChanges() {
+        board.orders(venueId, null, loader());
+        when(orderNumberGenerator.currentBusinessDate()).thenReturn(LocalDate.of(2025, 5, 2));
+
+        board.orders(venueId, null, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onOrderChanged_shouldPublishDeltaToVenueBoardStream() {
+        board.onOrderChanged(OrderChangedEvent.removed(venueId, first));
+
+        verify(sseService).sendEventToVenueBoard(venueId, SseEventType.ORDER_BOARD_REMOVED, first);
+    }
+
+    private Function<Instant, List<OrderResponseDto>> loader() {
+        return from -> {
+            loads.incrementAndGet();
+            return List.of(first, second);
+        };
+    }
+
+    private void deliver(SseEventType type, OrderResponseDto order) throws Exception {
+        eventBus.publish(new SseBusMessage(1L, SseChannel.VENUE_BOARD, SseService.venueBoardTopic(venueId),
+                type.getEventName(), objectMapper.writeValueAsString(order), null));
+    }
+
+    private static OrderResponseDto order(OrderStatus status) {
+        return OrderResponseDto.builder().publicId(UUID.randomUUID()).status(status).build();
+    }
+
+    private static OrderResponseDto withStatus(OrderResponseDto order, OrderStatus status) {
+        return withStatus(order, status, null);
+    }
+
+    private static OrderResponseDto withStatus(OrderResponseDto order, OrderStatus status, Long version) {
+        return OrderResponseDto.builder().publicId(order.getPublicId()).status(status).version(version).build();
+    }
+
+    private static List<UUID> ids(List<OrderResponseDto> orders) {
+        return orders.stream().map(OrderResponseDto::getPublicId).toList();
+    }
+}
@@ -0,0 +1,53 @@
+package com.group_three.food_ordering.cache;
+
+import com.group_three.food_ordering.context.TenantContext;
+import com.group_three.food_ordering.dto.projection.ParticipantSnapshot;
+import com.group_three.food_ordering.enums.RoleType;
+import com.group_three.food_ordering.events.ParticipantChangedEvent;
+import com.group_three.food_ordering.mappers.ParticipantMapper;
+import com.group_three.food_ordering.models.Participant;
+import com.group_three.food_ordering.models.User;
+import com.group_three.food_ordering.repositories.FoodVenueRepository;
+import com.group_three.food_ordering.repositories.ParticipantRepository;
+import com.group_three.food_ordering.repositories.TableSessionRepository;
+import com.group_three.food_ordering.services.impl.ParticipantServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Un invitado que inicia sesión pasa a cliente en el momento, sin esperar a que venza el snapshot.
+ */
+class TenantSnapshotCacheTest {
+
+    private final ParticipantRepository participantRepository = mock(ParticipantRepository.class);
+    private final TenantSnapshotCache cache = new TenantSnapshotCache(participantRepository,
+            mock(TableSessionRepository.class), mock(FoodVenueRepository.class), 100, Duration.ofMinutes(5));
+
+    @Test
+    void guestPromotedToClient_shouldBeVisibleAtOnce() {
+        UUID participantId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        when(participantRepository.findSnapshotByPublicId(participantId)).thenReturn(
+                Optional.of(new ParticipantSnapshot(1L, participantId, null, null, RoleType.ROLE_GUEST, null)),
+                Optional.of(new ParticipantSnapshot(1L, participantId, null, userId, RoleType.ROLE_CLIENT, null)));
+        assertEquals(RoleType.ROLE_GUEST, cache.participant(participantId).orElseThrow().role());
+
+        // Sin transacción el listener corre en el momento (fallbackExecution)
+        ParticipantServiceImpl participantService = new ParticipantServiceImpl(participantRepository,
+                mock(ParticipantMapper.class), mock(TenantContext.class),
+                event -> cache.onParticipantChanged((ParticipantChangedEvent) event));
+        Participant guest = Participant.builder().publicId(participantId).role(RoleType.ROLE_GUEST).build();
+        participantService.update(guest, User.builder().name("Ana").email("ana@test.com").build());
+
+        ParticipantSnapshot snapshot = cache.participant(participantId).orElseThrow();
+        assertEquals(RoleType.ROLE_CLIENT, snapshot.role());
+        assertEquals(userId, snapshot.userId());
+    }
+}
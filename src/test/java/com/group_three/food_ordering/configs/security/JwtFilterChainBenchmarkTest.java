@@ -0,0 +1,81 @@
+package com.group_three.food_ordering.configs.security;
+
+import com.group_three.food_ordering.configs.filters.ContextInitializationFilter;
+import com.group_three.food_ordering.configs.filters.JwtAuthenticationFilter;
+import com.group_three.food_ordering.context.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Costo de autenticación + contexto por request, midiendo la misma cadena de filtros con la caché de
+ * tokens verificados encendida y apagada ({@code jwt.verified-cache.max-entries=0}). En los dos casos la
+ * firma se verifica una vez por request; con la caché, una vez por token. Se ejecuta con {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class JwtFilterChainBenchmarkTest {
+
+    private static final int WARMUP = 5_000;
+    private static final int REQUESTS = 50_000;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void filterChain_isFasterWithTheVerifiedTokenCache() {
+        double uncached = measure("cache off", filterChain(JwtServiceTest.jwtService(60_000, 0)));
+        double cached = measure("cache on", filterChain(JwtServiceTest.jwtService(60_000, 10_000)));
+
+        assertTrue(cached < uncached, "cached chain should be faster than verifying the signature on every request");
+    }
+
+    private static Runnable filterChain(JwtService jwtService) {
+        String token = jwtService.generateAccessToken(JwtServiceTest.sessionInfo());
+        JwtAuthenticationFilter authFilter = new JwtAuthenticationFilter(jwtService);
+        ContextInitializationFilter contextFilter = new ContextInitializationFilter(mock(TenantContext.class), jwtService);
+
+        return () -> {
+            MockHttpServletRequest request = request(token);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            try {
+                authFilter.doFilter(request, response, new MockFilterChain());
+                contextFilter.doFilter(request, response, new MockFilterChain());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            assertEquals(200, response.getStatus());
+            SecurityContextHolder.clearContext();
+        };
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders");
+        request.setServletPath("/api/v1/orders");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private static double measure(String label, Runnable requestPath) {
+        for (int i = 0; i < WARMUP; i++) {
+            requestPath.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            requestPath.run();
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / REQUESTS;
+        log.info("[JwtFilterChainBenchmark] {}: {} us/request", label, String.format("%.2f", micros));
+        return micros;
+    }
+}
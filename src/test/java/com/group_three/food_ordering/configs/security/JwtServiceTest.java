@@ -0,0 +1,80 @@
+package com.group_three.food_ordering.configs.security;
+
+import com.group_three.food_ordering.dto.SessionInfo;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    static final String SECRET = "dGVzdFNlY3JldEtleUZvckp3dFRva2VuR2VuZXJhdGlvblRoYXRJc0xvbmdFbm91Z2g=";
+
+    private JwtService jwtService;
+
+    static JwtService jwtService(long accessExpirationMs) {
+        return jwtService(accessExpirationMs, 100L);
+    }
+
+    static JwtService jwtService(long accessExpirationMs, long verifiedCacheMaxEntries) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(service, "jwtAccessExpirationMs", accessExpirationMs);
+        ReflectionTestUtils.setField(service, "verifiedCacheMaxEntries", verifiedCacheMaxEntries);
+        service.init();
+        return service;
+    }
+
+    static SessionInfo sessionInfo() {
+        return SessionInfo.builder()
+                .userId(UUID.randomUUID())
+                .subject("user@test.com")
+                .foodVenueId(UUID.randomUUID())
+                .role("ROLE_CLIENT")
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jwtService = jwtService(60_000);
+    }
+
+    @Test
+    void verify_shouldShareResultWithinRequestAndAcrossRequests() {
+        SessionInfo sessionInfo = sessionInfo();
+        String token = jwtService.generateAccessToken(sessionInfo);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        VerifiedToken first = jwtService.verify(request, token);
+
+        assertFalse(first.isExpired());
+        assertEquals(sessionInfo.userId(), first.sessionInfo().userId());
+        assertSame(first, request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE));
+        assertSame(first, jwtService.verify(new MockHttpServletRequest(), token));
+    }
+
+    @Test
+    void verify_shouldReturnExpiredTokenWithoutCachingIt() {
+        JwtService expiring = jwtService(-1_000);
+        String token = expiring.generateAccessToken(sessionInfo());
+
+        VerifiedToken verified = expiring.verify(token);
+
+        assertTrue(verified.isExpired());
+        assertEquals("user@test.com", verified.sessionInfo().subject());
+        assertNotSame(verified, expiring.verify(token));
+    }
+
+    @Test
+    void verify_shouldRejectTamperedToken() {
+        String token = jwtService.generateAccessToken(sessionInfo());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.verify(tampered));
+    }
+}
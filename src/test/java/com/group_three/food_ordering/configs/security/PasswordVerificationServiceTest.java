@@ -0,0 +1,74 @@
+package com.group_three.food_ordering.configs.security;
+
+import com.group_three.food_ordering.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordVerificationServiceTest {
+
+    @Test
+    void verify_shouldRehashWhenConfiguredStrengthChanged() {
+        String weakHash = new BCryptPasswordEncoder(4).encode("secret");
+        PasswordVerificationService service = service(new BCryptPasswordEncoder(5), 1, 1);
+
+        PasswordVerificationService.PasswordCheck check = service.verify("secret", weakHash);
+
+        assertTrue(check.matches());
+        assertNotNull(check.upgradedHash());
+        assertTrue(check.upgradedHash().startsWith("$2a$05$"));
+        assertFalse(service.verify("wrong", weakHash).matches());
+        assertNull(service.verify("secret", check.upgradedHash()).upgradedHash());
+    }
+
+    @Test
+    void verify_shouldRejectWhenPoolAndQueueAreFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordVerificationService service = new PasswordVerificationService(
+                blocking, registry, 1, 1, Duration.ofSeconds(5));
+
+        // Uno ocupa el único hilo y otro la única posición de la cola
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        callers.submit(() -> service.verify("a", "hash"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        callers.submit(() -> service.verify("b", "hash"));
+        while (registry.get("auth.password.verification.queue").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> service.verify("c", "hash"));
+        assertEquals(1, registry.get("auth.password.verification.rejected").counter().count());
+
+        release.countDown();
+        callers.shutdown();
+        assertTrue(callers.awaitTermination(5, TimeUnit.SECONDS));
+        service.shutdown();
+    }
+
+    private PasswordVerificationService service(PasswordEncoder encoder, int threads, int queueCapacity) {
+        return new PasswordVerificationService(encoder, new SimpleMeterRegistry(), threads, queueCapacity, Duration.ofSeconds(5));
+    }
+}
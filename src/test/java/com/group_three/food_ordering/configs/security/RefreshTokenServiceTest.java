@@ -0,0 +1,67 @@
+package com.group_three.food_ordering.configs.security;
+
+import com.group_three.food_ordering.repositories.RefreshTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "jwt.refresh-expiration=60000")
+@Import(RefreshTokenService.class)
+class RefreshTokenServiceTest {
+
+    private static final String EMAIL = "user@test.com";
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Test
+    void rotate_shouldIssueNewTokenAndStoreOnlyDigests() {
+        String token = refreshTokenService.generateRefreshToken(EMAIL);
+
+        Optional<RefreshTokenService.RotatedRefreshToken> rotated = refreshTokenService.rotate(token);
+
+        assertTrue(rotated.isPresent());
+        assertEquals(EMAIL, rotated.get().userEmail());
+        assertNotEquals(token, rotated.get().refreshToken());
+        assertTrue(refreshTokenRepository.findAll().stream()
+                .noneMatch(stored -> stored.getTokenHash().equals(token)));
+    }
+
+    @Test
+    void rotate_shouldRevokeWholeFamilyWhenRotatedTokenIsReused() {
+        String token = refreshTokenService.generateRefreshToken(EMAIL);
+        String next = refreshTokenService.rotate(token).orElseThrow().refreshToken();
+
+        assertTrue(refreshTokenService.rotate(token).isEmpty());
+        assertTrue(refreshTokenService.rotate(next).isEmpty());
+    }
+
+    // La limpieza corre fuera de la transacción del test para que cada tramo confirme por separado
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void cleanupExpiredTokens_shouldDeleteInChunks() {
+        ReflectionTestUtils.setField(refreshTokenService, "cleanupChunkSize", 2);
+        for (int i = 0; i < 5; i++) {
+            refreshTokenRepository.save(RefreshToken.builder()
+                    .tokenHash("expired-" + i).userEmail(EMAIL)
+                    .expiresAt(Instant.now().minusSeconds(60)).createdAt(Instant.now()).build());
+        }
+        refreshTokenService.generateRefreshToken(EMAIL);
+
+        assertEquals(5, refreshTokenService.cleanupExpiredTokens());
+        assertEquals(1, refreshTokenRepository.count());
+        refreshTokenRepository.deleteAll();
+    }
+}
@@ -0,0 +1,155 @@
+package com.group_three.food_ordering.notifications.bus;
+
+import com.group_three.food_ordering.notifications.enums.SseChannel;
+import com.group_three.food_ordering.notifications.models.SseBusRecord;
+import com.group_three.food_ordering.notifications.repository.SseBusRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dos instancias del bus sobre la misma base simulan dos nodos detrás del balanceador.
+ * Sin transacción abierta, publish encola en el momento; el sondeo inserta y entrega.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DatabaseSseEventBusTest {
+
+    @Autowired
+    private SseBusRecordRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void publish_shouldReachSubscribersOnEveryNodeExactlyOnce() {
+        DatabaseSseEventBus nodeA = node();
+        DatabaseSseEventBus nodeB = node();
+        List<SseBusMessage> receivedOnA = new ArrayList<>();
+        List<SseBusMessage> receivedOnB = new ArrayList<>();
+        nodeA.subscribe(SseChannel.TABLE_SESSION, receivedOnA::add);
+        nodeB.subscribe(SseChannel.TABLE_SESSION, receivedOnB::add);
+        nodeA.poll();
+        nodeB.poll();
+
+        for (int i = 0; i < 5; i++) {
+            nodeA.publish(new SseBusMessage(null, SseChannel.TABLE_SESSION, "session-1", "new-order", "{\"n\":" + i + "}", null));
+        }
+        nodeB.publish(new SseBusMessage(null, SseChannel.USER, "user@test.com", "new_notification", "{}", null));
+        nodeA.poll();
+        nodeB.poll();
+        nodeB.poll();
+
+        assertEquals(5, receivedOnA.size());
+        assertEquals(5, receivedOnB.size());
+        assertEquals("{\"n\":4}", receivedOnB.get(4).payload());
+        // Mismo id SSE en los dos nodos
+        assertEquals(receivedOnA.stream().map(SseBusMessage::eventId).toList(),
+                receivedOnB.stream().map(SseBusMessage::eventId).toList());
+    }
+
+    @Test
+    void poll_shouldHoldBackEventsUntilALowerIdCommits() throws Exception {
+        DatabaseSseEventBus nodeA = node();
+        DatabaseSseEventBus nodeB = node();
+        List<SseBusMessage> receivedOnB = new ArrayList<>();
+        nodeB.subscribe(SseChannel.TABLE_SESSION, receivedOnB::add);
+        nodeB.poll();
+
+        // Otro nodo inserta primero (id menor) pero tarda en commitear
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Thread slowNode = Thread.ofVirtual().start(() -> transaction.executeWithoutResult(status -> {
+            repository.saveAndFlush(SseBusRecord.of("node-c", message("slow")));
+            inserted.countDown();
+            await(commit);
+        }));
+        assertTrue(inserted.await(5, TimeUnit.SECONDS));
+
+        nodeA.publish(message("fast"));
+        nodeA.flushOutbox();
+        nodeB.poll();
+        assertTrue(receivedOnB.isEmpty());
+
+        commit.countDown();
+        slowNode.join();
+        nodeB.poll();
+        nodeB.poll();
+
+        // Todos los nodos entregan en orden de id, que es el id SSE con el que se retoma
+        assertEquals(List.of("slow", "fast"), payloads(receivedOnB));
+        assertTrue(receivedOnB.get(0).eventId() < receivedOnB.get(1).eventId());
+    }
+
+    @Test
+    void poll_shouldStopWaitingForAnIdThatNeverCommits() {
+        DatabaseSseEventBus nodeA = node(Duration.ZERO);
+        List<SseBusMessage> receivedOnA = new ArrayList<>();
+        nodeA.subscribe(SseChannel.TABLE_SESSION, receivedOnA::add);
+        nodeA.poll();
+
+        // Un insert revertido deja un id salteado para siempre
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            repository.saveAndFlush(SseBusRecord.of("node-c", message("rolled-back")));
+            status.setRollbackOnly();
+        });
+        nodeA.publish(message("after-hole"));
+        nodeA.poll();
+
+        assertEquals(List.of("after-hole"), payloads(receivedOnA));
+    }
+
+    @Test
+    void publish_shouldDropEventsOfARolledBackTransaction() {
+        DatabaseSseEventBus nodeA = node();
+        List<SseBusMessage> receivedOnA = new ArrayList<>();
+        nodeA.subscribe(SseChannel.TABLE_SESSION, receivedOnA::add);
+        long before = repository.count();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            nodeA.publish(message("rolled-back"));
+            status.setRollbackOnly();
+        });
+        nodeA.flushOutbox();
+
+        assertTrue(receivedOnA.isEmpty());
+        assertEquals(before, repository.count());
+    }
+
+    private DatabaseSseEventBus node() {
+        return node(Duration.ofSeconds(30));
+    }
+
+    private DatabaseSseEventBus node(Duration gapTimeout) {
+        return new DatabaseSseEventBus(repository, transactionManager, 2, Duration.ofMinutes(5), gapTimeout);
+    }
+
+    private static SseBusMessage message(String payload) {
+        return new SseBusMessage(null, SseChannel.TABLE_SESSION, "session-1", "new-order", payload, null);
+    }
+
+    private static List<String> payloads(List<SseBusMessage> messages) {
+        return messages.stream().map(SseBusMessage::payload).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
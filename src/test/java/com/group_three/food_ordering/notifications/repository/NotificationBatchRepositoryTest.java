@@ -0,0 +1,71 @@
+package com.group_three.food_ordering.notifications.repository;
+
+import com.group_three.food_ordering.models.User;
+import com.group_three.food_ordering.notifications.enums.NotificationType;
+import com.group_three.food_ordering.notifications.models.Notification;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "app.notifications.batch-size=4")
+class NotificationBatchRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Test
+    void insertAll_shouldPersistEveryNotificationAcrossBatches() {
+        List<User> users = IntStream.range(0, 10)
+                .mapToObj(i -> em.persist(User.builder()
+                        .name("user-" + i).email("user" + i + "@test.com").password("secret").build()))
+                .toList();
+        em.flush();
+
+        notificationRepository.insertAll(users.stream()
+                .map(user -> notification(user, NotificationType.NEW_ORDER, LocalDateTime.now()))
+                .toList());
+
+        assertEquals(10, notificationRepository.count());
+        assertEquals(1L, notificationRepository.countByTargetUser_EmailAndUnreadTrue("user7@test.com"));
+    }
+
+    @Test
+    void markReadByTargetUser_shouldApplyOptionalFiltersInOneStatement() {
+        User user = em.persist(User.builder().name("user").email("user@test.com").password("secret").build());
+        User other = em.persist(User.builder().name("other").email("other@test.com").password("secret").build());
+        em.flush();
+        LocalDateTime now = LocalDateTime.now();
+        notificationRepository.insertAll(List.of(
+                notification(user, NotificationType.NEW_ORDER, now.minusDays(3)),
+                notification(user, NotificationType.NEW_ORDER, now),
+                notification(user, NotificationType.SPECIAL_OFFER, now.minusDays(3)),
+                notification(other, NotificationType.NEW_ORDER, now.minusDays(3))));
+
+        assertEquals(1, notificationRepository.markReadByTargetUser("user@test.com", NotificationType.NEW_ORDER, now.minusDays(1), now));
+        assertEquals(1, notificationRepository.markReadByTargetUser("user@test.com", NotificationType.SPECIAL_OFFER, null, now));
+        assertEquals(1, notificationRepository.markReadByTargetUser("user@test.com", null, null, now));
+
+        assertEquals(0L, notificationRepository.countByTargetUser_EmailAndUnreadTrue("user@test.com"));
+        assertEquals(1L, notificationRepository.countByTargetUser_EmailAndUnreadTrue("other@test.com"));
+        assertEquals(3, notificationRepository.findReadIdsBefore(now.plusSeconds(1), PageRequest.of(0, 10)).size());
+    }
+
+    private Notification notification(User user, NotificationType type, LocalDateTime creationDate) {
+        return Notification.builder()
+                .publicId(UUID.randomUUID()).targetUser(user)
+                .title("Aviso").mensaje("Cambio de turno").type(type)
+                .unread(true).creationDate(creationDate).build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.group_three.food_ordering.notifications.repository;
+
+import com.group_three.food_ordering.models.User;
+import com.group_three.food_ordering.notifications.enums.NotificationType;
+import com.group_three.food_ordering.notifications.models.Notification;
+import com.group_three.food_ordering.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Marcar como leídas 50k notificaciones de un usuario: UPDATE único contra cargar entidades y saveAll.
+ * Se ejecuta con {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.jdbc.batch_size=500")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationBulkReadBenchmarkTest {
+
+    private static final int NOTIFICATIONS = 50_000;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void singleUpdate_shouldMarkBacklogAsRead() {
+        run("single UPDATE", "bulk@test.com", email ->
+                notificationRepository.markReadByTargetUser(email, null, null, LocalDateTime.now()));
+    }
+
+    @Test
+    void loadAndSaveAll_baseline() {
+        run("load + saveAll", "baseline@test.com", email -> {
+            List<Notification> unread = notificationRepository.findByTargetUser_EmailAndUnreadTrue(email);
+            unread.forEach(notification -> {
+                notification.setUnread(false);
+                notification.setReadDateTime(LocalDateTime.now());
+            });
+            notificationRepository.saveAll(unread);
+            return unread.size();
+        });
+    }
+
+    private void run(String label, String email, ToIntFunction<String> markAll) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            User user = userRepository.save(User.builder().name("user").email(email).password("secret").build());
+            notificationRepository.insertAll(IntStream.range(0, NOTIFICATIONS)
+                    .mapToObj(i -> Notification.builder()
+                            .publicId(UUID.randomUUID()).targetUser(user)
+                            .title("Aviso " + i).mensaje("Nueva orden").type(NotificationType.NEW_ORDER)
+                            .unread(true).creationDate(LocalDateTime.now()).build())
+                    .toList());
+        });
+
+        long start = System.nanoTime();
+        Integer updated = tx.execute(status -> markAll.applyAsInt(email));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        log.info("[NotificationBulkReadBenchmark] {}: {} notifications marked read in {} s",
+                label, updated, String.format("%.3f", seconds));
+        assertEquals(NOTIFICATIONS, updated);
+        assertEquals(0L, notificationRepository.countByTargetUser_EmailAndUnreadTrue(email));
+    }
+}
@@ -0,0 +1,87 @@
+package com.group_three.food_ordering.notifications.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseHeartbeatSchedulerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SseHeartbeatScheduler scheduler = new SseHeartbeatScheduler(
+            meterRegistry, Duration.ofSeconds(1), Duration.ofSeconds(3), Duration.ofSeconds(10));
+
+    @Test
+    void tick_shouldPingOnlyIdleConnectionsAndExpireDeadOnes() {
+        FakeConnection active = new FakeConnection(Instant.now());
+        FakeConnection idle = new FakeConnection(Instant.now().minusSeconds(5));
+        FakeConnection dead = new FakeConnection(Instant.now().minusSeconds(60));
+        scheduler.register("venue-1", "table-session", active);
+        scheduler.register("venue-1", "table-session", idle);
+        scheduler.register("venue-2", "user", dead);
+        assertEquals(2.0, gauge("venue-1", "table-session"));
+
+        for (int i = 0; i < 4; i++) {
+            active.lastActive = Instant.now();
+            scheduler.tick();
+        }
+
+        assertEquals(0, active.heartbeats);
+        assertEquals(1, idle.heartbeats);
+        assertTrue(dead.expired);
+        // Sin conexiones el gauge deja de existir
+        assertNull(meterRegistry.find("sse.connections").tag("venue", "venue-2").gauge());
+    }
+
+    @Test
+    void closedConnections_shouldLeaveTheWheelWithoutBeingTouched() {
+        FakeConnection connection = new FakeConnection(Instant.now().minusSeconds(60));
+        SseHeartbeatScheduler.Registration registration = scheduler.register(null, "user", connection);
+
+        registration.close();
+        registration.close();
+        for (int i = 0; i < 5; i++) {
+            scheduler.tick();
+        }
+
+        assertFalse(connection.expired);
+        assertNull(meterRegistry.find("sse.connections").tag("venue", "none").gauge());
+
+        // Una conexión nueva vuelve a registrarlo
+        scheduler.register(null, "user", new FakeConnection(Instant.now()));
+        assertEquals(1.0, gauge("none", "user"));
+    }
+
+    private double gauge(String venue, String type) {
+        return meterRegistry.get("sse.connections").tag("venue", venue).tag("type", type).gauge().value();
+    }
+
+    private static class FakeConnection implements SseHeartbeatScheduler.Connection {
+        private Instant lastActive;
+        private int heartbeats;
+        private boolean expired;
+
+        FakeConnection(Instant lastActive) {
+            this.lastActive = lastActive;
+        }
+
+        @Override
+        public Instant lastActive() {
+            return lastActive;
+        }
+
+        @Override
+        public void sendHeartbeat() {
+            heartbeats++;
+            lastActive = Instant.now();
+        }
+
+        @Override
+        public void expire() {
+            expired = true;
+        }
+    }
+}
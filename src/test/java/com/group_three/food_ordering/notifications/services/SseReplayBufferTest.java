@@ -0,0 +1,57 @@
+package com.group_three.food_ordering.notifications.services;
+
+import com.group_three.food_ordering.notifications.bus.SseBusMessage;
+import com.group_three.food_ordering.notifications.enums.SseChannel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseReplayBufferTest {
+
+    @Test
+    void since_shouldReturnOnlyMissedEvents() {
+        SseReplayBuffer buffer = new SseReplayBuffer(5);
+        for (long id = 10; id < 15; id++) {
+            buffer.append(event(id));
+        }
+
+        List<SseBusMessage> missed = buffer.since(12).orElseThrow();
+
+        assertEquals(List.of(13L, 14L), missed.stream().map(SseBusMessage::eventId).toList());
+        assertTrue(buffer.since(14).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void since_shouldReportGapWhenMissedEventsWereEvicted() {
+        SseReplayBuffer buffer = new SseReplayBuffer(3);
+        for (long id = 1; id <= 6; id++) {
+            buffer.append(event(id));
+        }
+
+        // Se descartaron 1..3: quien vio hasta el 3 no perdió nada, quien vio hasta el 2 sí
+        assertEquals(3, buffer.since(3).orElseThrow().size());
+        assertEquals(Optional.empty(), buffer.since(2));
+    }
+
+    @Test
+    void since_shouldAskForResyncWhenTheBufferDoesNotCoverTheClient() {
+        SseReplayBuffer buffer = new SseReplayBuffer(5);
+
+        // Nodo recién levantado o sesión sin eventos: no se sabe qué se perdió
+        assertEquals(Optional.empty(), buffer.since(40));
+
+        buffer.append(event(50));
+        buffer.append(event(57));
+
+        // El 45 pudo ser de esta sesión antes de que existiera el buffer; el 49 ya está cubierto
+        assertEquals(Optional.empty(), buffer.since(45));
+        assertEquals(List.of(50L, 57L), buffer.since(49).orElseThrow().stream().map(SseBusMessage::eventId).toList());
+    }
+
+    private SseBusMessage event(long id) {
+        return new SseBusMessage(id, SseChannel.TABLE_SESSION, "session-1", "new-order", "{}", null);
+    }
+}
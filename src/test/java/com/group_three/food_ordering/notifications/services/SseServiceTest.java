@@ -0,0 +1,144 @@
+package com.group_three.food_ordering.notifications.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group_three.food_ordering.context.TenantContext;
+import com.group_three.food_ordering.notifications.bus.InProcessSseEventBus;
+import com.group_three.food_ordering.notifications.enums.SseEventType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Cola por conexión: lo que se pisa llega una sola vez con el último valor y un cliente que no lee
+ * se desconecta al pasar el tope. El emitter de prueba se queda trabado en el primer envío para
+ * simular un teléfono lento.
+ */
+class SseServiceTest {
+
+    private static final String SESSION = "session-1";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BlockingEmitter emitter = new BlockingEmitter();
+    private SseService sseService;
+
+    @BeforeEach
+    void setUp() {
+        SseHeartbeatScheduler scheduler = new SseHeartbeatScheduler(
+                meterRegistry, Duration.ofSeconds(1), Duration.ofSeconds(30), Duration.ofMinutes(10));
+        sseService = new SseService(new ObjectMapper(), new InProcessSseEventBus(), scheduler, mock(TenantContext.class)) {
+            @Override
+            SseEmitter newEmitter() {
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(sseService, "replayCapacity", 100);
+        ReflectionTestUtils.setField(sseService, "replayTtl", Duration.ofMinutes(15));
+        sseService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        emitter.gate.countDown();
+        sseService.shutdown();
+    }
+
+    @Test
+    void pendingEventsWithTheSameKey_shouldBeDeliveredOnceWithTheLatestValue() throws Exception {
+        sseService.subscribe(SESSION);
+        sseService.sendEventToTableSession(SESSION, SseEventType.COUNT_UPDATED, 1);
+        assertTrue(emitter.writing.await(5, TimeUnit.SECONDS));
+
+        // Mientras el escritor está trabado en el 1, los conteos se pisan en la cola
+        sseService.sendEventToTableSession(SESSION, SseEventType.USER_JOINED, "ana");
+        sseService.sendEventToTableSession(SESSION, SseEventType.COUNT_UPDATED, 2);
+        sseService.sendEventToTableSession(SESSION, SseEventType.COUNT_UPDATED, 3);
+        emitter.gate.countDown();
+
+        emitter.awaitSent(3);
+        assertEquals(List.of("count-updated:1", "user-joined:\"ana\"", "count-updated:3"), emitter.sent);
+    }
+
+    @Test
+    void clientThatStopsReading_shouldBeDisconnectedWhenItsQueueOverflows() throws Exception {
+        sseService.subscribe(SESSION);
+        sseService.sendEventToTableSession(SESSION, SseEventType.USER_JOINED, "first");
+        assertTrue(emitter.writing.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, connections());
+
+        // 64 pendientes entran; el siguiente ya no
+        for (int i = 0; i < 64; i++) {
+            sseService.sendEventToTableSession(SESSION, SseEventType.USER_JOINED, "guest-" + i);
+        }
+        assertFalse(emitter.completed);
+        sseService.sendEventToTableSession(SESSION, SseEventType.USER_JOINED, "one-too-many");
+
+        assertTrue(emitter.completed);
+        assertEquals(0.0, connections());
+    }
+
+    private double connections() {
+        return meterRegistry.find("sse.connections").gauges().stream().mapToDouble(Gauge::value).sum();
+    }
+
+    /** Registra nombre y datos de cada evento; el primero después del de conexión espera al gate */
+    private static class BlockingEmitter extends SseEmitter {
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder raw = new StringBuilder();
+            builder.build().forEach(part -> raw.append(part.getData()));
+            String event = raw.toString();
+            if (event.contains("event:" + SseEventType.CONNECTION_SUCCESSFUL.getEventName())) {
+                return;
+            }
+            writing.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            sent.add(nameOf(event) + ":" + dataOf(event));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        void awaitSent(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sent.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+
+        private static String nameOf(String event) {
+            int start = event.indexOf("event:") + "event:".length();
+            return event.substring(start, event.indexOf('\n', start));
+        }
+
+        private static String dataOf(String event) {
+            int start = event.indexOf("data:") + "data:".length();
+            return event.substring(start, event.indexOf('\n', start));
+        }
+    }
+}
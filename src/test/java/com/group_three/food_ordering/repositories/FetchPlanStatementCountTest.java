@@ -0,0 +1,216 @@
+package com.group_three.food_ordering.repositories;
+
+import com.group_three.food_ordering.dto.projection.OrderDetailView;
+import com.group_three.food_ordering.dto.projection.OrderSummaryView;
+import com.group_three.food_ordering.dto.projection.PaymentSummaryView;
+import com.group_three.food_ordering.dto.response.OrderResponseDto;
+import com.group_three.food_ordering.enums.DiningTableStatus;
+import com.group_three.food_ordering.enums.OrderStatus;
+import com.group_three.food_ordering.enums.PaymentMethod;
+import com.group_three.food_ordering.enums.PaymentStatus;
+import com.group_three.food_ordering.enums.RoleType;
+import com.group_three.food_ordering.mappers.*;
+import com.group_three.food_ordering.models.*;
+import com.group_three.food_ordering.utils.KeysetCursor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cantidad de sentencias SQL de cada camino de lectura (cocina, vista de sesión, vista de pago).
+ * Si alguien vuelve a poner una relación en EAGER o saca un entity graph, estos números se disparan.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({OrderMapperImpl.class, OrderDetailMapperImpl.class, TableSessionMapperImpl.class, PaymentMapperImpl.class})
+class FetchPlanStatementCountTest {
+
+    private static final int ORDERS = 10;
+    private static final int DETAILS_PER_ORDER = 3;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TableSessionRepository tableSessionRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private TableSessionMapper tableSessionMapper;
+
+    @Autowired
+    private PaymentMapper paymentMapper;
+
+    private UUID venueId;
+    private UUID sessionId;
+    private UUID paymentId;
+
+    @BeforeEach
+    void setUp() {
+        FoodVenue venue = em.persist(FoodVenue.builder().name("Venue").email("venue@test.com").phone("123").build());
+        venueId = venue.getPublicId();
+
+        DiningTable table = em.persist(DiningTable.builder()
+                .number(1).capacity(4).status(DiningTableStatus.IN_SESSION).foodVenue(venue).build());
+        TableSession session = em.persist(TableSession.builder()
+                .startTime(Instant.now()).diningTable(table).foodVenue(venue).build());
+        sessionId = session.getPublicId();
+
+        List<Participant> participants = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            participants.add(em.persist(Participant.builder()
+                    .nickname("guest-" + i).role(RoleType.ROLE_GUEST).tableSession(session).build()));
+        }
+        session.setSessionHost(participants.get(0));
+        session.getParticipants().addAll(participants);
+
+        Category category = em.persist(Category.builder().name("Bebidas").foodVenue(venue).build());
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            products.add(em.persist(Product.builder()
+                    .name("product-" + i).price(BigDecimal.TEN).stock(100).available(true)
+                    .foodVenue(venue).category(category).build()));
+        }
+
+        Payment payment = em.persist(Payment.builder()
+                .amount(BigDecimal.TEN).status(PaymentStatus.PENDING).paymentMethod(PaymentMethod.CASH).build());
+        paymentId = payment.getPublicId();
+
+        for (int i = 0; i < ORDERS; i++) {
+            List<OrderDetail> details = new ArrayList<>();
+            for (int j = 0; j < DETAILS_PER_ORDER; j++) {
+                details.add(OrderDetail.builder()
+                        .product(products.get((i + j) % products.size()))
+                        .quantity(1).price(BigDecimal.TEN).build());
+            }
+            em.persist(Order.builder()
+                    .orderNumber(i + 1).status(OrderStatus.PENDING).totalPrice(BigDecimal.TEN)
+                    .orderDate(Instant.now()).foodVenue(venue).tableSession(session)
+                    .participant(participants.get(i % participants.size()))
+                    .payment(i < 2 ? payment : null)
+                    .orderDetails(details).build());
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void kitchenList_shouldNotLoadOneSessionGraphPerOrder() {
+        List<OrderResponseDto> orders = count(5, () -> orderRepository
+                .findByFoodVenue_PublicIdAndStatus(venueId, OrderStatus.PENDING, PageRequest.of(0, 20))
+                .map(orderMapper::toDto)
+                .getContent());
+
+        assertEquals(ORDERS, orders.size());
+        assertTrue(orders.stream().allMatch(order -> order.getOrderDetails().size() == DETAILS_PER_ORDER));
+    }
+
+    @Test
+    void kitchenProjection_shouldReadPageAndDetailsInTwoStatements() {
+        List<OrderDetailView> details = count(2, () -> {
+            List<Long> orderIds = orderRepository
+                    .findSummariesByFoodVenue(venueId, null, null, OrderStatus.PENDING, PageRequest.of(0, 20))
+                    .map(OrderSummaryView::id)
+                    .getContent();
+            assertEquals(ORDERS, orderIds.size());
+            return orderRepository.findDetailViewsByOrderIds(orderIds);
+        });
+
+        assertEquals(ORDERS * DETAILS_PER_ORDER, details.size());
+        assertTrue(details.stream().allMatch(detail -> "Bebidas".equals(detail.category())));
+    }
+
+    @Test
+    void orderListWithoutTotal_shouldSkipTheCountQuery() {
+        Slice<OrderSummaryView> page = count(1, () -> orderRepository
+                .findSummarySliceByFoodVenue(venueId, null, null, null, PageRequest.of(0, 4)));
+
+        assertEquals(4, page.getNumberOfElements());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    void orderHistory_shouldWalkEveryOrderOnceWithOneStatementPerPage() {
+        List<Long> seen = new ArrayList<>();
+        KeysetCursor after = null;
+        do {
+            KeysetCursor current = after;
+            List<OrderSummaryView> rows = count(1, () -> orderRepository.findSummariesByFoodVenueAfter(
+                    venueId, null, null, null,
+                    KeysetCursor.positionOf(current), KeysetCursor.idOf(current), PageRequest.of(0, 4)));
+            rows.forEach(row -> seen.add(row.id()));
+            after = rows.size() < 4 ? null : KeysetCursor.decode(
+                    new KeysetCursor(rows.get(3).orderDate(), rows.get(3).id()).encode());
+        } while (after != null);
+
+        assertEquals(ORDERS, seen.size());
+        assertEquals(ORDERS, seen.stream().distinct().count());
+    }
+
+    @Test
+    void sessionView_shouldLoadSessionWithParticipantsOnly() {
+        count(3, () -> tableSessionRepository.findByPublicId(sessionId)
+                .map(session -> tableSessionMapper.toDto(session, null))
+                .orElseThrow());
+    }
+
+    @Test
+    void paymentView_shouldNotLoadPaidOrders() {
+        count(1, () -> paymentRepository.findByPublicId(paymentId)
+                .map(paymentMapper::toDto)
+                .orElseThrow());
+    }
+
+    @Test
+    void paymentList_shouldNotLoadOrdersOfTheRange() {
+        Instant from = Instant.now().minusSeconds(3600);
+        Instant to = Instant.now().plusSeconds(3600);
+
+        List<PaymentSummaryView> byVenue = count(2, () -> paymentRepository
+                .findViewsByFoodVenueAndOrderDateBetween(venueId, null, from, to, PageRequest.of(0, 20))
+                .getContent());
+        List<PaymentSummaryView> bySession = count(2, () -> paymentRepository
+                .findViewsByTableSession(sessionId, PaymentStatus.PENDING, PageRequest.of(0, 20))
+                .getContent());
+
+        // El pago tiene dos órdenes: el semi-join no lo repite
+        assertEquals(List.of(paymentId), byVenue.stream().map(PaymentSummaryView::publicId).toList());
+        assertEquals(List.of(paymentId), bySession.stream().map(PaymentSummaryView::publicId).toList());
+    }
+
+    private <T> T count(long maxStatements, Supplier<T> readPath) {
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        T result = readPath.get();
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= maxStatements,
+                "Expected at most " + maxStatements + " SQL statements but got " + statements);
+        return result;
+    }
+}
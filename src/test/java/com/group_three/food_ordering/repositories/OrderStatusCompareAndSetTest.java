@@ -0,0 +1,70 @@
+package com.group_three.food_ordering.repositories;
+
+import com.group_three.food_ordering.enums.OrderStatus;
+import com.group_three.food_ordering.models.FoodVenue;
+import com.group_three.food_ordering.models.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class OrderStatusCompareAndSetTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private FoodVenue venue;
+
+    @BeforeEach
+    void setUp() {
+        venue = em.persist(FoodVenue.builder().name("Venue").email("venue@test.com").phone("123").build());
+    }
+
+    @Test
+    void compareAndSetStatus_shouldApplyOnlyOnceForTheSameVersion() {
+        Order order = persistOrder(1, OrderStatus.PENDING);
+
+        assertEquals(1, orderRepository.compareAndSetStatus(order.getId(), OrderStatus.PENDING, OrderStatus.APPROVED, 0));
+        // Segundo cliente con la misma versión leída: pierde la carrera
+        assertEquals(0, orderRepository.compareAndSetStatus(order.getId(), OrderStatus.PENDING, OrderStatus.CANCELLED, 0));
+
+        em.clear();
+        Order reloaded = em.find(Order.class, order.getId());
+        assertEquals(OrderStatus.APPROVED, reloaded.getStatus());
+        assertEquals(1, reloaded.getVersion());
+    }
+
+    @Test
+    void advanceStatus_shouldSkipOrdersThatAlreadyMoved() {
+        Order first = persistOrder(1, OrderStatus.PENDING);
+        Order second = persistOrder(2, OrderStatus.PENDING);
+        orderRepository.compareAndSetStatus(second.getId(), OrderStatus.PENDING, OrderStatus.CANCELLED, 0);
+
+        int advanced = orderRepository.advanceStatus(
+                List.of(first.getId(), second.getId()), OrderStatus.PENDING, OrderStatus.APPROVED);
+
+        assertEquals(1, advanced);
+        em.clear();
+        assertEquals(OrderStatus.APPROVED, em.find(Order.class, first.getId()).getStatus());
+        assertEquals(OrderStatus.CANCELLED, em.find(Order.class, second.getId()).getStatus());
+    }
+
+    private Order persistOrder(int number, OrderStatus status) {
+        Order order = em.persist(Order.builder()
+                .orderNumber(number).status(status).totalPrice(BigDecimal.TEN)
+                .orderDate(Instant.now()).foodVenue(venue).build());
+        em.flush();
+        return order;
+    }
+}
@@ -0,0 +1,107 @@
+package com.group_three.food_ordering.repositories;
+
+import com.group_three.food_ordering.models.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara el descuento de stock con UPDATE condicional contra el bloqueo pesimista anterior,
+ * con 200 pedidos concurrentes sobre el mismo producto. Se ejecuta con {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductStockContentionBenchmarkTest {
+
+    private static final int ORDERS = 200;
+    private static final int THREADS = 32;
+    private static final int INITIAL_STOCK = 150;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void conditionalUpdate_shouldNotOversellUnderContention() throws InterruptedException {
+        Long productId = createProduct();
+
+        run("conditional update", productId,
+                id -> productRepository.decrementStockIfAvailable(id, 1) == 1);
+    }
+
+    @Test
+    void pessimisticLock_baseline() throws InterruptedException {
+        Long productId = createProduct();
+
+        run("pessimistic lock", productId, id -> {
+            Product product = entityManager.find(Product.class, id, LockModeType.PESSIMISTIC_WRITE);
+            if (product.getStock() < 1) {
+                return false;
+            }
+            product.setStock(product.getStock() - 1);
+            product.setAvailable(product.getStock() > 0);
+            return true;
+        });
+    }
+
+    private void run(String label, Long productId, LongPredicate reserve) throws InterruptedException {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        for (int i = 0; i < ORDERS; i++) {
+            executor.submit(() -> {
+                boolean ok = Boolean.TRUE.equals(tx.execute(status -> reserve.test(productId)));
+                (ok ? reserved : rejected).incrementAndGet();
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        log.info("[ProductStockContentionBenchmark] {}: {} orders in {} s ({} orders/s), reserved={}, rejected={}",
+                label, ORDERS, String.format("%.3f", seconds), Math.round(ORDERS / seconds), reserved.get(), rejected.get());
+
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertEquals(INITIAL_STOCK, reserved.get());
+        assertEquals(ORDERS - INITIAL_STOCK, rejected.get());
+        assertEquals(0, product.getStock());
+        assertFalse(product.getAvailable());
+    }
+
+    private Long createProduct() {
+        return new TransactionTemplate(transactionManager).execute(status -> productRepository.save(
+                Product.builder()
+                        .name("Agua")
+                        .price(BigDecimal.ONE)
+                        .stock(INITIAL_STOCK)
+                        .available(true)
+                        .build()).getId());
+    }
+}
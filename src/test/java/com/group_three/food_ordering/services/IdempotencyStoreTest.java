@@ -0,0 +1,157 @@
+package com.group_three.food_ordering.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group_three.food_ordering.MySqlModeJpaTest;
+import com.group_three.food_ordering.context.TenantContext;
+import com.group_three.food_ordering.exceptions.IdempotencyKeyReusedException;
+import com.group_three.food_ordering.exceptions.InsufficientStockException;
+import com.group_three.food_ordering.repositories.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Las claves viven en la base: dos instancias del store sobre la misma base simulan dos nodos.
+ */
+@MySqlModeJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyStoreTest {
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final TenantContext tenantContext = mock(TenantContext.class);
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void execute_shouldRunConcurrentDuplicatesOnce() throws Exception {
+        IdempotencyStore nodeA = node(Duration.ofMinutes(1));
+        IdempotencyStore nodeB = node(Duration.ofMinutes(1));
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Los reintentos se reparten entre los dos nodos
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            IdempotencyStore store = i % 2 == 0 ? nodeA : nodeB;
+            results.add(executor.submit(() -> store.execute("order", "key-1", "body", String.class, () -> {
+                executions.incrementAndGet();
+                await(release);
+                return "created";
+            })));
+        }
+        // Los duplicados quedan esperando al primero mientras éste sigue en curso
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("created", result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_shouldFreeTheKeyWhenTheFirstAttemptFails() {
+        IdempotencyStore store = node(Duration.ofMinutes(1));
+        assertThrows(InsufficientStockException.class, () -> store.execute("order", "key-2", "body", String.class, () -> {
+            throw new InsufficientStockException("Sin stock");
+        }));
+
+        assertEquals("created", store.execute("order", "key-2", "body", String.class, () -> "created"));
+        assertEquals("created", store.execute("order", "key-2", "body", String.class, () -> "again"));
+    }
+
+    @Test
+    void execute_shouldRejectTheSameKeyWithAnotherBody() {
+        IdempotencyStore store = node(Duration.ofMinutes(1));
+        store.execute("payment", "key-3", "body", String.class, () -> "paid");
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> store.execute("payment", "key-3", "other body", String.class, () -> "paid twice"));
+        // Otra operación con la misma clave es independiente
+        assertEquals("created", store.execute("order", "key-3", "other body", String.class, () -> "created"));
+    }
+
+    @Test
+    void execute_shouldMatchBodiesWithTheSameContentInAnyOrder() {
+        IdempotencyStore store = node(Duration.ofMinutes(1));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("productId", 7);
+        body.put("quantity", 2);
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("quantity", 2);
+        reordered.put("productId", 7);
+
+        store.execute("order", "key-4", body, String.class, () -> "created");
+
+        assertEquals("created", store.execute("order", "key-4", reordered, String.class, () -> "again"));
+    }
+
+    @Test
+    void execute_shouldTakeOverAKeyWhoseOwnerStoppedResponding() throws Exception {
+        IdempotencyStore crashed = node(Duration.ZERO);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread firstAttempt = Thread.ofVirtual().start(() -> {
+            try {
+                crashed.execute("order", "key-5", "body", String.class, () -> {
+                    running.countDown();
+                    await(release);
+                    return "lost";
+                });
+            } catch (IllegalStateException expected) {
+                // Al volver ya no es dueño de la clave: su creación se revierte
+            }
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        // Con el lease vencido, el reintento ejecuta en lugar de esperar
+        IdempotencyStore retry = node(Duration.ZERO);
+        assertEquals("created", retry.execute("order", "key-5", "body", String.class, () -> "created"));
+
+        release.countDown();
+        firstAttempt.join();
+        assertEquals("created", retry.execute("order", "key-5", "body", String.class, () -> "again"));
+    }
+
+    private IdempotencyStore node(Duration lease) {
+        return new IdempotencyStore(tenantContext, repository, new ObjectMapper(), transactionManager,
+                new SimpleMeterRegistry(), Duration.ofMinutes(5), lease, Duration.ofSeconds(5));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
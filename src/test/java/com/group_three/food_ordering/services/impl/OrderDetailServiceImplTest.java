@@ -8,20 +8,22 @@ import com.group_three.food_ordering.models.Category;
 import com.group_three.food_ordering.models.OrderDetail;
 import com.group_three.food_ordering.models.Product;
 import com.group_three.food_ordering.repositories.OrderDetailRepository;
-import com.group_three.food_ordering.repositories.ProductRepository;
 import com.group_three.food_ordering.services.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,9 +38,6 @@ class OrderDetailServiceImplTest {
     @Mock
     private OrderDetailMapper orderDetailMapper;
 
-    @Mock
-    private ProductRepository productRepository;
-
     @Mock
     private ProductService productService;
 
@@ -87,7 +86,7 @@ class OrderDetailServiceImplTest {
         when(orderDetailMapper.toEntity(orderDetailRequestDto)).thenReturn(orderDetail);
         when(orderDetailRepository.save(orderDetail)).thenReturn(orderDetail);
         when(orderDetailMapper.toDto(orderDetail)).thenReturn(orderDetailResponseDto);
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productService.getEntityByNameAndContext(product.getName())).thenReturn(product);
 
         OrderDetailResponseDto response = orderDetailService.create(orderDetailRequestDto);
 
@@ -106,28 +105,28 @@ class OrderDetailServiceImplTest {
     void createInternal() {
         when(orderDetailMapper.toEntity(orderDetailRequestDto)).thenReturn(orderDetail);
         when(orderDetailRepository.save(orderDetail)).thenReturn(orderDetail);
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productService.getEntityByNameAndContext(product.getName())).thenReturn(product);
 
         OrderDetail response = orderDetailService.createInternal(orderDetailRequestDto);
 
         assertNotNull(response);
-        assertEquals(1L, response.getId());
         assertEquals(product, response.getProduct());
         assertEquals(3, response.getQuantity());
         assertEquals(BigDecimal.valueOf(30), response.getPrice());
         assertEquals("test instructions", response.getSpecialInstructions());
+        verify(productService).reserveStock(List.of(orderDetail));
         verify(orderDetailRepository).save(orderDetail);
     }
 
     @Test
     void createInternal_shouldThrowException_whenStockIsInsufficient() {
         // given
-        product.setStock(0); // stock insuficiente
-
         OrderDetailRequestDto dto = new OrderDetailRequestDto();
         dto.setProductName("Hamburguesa");
 
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productService.getEntityByNameAndContext("Hamburguesa")).thenReturn(product);
+        when(orderDetailMapper.toEntity(dto)).thenReturn(orderDetail);
+        doThrow(new InsufficientStockException()).when(productService).reserveStock(anyList()); // stock insuficiente
 
         // when + then
         assertThrows(InsufficientStockException.class,
@@ -156,8 +155,6 @@ class OrderDetailServiceImplTest {
         when(orderDetailRepository.findById(1L))
                 .thenReturn(Optional.of(orderDetail));
 
-        doNothing().when(productService).validateStock(eq(product), anyInt());
-
         when(orderDetailRepository.save(any(OrderDetail.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -167,8 +164,9 @@ class OrderDetailServiceImplTest {
         // when
         orderDetailService.updateQuantity(1L, 5);
 
-        // then
+        // then: sólo se reserva la diferencia
         assertEquals(5, orderDetail.getQuantity());
+        assertEquals(2, reservedLine().getQuantity());
         verify(orderDetailRepository).save(orderDetail);
     }
 
@@ -179,15 +177,15 @@ class OrderDetailServiceImplTest {
                 .thenReturn(Optional.of(orderDetail));
 
         doThrow(new InsufficientStockException())
-                .when(productService).validateStock(any(Product.class), anyInt());
+                .when(productService).reserveStock(anyList());
 
         assertThrows(InsufficientStockException.class, () -> orderDetailService.updateQuantity(1L, 5));
+        assertEquals(3, orderDetail.getQuantity());
     }
 
     @Test
     void updateQuantity_shouldIncreaseStock_whenQuantityDecreases() {
 
-        product.setStock(10);
         orderDetail.setQuantity(5);
 
         when(orderDetailRepository.findById(1L))
@@ -198,7 +196,11 @@ class OrderDetailServiceImplTest {
         orderDetailService.updateQuantity(1L, 3);
 
         assertEquals(3, orderDetail.getQuantity());
-        assertEquals(12, product.getStock());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderDetail>> released = ArgumentCaptor.forClass(List.class);
+        verify(productService).releaseStock(released.capture());
+        assertEquals(2, released.getValue().getFirst().getQuantity());
+        verify(productService, never()).reserveStock(anyList());
         verify(orderDetailRepository).save(orderDetail);
     }
 
@@ -226,4 +228,11 @@ class OrderDetailServiceImplTest {
 
         assertEquals(instructions, result.getSpecialInstructions());
     }
-}
\ No newline at end of file
+
+    private OrderDetail reservedLine() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderDetail>> reserved = ArgumentCaptor.forClass(List.class);
+        verify(productService).reserveStock(reserved.capture());
+        return reserved.getValue().getFirst();
+    }
+}
@@ -0,0 +1,204 @@
+package com.group_three.food_ordering.services.impl;
+
+import com.group_three.food_ordering.MySqlModeJpaTest;
+import com.group_three.food_ordering.cache.TenantSnapshotCache;
+import com.group_three.food_ordering.context.TenantContext;
+import com.group_three.food_ordering.dto.projection.TableSessionSnapshot;
+import com.group_three.food_ordering.dto.response.ParticipantShareDto;
+import com.group_three.food_ordering.dto.response.TableSessionSettlementResponseDto;
+import com.group_three.food_ordering.enums.DiningTableStatus;
+import com.group_three.food_ordering.enums.OrderStatus;
+import com.group_three.food_ordering.enums.PaymentMethod;
+import com.group_three.food_ordering.enums.PaymentStatus;
+import com.group_three.food_ordering.enums.RoleType;
+import com.group_three.food_ordering.enums.SplitMode;
+import com.group_three.food_ordering.events.OrderMetricsChangedEvent;
+import com.group_three.food_ordering.events.PaymentCompletedEvent;
+import com.group_three.food_ordering.models.*;
+import com.group_three.food_ordering.repositories.DataMigrationRepository;
+import com.group_three.food_ordering.repositories.SettlementBalanceRepository;
+import com.group_three.food_ordering.strategies.implementations.ByItemSplitPaymentStrategy;
+import com.group_three.food_ordering.strategies.implementations.CustomSplitPaymentStrategy;
+import com.group_three.food_ordering.strategies.implementations.EvenSplitPaymentStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Los saldos de la mesa se mueven con cada orden y cada pago, y el reparto lee de ahí.
+ */
+@MySqlModeJpaTest
+class SettlementServiceTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private SettlementBalanceRepository balanceRepository;
+
+    @Autowired
+    private DataMigrationRepository migrationRepository;
+
+    private final TenantContext tenantContext = mock(TenantContext.class);
+
+    private SettlementServiceImpl settlementService;
+    private FoodVenue venue;
+    private TableSession session;
+    private List<Participant> participants;
+
+    @BeforeEach
+    void setUp() {
+        settlementService = new SettlementServiceImpl(balanceRepository, migrationRepository,
+                mock(TenantSnapshotCache.class), tenantContext,
+                List.of(new EvenSplitPaymentStrategy(), new ByItemSplitPaymentStrategy(), new CustomSplitPaymentStrategy()));
+
+        venue = em.persist(FoodVenue.builder().name("Venue").email("venue@test.com").phone("123").build());
+        DiningTable table = em.persist(DiningTable.builder()
+                .number(1).capacity(4).status(DiningTableStatus.IN_SESSION).foodVenue(venue).build());
+        session = em.persist(TableSession.builder()
+                .startTime(Instant.now()).diningTable(table).foodVenue(venue).build());
+        participants = List.of(participant("ana"), participant("beto"), participant("caro"));
+        em.flush();
+
+        when(tenantContext.tableSessionSnapshotOpt()).thenReturn(Optional.of(
+                new TableSessionSnapshot(session.getId(), session.getPublicId(), venue.getPublicId(), null)));
+    }
+
+    @Test
+    void orderChanges_shouldMoveBilledBalances() {
+        Order first = order(participants.get(0), "10.00", null);
+        Order second = order(participants.get(1), "20.00", null);
+        settlementService.onOrderChanged(OrderMetricsChangedEvent.created(first));
+        settlementService.onOrderChanged(OrderMetricsChangedEvent.created(second));
+
+        // La segunda se cancela: deja de sumar a la cuenta
+        settlementService.onOrderChanged(OrderMetricsChangedEvent.statusChanged(
+                second, OrderStatus.PENDING, OrderStatus.CANCELLED));
+
+        TableSessionSettlementResponseDto settlement = settlementService.getCurrentSettlement(SplitMode.BY_ITEM, null);
+
+        assertEquals(0, new BigDecimal("10.00").compareTo(settlement.getBilledTotal()));
+        assertEquals(0, new BigDecimal("10.00").compareTo(shareOf(settlement, participants.get(0))));
+        assertEquals(0, BigDecimal.ZERO.compareTo(shareOf(settlement, participants.get(1))));
+        assertFalse(settlementService.isSettled(session.getId()));
+    }
+
+    @Test
+    void completedPayment_shouldSettleTheOrdersItCovers() {
+        Payment payment = em.persist(Payment.builder()
+                .amount(new BigDecimal("30.00")).status(PaymentStatus.COMPLETED).paymentMethod(PaymentMethod.CASH).build());
+        Order first = order(participants.get(0), "10.00", payment);
+        Order second = order(participants.get(1), "20.00", payment);
+        settlementService.onOrderChanged(OrderMetricsChangedEvent.created(first));
+        settlementService.onOrderChanged(OrderMetricsChangedEvent.created(second));
+        assertFalse(settlementService.isSettled(session.getId()));
+
+        settlementService.onPaymentCompleted(new PaymentCompletedEvent(
+                payment.getId(), venue.getId(), Instant.now(), payment.getAmount()));
+
+        assertTrue(settlementService.isSettled(session.getId()));
+        TableSessionSettlementResponseDto settlement = settlementService.getCurrentSettlement(SplitMode.EVEN, null);
+        assertTrue(settlement.isSettled());
+        assertEquals(0, new BigDecimal("20.00").compareTo(settlement.getParticipants().get(1).getPaid()));
+    }
+
+    @Test
+    void evenSplit_shouldGiveRemainderCentsToEarliestParticipants() {
+        settlementService.onOrderChanged(OrderMetricsChangedEvent.created(order(participants.get(0), "10.00", null)));
+
+        TableSessionSettlementResponseDto settlement = settlementService.getCurrentSettlement(SplitMode.EVEN, null);
+
+        assertEquals(List.of(new BigDecimal("3.34"), new BigDecimal("3.33"), new BigDecimal("3.33")),
+                settlement.getParticipants().stream().map(ParticipantShareDto::getShare).toList());
+        assertEquals(0, BigDecimal.ZERO.compareTo(settlement.getUnassigned()));
+    }
+
+    @Test
+    void customSplit_shouldRejectAmountsThatDoNotCoverTheBalance() {
+        settlementService.onOrderChanged(OrderMetricsChangedEvent.created(order(participants.get(0), "10.00", null)));
+        Map<UUID, BigDecimal> amounts = Map.of(participants.get(0).getPublicId(), new BigDecimal("5.00"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> settlementService.getCurrentSettlement(SplitMode.CUSTOM, amounts));
+    }
+
+    @Test
+    void backfill_shouldRunOnceAndOverwriteDeltasAlreadyApplied() {
+        ReflectionTestUtils.setField(settlementService, "backfillOnStartup", true);
+        Order first = order(participants.get(0), "10.00", null);
+        order(participants.get(1), "20.00", null);
+        // Un delta que llegó mientras arrancaba: la orden ya está en la base y el rebuild la vuelve a leer
+        settlementService.onOrderChanged(OrderMetricsChangedEvent.created(first));
+
+        settlementService.backfillOnce();
+        settlementService.backfillOnce();
+
+        assertEquals(0, new BigDecimal("30.00").compareTo(balanceRepository.findOutstanding(session.getId()).orElseThrow()));
+        assertTrue(migrationRepository.findById("settlement-balances-backfill").orElseThrow().isApplied());
+    }
+
+    @Test
+    void rebuild_shouldResetSessionsWhoseOrdersWereAllCancelled() {
+        Order order = order(participants.get(0), "10.00", null);
+        settlementService.onOrderChanged(OrderMetricsChangedEvent.created(order));
+        // Cancelada sin pasar por el evento: el saldo quedó viejo
+        order.setStatus(OrderStatus.CANCELLED);
+        em.flush();
+
+        settlementService.rebuild();
+
+        assertTrue(settlementService.isSettled(session.getId()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceRepository.findOutstanding(session.getId()).orElseThrow()));
+    }
+
+    @Test
+    void rebuild_shouldIgnoreDeletedPayments() {
+        Payment payment = em.persist(Payment.builder()
+                .amount(new BigDecimal("20.00")).status(PaymentStatus.COMPLETED).paymentMethod(PaymentMethod.CASH).build());
+        order(participants.get(0), "20.00", payment);
+        payment.setDeleted(true);
+        em.flush();
+
+        settlementService.rebuild();
+
+        assertEquals(0, new BigDecimal("20.00").compareTo(balanceRepository.findOutstanding(session.getId()).orElseThrow()));
+        assertFalse(settlementService.isSettled(session.getId()));
+    }
+
+    private Participant participant(String nickname) {
+        Participant participant = em.persist(Participant.builder()
+                .nickname(nickname).role(RoleType.ROLE_GUEST).tableSession(session).joinedAt(Instant.now()).build());
+        em.flush();
+        return participant;
+    }
+
+    private Order order(Participant participant, String total, Payment payment) {
+        Order order = em.persist(Order.builder()
+                .orderNumber(1).status(OrderStatus.PENDING).totalPrice(new BigDecimal(total))
+                .orderDate(Instant.now()).foodVenue(venue).tableSession(session)
+                .participant(participant).payment(payment).build());
+        em.flush();
+        return order;
+    }
+
+    private BigDecimal shareOf(TableSessionSettlementResponseDto settlement, Participant participant) {
+        return settlement.getParticipants().stream()
+                .filter(share -> share.getParticipantId().equals(participant.getPublicId()))
+                .map(ParticipantShareDto::getShare)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,78 @@
+package com.group_three.food_ordering.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.PessimisticLockingFailureException;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderNumberGeneratorTest {
+
+    @Mock
+    private OrderNumberBlockAllocator blockAllocator;
+
+    private OrderNumberGenerator generator;
+    private final UUID venueId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        generator = new OrderNumberGenerator(blockAllocator, "UTC", "00:00", 5);
+    }
+
+    @Test
+    void next_shouldHandOutBlockInMemory() {
+        when(blockAllocator.reserveBlock(eq(venueId), any(), any(), any(), eq(5))).thenReturn(1, 6);
+
+        for (int expected = 1; expected <= 7; expected++) {
+            assertEquals(expected, generator.next(venueId));
+        }
+        verify(blockAllocator, times(2)).reserveBlock(eq(venueId), any(), any(), any(), eq(5));
+    }
+
+    @Test
+    void next_shouldRetryBlockReservationOnLockConflicts() {
+        when(blockAllocator.reserveBlock(eq(venueId), any(), any(), any(), eq(5)))
+                .thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"))
+                .thenThrow(new PessimisticLockingFailureException("Deadlock found"))
+                .thenReturn(1);
+
+        assertEquals(1, generator.next(venueId));
+        verify(blockAllocator, times(3)).reserveBlock(eq(venueId), any(), any(), any(), eq(5));
+    }
+
+    @Test
+    void next_shouldNotRepeatNumbersUnderConcurrency() throws InterruptedException {
+        AtomicInteger dbSequence = new AtomicInteger(1);
+        when(blockAllocator.reserveBlock(eq(venueId), any(), any(), any(), anyInt()))
+                .thenAnswer(invocation -> dbSequence.getAndAdd(invocation.getArgument(4)));
+
+        Set<Integer> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 200; i++) {
+            executor.submit(() -> numbers.add(generator.next(venueId)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(200, numbers.size());
+        assertEquals(1, numbers.stream().min(Integer::compare).orElseThrow());
+        assertEquals(200, numbers.stream().max(Integer::compare).orElseThrow());
+    }
+}